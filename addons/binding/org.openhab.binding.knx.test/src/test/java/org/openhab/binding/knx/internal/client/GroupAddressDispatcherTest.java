@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.knx.client.BusStatistics;
+import org.openhab.binding.knx.handler.GroupAddressListener;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.IndividualAddress;
+
+/**
+ *
+ * @author agent - initial contribution
+ *
+ */
+public class GroupAddressDispatcherTest {
+
+    private static final GroupAddress GA1 = new GroupAddress(1, 2, 3);
+    private static final GroupAddress GA2 = new GroupAddress(1, 2, 4);
+    private static final GroupAddress GA3 = new GroupAddress(1, 2, 5);
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private BusStatistics statistics;
+    private GroupAddressDispatcher dispatcher;
+
+    @Before
+    public void setup() {
+        statistics = new BusStatistics();
+        dispatcher = new GroupAddressDispatcher(tasks::add, statistics);
+    }
+
+    @Test
+    public void testDispatch_onlyToListenersOfDestination() {
+        TestListener listener1 = new TestListener(GA1, GA2);
+        TestListener listener2 = new TestListener(GA2);
+        assertTrue(dispatcher.register(listener1));
+        assertTrue(dispatcher.register(listener2));
+
+        dispatch(GA1, 1);
+        dispatch(GA2, 2);
+        dispatch(GA3, 3);
+        runTasks();
+
+        assertEquals(Arrays.asList(1, 2), listener1.received);
+        assertEquals(Arrays.asList(2), listener2.received);
+    }
+
+    @Test
+    public void testDispatch_inOrderWithSingleTaskPerListener() {
+        TestListener listener = new TestListener(GA1, GA2);
+        dispatcher.register(listener);
+
+        for (int i = 0; i < 10; i++) {
+            dispatch(i % 2 == 0 ? GA1 : GA2, i);
+        }
+        assertEquals(1, tasks.size());
+        runTasks();
+
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), listener.received);
+
+        dispatch(GA1, 10);
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    public void testRegister_again_updatesGroupAddresses() {
+        TestListener listener = new TestListener(GA1);
+        dispatcher.register(listener);
+        listener.groupAddresses.clear();
+        listener.groupAddresses.add(GA2);
+        assertFalse(dispatcher.register(listener));
+
+        dispatch(GA1, 1);
+        dispatch(GA2, 2);
+        runTasks();
+
+        assertEquals(Arrays.asList(2), listener.received);
+    }
+
+    @Test
+    public void testUnregister() {
+        TestListener listener = new TestListener(GA1);
+        dispatcher.register(listener);
+        dispatch(GA1, 1);
+        assertTrue(dispatcher.unregister(listener));
+        assertFalse(dispatcher.unregister(listener));
+        dispatch(GA1, 2);
+        runTasks();
+
+        assertTrue(listener.received.isEmpty());
+    }
+
+    @Test
+    public void testStatistics() {
+        dispatcher.register(new TestListener(GA1));
+        dispatch(GA1, 1);
+        dispatch(GA3, 2);
+        runTasks();
+        statistics.nextPeriod();
+
+        assertEquals(2, statistics.getTotalTelegrams());
+        assertTrue(statistics.getTelegramsPerMinute() > 0);
+        assertTrue(statistics.getMaxDispatchMicros() >= statistics.getAverageDispatchMicros());
+    }
+
+    private void dispatch(GroupAddress destination, int value) {
+        dispatcher.dispatch(destination, listener -> listener.onGroupWrite(null, new IndividualAddress(0),
+                destination, new byte[] { (byte) value }));
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private static class TestListener implements GroupAddressListener {
+        private final Set<GroupAddress> groupAddresses;
+        private final List<Integer> received = new ArrayList<>();
+
+        private TestListener(GroupAddress... groupAddresses) {
+            this.groupAddresses = new HashSet<>(Arrays.asList(groupAddresses));
+        }
+
+        @Override
+        public boolean listensTo(GroupAddress destination) {
+            return groupAddresses.contains(destination);
+        }
+
+        @Override
+        public Set<GroupAddress> getGroupAddresses() {
+            return groupAddresses;
+        }
+
+        @Override
+        public void onGroupWrite(AbstractKNXClient client, IndividualAddress source, GroupAddress destination,
+                byte[] asdu) {
+            received.add((int) asdu[0]);
+        }
+
+        @Override
+        public void onGroupRead(AbstractKNXClient client, IndividualAddress source, GroupAddress destination,
+                byte[] asdu) {
+        }
+
+        @Override
+        public void onGroupReadResponse(AbstractKNXClient client, IndividualAddress source,
+                GroupAddress destination, byte[] asdu) {
+        }
+    }
+}
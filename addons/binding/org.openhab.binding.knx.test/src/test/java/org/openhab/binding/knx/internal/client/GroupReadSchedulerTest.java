@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.knx.client.BusStatistics;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.KNXTimeoutException;
+import tuwien.auto.calimero.datapoint.CommandDP;
+
+/**
+ *
+ * @author agent - initial contribution
+ *
+ */
+public class GroupReadSchedulerTest {
+
+    private static final GroupAddress GA1 = new GroupAddress(1, 2, 3);
+    private static final GroupAddress GA2 = new GroupAddress(1, 2, 4);
+    private static final GroupAddress GA3 = new GroupAddress(1, 2, 5);
+    private static final GroupAddress GA4 = new GroupAddress(1, 2, 6);
+
+    private final List<GroupAddress> sent = new ArrayList<>();
+    private KNXException failure;
+    private BusStatistics statistics;
+    private GroupReadScheduler scheduler;
+
+    @Before
+    public void setup() {
+        statistics = new BusStatistics();
+        scheduler = createScheduler(10);
+    }
+
+    @Test
+    public void testSchedule_sameGroupAddressOnlyOnce() {
+        assertTrue(scheduler.schedule(read(GA1, "thing1")));
+        assertFalse(scheduler.schedule(read(GA1, "thing2")));
+        scheduler.sendNext();
+        assertFalse(scheduler.schedule(read(GA1, "thing3")));
+
+        assertEquals(Arrays.asList(GA1), sent);
+        assertEquals(1, statistics.getPendingReads());
+    }
+
+    @Test
+    public void testSendNext_windowGrowsWithResponses() {
+        scheduleAll(GA1, GA2, GA3);
+
+        scheduler.sendNext();
+        scheduler.sendNext();
+        assertEquals(Arrays.asList(GA1), sent);
+
+        scheduler.responseReceived(GA1);
+        scheduler.sendNext();
+        scheduler.sendNext();
+        scheduler.sendNext();
+        assertEquals(Arrays.asList(GA1, GA2, GA3), sent);
+    }
+
+    @Test
+    public void testSendNext_readsPacedByResponses() {
+        final int count = 64;
+        for (int i = 0; i < count; i++) {
+            scheduler.schedule(read(new GroupAddress(2, 0, i), "thing"));
+        }
+
+        // responses to the reads of one reading pause arrive before the next one
+        int pauses = 0;
+        while (statistics.getCompletedReads() < count && pauses < count) {
+            scheduler.sendNext();
+            pauses++;
+            new ArrayList<>(sent).forEach(scheduler::responseReceived);
+        }
+
+        assertEquals(count, statistics.getCompletedReads());
+        assertEquals(count, sent.size());
+        assertTrue("reading took " + pauses + " pauses", pauses <= count / 8);
+    }
+
+    @Test
+    public void testSendNext_notConfirmed_backsOff() {
+        scheduleAll(GA1, GA2);
+        failure = new KNXTimeoutException("busy");
+        scheduler.sendNext();
+        failure = null;
+
+        // skips one pause, then retries after the other queued read
+        scheduler.sendNext();
+        scheduler.sendNext();
+        scheduler.responseReceived(GA2);
+        scheduler.sendNext();
+        assertEquals(Arrays.asList(GA1, GA2, GA1), sent);
+    }
+
+    @Test
+    public void testSendNext_noResponse_givesUpAfterLimit() {
+        scheduler = createScheduler(0);
+        scheduleAll(GA1);
+        for (int i = 0; i < 5; i++) {
+            scheduler.sendNext();
+        }
+
+        assertEquals(Arrays.asList(GA1, GA1, GA1), sent);
+        assertEquals(0, statistics.getPendingReads());
+        assertEquals(1, statistics.getFailedReads());
+    }
+
+    @Test
+    public void testSendNext_noResponse_shrinksWindow() {
+        scheduler = createScheduler(0);
+        scheduleAll(GA1, GA2, GA3, GA4);
+        scheduler.sendNext();
+        scheduler.responseReceived(GA1);
+        scheduler.sendNext();
+        assertEquals(Arrays.asList(GA1, GA2, GA3), sent);
+
+        // both reads expire, only one read is sent at a time again
+        scheduler.sendNext();
+        assertEquals(Arrays.asList(GA1, GA2, GA3, GA4), sent);
+    }
+
+    @Test
+    public void testSendNext_busyBus_limitsWindow() {
+        for (int i = 0; i < 100; i++) {
+            statistics.recordTelegram();
+        }
+        statistics.nextPeriod();
+        assertTrue(statistics.getTelegramsPerMinute() >= GroupReadScheduler.BUSY_TELEGRAMS_PER_MINUTE);
+        scheduleAll(GA1, GA2, GA3);
+
+        scheduler.sendNext();
+        scheduler.responseReceived(GA1);
+        scheduler.sendNext();
+        assertEquals(Arrays.asList(GA1, GA2), sent);
+    }
+
+    @Test
+    public void testSendNext_eachReadSentBySeparateTask() {
+        List<Runnable> tasks = new ArrayList<>();
+        scheduler = createScheduler(10, tasks::add);
+        scheduleAll(GA1, GA2, GA3);
+        scheduler.sendNext();
+        assertTrue(sent.isEmpty());
+        runTasks(tasks);
+        assertEquals(Arrays.asList(GA1), sent);
+        assertTrue(tasks.isEmpty());
+
+        scheduler.responseReceived(GA1);
+        scheduler.sendNext();
+        // no other send is started while one is submitted
+        scheduler.sendNext();
+        assertEquals(1, tasks.size());
+        runTasks(tasks);
+        assertEquals(Arrays.asList(GA1, GA2), sent);
+        runTasks(tasks);
+        assertEquals(Arrays.asList(GA1, GA2, GA3), sent);
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testResponseReceived_dropsQueuedReadWithoutCompleting() {
+        scheduleAll(GA1, GA2);
+        scheduler.responseReceived(GA2);
+        scheduler.sendNext();
+        scheduler.responseReceived(GA1);
+        scheduler.sendNext();
+
+        assertEquals(Arrays.asList(GA1), sent);
+        assertEquals(0, statistics.getPendingReads());
+        assertEquals(1, statistics.getCompletedReads());
+    }
+
+    @Test
+    public void testClear() {
+        scheduleAll(GA1, GA2);
+        scheduler.sendNext();
+        scheduler.clear();
+        scheduler.sendNext();
+
+        assertEquals(Arrays.asList(GA1), sent);
+        assertEquals(0, statistics.getPendingReads());
+        assertTrue(scheduler.schedule(read(GA1, "thing1")));
+    }
+
+    private GroupReadScheduler createScheduler(int responseTimeout) {
+        return createScheduler(responseTimeout, Runnable::run);
+    }
+
+    private GroupReadScheduler createScheduler(int responseTimeout, Executor executor) {
+        return new GroupReadScheduler(datapoint -> {
+            sent.add(datapoint.getMainAddress());
+            if (failure != null) {
+                throw failure;
+            }
+        }, statistics, executor, responseTimeout);
+    }
+
+    private static void runTasks(List<Runnable> tasks) {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    private void scheduleAll(GroupAddress... groupAddresses) {
+        for (GroupAddress groupAddress : groupAddresses) {
+            scheduler.schedule(read(groupAddress, "thing"));
+        }
+    }
+
+    private static ReadDatapoint read(GroupAddress groupAddress, String name) {
+        return new ReadDatapoint(new CommandDP(groupAddress, name, 0, "1.001"), 3);
+    }
+}
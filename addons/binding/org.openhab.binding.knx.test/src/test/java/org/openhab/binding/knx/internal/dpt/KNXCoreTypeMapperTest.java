@@ -8,11 +8,22 @@
  */
 package org.openhab.binding.knx.internal.dpt;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.IncreaseDecreaseType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.eclipse.smarthome.core.types.UnDefType;
 import org.junit.Test;
 
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
 /**
  *
  * @author Simon Kaufmann - initial contribution and API
@@ -26,4 +37,79 @@ public class KNXCoreTypeMapperTest {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
 
+    @Test
+    public void testToType_translatorReusedWithNewData() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        Datapoint datapoint = datapoint("1.001");
+        assertEquals(OnOffType.ON, mapper.toType(datapoint, new byte[] { 1 }));
+        assertEquals(OnOffType.OFF, mapper.toType(datapoint, new byte[] { 0 }));
+        assertEquals(OnOffType.ON, mapper.toType(datapoint, new byte[] { 1 }));
+    }
+
+    @Test
+    public void testToType_numeric() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals(new DecimalType(42), mapper.toType(datapoint("5.010"), new byte[] { 42 }));
+        assertEquals(new DecimalType(21), mapper.toType(datapoint("9.001"), new byte[] { 0x0C, 0x1A }));
+    }
+
+    @Test
+    public void testToType_binaryEncodings() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals(UpDownType.DOWN, mapper.toType(datapoint("1.008"), new byte[] { 1 }));
+        assertEquals(new PercentType(50), mapper.toType(datapoint("5.001"), new byte[] { (byte) 128 }));
+        assertEquals(new DecimalType(360), mapper.toType(datapoint("5.003"), new byte[] { (byte) 255 }));
+        assertEquals(new DecimalType(655350),
+                mapper.toType(datapoint("7.003"), new byte[] { (byte) 0xFF, (byte) 0xFF }));
+        assertEquals(new DecimalType(-30), mapper.toType(datapoint("9.001"), new byte[] { (byte) 0x8A, 0x24 }));
+        assertEquals(new DecimalType(4294967295L),
+                mapper.toType(datapoint("12.001"), new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF }));
+        assertEquals(new DecimalType(-1),
+                mapper.toType(datapoint("13.010"), new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF }));
+        assertEquals(new DecimalType(1.5f), mapper.toType(datapoint("14.019"), new byte[] { 0x3F, (byte) 0xC0, 0, 0 }));
+        assertEquals(new DecimalType(63), mapper.toType(datapoint("17.001"), new byte[] { (byte) 0xFF }));
+    }
+
+    @Test
+    public void testToType_dataTooShort() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertNull(mapper.toType(datapoint("9.001"), new byte[] { 0x0C }));
+        assertNull(mapper.toType(datapoint("13.001"), new byte[] { 0, 0, 0 }));
+    }
+
+    @Test
+    public void testToType_dimmingBreak() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals(UnDefType.UNDEF, mapper.toType(datapoint("3.007"), new byte[] { 0x08 }));
+        assertEquals(IncreaseDecreaseType.INCREASE, mapper.toType(datapoint("3.007"), new byte[] { 0x09 }));
+    }
+
+    @Test
+    public void testToType_sceneControlLearn() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals(new DecimalType(5), mapper.toType(datapoint("18.001"), new byte[] { 0x05 }));
+        assertEquals(new DecimalType(0x85), mapper.toType(datapoint("18.001"), new byte[] { (byte) 0x85 }));
+    }
+
+    @Test
+    public void testToType_string() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        byte[] data = new byte[14];
+        data[0] = 'K';
+        data[1] = 'N';
+        data[2] = 'X';
+        assertEquals(StringType.valueOf("KNX"), mapper.toType(datapoint("16.000"), data));
+    }
+
+    @Test
+    public void testToType_color() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals(HSBType.fromRGB(255, 128, 0),
+                mapper.toType(datapoint("232.600"), new byte[] { (byte) 255, (byte) 128, 0 }));
+    }
+
+    private static Datapoint datapoint(String dpt) {
+        return new CommandDP(new GroupAddress(1, 2, 3), "test", 0, dpt);
+    }
+
 }
@@ -80,6 +80,14 @@ public class KNXBindingConstants {
             CHANNEL_SWITCH_CONTROL //
     ).collect(toSet()));
 
+    // Bridge channels with the statistics of the bus
+    public static final String CHANNEL_TELEGRAMS_PER_MINUTE = "telegrams-per-minute";
+    public static final String CHANNEL_DISPATCH_LATENCY_AVERAGE = "dispatch-latency-average";
+    public static final String CHANNEL_DISPATCH_LATENCY_MAXIMUM = "dispatch-latency-maximum";
+    public static final String CHANNEL_READS_PENDING = "reads-pending";
+    public static final String CHANNEL_READS_COMPLETED = "reads-completed";
+    public static final String CHANNEL_READS_FAILED = "reads-failed";
+
     public static final String CHANNEL_RESET = "reset";
 
     // Channel Configuration parameters
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.knx.client;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Statistics of the telegrams received from the KNX bus and their dispatching to the group address listeners.
+ *
+ * The statistics are collected per period, which is ended by {@link #nextPeriod()}. The progress of the group reads
+ * is always up to date.
+ *
+ * @author agent - initial contribution
+ *
+ */
+@NonNullByDefault
+public class BusStatistics {
+
+    // all below guarded by this
+    private long totalTelegrams;
+    private long periodStartNanos = System.nanoTime();
+    private long periodTelegrams;
+    private long periodDispatches;
+    private long periodDispatchNanos;
+    private long periodMaxDispatchNanos;
+
+    private long telegramsPerMinute;
+    private long averageDispatchMicros;
+    private long maxDispatchMicros;
+
+    private int pendingReads;
+    private long completedReads;
+    private long failedReads;
+
+    /**
+     * Record a telegram received from the bus.
+     */
+    public synchronized void recordTelegram() {
+        totalTelegrams++;
+        periodTelegrams++;
+    }
+
+    /**
+     * Record the delivery of a telegram to a listener.
+     *
+     * @param receivedNanos the {@link System#nanoTime()} the telegram was received
+     */
+    public synchronized void recordDispatch(long receivedNanos) {
+        long latency = System.nanoTime() - receivedNanos;
+        periodDispatches++;
+        periodDispatchNanos += latency;
+        periodMaxDispatchNanos = Math.max(periodMaxDispatchNanos, latency);
+    }
+
+    /**
+     * Update the progress of the group reads.
+     *
+     * @param pending the number of group reads queued or waiting for a response
+     * @param completed the number of group reads answered since the client was created
+     * @param failed the number of group reads given up since the client was created
+     */
+    public synchronized void updateReads(int pending, long completed, long failed) {
+        pendingReads = pending;
+        completedReads = completed;
+        failedReads = failed;
+    }
+
+    /**
+     * End the current period, making its statistics available by the getters.
+     */
+    public synchronized void nextPeriod() {
+        long now = System.nanoTime();
+        long duration = Math.max(1, now - periodStartNanos);
+        telegramsPerMinute = Math.round(periodTelegrams * (double) TimeUnit.MINUTES.toNanos(1) / duration);
+        averageDispatchMicros = periodDispatches > 0 ? TimeUnit.NANOSECONDS.toMicros(periodDispatchNanos / periodDispatches)
+                : 0;
+        maxDispatchMicros = TimeUnit.NANOSECONDS.toMicros(periodMaxDispatchNanos);
+        periodStartNanos = now;
+        periodTelegrams = 0;
+        periodDispatches = 0;
+        periodDispatchNanos = 0;
+        periodMaxDispatchNanos = 0;
+    }
+
+    /**
+     * @return the number of telegrams received since the client was created
+     */
+    public synchronized long getTotalTelegrams() {
+        return totalTelegrams;
+    }
+
+    /**
+     * @return the rate of received telegrams in the last period, per minute
+     */
+    public synchronized long getTelegramsPerMinute() {
+        return telegramsPerMinute;
+    }
+
+    /**
+     * @return the average time from receiving a telegram until it was handled by a listener in the last period, in
+     *         microseconds
+     */
+    public synchronized long getAverageDispatchMicros() {
+        return averageDispatchMicros;
+    }
+
+    /**
+     * @return the maximum time from receiving a telegram until it was handled by a listener in the last period, in
+     *         microseconds
+     */
+    public synchronized long getMaxDispatchMicros() {
+        return maxDispatchMicros;
+    }
+
+    /**
+     * @return the number of group reads queued or waiting for a response
+     */
+    public synchronized int getPendingReads() {
+        return pendingReads;
+    }
+
+    /**
+     * @return the number of group reads answered since the client was created
+     */
+    public synchronized long getCompletedReads() {
+        return completedReads;
+    }
+
+    /**
+     * @return the number of group reads given up since the client was created
+     */
+    public synchronized long getFailedReads() {
+        return failedReads;
+    }
+}
@@ -57,7 +57,8 @@ public interface KNXClient {
     void restartNetworkDevice(@Nullable IndividualAddress address);
 
     /**
-     * Register the given listener to be informed on KNX bus traffic.
+     * Register the given listener to be informed on KNX bus traffic to the group addresses it listens to.
+     * Registering a listener again updates the group addresses it is informed about.
      *
      * @param listener the listener
      * @return {@code true} if it wasn't registered before
@@ -72,6 +73,13 @@ public interface KNXClient {
      */
     boolean unregisterGroupAddressListener(GroupAddressListener listener);
 
+    /**
+     * Get the statistics of the KNX bus traffic received by this client.
+     *
+     * @return the statistics
+     */
+    BusStatistics getBusStatistics();
+
     /**
      * Schedule the given data point for asynchronous reading.
      *
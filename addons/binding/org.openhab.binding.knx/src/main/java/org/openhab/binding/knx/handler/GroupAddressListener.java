@@ -8,6 +8,8 @@
  */
 package org.openhab.binding.knx.handler;
 
+import java.util.Set;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.knx.internal.client.BusMessageListener;
 
@@ -30,4 +32,10 @@ public interface GroupAddressListener extends BusMessageListener {
      */
     public boolean listensTo(GroupAddress destination);
 
+    /**
+     * Get the GroupAddresses the GroupAddressListener has an interest in, which are determined when it registers
+     * with the client
+     */
+    public Set<GroupAddress> getGroupAddresses();
+
 }
@@ -8,13 +8,19 @@
  */
 package org.openhab.binding.knx.handler;
 
+import static org.openhab.binding.knx.KNXBindingConstants.*;
+
+import java.math.BigDecimal;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.ThingStatus;
@@ -22,6 +28,7 @@ import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.State;
+import org.openhab.binding.knx.client.BusStatistics;
 import org.openhab.binding.knx.client.KNXClient;
 import org.openhab.binding.knx.client.StatusUpdateCallback;
 
@@ -40,6 +47,9 @@ public abstract class KNXBridgeBaseThingHandler extends BaseBridgeHandler implem
     protected ConcurrentHashMap<IndividualAddress, Destination> destinations = new ConcurrentHashMap<>();
     private final ScheduledExecutorService knxScheduler = ThreadPoolManager.getScheduledPool("knx");
     private final ScheduledExecutorService backgroundScheduler = Executors.newSingleThreadScheduledExecutor();
+    private @Nullable ScheduledFuture<?> statisticsJob;
+
+    private static final int STATISTICS_PERIOD = 60;
 
     public KNXBridgeBaseThingHandler(Bridge bridge) {
         super(bridge);
@@ -68,11 +78,46 @@ public abstract class KNXBridgeBaseThingHandler extends BaseBridgeHandler implem
     @Override
     public void updateStatus(ThingStatus status) {
         super.updateStatus(status);
+        updateStatisticsJob(status);
     }
 
     @Override
     public void updateStatus(ThingStatus status, ThingStatusDetail statusDetail, @Nullable String description) {
         super.updateStatus(status, statusDetail, description);
+        updateStatisticsJob(status);
+    }
+
+    private synchronized void updateStatisticsJob(ThingStatus status) {
+        ScheduledFuture<?> statisticsJob = this.statisticsJob;
+        if (status == ThingStatus.ONLINE) {
+            if (statisticsJob == null || statisticsJob.isDone()) {
+                getClient().getBusStatistics().nextPeriod();
+                this.statisticsJob = knxScheduler.scheduleWithFixedDelay(() -> publishStatistics(), STATISTICS_PERIOD,
+                        STATISTICS_PERIOD, TimeUnit.SECONDS);
+            }
+        } else if (statisticsJob != null) {
+            statisticsJob.cancel(false);
+            this.statisticsJob = null;
+        }
+    }
+
+    /**
+     * Publish the bus load and the dispatch latency of the last period and the progress of the group reads on the
+     * statistics channels of the bridge
+     */
+    private void publishStatistics() {
+        BusStatistics statistics = getClient().getBusStatistics();
+        statistics.nextPeriod();
+        updateState(CHANNEL_TELEGRAMS_PER_MINUTE, new DecimalType(statistics.getTelegramsPerMinute()));
+        updateState(CHANNEL_DISPATCH_LATENCY_AVERAGE, toMillis(statistics.getAverageDispatchMicros()));
+        updateState(CHANNEL_DISPATCH_LATENCY_MAXIMUM, toMillis(statistics.getMaxDispatchMicros()));
+        updateState(CHANNEL_READS_PENDING, new DecimalType(statistics.getPendingReads()));
+        updateState(CHANNEL_READS_COMPLETED, new DecimalType(statistics.getCompletedReads()));
+        updateState(CHANNEL_READS_FAILED, new DecimalType(statistics.getFailedReads()));
+    }
+
+    private static DecimalType toMillis(long micros) {
+        return new DecimalType(BigDecimal.valueOf(micros, 3));
     }
 
 }
@@ -8,9 +8,6 @@
  */
 package org.openhab.binding.knx.internal.client;
 
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -23,6 +20,7 @@ import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.core.types.Type;
 import org.openhab.binding.knx.KNXTypeMapper;
+import org.openhab.binding.knx.client.BusStatistics;
 import org.openhab.binding.knx.client.DeviceInfoClient;
 import org.openhab.binding.knx.client.KNXClient;
 import org.openhab.binding.knx.client.OutboundSpec;
@@ -33,14 +31,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import tuwien.auto.calimero.CloseEvent;
+import tuwien.auto.calimero.DataUnitBuilder;
 import tuwien.auto.calimero.DetachEvent;
 import tuwien.auto.calimero.FrameEvent;
 import tuwien.auto.calimero.GroupAddress;
 import tuwien.auto.calimero.IndividualAddress;
 import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.Priority;
 import tuwien.auto.calimero.datapoint.CommandDP;
 import tuwien.auto.calimero.datapoint.Datapoint;
 import tuwien.auto.calimero.device.ProcessCommunicationResponder;
+import tuwien.auto.calimero.link.KNXLinkClosedException;
 import tuwien.auto.calimero.link.KNXNetworkLink;
 import tuwien.auto.calimero.link.NetworkLinkListener;
 import tuwien.auto.calimero.mgmt.Destination;
@@ -64,6 +65,7 @@ import tuwien.auto.calimero.process.ProcessListener;
 public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClient {
 
     private static final int MAX_SEND_ATTEMPTS = 2;
+    private static final int GROUP_READ = 0x00;
 
     private final Logger logger = LoggerFactory.getLogger(AbstractKNXClient.class);
     private final KNXTypeMapper typeHelper = new KNXCoreTypeMapper();
@@ -85,8 +87,9 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> busJob;
     private @Nullable ScheduledFuture<?> connectJob;
 
-    private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
-    private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
+    private final BusStatistics busStatistics = new BusStatistics();
+    private final GroupAddressDispatcher dispatcher;
+    private final GroupReadScheduler readScheduler;
 
     @FunctionalInterface
     private interface ListenerNotification {
@@ -117,6 +120,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
         @Override
         public void groupReadResponse(ProcessEvent e) {
+            readScheduler.responseReceived(e.getDestination());
             processEvent("Group Read Response", e, (listener, source, destination, asdu) -> {
                 listener.onGroupReadResponse(AbstractKNXClient.this, source, destination, asdu);
             });
@@ -132,6 +136,9 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         this.readRetriesLimit = readRetriesLimit;
         this.knxScheduler = knxScheduler;
         this.statusUpdateCallback = statusUpdateCallback;
+        this.dispatcher = new GroupAddressDispatcher(knxScheduler, busStatistics);
+        this.readScheduler = new GroupReadScheduler(this::sendReadRequest, busStatistics, knxScheduler,
+                responseTimeout);
     }
 
     public void initialize() {
@@ -221,7 +228,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     private void releaseConnection() {
         logger.debug("Bridge {} is disconnecting from the KNX bus", thingUID);
-        readDatapoints.clear();
+        readScheduler.clear();
         busJob = nullify(busJob, j -> j.cancel(true));
         deviceInfoClient = null;
         managementProcedures = nullify(managementProcedures, mp -> mp.detach());
@@ -249,11 +256,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
-        for (GroupAddressListener listener : groupAddressListeners) {
-            if (listener.listensTo(destination)) {
-                knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
-            }
-        }
+        dispatcher.dispatch(destination, listener -> action.apply(listener, source, destination, asdu));
     }
 
     /**
@@ -272,30 +275,20 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         if (!connectIfNotAutomatic()) {
             return;
         }
-        ProcessCommunicator processCommunicator = this.processCommunicator;
-        if (processCommunicator == null) {
-            return;
-        }
-        ReadDatapoint datapoint = readDatapoints.poll();
-        if (datapoint != null) {
-            datapoint.incrementRetries();
-            try {
-                logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
-                processCommunicator.read(datapoint.getDatapoint());
-            } catch (KNXException e) {
-                if (datapoint.getRetries() < datapoint.getLimit()) {
-                    readDatapoints.add(datapoint);
-                    logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
-                            datapoint.getDatapoint().getMainAddress(), e.getMessage());
-                } else {
-                    logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
-                            datapoint.getDatapoint().getMainAddress(), datapoint.getLimit());
-                }
-            } catch (InterruptedException e) {
-                logger.debug("Interrupted sending KNX read request");
-                return;
-            }
+        readScheduler.sendNext();
+    }
+
+    /**
+     * Send a group read request, only waiting for the confirmation of the bus. The response is received by the
+     * process listener.
+     */
+    private void sendReadRequest(Datapoint datapoint) throws KNXException, InterruptedException {
+        KNXNetworkLink link = this.link;
+        if (link == null || processCommunicator == null) {
+            throw new KNXLinkClosedException("not connected");
         }
+        link.sendRequestWait(datapoint.getMainAddress(), Priority.LOW,
+                DataUnitBuilder.createLengthOptimizedAPDU(GROUP_READ, null));
     }
 
     public void dispose() {
@@ -363,22 +356,22 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     @Override
     public void readDatapoint(Datapoint datapoint) {
-        synchronized (this) {
-            ReadDatapoint retryDatapoint = new ReadDatapoint(datapoint, readRetriesLimit);
-            if (!readDatapoints.contains(retryDatapoint)) {
-                readDatapoints.add(retryDatapoint);
-            }
-        }
+        readScheduler.schedule(new ReadDatapoint(datapoint, readRetriesLimit));
     }
 
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        return dispatcher.register(listener);
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        return dispatcher.unregister(listener);
+    }
+
+    @Override
+    public BusStatistics getBusStatistics() {
+        return busStatistics;
     }
 
     @Override
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.knx.client.BusStatistics;
+import org.openhab.binding.knx.handler.GroupAddressListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Dispatches the telegrams received from the KNX bus to the {@link GroupAddressListener}s.
+ *
+ * The listeners are indexed by the group addresses they listen to, so a telegram only costs a lookup instead of
+ * asking every listener. Each listener has its own queue of telegrams, which is processed by a single task at a time,
+ * so the telegrams are handled in the order they were received without creating a task per telegram.
+ *
+ * @author agent - initial contribution
+ *
+ */
+@NonNullByDefault
+class GroupAddressDispatcher {
+
+    private final Logger logger = LoggerFactory.getLogger(GroupAddressDispatcher.class);
+
+    private final Executor executor;
+    private final BusStatistics statistics;
+
+    private final Map<GroupAddressListener, ListenerQueue> listeners = new ConcurrentHashMap<>();
+    private final Map<GroupAddress, Set<ListenerQueue>> index = new ConcurrentHashMap<>();
+
+    private class ListenerQueue {
+        private final GroupAddressListener listener;
+        // guarded by the dispatcher
+        private Set<GroupAddress> groupAddresses = Collections.emptySet();
+        private final Queue<Runnable> telegrams = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private ListenerQueue(GroupAddressListener listener) {
+            this.listener = listener;
+        }
+
+        private void add(Runnable telegram) {
+            telegrams.add(telegram);
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::process);
+            }
+        }
+
+        private void process() {
+            do {
+                Runnable telegram;
+                while ((telegram = telegrams.poll()) != null) {
+                    try {
+                        telegram.run();
+                    } catch (RuntimeException e) {
+                        logger.warn("Listener {} failed to process a telegram: {}", listener, e.getMessage(), e);
+                    }
+                }
+                scheduled.set(false);
+                // a telegram might have been added after the queue was found empty
+            } while (!telegrams.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+    }
+
+    GroupAddressDispatcher(Executor executor, BusStatistics statistics) {
+        this.executor = executor;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Register the listener for the group addresses it currently listens to, replacing an earlier registration.
+     *
+     * @param listener the listener
+     * @return {@code true} if it wasn't registered before
+     */
+    synchronized boolean register(GroupAddressListener listener) {
+        ListenerQueue queue = listeners.get(listener);
+        boolean added = queue == null;
+        if (queue == null) {
+            queue = new ListenerQueue(listener);
+            listeners.put(listener, queue);
+        } else {
+            removeFromIndex(queue);
+        }
+        queue.groupAddresses = new HashSet<>(listener.getGroupAddresses());
+        for (GroupAddress groupAddress : queue.groupAddresses) {
+            index.computeIfAbsent(groupAddress, ga -> new CopyOnWriteArraySet<>()).add(queue);
+        }
+        return added;
+    }
+
+    /**
+     * Remove the listener, pending telegrams are not delivered anymore.
+     *
+     * @param listener the listener
+     * @return {@code true} if it was registered
+     */
+    synchronized boolean unregister(GroupAddressListener listener) {
+        ListenerQueue queue = listeners.remove(listener);
+        if (queue == null) {
+            return false;
+        }
+        removeFromIndex(queue);
+        queue.telegrams.clear();
+        return true;
+    }
+
+    /**
+     * Queue the telegram for all listeners of the destination.
+     *
+     * @param destination the destination of the telegram
+     * @param notification delivers the telegram to a listener
+     */
+    void dispatch(GroupAddress destination, Notification notification) {
+        long receivedNanos = System.nanoTime();
+        statistics.recordTelegram();
+        Set<ListenerQueue> queues = index.get(destination);
+        if (queues == null) {
+            return;
+        }
+        for (ListenerQueue queue : queues) {
+            queue.add(() -> {
+                notification.apply(queue.listener);
+                statistics.recordDispatch(receivedNanos);
+            });
+        }
+    }
+
+    private void removeFromIndex(ListenerQueue queue) {
+        for (GroupAddress groupAddress : queue.groupAddresses) {
+            index.computeIfPresent(groupAddress, (ga, queues) -> {
+                queues.remove(queue);
+                return queues.isEmpty() ? null : queues;
+            });
+        }
+    }
+
+    @FunctionalInterface
+    interface Notification {
+        void apply(GroupAddressListener listener);
+    }
+}
@@ -0,0 +1,312 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.knx.client.BusStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.KNXTimeoutException;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
+/**
+ * Sends the queued group read requests to the KNX bus on every call of {@link #sendNext()}.
+ *
+ * The read requests are sent without waiting for the responses, so a group address which doesn't respond doesn't hold
+ * up the others. Each call sends as many requests as the window of outstanding requests allows, one after the other
+ * as the bus confirms them. Each request is sent by a separate task of the executor, so waiting for the confirmations
+ * doesn't hold a thread for the whole window. The window grows with every response to a read sent by this scheduler,
+ * so the read rate follows the responses rather than the calls. It is halved when the bus doesn't acknowledge a
+ * request, or when reads expire without response. In the former case, sending is also paused for an increasing number
+ * of calls. The window is further limited by the telegram rate observed on the bus, leaving room for the other
+ * traffic on a busy bus.
+ *
+ * Reads of a group address which is already queued or outstanding are dropped, no matter which Thing requested them.
+ * A response to a group address which is only queued makes the read obsolete, without counting it as completed.
+ *
+ * @author agent - initial contribution
+ *
+ */
+@NonNullByDefault
+class GroupReadScheduler {
+
+    static final int MAX_OUTSTANDING_READS = 16;
+    static final int MAX_BACKOFF_PAUSES = 64;
+    // observed bus load, in telegrams per minute, at which only a single read is outstanding at a time
+    static final long BUSY_TELEGRAMS_PER_MINUTE = 1800;
+
+    private final Logger logger = LoggerFactory.getLogger(GroupReadScheduler.class);
+
+    private final GroupReader reader;
+    private final BusStatistics statistics;
+    private final Executor executor;
+    private final long responseTimeoutNanos;
+
+    // all below guarded by this
+    private final Map<GroupAddress, ReadDatapoint> queued = new LinkedHashMap<>();
+    private final Map<GroupAddress, OutstandingRead> outstanding = new HashMap<>();
+    private int window = 1;
+    private int backoff;
+    private int pausesToSkip;
+    private boolean sending;
+    private long completed;
+    private long failed;
+    private long batchStartNanos;
+
+    private static class OutstandingRead {
+        private final ReadDatapoint datapoint;
+        private final long sentNanos;
+
+        private OutstandingRead(ReadDatapoint datapoint, long sentNanos) {
+            this.datapoint = datapoint;
+            this.sentNanos = sentNanos;
+        }
+    }
+
+    /**
+     * @param reader sends a read request to the bus
+     * @param statistics the statistics to report the progress to, and to take the bus load from
+     * @param executor the executor sending the read requests
+     * @param responseTimeout the time to wait for a response in seconds
+     */
+    GroupReadScheduler(GroupReader reader, BusStatistics statistics, Executor executor, int responseTimeout) {
+        this.reader = reader;
+        this.statistics = statistics;
+        this.executor = executor;
+        this.responseTimeoutNanos = TimeUnit.SECONDS.toNanos(responseTimeout);
+    }
+
+    /**
+     * Drop all queued and outstanding read requests.
+     */
+    synchronized void clear() {
+        queued.clear();
+        outstanding.clear();
+        window = 1;
+        backoff = 0;
+        pausesToSkip = 0;
+        batchStartNanos = 0;
+        updateStatistics();
+    }
+
+    /**
+     * Queue a read request, unless the group address is already going to be read.
+     *
+     * @param datapoint the datapoint to read
+     * @return {@code true} if the read request was queued
+     */
+    synchronized boolean schedule(ReadDatapoint datapoint) {
+        GroupAddress groupAddress = datapoint.getDatapoint().getMainAddress();
+        if (queued.containsKey(groupAddress) || outstanding.containsKey(groupAddress)) {
+            return false;
+        }
+        if (queued.isEmpty() && outstanding.isEmpty()) {
+            batchStartNanos = System.nanoTime();
+        }
+        queued.put(groupAddress, datapoint);
+        updateStatistics();
+        return true;
+    }
+
+    /**
+     * Record a read response received from the bus, completing a read request of the group address.
+     *
+     * @param groupAddress the group address of the response
+     */
+    synchronized void responseReceived(GroupAddress groupAddress) {
+        if (outstanding.remove(groupAddress) != null) {
+            completed++;
+            if (window < MAX_OUTSTANDING_READS) {
+                window++;
+            }
+        } else if (queued.remove(groupAddress) == null) {
+            return;
+        }
+        // a response to a read of someone else makes a queued read obsolete, without telling anything about the
+        // reads of this scheduler
+        updateStatistics();
+    }
+
+    /**
+     * Expire the outstanding reads without response and send the queued read requests, as many as the window allows.
+     * To be called once per reading pause.
+     */
+    void sendNext() {
+        synchronized (this) {
+            expireOutstanding(System.nanoTime());
+            if (pausesToSkip > 0) {
+                pausesToSkip--;
+                return;
+            }
+            if (sending || !canSend()) {
+                return;
+            }
+            sending = true;
+        }
+        submitSend();
+    }
+
+    private void submitSend() {
+        try {
+            executor.execute(this::send);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Could not send KNX read request: {}", e.getMessage());
+            synchronized (this) {
+                sending = false;
+            }
+        }
+    }
+
+    /*
+     * Send a queued read request, and submit the next one if the window still allows.
+     */
+    private void send() {
+        boolean next = sendQueued();
+        synchronized (this) {
+            // the window might have grown with responses meanwhile
+            next = next && canSend();
+            sending = next;
+        }
+        if (next) {
+            submitSend();
+        }
+    }
+
+    private boolean canSend() {
+        return outstanding.size() < Math.min(window, getBusLoadLimit()) && !queued.isEmpty();
+    }
+
+    /*
+     * The number of outstanding reads the observed bus load allows
+     */
+    private int getBusLoadLimit() {
+        long telegramsPerMinute = statistics.getTelegramsPerMinute();
+        if (telegramsPerMinute >= BUSY_TELEGRAMS_PER_MINUTE) {
+            return 1;
+        }
+        return (int) Math.max(1,
+                MAX_OUTSTANDING_READS * (BUSY_TELEGRAMS_PER_MINUTE - telegramsPerMinute) / BUSY_TELEGRAMS_PER_MINUTE);
+    }
+
+    /*
+     * Send the next queued read request, if the window allows.
+     * Returns whether the request was confirmed by the bus and the next one may be sent.
+     */
+    private boolean sendQueued() {
+        ReadDatapoint datapoint;
+        GroupAddress groupAddress;
+        synchronized (this) {
+            if (!canSend()) {
+                return false;
+            }
+            Iterator<ReadDatapoint> iterator = queued.values().iterator();
+            datapoint = iterator.next();
+            iterator.remove();
+            groupAddress = datapoint.getDatapoint().getMainAddress();
+            // outstanding before sending, as the response might arrive before the request is confirmed
+            datapoint.incrementRetries();
+            outstanding.put(groupAddress, new OutstandingRead(datapoint, System.nanoTime()));
+        }
+        try {
+            logger.trace("Sending a Group Read Request telegram for {}", groupAddress);
+            reader.read(datapoint.getDatapoint());
+        } catch (KNXTimeoutException e) {
+            synchronized (this) {
+                if (outstanding.remove(groupAddress) != null) {
+                    window = Math.max(1, window / 2);
+                    backoff = Math.min(Math.max(1, backoff * 2), MAX_BACKOFF_PAUSES);
+                    pausesToSkip = backoff;
+                    logger.debug("The KNX bus did not confirm the read request for {}, skipping {} reading pauses.",
+                            groupAddress, backoff);
+                    retryOrGiveUp(datapoint);
+                }
+            }
+            return false;
+        } catch (KNXException e) {
+            synchronized (this) {
+                if (outstanding.remove(groupAddress) != null) {
+                    logger.debug("Could not read value for datapoint {}: {}", groupAddress, e.getMessage());
+                    retryOrGiveUp(datapoint);
+                }
+            }
+            return false;
+        } catch (InterruptedException e) {
+            logger.debug("Interrupted sending KNX read request");
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        synchronized (this) {
+            backoff = 0;
+        }
+        return true;
+    }
+
+    private void expireOutstanding(long now) {
+        boolean expired = false;
+        Iterator<OutstandingRead> iterator = outstanding.values().iterator();
+        while (iterator.hasNext()) {
+            OutstandingRead read = iterator.next();
+            if (now - read.sentNanos >= responseTimeoutNanos) {
+                iterator.remove();
+                expired = true;
+                logger.debug("No response to the read request for {}", read.datapoint.getDatapoint().getMainAddress());
+                retryOrGiveUp(read.datapoint);
+            }
+        }
+        if (expired) {
+            // the devices or the bus can't keep up, once per call as the reads were sent together
+            window = Math.max(1, window / 2);
+        }
+    }
+
+    private void retryOrGiveUp(ReadDatapoint datapoint) {
+        GroupAddress groupAddress = datapoint.getDatapoint().getMainAddress();
+        if (datapoint.getRetries() < datapoint.getLimit()) {
+            queued.putIfAbsent(groupAddress, datapoint);
+        } else {
+            logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
+                    groupAddress, datapoint.getLimit());
+            failed++;
+        }
+        updateStatistics();
+    }
+
+    private void updateStatistics() {
+        int pending = queued.size() + outstanding.size();
+        statistics.updateReads(pending, completed, failed);
+        if (pending == 0 && batchStartNanos != 0) {
+            logger.debug("Finished reading datapoints in {} ms, {} read and {} failed so far", TimeUnit.NANOSECONDS
+                    .toMillis(System.nanoTime() - batchStartNanos), completed, failed);
+            batchStartNanos = 0;
+        }
+    }
+
+    /**
+     * Sends a group read request to the bus without waiting for the response.
+     */
+    @FunctionalInterface
+    interface GroupReader {
+        /**
+         * @param datapoint the datapoint to read
+         * @throws KNXTimeoutException if the bus didn't confirm the request
+         */
+        void read(Datapoint datapoint) throws KNXException, InterruptedException;
+    }
+}
@@ -10,6 +10,7 @@ package org.openhab.binding.knx.internal.client;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.knx.client.BusStatistics;
 import org.openhab.binding.knx.client.DeviceInfoClient;
 import org.openhab.binding.knx.client.KNXClient;
 import org.openhab.binding.knx.client.OutboundSpec;
@@ -57,6 +58,11 @@ public class NoOpClient implements KNXClient {
         return false;
     }
 
+    @Override
+    public BusStatistics getBusStatistics() {
+        return new BusStatistics();
+    }
+
     @Override
     public void readDatapoint(Datapoint datapoint) {
     }
@@ -20,6 +20,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -103,6 +106,39 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     /** stores the default KNX DPT to use for each openHAB type */
     private final Map<Class<? extends Type>, String> defaultDptMap;
 
+    /** stores the decoding information for the KNX datapoint types received so far */
+    private final Map<String, Decoder> decoders = new ConcurrentHashMap<>();
+
+    /** the maximum number of idle translators kept per datapoint type */
+    private static final int MAX_POOLED_TRANSLATORS = 4;
+
+    /**
+     * translators are stateful and expensive to create, so idle translators are kept per datapoint type and reused by
+     * one caller at a time
+     */
+    private final Map<String, Queue<DPTXlator>> translators = new ConcurrentHashMap<>();
+
+    private static final DecimalType DECIMAL_ZERO = new DecimalType(0);
+    private static final DecimalType DECIMAL_ONE = new DecimalType(1);
+
+    /** decoding information of datapoint types whose id has no main and sub number */
+    private static final Decoder UNKNOWN_DECODER = new Decoder(-1, -1, null);
+
+    /**
+     * Decoding information of a KNX datapoint type, resolved from its id once
+     */
+    private static class Decoder {
+        private final int mainNumber;
+        private final int subNumber;
+        private final Class<? extends Type> typeClass;
+
+        private Decoder(int mainNumber, int subNumber, Class<? extends Type> typeClass) {
+            this.mainNumber = mainNumber;
+            this.subNumber = subNumber;
+            this.typeClass = typeClass;
+        }
+    }
+
     public KNXCoreTypeMapper() {
 
         @SuppressWarnings("unused")
@@ -662,45 +698,29 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
 
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
+        DPTXlator translator = null;
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
-            translator.setData(data);
-            String value = translator.getValue();
-
-            String id = translator.getType().getID();
-            logger.trace("toType datapoint DPT = {}", datapoint.getDPT());
-
-            int mainNumber = getMainNumber(id);
-            if (mainNumber == -1) {
-                logger.debug("toType: couldn't identify mainnumber in dptID: {}.", id);
+            Decoder decoder = getDecoder(datapoint);
+            if (decoder == null) {
                 return null;
             }
-            int subNumber = getSubNumber(id);
-            if (subNumber == -1) {
-                logger.debug("toType: couldn't identify sub number in dptID: {}.", id);
-                return null;
+            Number value = decodeNumber(decoder, data);
+            if (value != null) {
+                Type type = toNumericType(decoder, value);
+                if (type != null) {
+                    return type;
+                }
             }
+            translator = acquireTranslator(datapoint);
+            translator.setData(data);
+            logger.trace("toType datapoint DPT = {}", datapoint.getDPT());
+
+            int subNumber = decoder.subNumber;
             /*
              * Following code section deals with specific mapping of values from KNX to openHAB types were the String
              * received from the DPTXlator is not sufficient to set the openHAB type or has bugs
              */
-            switch (mainNumber) {
-                case 1:
-                    DPTXlatorBoolean translatorBoolean = (DPTXlatorBoolean) translator;
-                    switch (subNumber) {
-                        case 8:
-                            return translatorBoolean.getValueBoolean() ? UpDownType.DOWN : UpDownType.UP;
-                        case 9:
-                            return translatorBoolean.getValueBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
-                        case 10:
-                            return translatorBoolean.getValueBoolean() ? StopMoveType.MOVE : StopMoveType.STOP;
-                        case 19:
-                            return translatorBoolean.getValueBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
-                        case 22:
-                            return DecimalType.valueOf(translatorBoolean.getValueBoolean() ? "1" : "0");
-                        default:
-                            return translatorBoolean.getValueBoolean() ? OnOffType.ON : OnOffType.OFF;
-                    }
+            switch (decoder.mainNumber) {
                 case 2:
                     DPTXlator1BitControlled translator1BitControlled = (DPTXlator1BitControlled) translator;
                     int decValue = (translator1BitControlled.getControlBit() ? 2 : 0)
@@ -719,36 +739,6 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                         case 8:
                             return translator3BitControlled.getControlBit() ? UpDownType.DOWN : UpDownType.UP;
                     }
-                case 14:
-                    /*
-                     * FIXME: Workaround for a bug in Calimero / Openhab DPTXlator4ByteFloat.makeString(): is using a
-                     * locale when
-                     * translating a Float to String. It could happen the a ',' is used as separator, such as
-                     * 3,14159E20.
-                     * Openhab's DecimalType expects this to be in US format and expects '.': 3.14159E20.
-                     * There is no issue with DPTXlator2ByteFloat since calimero is using a non-localized translation
-                     * there.
-                     */
-                    DPTXlator4ByteFloat translator4ByteFloat = (DPTXlator4ByteFloat) translator;
-                    Float f = translator4ByteFloat.getValueFloat();
-                    if (Math.abs(f) < 100000) {
-                        value = String.valueOf(f);
-                    } else {
-                        NumberFormat dcf = NumberFormat.getInstance(Locale.US);
-                        if (dcf instanceof DecimalFormat) {
-                            ((DecimalFormat) dcf).applyPattern("0.#####E0");
-                        }
-                        value = dcf.format(f);
-                    }
-                    break;
-                case 18:
-                    DPTXlatorSceneControl translatorSceneControl = (DPTXlatorSceneControl) translator;
-                    int decimalValue = translatorSceneControl.getSceneNumber();
-                    if (value.startsWith("learn")) {
-                        decimalValue += 0x80;
-                    }
-                    value = String.valueOf(decimalValue);
-
                     break;
                 case 19:
                     DPTXlatorDateTime translatorDateTime = (DPTXlatorDateTime) translator;
@@ -777,6 +767,7 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                     }
 
                     Calendar cal = Calendar.getInstance();
+                    String value;
                     if (translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
                             && !translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
                         // Pure date format, no time information
@@ -802,7 +793,7 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                     break;
             }
 
-            Class<? extends Type> typeClass = toTypeClass(id);
+            Class<? extends Type> typeClass = decoder.typeClass;
             if (typeClass == null) {
                 return null;
             }
@@ -814,11 +805,11 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                 return new DecimalType(translator.getNumericValue());
             }
             if (typeClass.equals(StringType.class)) {
-                return StringType.valueOf(value);
+                return StringType.valueOf(getValue(translator, decoder.mainNumber));
             }
 
             if (typeClass.equals(DateTimeType.class)) {
-                String date = formatDateTime(value, datapoint.getDPT());
+                String date = formatDateTime(getValue(translator, decoder.mainNumber), datapoint.getDPT());
                 if ((date == null) || (date.isEmpty())) {
                     logger.debug("toType: KNX clock msg ignored: date object null or empty {}.", date);
                     return null;
@@ -828,10 +819,10 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
             }
 
             if (typeClass.equals(HSBType.class)) {
-                // value has format of "r:<red value> g:<green value> b:<blue value>"
-                int r = Integer.parseInt(value.split(" ")[0].split(":")[1]);
-                int g = Integer.parseInt(value.split(" ")[1].split(":")[1]);
-                int b = Integer.parseInt(value.split(" ")[2].split(":")[1]);
+                // the translator accepted the data, so it holds at least the three bytes red, green and blue
+                int r = data[0] & 0xFF;
+                int g = data[1] & 0xFF;
+                int b = data[2] & 0xFF;
 
                 return HSBType.fromRGB(r, g, b);
             }
@@ -844,8 +835,210 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                     datapoint.getDPT());
         } catch (KNXException e) {
             logger.warn("Failed creating a translator for datapoint type '{}'.", datapoint.getDPT(), e);
+        } finally {
+            if (translator != null) {
+                releaseTranslator(datapoint, translator);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the decoding information of the datapoint type, which is resolved on first use.
+     *
+     * @return the decoding information, or {@code null} if the datapoint type id has no main and sub number
+     * @throws KNXException if there is no translator for the datapoint type
+     */
+    private Decoder getDecoder(Datapoint datapoint) throws KNXException {
+        Decoder decoder = decoders.get(datapoint.getDPT());
+        if (decoder != null) {
+            return decoder != UNKNOWN_DECODER ? decoder : null;
+        }
+        DPTXlator translator = acquireTranslator(datapoint);
+        String id = translator.getType().getID();
+        releaseTranslator(datapoint, translator);
+        int mainNumber = getMainNumber(id);
+        if (mainNumber == -1) {
+            logger.debug("toType: couldn't identify mainnumber in dptID: {}.", id);
+            decoders.put(datapoint.getDPT(), UNKNOWN_DECODER);
+            return null;
+        }
+        int subNumber = getSubNumber(id);
+        if (subNumber == -1) {
+            logger.debug("toType: couldn't identify sub number in dptID: {}.", id);
+            decoders.put(datapoint.getDPT(), UNKNOWN_DECODER);
+            return null;
+        }
+        decoder = new Decoder(mainNumber, subNumber, toTypeClass(id));
+        decoders.put(datapoint.getDPT(), decoder);
+        return decoder;
+    }
+
+    /**
+     * Get an idle translator for the datapoint type, or create one if there is none. The translator is used
+     * exclusively by the caller until it is released with {@link #releaseTranslator(Datapoint, DPTXlator)}.
+     */
+    private DPTXlator acquireTranslator(Datapoint datapoint) throws KNXException {
+        Queue<DPTXlator> idle = translators.get(datapoint.getDPT());
+        DPTXlator translator = idle != null ? idle.poll() : null;
+        if (translator == null) {
+            translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+        }
+        return translator;
+    }
+
+    /**
+     * Keep the translator for reuse, unless enough translators of the datapoint type are idle already.
+     */
+    private void releaseTranslator(Datapoint datapoint, DPTXlator translator) {
+        Queue<DPTXlator> idle = translators.computeIfAbsent(datapoint.getDPT(), dpt -> new ConcurrentLinkedQueue<>());
+        if (idle.size() < MAX_POOLED_TRANSLATORS) {
+            idle.offer(translator);
+        }
+    }
+
+    /**
+     * Get the value of the translator as String, working around translations not suitable for openHAB types.
+     */
+    private String getValue(DPTXlator translator, int mainNumber) {
+        switch (mainNumber) {
+            case 14:
+                /*
+                 * FIXME: Workaround for a bug in Calimero / Openhab DPTXlator4ByteFloat.makeString(): is using a
+                 * locale when
+                 * translating a Float to String. It could happen the a ',' is used as separator, such as
+                 * 3,14159E20.
+                 * Openhab's DecimalType expects this to be in US format and expects '.': 3.14159E20.
+                 * There is no issue with DPTXlator2ByteFloat since calimero is using a non-localized translation
+                 * there.
+                 */
+                DPTXlator4ByteFloat translator4ByteFloat = (DPTXlator4ByteFloat) translator;
+                Float f = translator4ByteFloat.getValueFloat();
+                if (Math.abs(f) < 100000) {
+                    return String.valueOf(f);
+                } else {
+                    NumberFormat dcf = NumberFormat.getInstance(Locale.US);
+                    if (dcf instanceof DecimalFormat) {
+                        ((DecimalFormat) dcf).applyPattern("0.#####E0");
+                    }
+                    return dcf.format(f);
+                }
+            default:
+                return translator.getValue();
+        }
+    }
+
+    /**
+     * Decode the data of the datapoint types with a plain binary encoding, without a translator. The values are the
+     * same as the numeric values of the Calimero translators.
+     *
+     * @return the decoded value, or {@code null} if the datapoint type is decoded by its translator
+     * @throws KNXFormatException if the data is shorter than the datapoint type
+     */
+    private static Number decodeNumber(Decoder decoder, byte[] data) throws KNXFormatException {
+        switch (decoder.mainNumber) {
+            case 1:
+                checkLength(decoder, data, 1);
+                return data[0] & 0x01;
+            case 5:
+                checkLength(decoder, data, 1);
+                int unsigned8 = data[0] & 0xFF;
+                switch (decoder.subNumber) {
+                    case 1:
+                        return unsigned8 * 100.0 / 255;
+                    case 3:
+                        return unsigned8 * 360.0 / 255;
+                    default:
+                        return unsigned8;
+                }
+            case 7:
+                checkLength(decoder, data, 2);
+                int unsigned16 = (data[0] & 0xFF) << 8 | data[1] & 0xFF;
+                switch (decoder.subNumber) {
+                    case 3:
+                        // time period in 10 ms
+                        return unsigned16 * 10;
+                    case 4:
+                        // time period in 100 ms
+                        return unsigned16 * 100;
+                    default:
+                        return unsigned16;
+                }
+            case 9:
+                checkLength(decoder, data, 2);
+                // MEEEEMMM MMMMMMMM, mantissa in two's complement, value is 0.01 * mantissa * 2^exponent
+                int mantissa = (data[0] & 0x07) << 8 | data[1] & 0xFF;
+                if ((data[0] & 0x80) != 0) {
+                    mantissa -= 0x800;
+                }
+                int exponent = (data[0] & 0x78) >> 3;
+                return (mantissa << exponent) * 0.01;
+            case 12:
+                checkLength(decoder, data, 4);
+                return getInt(data) & 0xFFFFFFFFL;
+            case 13:
+                checkLength(decoder, data, 4);
+                return getInt(data);
+            case 14:
+                checkLength(decoder, data, 4);
+                return (double) Float.intBitsToFloat(getInt(data));
+            case 17:
+                checkLength(decoder, data, 1);
+                return data[0] & 0x3F;
+            case 18:
+                checkLength(decoder, data, 1);
+                // scene number, with the learn bit 0x80 set when the scene is to be learned
+                return data[0] & 0xBF;
+            default:
+                return null;
+        }
+    }
+
+    private static void checkLength(Decoder decoder, byte[] data, int length) throws KNXFormatException {
+        if (data.length < length) {
+            throw new KNXFormatException(String.format("DPT %d.%03d: data length %d < required datapoint type width %d",
+                    decoder.mainNumber, decoder.subNumber, data.length, length));
         }
+    }
 
+    private static int getInt(byte[] data) {
+        return (data[0] & 0xFF) << 24 | (data[1] & 0xFF) << 16 | (data[2] & 0xFF) << 8 | data[3] & 0xFF;
+    }
+
+    /**
+     * Convert a directly decoded value into the openHAB type of the datapoint type.
+     *
+     * @return the openHAB type, or {@code null} if the value has to be formatted by the translator
+     */
+    private Type toNumericType(Decoder decoder, Number value) {
+        if (decoder.mainNumber == 1) {
+            boolean bit = value.intValue() != 0;
+            switch (decoder.subNumber) {
+                case 8:
+                    return bit ? UpDownType.DOWN : UpDownType.UP;
+                case 9:
+                    return bit ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+                case 10:
+                    return bit ? StopMoveType.MOVE : StopMoveType.STOP;
+                case 19:
+                    return bit ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+                case 22:
+                    return bit ? DECIMAL_ONE : DECIMAL_ZERO;
+                default:
+                    return bit ? OnOffType.ON : OnOffType.OFF;
+            }
+        }
+        Class<? extends Type> typeClass = decoder.typeClass;
+        if (PercentType.class.equals(typeClass)) {
+            return new PercentType(BigDecimal.valueOf(Math.round(value.doubleValue())));
+        }
+        if (DecimalType.class.equals(typeClass)) {
+            return value instanceof Double ? new DecimalType(value.doubleValue()) : new DecimalType(value.longValue());
+        }
+        if (StringType.class.equals(typeClass) && decoder.mainNumber == 18) {
+            return StringType.valueOf(value.toString());
+        }
         return null;
     }
 
@@ -11,6 +11,7 @@ package org.openhab.binding.knx.internal.handler;
 import static org.openhab.binding.knx.KNXBindingConstants.*;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -80,13 +81,15 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
 
     @Override
     public void initialize() {
-        super.initialize();
         DeviceConfig config = getConfigAs(DeviceConfig.class);
         readInterval = config.getReadInterval().intValue();
+        // before attaching to the client, which indexes the listeners by their group addresses
         initializeGroupAddresses();
+        super.initialize();
     }
 
     private void initializeGroupAddresses() {
+        groupAddresses.clear();
         forAllChannels((selector, channelConfiguration) -> {
             groupAddresses.addAll(selector.getReadAddresses(channelConfiguration));
             groupAddresses.addAll(selector.getWriteAddresses(channelConfiguration));
@@ -192,6 +195,11 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         return groupAddresses.contains(destination);
     }
 
+    @Override
+    public Set<GroupAddress> getGroupAddresses() {
+        return Collections.unmodifiableSet(groupAddresses);
+    }
+
     /** KNXIO remember controls, removeIf may be null */
     @SuppressWarnings("null")
     private void rememberRespondingSpec(OutboundSpec commandSpec, boolean add) {
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.loxone.internal.core;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the coalescing of the state updates of controls by {@link LxStateUpdateBuffer}
+ *
+ * @author agent - initial contribution
+ *
+ */
+public class LxStateUpdateBufferTest {
+
+    private static final int WINDOW = 50;
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(WINDOW);
+
+    // latest values of the states, as read by the listeners when the updates are passed
+    private final Map<String, String> values = new HashMap<>();
+    private final List<String> published = new ArrayList<>();
+    private LxStateUpdateBuffer<String> buffer;
+
+    @Before
+    public void setUp() {
+        buffer = new LxStateUpdateBuffer<>(this::publish, WINDOW);
+    }
+
+    private void publish(String control, Set<String> stateNames) {
+        StringBuilder builder = new StringBuilder(control);
+        for (String stateName : stateNames) {
+            builder.append(' ').append(stateName).append('=').append(values.get(control + "/" + stateName));
+        }
+        published.add(builder.toString());
+    }
+
+    private void update(String control, String stateName, String value, long now) {
+        values.put(control + "/" + stateName, value);
+        buffer.add(control, stateName, now);
+    }
+
+    @Test
+    public void testFlushIdle_firstUpdatePassedRightAway() {
+        update("a", "value", "1", 0);
+        update("a", "active", "on", 0);
+        assertTrue(published.isEmpty());
+
+        buffer.flushIdle(0);
+
+        assertEquals(Arrays.asList("a value=1 active=on"), published);
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void testFlush_updatesWithinWindowCoalescedPerControl() {
+        update("a", "value", "1", 0);
+        buffer.flushIdle(0);
+
+        update("a", "value", "2", 10);
+        buffer.flushIdle(10);
+        update("a", "value", "3", 20);
+        update("a", "active", "on", 20);
+        buffer.flushIdle(20);
+        assertEquals(1, published.size());
+        assertFalse(buffer.isEmpty());
+
+        buffer.flush(WINDOW + 10);
+
+        // single update per control with all updated states and their latest values
+        assertEquals(Arrays.asList("a value=1", "a value=3 active=on"), published);
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void testFlushIdle_otherControlsNotDelayed() {
+        update("a", "value", "1", 0);
+        buffer.flushIdle(0);
+        update("a", "value", "2", 10);
+        update("b", "value", "1", 10);
+
+        buffer.flushIdle(10);
+
+        assertEquals(Arrays.asList("a value=1", "b value=1"), published);
+        assertFalse(buffer.isEmpty());
+    }
+
+    @Test
+    public void testFlushIdle_controlIdleAgainAfterWindow() {
+        update("a", "value", "1", 0);
+        buffer.flushIdle(0);
+
+        update("a", "value", "2", WINDOW_NANOS);
+        buffer.flushIdle(WINDOW_NANOS);
+
+        assertEquals(Arrays.asList("a value=1", "a value=2"), published);
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void testFlush_pendingUpdatesPassedBeforeOtherEvents() {
+        update("a", "value", "1", 0);
+        buffer.flushIdle(0);
+        update("a", "value", "2", 10);
+        buffer.flushIdle(10);
+
+        // e.g. a text message or a keep-alive response is processed, the updates received before it are passed first
+        buffer.flush(20);
+
+        assertEquals(Arrays.asList("a value=1", "a value=2"), published);
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void testGetRemaining_windowStartsWithFirstPendingUpdate() {
+        assertEquals(0, buffer.getRemaining(0));
+
+        update("a", "value", "1", 0);
+        assertEquals(0, buffer.getRemaining(0));
+        buffer.flushIdle(0);
+        assertEquals(0, buffer.getRemaining(0));
+
+        update("a", "value", "2", 10);
+        update("a", "value", "3", 30);
+        assertEquals(WINDOW_NANOS - 10, buffer.getRemaining(20));
+        assertTrue(buffer.getRemaining(WINDOW_NANOS + 10) <= 0);
+    }
+
+    @Test
+    public void testSetWindow_zeroPassesUpdatesAfterEachMessage() {
+        buffer.setWindow(0);
+
+        update("a", "value", "1", 0);
+        buffer.flushIdle(0);
+        update("a", "value", "2", 0);
+        buffer.flushIdle(0);
+
+        assertEquals(Arrays.asList("a value=1", "a value=2"), published);
+        assertTrue(buffer.isEmpty());
+    }
+}
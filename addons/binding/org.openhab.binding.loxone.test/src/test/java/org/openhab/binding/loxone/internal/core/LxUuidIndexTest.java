@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.loxone.internal.core;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for the look up of objects by binary UUIDs in {@link LxUuidIndex}
+ *
+ * @author agent - initial contribution
+ *
+ */
+public class LxUuidIndexTest {
+
+    private static LxUuid uuid(long msb, long lsb) {
+        return new LxUuid(String.format("%08x-%04x-%04x-%016x", msb >>> 32, (msb >>> 16) & 0xFFFF, msb & 0xFFFF, lsb));
+    }
+
+    @Test
+    public void testGet_indexedObjectsFound() {
+        Map<LxUuid, String> map = new HashMap<>();
+        map.put(new LxUuid("0f2e3d4c-5b6a-7988-a7b6c5d4e3f20100"), "a");
+        map.put(new LxUuid("0F2E3D4C-5B6A-7988-A7B6C5D4E3F20101"), "b");
+        LxUuidIndex<String> index = new LxUuidIndex<>(map);
+
+        assertEquals("a", index.get(0x0f2e3d4c5b6a7988L, 0xa7b6c5d4e3f20100L));
+        assertEquals("b", index.get(0x0f2e3d4c5b6a7988L, 0xa7b6c5d4e3f20101L));
+        assertNull(index.get(0x0f2e3d4c5b6a7988L, 0xa7b6c5d4e3f20102L));
+    }
+
+    @Test
+    public void testGet_collidingSlotsResolved() {
+        // with half of the slots used, many UUIDs share a slot and are found by probing the following slots
+        Map<LxUuid, Integer> map = new HashMap<>();
+        for (int i = 0; i < 1024; i++) {
+            // UUIDs differing only in the most or in the least significant bits
+            map.put(uuid(i, 0x1000), i);
+            map.put(uuid(0x2000, i), 1024 + i);
+        }
+        LxUuidIndex<Integer> index = new LxUuidIndex<>(map);
+
+        for (int i = 0; i < 1024; i++) {
+            assertEquals(Integer.valueOf(i), index.get(i, 0x1000));
+            assertEquals(Integer.valueOf(1024 + i), index.get(0x2000, i));
+        }
+        for (int i = 1024; i < 2048; i++) {
+            assertNull(index.get(i, 0x1000));
+            assertNull(index.get(0x2000, i));
+        }
+    }
+
+    @Test
+    public void testGet_binaryUuidFromMessage() {
+        LxUuid stateUuid = new LxUuid("0b8c3f6a-0281-10f7-ffff403fb0c34b9e");
+        LxUuidIndex<String> index = new LxUuidIndex<>(Collections.singletonMap(stateUuid, "state"));
+        byte[] data = { 0x6a, 0x3f, (byte) 0x8c, 0x0b, (byte) 0x81, 0x02, (byte) 0xf7, 0x10, (byte) 0xff,
+                (byte) 0xff, 0x40, 0x3f, (byte) 0xb0, (byte) 0xc3, 0x4b, (byte) 0x9e };
+
+        assertEquals("state",
+                index.get(LxUuid.getMostSignificantBits(data, 0), LxUuid.getLeastSignificantBits(data, 0)));
+        assertEquals(stateUuid, new LxUuid(data, 0));
+    }
+
+    @Test
+    public void testGet_uuidsWithoutBinaryNotIndexed() {
+        Map<LxUuid, String> map = new HashMap<>();
+        map.put(new LxUuid("0b8c3f6a-0281-10f7-ffff403fb0c34b9e_suffix"), "suffix");
+        map.put(new LxUuid("not-an-uuid"), "text");
+        LxUuidIndex<String> index = new LxUuidIndex<>(map);
+
+        assertNull(index.get(0x0b8c3f6a028110f7L, 0xffff403fb0c34b9eL));
+        assertNull(index.get(0, 0));
+    }
+}
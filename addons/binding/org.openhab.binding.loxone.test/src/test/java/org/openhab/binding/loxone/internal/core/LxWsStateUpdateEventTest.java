@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.loxone.internal.core;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for the in place decoding of state update tables by {@link LxWsStateUpdateEvent}
+ *
+ * @author agent - initial contribution
+ *
+ */
+public class LxWsStateUpdateEventTest {
+
+    private static final LxUuid UUID_A = new LxUuid("0b8c3f6a-0281-10f7-ffff403fb0c34b9e");
+    private static final LxUuid UUID_B = new LxUuid("0b8c3f6a-0281-10f7-ffff403fb0c34b9f");
+    private static final LxUuid ICON = new LxUuid("00000000-0000-0000-0000000000000000");
+
+    // table with a header, which is skipped by the offset
+    private static final int OFFSET = 8;
+
+    private static void writeUuid(ByteArrayOutputStream out, LxUuid uuid) {
+        ByteBuffer buffer = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        long msb = uuid.getMostSignificantBits();
+        buffer.putInt((int) (msb >>> 32)).putShort((short) (msb >>> 16)).putShort((short) msb);
+        buffer.order(ByteOrder.BIG_ENDIAN).putLong(uuid.getLeastSignificantBits());
+        out.write(buffer.array(), 0, 16);
+    }
+
+    private static void writeValue(ByteArrayOutputStream out, LxUuid uuid, double value) {
+        writeUuid(out, uuid);
+        out.write(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putDouble(value).array(), 0, 8);
+    }
+
+    private static void writeText(ByteArrayOutputStream out, LxUuid uuid, String text, boolean padding) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writeUuid(out, uuid);
+        writeUuid(out, ICON);
+        out.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(bytes.length).array(), 0, 4);
+        out.write(bytes, 0, bytes.length);
+        if (padding) {
+            while (out.size() % 4 != OFFSET % 4) {
+                out.write(0);
+            }
+        }
+    }
+
+    private static ByteArrayOutputStream table() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[OFFSET], 0, OFFSET);
+        return out;
+    }
+
+    private static LxWsStateUpdateEvent event(boolean isValueEvent, ByteArrayOutputStream out) {
+        byte[] data = out.toByteArray();
+        return new LxWsStateUpdateEvent(isValueEvent, data, OFFSET, data.length - OFFSET);
+    }
+
+    @Test
+    public void testNext_valueUpdatesDecoded() {
+        ByteArrayOutputStream out = table();
+        writeValue(out, UUID_A, 21.5);
+        writeValue(out, UUID_B, -1);
+        LxWsStateUpdateEvent event = event(true, out);
+
+        assertEquals(2, event.getCount());
+        assertTrue(event.next());
+        assertEquals(UUID_A.getMostSignificantBits(), event.getUuidMsb());
+        assertEquals(UUID_A.getLeastSignificantBits(), event.getUuidLsb());
+        assertEquals(UUID_A, event.getUuid());
+        assertEquals(Double.valueOf(21.5), event.getValue());
+        assertNull(event.getText());
+        assertTrue(event.next());
+        assertEquals(UUID_B, event.getUuid());
+        assertEquals(Double.valueOf(-1), event.getValue());
+        assertFalse(event.next());
+    }
+
+    @Test
+    public void testNext_textUpdatesDecodedWithPadding() {
+        ByteArrayOutputStream out = table();
+        writeText(out, UUID_A, "on", true);
+        writeText(out, UUID_B, "text", true);
+        // padding may be missing after the last text
+        writeText(out, UUID_A, "off", false);
+        LxWsStateUpdateEvent event = event(false, out);
+
+        assertEquals(3, event.getCount());
+        assertTrue(event.next());
+        assertEquals(UUID_A, event.getUuid());
+        assertEquals("on", event.getText());
+        assertNull(event.getValue());
+        assertTrue(event.next());
+        assertEquals(UUID_B.getLeastSignificantBits(), event.getUuidLsb());
+        assertEquals("text", event.getText());
+        assertTrue(event.next());
+        assertEquals("off", event.getText());
+        assertFalse(event.next());
+    }
+
+    @Test
+    public void testNext_statesLookedUpInIndex() {
+        ByteArrayOutputStream out = table();
+        writeValue(out, UUID_A, 1);
+        writeValue(out, new LxUuid("0b8c3f6a-0281-10f7-ffff403fb0c34ba0"), 2);
+        writeValue(out, UUID_B, 3);
+        LxWsStateUpdateEvent event = event(true, out);
+        Map<LxUuid, String> states = new HashMap<>();
+        states.put(UUID_A, "a");
+        states.put(UUID_B, "b");
+        LxUuidIndex<String> index = new LxUuidIndex<>(states);
+
+        StringBuilder found = new StringBuilder();
+        while (event.next()) {
+            found.append(index.get(event.getUuidMsb(), event.getUuidLsb())).append('=').append(event.getValue())
+                    .append(' ');
+        }
+        assertEquals("a=1.0 null=2.0 b=3.0 ", found.toString());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCreate_truncatedValueRejected() {
+        ByteArrayOutputStream out = table();
+        writeValue(out, UUID_A, 1);
+        byte[] data = out.toByteArray();
+        new LxWsStateUpdateEvent(true, data, OFFSET, data.length - OFFSET - 1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCreate_textLengthExceedingMessageRejected() {
+        ByteArrayOutputStream out = table();
+        writeText(out, UUID_A, "text", true);
+        byte[] data = out.toByteArray();
+        new LxWsStateUpdateEvent(false, data, OFFSET, data.length - OFFSET - 4);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCreate_tableExceedingBufferRejected() {
+        ByteArrayOutputStream out = table();
+        writeValue(out, UUID_A, 1);
+        byte[] data = out.toByteArray();
+        new LxWsStateUpdateEvent(true, data, OFFSET, data.length);
+    }
+}
@@ -36,6 +36,12 @@ public class LoxoneBindingConstants {
     public static final String MINISERVER_CHANNEL_TYPE_RO_SWITCH = "roSwitchTypeId";
     public static final String MINISERVER_CHANNEL_TYPE_RO_ANALOG = "roAnalogTypeId";
     public static final String MINISERVER_CHANNEL_TYPE_RO_NUMBER = "roNumberTypeId";
+    public static final String MINISERVER_CHANNEL_TYPE_RO_COUNTER = "roCounterTypeId";
+
+    // Channel IDs of the Miniserver statistics: number of state updates received from the Miniserver and number of
+    // state updates of controls passed to channels
+    public static final String MINISERVER_CHANNEL_STATE_UPDATES_RECEIVED = "stateUpdatesReceived";
+    public static final String MINISERVER_CHANNEL_STATE_UPDATES_PUBLISHED = "stateUpdatesPublished";
 
     // Miniserver properties and parameters
     public static final String MINISERVER_PARAM_HOST = "host";
@@ -23,6 +23,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.smarthome.config.core.Configuration;
@@ -38,6 +40,7 @@ import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
+import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.core.thing.binding.BaseThingHandler;
 import org.eclipse.smarthome.core.thing.binding.builder.ChannelBuilder;
 import org.eclipse.smarthome.core.thing.binding.builder.ThingBuilder;
@@ -82,7 +85,10 @@ public class LoxoneMiniserverHandler extends BaseThingHandler implements LxServe
 
     public static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Collections.singleton(THING_TYPE_MINISERVER);
 
+    private static final int STATISTICS_PERIOD = 60; // seconds
+
     private LxServer server;
+    private ScheduledFuture<?> statisticsJob;
 
     private ChannelTypeUID switchTypeId = new ChannelTypeUID(BINDING_ID, MINISERVER_CHANNEL_TYPE_SWITCH);
     private ChannelTypeUID lightCtrlTypeId = new ChannelTypeUID(BINDING_ID, MINISERVER_CHANNEL_TYPE_LIGHT_CTRL);
@@ -94,6 +100,7 @@ public class LoxoneMiniserverHandler extends BaseThingHandler implements LxServe
     private ChannelTypeUID roAnalogTypeId = new ChannelTypeUID(BINDING_ID, MINISERVER_CHANNEL_TYPE_RO_ANALOG);
     private ChannelTypeUID roTimedSwitchDeactivationDelayTypeId = new ChannelTypeUID(BINDING_ID,
             MINISERVER_CHANNEL_TYPE_RO_NUMBER);
+    private ChannelTypeUID roCounterTypeId = new ChannelTypeUID(BINDING_ID, MINISERVER_CHANNEL_TYPE_RO_COUNTER);
 
     private Logger logger = LoggerFactory.getLogger(LoxoneMiniserverHandler.class);
     private Map<ChannelUID, LxControl> controls = new HashMap<>();
@@ -125,6 +132,13 @@ public class LoxoneMiniserverHandler extends BaseThingHandler implements LxServe
             return;
         }
 
+        if (isStatisticsChannel(channelUID)) {
+            if (command instanceof RefreshType) {
+                updateStatistics();
+            }
+            return;
+        }
+
         LxControl control = getControlFromChannelUID(channelUID);
         if (control == null) {
             // This situation should not happen under normal circumstances, it indicates binding somehow lost its
@@ -269,8 +283,11 @@ public class LoxoneMiniserverHandler extends BaseThingHandler implements LxServe
             server = new LxServer(LxWsSecurityType.getType(cfg.authMethod), ip, cfg.port, cfg.user, cfg.password);
             server.addListener(this);
             server.update(cfg.firstConDelay, cfg.keepAlivePeriod, cfg.connectErrDelay, cfg.responseTimeout,
-                    cfg.userErrorDelay, cfg.comErrorDelay, cfg.maxBinMsgSize, cfg.maxTextMsgSize);
+                    cfg.userErrorDelay, cfg.comErrorDelay, cfg.maxBinMsgSize, cfg.maxTextMsgSize,
+                    cfg.stateUpdateWindow);
             server.start();
+            statisticsJob = scheduler.scheduleWithFixedDelay(this::updateStatistics, STATISTICS_PERIOD,
+                    STATISTICS_PERIOD, TimeUnit.SECONDS);
         } catch (UnknownHostException e) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, "Unknown host");
         }
@@ -317,6 +334,8 @@ public class LoxoneMiniserverHandler extends BaseThingHandler implements LxServe
             }
         });
 
+        addStatisticsChannels(channels);
+
         logger.trace("Updating thing");
         builder.withChannels(channels);
         updateThing(builder.build());
@@ -390,6 +409,22 @@ public class LoxoneMiniserverHandler extends BaseThingHandler implements LxServe
         updateChannelStates(channelId, control);
     }
 
+    @Override
+    public void onControlStatesUpdate(LxControl control, Set<String> stateNames) {
+        boolean updateChannels = false;
+        for (String stateName : stateNames) {
+            if (isStateListUpdate(control, stateName)) {
+                onControlStateUpdate(control, stateName);
+            } else {
+                updateChannels = true;
+            }
+        }
+        // channel states are updated once for all the remaining states of the control
+        if (updateChannels) {
+            updateChannelStates(getChannelIdForControl(control, 0), control);
+        }
+    }
+
     @Override
     public void onServerGoesOnline() {
         logger.debug("Server goes online.");
@@ -437,6 +472,10 @@ public class LoxoneMiniserverHandler extends BaseThingHandler implements LxServe
     public void dispose() {
         logger.debug("Disposing of server");
         dynamicStateDescriptionProvider.removeAllDescriptions();
+        if (statisticsJob != null) {
+            statisticsJob.cancel(true);
+            statisticsJob = null;
+        }
         if (server != null) {
             server.stop();
             server = null;
@@ -455,6 +494,69 @@ public class LoxoneMiniserverHandler extends BaseThingHandler implements LxServe
         updateConfiguration(config);
     }
 
+    /**
+     * Check if a state update changes a list of options of a control, which are handled separately from the updates of
+     * the channel states.
+     *
+     * @param control
+     *            control object, which state changed
+     * @param stateName
+     *            name of the state that was updated
+     * @return
+     *         true if the state is a list of scenes or moods of a light controller
+     */
+    private boolean isStateListUpdate(LxControl control, String stateName) {
+        return (control instanceof LxControlLightController
+                && LxControlLightController.STATE_SCENE_LIST.equals(stateName))
+                || (control instanceof LxControlLightControllerV2
+                        && LxControlLightControllerV2.STATE_MOODS_LIST.equals(stateName));
+    }
+
+    /**
+     * Add the channels of the Miniserver statistics, which do not belong to any control.
+     *
+     * @param channels
+     *            list of channels to add the channels to
+     */
+    private void addStatisticsChannels(List<Channel> channels) {
+        ThingUID thingUID = getThing().getUID();
+        addChannel(channels, "Number", roCounterTypeId,
+                new ChannelUID(thingUID, MINISERVER_CHANNEL_STATE_UPDATES_RECEIVED), "State updates received",
+                "Miniserver statistics", null);
+        addChannel(channels, "Number", roCounterTypeId,
+                new ChannelUID(thingUID, MINISERVER_CHANNEL_STATE_UPDATES_PUBLISHED), "State updates published",
+                "Miniserver statistics", null);
+    }
+
+    /**
+     * Check if a channel is one of the Miniserver statistics channels.
+     *
+     * @param channelUID
+     *            channel to check
+     * @return
+     *         true if the channel shows Miniserver statistics
+     */
+    private boolean isStatisticsChannel(ChannelUID channelUID) {
+        String channelId = channelUID.getId();
+        return MINISERVER_CHANNEL_STATE_UPDATES_RECEIVED.equals(channelId)
+                || MINISERVER_CHANNEL_STATE_UPDATES_PUBLISHED.equals(channelId);
+    }
+
+    /**
+     * Update the statistics channels with the numbers of state updates received from the Miniserver and passed to
+     * the channels.
+     */
+    private void updateStatistics() {
+        LxServer server = this.server;
+        if (server != null) {
+            ThingUID thingUID = getThing().getUID();
+            updateState(new ChannelUID(thingUID, MINISERVER_CHANNEL_STATE_UPDATES_RECEIVED),
+                    new DecimalType(server.getReceivedStateUpdates()));
+            updateState(new ChannelUID(thingUID, MINISERVER_CHANNEL_STATE_UPDATES_PUBLISHED),
+                    new DecimalType(server.getPublishedStateUpdates()));
+        }
+    }
+
     /**
      * Create and add a new channel to the channels list.
      *
@@ -62,6 +62,10 @@ public class LoxoneMiniserverConfig {
      * Time in seconds between connection close (as a result of some communication error) and next connection attempt
      */
     public int comErrorDelay;
+    /**
+     * Time in milliseconds to collect state updates of a control before updating its channels
+     */
+    public int stateUpdateWindow;
     /**
      * Websocket client's max binary message size in kB
      */
@@ -10,14 +10,17 @@ package org.openhab.binding.loxone.internal.core;
 
 import java.net.InetAddress;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -86,6 +89,7 @@ public class LxServer {
     private int connectErrDelay = 10;
     private int userErrorDelay = 60;
     private int comErrorDelay = 30;
+    private volatile int stateUpdateWindow = 50;
 
     // Data structures
     private final Map<LxUuid, LxControl> controls = new HashMap<>();
@@ -96,7 +100,14 @@ public class LxServer {
     // the state. It must be ensured that updates received for this state UUID are passed to all controls that have this
     // state UUID configured.
     private final Map<LxUuid, Map<LxUuid, LxControlState>> states = new HashMap<>();
+    // Index of the states map to find states of updates received in binary messages
+    private LxUuidIndex<Map<LxUuid, LxControlState>> statesIndex = new LxUuidIndex<>(Collections.emptyMap());
     private final List<LxServerListener> listeners = new ArrayList<>();
+    // State updates received within a time window are passed to the listeners together, once per control.
+    private final LxStateUpdateBuffer<LxControl> stateUpdates = new LxStateUpdateBuffer<>(this::publishStateUpdates,
+            stateUpdateWindow);
+    private final AtomicLong receivedStateUpdates = new AtomicLong();
+    private final AtomicLong publishedStateUpdates = new AtomicLong();
 
     // Services
     private LxWsClient socketClient;
@@ -195,9 +206,11 @@ public class LxServer {
      *            maximum binary message size of websocket client (in kB)
      * @param maxTextMsgSize
      *            maximum text message size of websocket client (in kB)
+     * @param stateUpdateWindow
+     *            Time in milliseconds to collect state updates of a control before passing them to the listeners
      */
     public void update(int firstConDelay, int keepAlivePeriod, int connectErrDelay, int connectTimeout,
-            int userErrorDelay, int comErrorDelay, int maxBinMsgSize, int maxTextMsgSize) {
+            int userErrorDelay, int comErrorDelay, int maxBinMsgSize, int maxTextMsgSize, int stateUpdateWindow) {
         logger.debug("[{}] Server update configuration", debugId);
 
         if (firstConDelay >= 0 && this.firstConDelay != firstConDelay) {
@@ -216,6 +229,10 @@ public class LxServer {
             logger.debug("[{}] Changing comErrorDelay to {}", debugId, comErrorDelay);
             this.comErrorDelay = comErrorDelay;
         }
+        if (stateUpdateWindow >= 0 && this.stateUpdateWindow != stateUpdateWindow) {
+            logger.debug("[{}] Changing stateUpdateWindow to {}", debugId, stateUpdateWindow);
+            this.stateUpdateWindow = stateUpdateWindow;
+        }
         if (socketClient != null) {
             socketClient.update(keepAlivePeriod, connectTimeout, maxBinMsgSize, maxTextMsgSize);
         }
@@ -403,6 +420,7 @@ public class LxServer {
                                 processMessage(wsMsg);
                             }
                         } while (wsMsg != null);
+                        stateUpdates.flush(System.nanoTime());
                         logger.debug("[{}] Server connecting to websocket", debugId);
                         connected = socketClient.connect();
                         if (!connected) {
@@ -410,8 +428,14 @@ public class LxServer {
                         }
                     }
                     while (connected) {
-                        LxServerEvent wsMsg = queue.take();
-                        connected = processMessage(wsMsg);
+                        LxServerEvent wsMsg = pollQueue();
+                        if (wsMsg != null) {
+                            connected = processMessage(wsMsg);
+                        }
+                        long now = System.nanoTime();
+                        if (stateUpdates.getRemaining(now) <= 0) {
+                            stateUpdates.flush(now);
+                        }
                     }
                 }
             } catch (InterruptedException e) {
@@ -428,9 +452,35 @@ public class LxServer {
             }
         }
 
+        /**
+         * Wait for the next event in the queue, but not longer than until the pending state updates must be passed to
+         * the listeners.
+         *
+         * @return
+         *         next event or null if the time window of pending state updates elapsed
+         * @throws InterruptedException
+         *             when the thread was interrupted while waiting
+         */
+        private LxServerEvent pollQueue() throws InterruptedException {
+            if (stateUpdates.isEmpty()) {
+                return queue.take();
+            }
+            long remaining = stateUpdates.getRemaining(System.nanoTime());
+            if (remaining <= 0) {
+                return null;
+            }
+            return queue.poll(remaining, TimeUnit.NANOSECONDS);
+        }
+
         private boolean processMessage(LxServerEvent wsMsg) {
             EventType event = wsMsg.getEvent();
             logger.trace("[{}] Server received event: {}", debugId, event);
+            // the buffer is only accessed by this thread
+            stateUpdates.setWindow(stateUpdateWindow);
+            if (event != EventType.STATE_UPDATE) {
+                // keep the order of state updates and other events for the listeners
+                stateUpdates.flush(System.nanoTime());
+            }
             switch (event) {
                 case RECEIVED_CONFIG:
                     LxJsonApp3 config = (LxJsonApp3) wsMsg.getObject();
@@ -445,24 +495,17 @@ public class LxServer {
                     break;
                 case STATE_UPDATE:
                     LxWsStateUpdateEvent update = (LxWsStateUpdateEvent) wsMsg.getObject();
-                    Map<LxUuid, LxControlState> perStateUuid = findState(update.getUuid());
-                    if (perStateUuid != null) {
-                        perStateUuid.forEach((controlUuid, state) -> {
-                            state.setValue(update.getValue(), update.getText());
-                            LxControl control = state.getControl();
-                            if (control != null) {
-                                logger.debug("[{}] State update {} ({}:{}) to value {}, text '{}'", debugId,
-                                        update.getUuid(), control.getName(), state.getName(), update.getValue(),
-                                        update.getText());
-                                for (LxServerListener listener : listeners) {
-                                    listener.onControlStateUpdate(control, state.getName().toLowerCase());
-                                }
-                            } else {
-                                logger.debug("[{}] State update {} ({}) of unknown control", debugId, update.getUuid(),
-                                        state.getName());
-                            }
-                        });
+                    logger.trace("[{}] Server received {} state updates", debugId, update.getCount());
+                    receivedStateUpdates.addAndGet(update.getCount());
+                    while (update.next()) {
+                        Map<LxUuid, LxControlState> perStateUuid = statesIndex.get(update.getUuidMsb(),
+                                update.getUuidLsb());
+                        if (perStateUuid != null) {
+                            updateStates(perStateUuid, update.getValue(), update.getText());
+                        }
                     }
+                    // first updates of controls not updated recently are not delayed
+                    stateUpdates.flushIdle(System.nanoTime());
                     break;
                 case SERVER_ONLINE:
                     for (LxServerListener listener : listeners) {
@@ -565,6 +608,7 @@ public class LxServer {
         removeUnusedFromMap(categories);
         removeUnusedFromMap(controls);
         removeUnusedFromMap(states);
+        statesIndex = new LxUuidIndex<>(states);
     }
 
     /**
@@ -643,21 +687,66 @@ public class LxServer {
     }
 
     /**
-     * Search for a state with given UUID
+     * Get number of state updates received from the Miniserver
      *
-     * @param id
-     *            UUID of state to locate
      * @return
-     *         map of all state objects with control UUID as key
+     *         number of state updates received since the server was created
      */
-    private Map<LxUuid, LxControlState> findState(LxUuid id) {
-        if (states == null || id == null) {
-            return null;
+    public long getReceivedStateUpdates() {
+        return receivedStateUpdates.get();
+    }
+
+    /**
+     * Get number of state updates of controls passed to the listeners. Many state updates received for one control
+     * within the state update window are passed to the listeners as one update.
+     *
+     * @return
+     *         number of state updates passed to the listeners since the server was created
+     */
+    public long getPublishedStateUpdates() {
+        return publishedStateUpdates.get();
+    }
+
+    /**
+     * Update the states with same UUID of all controls and schedule notification of the listeners
+     *
+     * @param perStateUuid
+     *            map of all state objects with control UUID as key
+     * @param value
+     *            new value of the state or null if it has no value
+     * @param text
+     *            new text value of the state or null if it has no text value
+     */
+    private void updateStates(Map<LxUuid, LxControlState> perStateUuid, Double value, String text) {
+        for (LxControlState state : perStateUuid.values()) {
+            state.setValue(value, text);
+            LxControl control = state.getControl();
+            if (control != null) {
+                logger.debug("[{}] State update {} ({}:{}) to value {}, text '{}'", debugId, state.getUuid(),
+                        control.getName(), state.getName(), value, text);
+                stateUpdates.add(control, state.getName().toLowerCase(), System.nanoTime());
+            } else {
+                logger.debug("[{}] State update {} ({}) of unknown control", debugId, state.getUuid(),
+                        state.getName());
+            }
         }
-        if (states.containsKey(id)) {
-            return states.get(id);
+    }
+
+    /**
+     * Pass the state updates of a control to the listeners
+     *
+     * @param control
+     *            control object, which states changed
+     * @param stateNames
+     *            names of the states that were updated
+     */
+    private void publishStateUpdates(LxControl control, Set<String> stateNames) {
+        logger.trace("[{}] Server passing {} state updates of control {}", debugId, stateNames.size(),
+                control.getName());
+        for (LxServerListener listener : listeners) {
+            listener.onControlStatesUpdate(control, stateNames);
         }
-        return null;
+        publishedStateUpdates.incrementAndGet();
     }
 
     /**
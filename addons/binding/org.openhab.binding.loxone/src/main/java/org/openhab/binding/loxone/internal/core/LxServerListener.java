@@ -9,6 +9,7 @@
 package org.openhab.binding.loxone.internal.core;
 
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Interface to get notifications about {@link LxServer} asynchronous events.
@@ -57,6 +58,22 @@ public interface LxServerListener {
      */
     void onControlStateUpdate(LxControl control, String stateName);
 
+    /**
+     * Called by {@link LxServer} thread when states of a control are updated on the Loxone Miniserver.
+     * State updates received within a configured time window are passed together, once per control.
+     * By default, {@link #onControlStateUpdate(LxControl, String)} is called for each of the states.
+     *
+     * @param control
+     *            control object, which states changed
+     * @param stateNames
+     *            names of the states that were updated
+     */
+    default void onControlStatesUpdate(LxControl control, Set<String> stateNames) {
+        for (String stateName : stateNames) {
+            onControlStateUpdate(control, stateName);
+        }
+    }
+
     Object getSetting(String name);
 
     void setSettings(Map<String, String> properties);
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.loxone.internal.core;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Collects the names of the updated states of controls, to pass them to the listeners once per control.
+ * <p>
+ * The first update of a control, which was not updated within the time window, is passed right after the message
+ * containing it has been processed. Further updates of the control received within the time window are collected and
+ * passed together when the window elapses. The values of the states are not buffered, the listeners read the latest
+ * values from the controls.
+ * <p>
+ * The buffer is used by the server thread only and it is not thread safe.
+ *
+ * @author agent - initial contribution
+ *
+ * @param <T>
+ *            type of the controls
+ */
+class LxStateUpdateBuffer<T> {
+    private final BiConsumer<T, Set<String>> publisher;
+    // updates of controls, which were not updated within the window, passed after the current message
+    private final Map<T, Set<String>> idleUpdates = new LinkedHashMap<>();
+    // updates of controls, which were updated within the window, passed when the window elapses
+    private final Map<T, Set<String>> pendingUpdates = new LinkedHashMap<>();
+    // time of passing the last updates of the controls, only for the controls updated within the window
+    private final Map<T, Long> publishTimes = new HashMap<>();
+    private long windowNanos;
+    private long windowStart;
+
+    /**
+     * Create a buffer of state updates
+     *
+     * @param publisher
+     *            consumer of the control and the names of its updated states, called once per control
+     * @param windowMillis
+     *            time window in milliseconds to collect the updates of a control
+     */
+    LxStateUpdateBuffer(BiConsumer<T, Set<String>> publisher, int windowMillis) {
+        this.publisher = publisher;
+        setWindow(windowMillis);
+    }
+
+    /**
+     * Set the time window to collect the updates of a control
+     *
+     * @param windowMillis
+     *            time window in milliseconds, 0 to pass the updates after each message
+     */
+    void setWindow(int windowMillis) {
+        windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    }
+
+    /**
+     * Record an update of a state of a control
+     *
+     * @param control
+     *            control, which state was updated
+     * @param stateName
+     *            name of the updated state
+     * @param now
+     *            current {@link System#nanoTime()}
+     */
+    void add(T control, String stateName, long now) {
+        Set<String> stateNames = idleUpdates.get(control);
+        if (stateNames == null) {
+            stateNames = pendingUpdates.get(control);
+        }
+        if (stateNames == null) {
+            stateNames = new LinkedHashSet<>();
+            Long published = publishTimes.get(control);
+            if (published == null || now - published >= windowNanos) {
+                idleUpdates.put(control, stateNames);
+            } else {
+                if (pendingUpdates.isEmpty()) {
+                    windowStart = now;
+                }
+                pendingUpdates.put(control, stateNames);
+            }
+        }
+        stateNames.add(stateName);
+    }
+
+    /**
+     * Pass the updates of the controls, which were not updated within the window. To be called after each processed
+     * message.
+     *
+     * @param now
+     *            current {@link System#nanoTime()}
+     */
+    void flushIdle(long now) {
+        if (idleUpdates.isEmpty()) {
+            return;
+        }
+        // controls which were not updated within the window behave as never updated
+        publishTimes.values().removeIf(published -> now - published >= windowNanos);
+        publish(idleUpdates, now);
+    }
+
+    /**
+     * Pass all collected updates, e.g. when the window elapsed or before any other event
+     *
+     * @param now
+     *            current {@link System#nanoTime()}
+     */
+    void flush(long now) {
+        flushIdle(now);
+        publish(pendingUpdates, now);
+    }
+
+    /**
+     * Check if there are any updates to pass
+     *
+     * @return
+     *         true if no updates are collected
+     */
+    boolean isEmpty() {
+        return idleUpdates.isEmpty() && pendingUpdates.isEmpty();
+    }
+
+    /**
+     * Get time remaining until the collected updates must be passed
+     *
+     * @param now
+     *            current {@link System#nanoTime()}
+     * @return
+     *         remaining time in nanoseconds, zero or less if the collected updates must be passed now
+     */
+    long getRemaining(long now) {
+        if (!idleUpdates.isEmpty() || pendingUpdates.isEmpty()) {
+            return 0;
+        }
+        return windowStart + windowNanos - now;
+    }
+
+    private void publish(Map<T, Set<String>> updates, long now) {
+        for (Map.Entry<T, Set<String>> entry : updates.entrySet()) {
+            publishTimes.put(entry.getKey(), now);
+            publisher.accept(entry.getKey(), entry.getValue());
+        }
+        updates.clear();
+    }
+}
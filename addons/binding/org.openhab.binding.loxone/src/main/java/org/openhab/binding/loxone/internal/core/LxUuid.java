@@ -24,6 +24,10 @@ public class LxUuid {
     private String uuid;
     private String uuidOriginal;
     private boolean updated;
+    // binary representation, as received in state updates
+    private long msb;
+    private long lsb;
+    private boolean binary;
 
     /**
      * Create a new {@link LxUuid} object from an UUID on a Miniserver.
@@ -49,6 +53,66 @@ public class LxUuid {
         uuidOriginal = uuid;
         this.uuid = uuidOriginal.replaceAll("[^a-zA-Z0-9-]", "-").toUpperCase();
         updated = true;
+        initBinary();
+    }
+
+    /**
+     * Parse the binary representation from an UUID in format 01234567-89ab-cdef-0123456789abcdef, which is the
+     * format of UUIDs received in binary messages. Other UUIDs can't be equal to one received in a binary message.
+     */
+    private void initBinary() {
+        binary = false;
+        if (uuid.length() != 35 || uuid.charAt(8) != '-' || uuid.charAt(13) != '-' || uuid.charAt(18) != '-') {
+            return;
+        }
+        try {
+            msb = Long.parseUnsignedLong(uuid.substring(0, 8) + uuid.substring(9, 13) + uuid.substring(14, 18), 16);
+            lsb = Long.parseUnsignedLong(uuid.substring(19), 16);
+            binary = true;
+        } catch (NumberFormatException e) {
+            // not a valid hexadecimal number
+        }
+    }
+
+    /**
+     * Get the most significant 64 bits of an UUID in a binary message, without creating an {@link LxUuid} object.
+     *
+     * @param data
+     *            buffer with binary message received from Miniserver
+     * @param offset
+     *            offset in buffer where the UUID is located
+     * @return
+     *         most significant 64 bits of the UUID
+     */
+    static long getMostSignificantBits(byte data[], int offset) {
+        return (getLittleEndian(data, offset, 4) << 32) | (getLittleEndian(data, offset + 4, 2) << 16)
+                | getLittleEndian(data, offset + 6, 2);
+    }
+
+    /**
+     * Get the least significant 64 bits of an UUID in a binary message, without creating an {@link LxUuid} object.
+     *
+     * @param data
+     *            buffer with binary message received from Miniserver
+     * @param offset
+     *            offset in buffer where the UUID is located
+     * @return
+     *         least significant 64 bits of the UUID
+     */
+    static long getLeastSignificantBits(byte data[], int offset) {
+        long bits = 0;
+        for (int i = offset + 8; i < offset + 16; i++) {
+            bits = (bits << 8) | (data[i] & 0xFF);
+        }
+        return bits;
+    }
+
+    private static long getLittleEndian(byte data[], int offset, int length) {
+        long bits = 0;
+        for (int i = offset + length - 1; i >= offset; i--) {
+            bits = (bits << 8) | (data[i] & 0xFF);
+        }
+        return bits;
     }
 
     @Override
@@ -87,6 +151,36 @@ public class LxUuid {
         return uuidOriginal;
     }
 
+    /**
+     * See if the UUID can be received in a binary message.
+     *
+     * @return
+     *         true if the UUID has a binary representation
+     */
+    boolean hasBinary() {
+        return binary;
+    }
+
+    /**
+     * Get the most significant 64 bits of the binary representation
+     *
+     * @return
+     *         most significant 64 bits, valid if {@link #hasBinary()}
+     */
+    long getMostSignificantBits() {
+        return msb;
+    }
+
+    /**
+     * Get the least significant 64 bits of the binary representation
+     *
+     * @return
+     *         least significant 64 bits, valid if {@link #hasBinary()}
+     */
+    long getLeastSignificantBits() {
+        return lsb;
+    }
+
     /**
      * Indicate the object corresponding to UUID has recently been updated.
      *
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.loxone.internal.core;
+
+import java.util.Map;
+
+/**
+ * Immutable index of objects by the binary representation of their {@link LxUuid}.
+ * <p>
+ * It allows to look up objects by UUIDs received in binary messages from the Miniserver, without creating an
+ * {@link LxUuid} object for each of them. The index is an open addressing hash table of the 128-bit UUIDs.
+ *
+ * @author agent - initial contribution
+ *
+ * @param <T>
+ *            type of indexed objects
+ */
+class LxUuidIndex<T> {
+    private final long[] msbs;
+    private final long[] lsbs;
+    private final Object[] values;
+    private final int mask;
+
+    /**
+     * Create an index of the objects in a map. UUIDs without binary representation are not indexed.
+     *
+     * @param map
+     *            map of objects to index
+     */
+    LxUuidIndex(Map<LxUuid, T> map) {
+        int capacity = 16;
+        while (capacity < map.size() * 2) {
+            capacity <<= 1;
+        }
+        msbs = new long[capacity];
+        lsbs = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        map.forEach((uuid, value) -> {
+            if (uuid.hasBinary() && value != null) {
+                put(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), value);
+            }
+        });
+    }
+
+    /**
+     * Get the object of an UUID
+     *
+     * @param msb
+     *            most significant 64 bits of the UUID
+     * @param lsb
+     *            least significant 64 bits of the UUID
+     * @return
+     *         object of the UUID or null if not indexed
+     */
+    @SuppressWarnings("unchecked")
+    T get(long msb, long lsb) {
+        for (int i = slot(msb, lsb); values[i] != null; i = (i + 1) & mask) {
+            if (msbs[i] == msb && lsbs[i] == lsb) {
+                return (T) values[i];
+            }
+        }
+        return null;
+    }
+
+    private void put(long msb, long lsb, Object value) {
+        int i = slot(msb, lsb);
+        while (values[i] != null && (msbs[i] != msb || lsbs[i] != lsb)) {
+            i = (i + 1) & mask;
+        }
+        msbs[i] = msb;
+        lsbs[i] = lsb;
+        values[i] = value;
+    }
+
+    private int slot(long msb, long lsb) {
+        long hash = (msb ^ Long.rotateLeft(lsb, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
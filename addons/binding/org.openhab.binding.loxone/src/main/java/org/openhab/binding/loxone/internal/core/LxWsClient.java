@@ -649,22 +649,16 @@ class LxWsClient {
                 } else {
                     // data expected now
                     switch (header.type) {
+                        // the whole table is passed to the server, which decodes the states directly from the
+                        // message buffer; the websocket does not reuse the buffer of a binary message
                         case EVENT_TABLE_OF_VALUE_STATES:
                             stopResponseTimeout();
-                            while (length > 0) {
-                                LxWsStateUpdateEvent event = new LxWsStateUpdateEvent(true, data, offset);
-                                offset += event.getSize();
-                                length -= event.getSize();
-                                notifyMaster(EventType.STATE_UPDATE, null, event);
-                            }
+                            notifyMaster(EventType.STATE_UPDATE, null,
+                                    new LxWsStateUpdateEvent(true, data, offset, length));
                             break;
                         case EVENT_TABLE_OF_TEXT_STATES:
-                            while (length > 0) {
-                                LxWsStateUpdateEvent event = new LxWsStateUpdateEvent(false, data, offset);
-                                offset += event.getSize();
-                                length -= event.getSize();
-                                notifyMaster(EventType.STATE_UPDATE, null, event);
-                            }
+                            notifyMaster(EventType.STATE_UPDATE, null,
+                                    new LxWsStateUpdateEvent(false, data, offset, length));
                             break;
                         case KEEPALIVE_RESPONSE:
                         case TEXT_MESSAGE:
@@ -8,92 +8,173 @@
  */
 package org.openhab.binding.loxone.internal.core;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-
 /**
- * An event received from Loxone Miniserver with control's state update
+ * An event received from Loxone Miniserver with a table of controls' state updates
+ * <p>
+ * The state updates are decoded from the binary message when they are traversed with {@link #next()}, so no objects
+ * are created for state updates of unknown states. The event must be traversed by a single thread.
  *
  * @author Pawel Pieczul - initial contribution
  *
  */
 class LxWsStateUpdateEvent {
-    private LxUuid uuid;
-    @SuppressWarnings("unused")
-    private LxUuid iconUuid;
-    private Double value;
-    private String text;
-    private int size = 0;
+    private static final int UUID_SIZE = 16;
+    private static final int VALUE_EVENT_SIZE = 24;
+    private static final int TEXT_EVENT_HEADER_SIZE = 36;
+
+    private final boolean isValueEvent;
+    private final byte data[];
+    private final int end;
+    private final int count;
+    private int current = -1;
+    private int next;
 
     /**
      * Create new state update event from binary message
      *
      * @param isValueEvent
-     *            true if this event updates double value, false if it updates text message
+     *            true if this event updates double values, false if it updates text messages
      * @param data
-     *            buffer with binary message received from Miniserver
-     * @param offsetParam
-     *            offset in buffer where event is expected
+     *            buffer with binary message received from Miniserver, which must not be modified afterwards
+     * @param offset
+     *            offset in buffer where the table of state updates is expected
+     * @param length
+     *            length of the table of state updates in bytes
+     * @throws IndexOutOfBoundsException
+     *             if the table of state updates is malformed
      */
-    LxWsStateUpdateEvent(boolean isValueEvent, byte data[], int offsetParam) throws IndexOutOfBoundsException {
-        int offset = offsetParam;
-        uuid = new LxUuid(data, offset);
-        offset += 16;
+    LxWsStateUpdateEvent(boolean isValueEvent, byte data[], int offset, int length) throws IndexOutOfBoundsException {
+        this.isValueEvent = isValueEvent;
+        this.data = data;
+        this.next = offset;
+        this.end = offset + length;
+        if (offset < 0 || end > data.length) {
+            throw new IndexOutOfBoundsException("State updates exceed the message");
+        }
+        int count = 0;
+        for (int i = offset; i < end; i += getSize(i)) {
+            count++;
+        }
+        this.count = count;
+    }
 
-        if (isValueEvent) {
-            value = ByteBuffer.wrap(data, offset, 8).order(ByteOrder.LITTLE_ENDIAN).getDouble();
-            size = 24;
-            return;
+    /**
+     * Move to the next state update in the table
+     *
+     * @return
+     *         true if there is a next state update, false if all state updates have been traversed
+     */
+    boolean next() {
+        if (next >= end) {
+            return false;
         }
+        current = next;
+        next += getSize(current);
+        return true;
+    }
 
-        iconUuid = new LxUuid(data, offset);
-        offset += 16;
+    /**
+     * Get number of state updates in the table
+     *
+     * @return
+     *         number of state updates
+     */
+    int getCount() {
+        return count;
+    }
 
-        int textLen = ByteBuffer.wrap(data, offset, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
-        offset += 4;
+    /**
+     * Get the most significant 64 bits of the UUID of the current state
+     *
+     * @return
+     *         most significant 64 bits of the UUID
+     */
+    long getUuidMsb() {
+        return LxUuid.getMostSignificantBits(data, current);
+    }
 
-        text = new String(data, offset, textLen);
-        size = 36 + (textLen % 4 > 0 ? textLen + 4 - (textLen % 4) : textLen);
+    /**
+     * Get the least significant 64 bits of the UUID of the current state
+     *
+     * @return
+     *         least significant 64 bits of the UUID
+     */
+    long getUuidLsb() {
+        return LxUuid.getLeastSignificantBits(data, current);
     }
 
     /**
-     * Get UUID of this state
+     * Get UUID of the current state
      *
      * @return
-     *         UUID of this state
+     *         UUID of the current state
      */
     LxUuid getUuid() {
-        return uuid;
+        return new LxUuid(data, current);
     }
 
     /**
-     * Get current value of this state
+     * Get current value of the current state
      *
      * @return
      *         current value of the state or null if state has no value
      */
     Double getValue() {
-        return value;
+        if (!isValueEvent) {
+            return null;
+        }
+        long bits = 0;
+        for (int i = current + UUID_SIZE + 7; i >= current + UUID_SIZE; i--) {
+            bits = (bits << 8) | (data[i] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
     }
 
     /**
-     * Get current text value of this state
+     * Get current text value of the current state
      *
      * @return
-     *         current text value of this state
+     *         current text value of the state or null if state has no text value
      */
     String getText() {
-        return text;
+        if (isValueEvent) {
+            return null;
+        }
+        return new String(data, current + TEXT_EVENT_HEADER_SIZE, getTextLength(current));
     }
 
     /**
      * Get size of binary representation of state update event in bytes, as received from Loxone Miniserver
      * Used to traverse a binary buffer with more than one state update events
      *
+     * @param offset
+     *            offset of the state update event in the buffer
      * @return
      *         size of event in binary buffer, in bytes
      */
-    int getSize() {
-        return size;
+    private int getSize(int offset) {
+        if (isValueEvent) {
+            if (offset + VALUE_EVENT_SIZE > end) {
+                throw new IndexOutOfBoundsException("State update exceeds the message");
+            }
+            return VALUE_EVENT_SIZE;
+        }
+        // padding of the text may be missing at the end of the message
+        int textLen = getTextLength(offset);
+        return TEXT_EVENT_HEADER_SIZE + (textLen % 4 > 0 ? textLen + 4 - (textLen % 4) : textLen);
+    }
+
+    private int getTextLength(int offset) {
+        // text length follows the UUIDs of the state and its icon
+        int lengthOffset = offset + 2 * UUID_SIZE;
+        if (lengthOffset + 4 > end) {
+            throw new IndexOutOfBoundsException("State update exceeds the message");
+        }
+        int textLen = (data[lengthOffset] & 0xFF) | (data[lengthOffset + 1] & 0xFF) << 8
+                | (data[lengthOffset + 2] & 0xFF) << 16 | (data[lengthOffset + 3] & 0xFF) << 24;
+        if (textLen < 0 || textLen > end - lengthOffset - 4) {
+            throw new IndexOutOfBoundsException("Text of state update exceeds the message");
+        }
+        return textLen;
     }
 }
@@ -726,6 +726,50 @@ public class ModbusDataHandlerTest extends JavaTest {
         // no datetime, conversion not possible without transformation
     }
 
+    @SuppressWarnings("null")
+    @Test
+    public void testOnRegistersUnchangedValueUpdatedEveryNPolls() {
+        ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("thisishost", 502);
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        doReturn(3).when(request).getDataLength();
+        doReturn(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS).when(request).getFunctionCode();
+        PollTask task = Mockito.mock(PollTask.class);
+        doReturn(endpoint).when(task).getEndpoint();
+        doReturn(request).when(task).getRequest();
+        Bridge poller = createPollerMock("poller1", task);
+
+        Configuration dataConfig = new Configuration();
+        dataConfig.put("readStart", "0");
+        dataConfig.put("readTransform", "default");
+        dataConfig.put("readValueType", "int16");
+        dataConfig.put("updateUnchangedValuesEveryNPolls", 3);
+        ModbusDataThingHandler dataHandler = createDataHandler("read1", poller,
+                builder -> builder.withConfiguration(dataConfig));
+        ChannelUID numberUID = new ChannelUID(dataHandler.getThing().getUID(), CHANNEL_NUMBER);
+        ChannelUID lastReadSuccessUID = new ChannelUID(dataHandler.getThing().getUID(), CHANNEL_LAST_READ_SUCCESS);
+
+        ModbusRegisterArray registers = new BasicModbusRegisterArray(
+                new ModbusRegister[] { new BasicModbusRegister((byte) 0, (byte) 5) });
+        for (int i = 0; i < 5; i++) {
+            dataHandler.onRegisters(request, registers);
+        }
+        // first poll, and third unchanged poll after that
+        assertThat(stateUpdates.get(numberUID), is(equalTo(Arrays.asList(new DecimalType(5), new DecimalType(5)))));
+        assertThat(stateUpdates.get(lastReadSuccessUID).size(), is(equalTo(5)));
+
+        // changed value is updated immediately
+        dataHandler.onRegisters(request,
+                new BasicModbusRegisterArray(new ModbusRegister[] { new BasicModbusRegister((byte) 0, (byte) 6) }));
+        assertThat(stateUpdates.get(numberUID).size(), is(equalTo(3)));
+        assertThat(stateUpdates.get(numberUID).get(2), is(equalTo(new DecimalType(6))));
+
+        // unchanged value is updated after read error
+        dataHandler.onError(request, new Exception("fooerror"));
+        dataHandler.onRegisters(request,
+                new BasicModbusRegisterArray(new ModbusRegister[] { new BasicModbusRegister((byte) 0, (byte) 6) }));
+        assertThat(stateUpdates.get(numberUID).size(), is(equalTo(4)));
+    }
+
     private void mockTransformation(String name, TransformationService service) throws InvalidSyntaxException {
         doReturn(Arrays.asList(new Object[] { null })).when(bundleContext)
                 .getServiceReferences(TransformationService.class, "(smarthome.transform=" + name + ")");
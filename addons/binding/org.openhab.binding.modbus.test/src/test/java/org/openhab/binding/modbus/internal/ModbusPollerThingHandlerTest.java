@@ -19,6 +19,8 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
@@ -50,6 +52,8 @@ import org.openhab.binding.modbus.internal.handler.ModbusDataThingHandler;
 import org.openhab.binding.modbus.internal.handler.ModbusPollerThingHandler;
 import org.openhab.binding.modbus.internal.handler.ModbusPollerThingHandlerImpl;
 import org.openhab.binding.modbus.internal.handler.ModbusTcpThingHandler;
+import org.openhab.io.transport.modbus.AdaptivePollListener;
+import org.openhab.io.transport.modbus.AdaptivePollStatistics;
 import org.openhab.io.transport.modbus.BitArray;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
@@ -254,6 +258,79 @@ public class ModbusPollerThingHandlerTest {
         testPollingGeneric("holding", () -> isRequestOkGeneric(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS));
     }
 
+    @Test
+    public void testAdaptivePollingUpdatesProperties()
+            throws IllegalArgumentException, IllegalAccessException, NoSuchFieldException, SecurityException {
+        Configuration pollerConfig = new Configuration();
+        pollerConfig.put("refresh", 150L);
+        pollerConfig.put("start", 5);
+        pollerConfig.put("length", 13);
+        pollerConfig.put("type", "coil");
+        pollerConfig.put("adaptivePolling", true);
+        poller = createPollerThingBuilder("poller").withConfiguration(pollerConfig).withBridge(endpoint.getUID())
+                .build();
+        registerThingToMockRegistry(poller);
+        hookStatusUpdates(poller);
+
+        ModbusPollerThingHandlerImpl thingHandler = new ModbusPollerThingHandlerImpl(poller, () -> modbusManager);
+        thingHandler.setCallback(thingCallback);
+        poller.setHandler(thingHandler);
+        hookItemRegistry(thingHandler);
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        Field schedulerField = BaseThingHandler.class.getDeclaredField("scheduler");
+        schedulerField.setAccessible(true);
+        schedulerField.set(thingHandler, scheduler);
+
+        thingHandler.initialize();
+        assertThat(poller.getStatus(), is(equalTo(ThingStatus.ONLINE)));
+
+        ArgumentCaptor<PollTask> pollTaskCapturer = ArgumentCaptor.forClass(PollTask.class);
+        ArgumentCaptor<AdaptivePollListener> listenerCapturer = ArgumentCaptor.forClass(AdaptivePollListener.class);
+        verify(modbusManager).registerRegularPoll(pollTaskCapturer.capture(), eq(150L), eq(0L),
+                listenerCapturer.capture());
+        verifyNoMoreInteractions(modbusManager);
+
+        AdaptivePollStatistics statistics = mock(AdaptivePollStatistics.class);
+        doReturn(150L).when(statistics).getConfiguredPeriodMillis();
+        doReturn(600L).when(statistics).getEffectivePeriodMillis();
+        doReturn(12L).when(statistics).getAverageDurationMillis();
+        doReturn(0.5).when(statistics).getErrorRate();
+        doReturn(2).when(statistics).getConsecutiveFailures();
+        listenerCapturer.getValue().onPollPeriodUpdated(pollTaskCapturer.getValue(), statistics);
+
+        assertThat(poller.getProperties().get(ModbusBindingConstantsInternal.PROPERTY_EFFECTIVE_POLL_PERIOD),
+                is(equalTo("600")));
+        assertThat(poller.getProperties().get(ModbusBindingConstantsInternal.PROPERTY_AVERAGE_POLL_DURATION),
+                is(equalTo("12")));
+        assertThat(poller.getProperties().get(ModbusBindingConstantsInternal.PROPERTY_CONSECUTIVE_POLL_FAILURES),
+                is(equalTo("2")));
+
+        // small changes are not published right away
+        doReturn(650L).when(statistics).getEffectivePeriodMillis();
+        listenerCapturer.getValue().onPollPeriodUpdated(pollTaskCapturer.getValue(), statistics);
+        assertThat(poller.getProperties().get(ModbusBindingConstantsInternal.PROPERTY_EFFECTIVE_POLL_PERIOD),
+                is(equalTo("600")));
+
+        // ...but once the interval is over
+        ArgumentCaptor<Runnable> publishCapturer = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(publishCapturer.capture(), ArgumentMatchers.anyLong(), eq(TimeUnit.MILLISECONDS));
+        doReturn(660L).when(statistics).getEffectivePeriodMillis();
+        publishCapturer.getValue().run();
+        assertThat(poller.getProperties().get(ModbusBindingConstantsInternal.PROPERTY_EFFECTIVE_POLL_PERIOD),
+                is(equalTo("660")));
+
+        doReturn(1200L).when(statistics).getEffectivePeriodMillis();
+        listenerCapturer.getValue().onPollPeriodUpdated(pollTaskCapturer.getValue(), statistics);
+        assertThat(poller.getProperties().get(ModbusBindingConstantsInternal.PROPERTY_EFFECTIVE_POLL_PERIOD),
+                is(equalTo("1200")));
+
+        // back to the configured period
+        doReturn(150L).when(statistics).getEffectivePeriodMillis();
+        listenerCapturer.getValue().onPollPeriodUpdated(pollTaskCapturer.getValue(), statistics);
+        assertThat(poller.getProperties().get(ModbusBindingConstantsInternal.PROPERTY_EFFECTIVE_POLL_PERIOD),
+                is(equalTo("150")));
+    }
+
     @SuppressWarnings("null")
     @Test
     public void testDisconnectOnDispose()
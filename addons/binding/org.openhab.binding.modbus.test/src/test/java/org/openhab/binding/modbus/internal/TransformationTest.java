@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.eclipse.smarthome.core.transform.TransformationService;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceReference;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TransformationTest {
+
+    private static final String FILTER = "(smarthome.transform=MULTIPLY)";
+
+    @Mock
+    private BundleContext context;
+
+    private void mockTransformation() throws InvalidSyntaxException {
+        TransformationService service = new TransformationService() {
+
+            @Override
+            public String transform(String function, String source) throws TransformationException {
+                return String.valueOf(Integer.parseInt(function) * Integer.parseInt(source));
+            }
+        };
+        doReturn(Arrays.asList(new Object[] { null })).when(context).getServiceReferences(TransformationService.class,
+                FILTER);
+        doReturn(service).when(context).getService(any());
+    }
+
+    @Test
+    public void testTransformationServiceResolvedOnce() throws InvalidSyntaxException {
+        mockTransformation();
+        Transformation transformation = new Transformation("MULTIPLY(3)");
+        for (int i = 0; i < 100; i++) {
+            assertThat(transformation.transform(context, String.valueOf(i)), is(equalTo(String.valueOf(3 * i))));
+        }
+        verify(context, times(1)).getServiceReferences(TransformationService.class, FILTER);
+        verify(context, times(1)).addServiceListener(any(), anyString());
+    }
+
+    @Test
+    public void testTransformationServiceResolvedAgainAfterServiceChange() throws InvalidSyntaxException {
+        mockTransformation();
+        Transformation transformation = new Transformation("MULTIPLY(3)");
+        assertThat(transformation.transform(context, "2"), is(equalTo("6")));
+
+        ArgumentCaptor<ServiceListener> listener = ArgumentCaptor.forClass(ServiceListener.class);
+        verify(context).addServiceListener(listener.capture(), anyString());
+        listener.getValue().serviceChanged(new ServiceEvent(ServiceEvent.UNREGISTERING, mock(ServiceReference.class)));
+
+        assertThat(transformation.transform(context, "2"), is(equalTo("6")));
+        assertThat(transformation.transform(context, "2"), is(equalTo("6")));
+        verify(context, times(2)).getServiceReferences(TransformationService.class, FILTER);
+    }
+
+    @Test
+    public void testDisposeRemovesListener() throws InvalidSyntaxException {
+        mockTransformation();
+        Transformation transformation = new Transformation("MULTIPLY(3)");
+        transformation.transform(context, "2");
+        ArgumentCaptor<ServiceListener> listener = ArgumentCaptor.forClass(ServiceListener.class);
+        verify(context).addServiceListener(listener.capture(), anyString());
+
+        transformation.dispose();
+        verify(context).removeServiceListener(listener.getValue());
+    }
+
+    @Test
+    public void testTransformStateRemembersParsedStatePerTypes() throws InvalidSyntaxException {
+        mockTransformation();
+        Transformation transformation = new Transformation("MULTIPLY(3)");
+        List<Class<? extends State>> numberTypes = Arrays.asList(DecimalType.class);
+        List<Class<? extends State>> stringTypes = Arrays.asList(StringType.class);
+
+        State first = transformation.transformState(context, numberTypes, new DecimalType(2));
+        assertThat(first, is(equalTo(new DecimalType(6))));
+        assertThat(transformation.transformState(context, numberTypes, new DecimalType(2)), is(sameInstance(first)));
+        assertThat(transformation.transformState(context, stringTypes, new DecimalType(2)),
+                is(equalTo(new StringType("6"))));
+        assertThat(transformation.transformState(context, numberTypes, new DecimalType(3)),
+                is(equalTo(new DecimalType(9))));
+    }
+
+    @Test
+    public void testTransformStateUnparseable() {
+        List<Class<? extends State>> types = Arrays.asList(OnOffType.class);
+        assertThat(Transformation.IDENTITY_TRANSFORMATION.transformState(context, types, new DecimalType(2)),
+                is(nullValue()));
+        assertThat(Transformation.IDENTITY_TRANSFORMATION.transformState(context, types, new StringType("ON")),
+                is(equalTo(OnOffType.ON)));
+    }
+}
@@ -45,6 +45,14 @@ public class ModbusBindingConstantsInternal {
     public static final String CHANNEL_LAST_WRITE_SUCCESS = "lastWriteSuccess";
     public static final String CHANNEL_LAST_WRITE_ERROR = "lastWriteError";
 
+    // List of poller properties, updated with adaptive polling
+    public static final String PROPERTY_EFFECTIVE_POLL_PERIOD = "effectivePollPeriodMillis";
+    public static final String PROPERTY_AVERAGE_POLL_DURATION = "averagePollDurationMillis";
+    public static final String PROPERTY_POLL_ERROR_RATE = "pollErrorRate";
+    public static final String PROPERTY_CONSECUTIVE_POLL_FAILURES = "consecutivePollFailures";
+    public static final String[] ADAPTIVE_POLL_PROPERTIES = { PROPERTY_EFFECTIVE_POLL_PERIOD,
+            PROPERTY_AVERAGE_POLL_DURATION, PROPERTY_POLL_ERROR_RATE, PROPERTY_CONSECUTIVE_POLL_FAILURES };
+
     public static final String[] DATA_CHANNELS = { CHANNEL_SWITCH, CHANNEL_CONTACT, CHANNEL_DATETIME, CHANNEL_DIMMER,
             CHANNEL_NUMBER, CHANNEL_STRING, CHANNEL_ROLLERSHUTTER };
 
@@ -12,7 +12,9 @@ import static org.apache.commons.lang.StringUtils.isEmpty;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,6 +33,8 @@ import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.TypeParser;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +43,10 @@ import org.slf4j.LoggerFactory;
  *
  * Inspired from other openHAB binding "Transformation" classes.
  *
+ * The transformation is parsed once on construction. The transformation service is resolved on first use, and kept
+ * until the service is unregistered or modified. The latest parsed state is remembered for each list of accepted
+ * types, so that unchanged transformation output is not parsed again.
+ *
  * @author Sami Salonen - Initial contribution
  *
  */
@@ -63,6 +71,11 @@ public class Transformation {
 
     private final Logger logger = LoggerFactory.getLogger(Transformation.class);
 
+    /**
+     * Upper bound for the number of accepted type lists to remember the parsed state for
+     */
+    private static final int MAX_PARSED_STATES = 32;
+
     private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
 
     static {
@@ -76,6 +89,27 @@ public class Transformation {
     @Nullable
     private final String transformationServiceParam;
 
+    /**
+     * Transformation output parsed to state
+     */
+    private static class ParsedState {
+        private final String transformed;
+        private final @Nullable State state;
+
+        private ParsedState(String transformed, @Nullable State state) {
+            this.transformed = transformed;
+            this.state = state;
+        }
+    }
+
+    private final Map<List<Class<? extends State>>, ParsedState> parsedStates = new ConcurrentHashMap<>();
+
+    private final ServiceListener serviceListener = event -> invalidateTransformationService();
+    // all below guarded by this
+    private @Nullable TransformationService transformationService;
+    private @Nullable BundleContext listenerContext;
+    private long serviceGeneration;
+
     /**
      *
      * @param transformation either FUN(VAL) (standard transformation syntax), default (identity transformation
@@ -134,7 +168,7 @@ public class Transformation {
                             "transformation service parameter is missing! Invalid transform?");
                 }
                 @Nullable
-                TransformationService transformationService = TransformationHelper.getTransformationService(context,
+                TransformationService transformationService = getTransformationService(context,
                         transformationServiceName);
                 if (transformationService != null) {
                     transformedResponse = transformationService.transform(transformationServiceParam, value);
@@ -162,6 +196,65 @@ public class Transformation {
         return transformedResponse == null ? "" : transformedResponse;
     }
 
+    /**
+     * Get the transformation service, resolving it only if not resolved already
+     */
+    private @Nullable TransformationService getTransformationService(BundleContext context, String serviceName) {
+        long generation;
+        synchronized (this) {
+            if (transformationService != null) {
+                return transformationService;
+            }
+            if (listenerContext == null) {
+                // Listen before resolving, not to miss changes
+                String filter = String.format("(&(objectClass=%s)(smarthome.transform=%s))",
+                        TransformationService.class.getName(), serviceName);
+                try {
+                    context.addServiceListener(serviceListener, filter);
+                    listenerContext = context;
+                } catch (InvalidSyntaxException e) {
+                    logger.warn("Cannot listen for changes of transformation service '{}': {}", serviceName,
+                            e.getMessage());
+                }
+            }
+            generation = serviceGeneration;
+        }
+        @Nullable
+        TransformationService service = TransformationHelper.getTransformationService(context, serviceName);
+        synchronized (this) {
+            if (listenerContext != null && generation == serviceGeneration) {
+                // Service did not change while resolving
+                transformationService = service;
+            }
+        }
+        return service;
+    }
+
+    private synchronized void invalidateTransformationService() {
+        transformationService = null;
+        serviceGeneration++;
+    }
+
+    /**
+     * Release the transformation service, and stop listening for its changes
+     */
+    public void dispose() {
+        BundleContext context;
+        synchronized (this) {
+            context = listenerContext;
+            listenerContext = null;
+            invalidateTransformationService();
+        }
+        if (context != null) {
+            try {
+                context.removeServiceListener(serviceListener);
+            } catch (IllegalStateException e) {
+                // bundle context is no longer valid, listener is removed already
+            }
+        }
+        parsedStates.clear();
+    }
+
     public boolean isIdentityTransform() {
         return TRANSFORM_DEFAULT.equalsIgnoreCase(this.transformation);
     }
@@ -184,7 +277,16 @@ public class Transformation {
         // overhead but takes care of DecimalType -> PercentType conversions, for example.
         final String stateAsString = state.toString();
         final String transformed = transform(context, stateAsString);
-        return TypeParser.parseState(types, transformed);
+        ParsedState parsed = parsedStates.get(types);
+        if (parsed != null && parsed.transformed.equals(transformed)) {
+            return parsed.state;
+        }
+        State transformedState = TypeParser.parseState(types, transformed);
+        if (parsedStates.size() >= MAX_PARSED_STATES) {
+            parsedStates.clear();
+        }
+        parsedStates.put(types, new ParsedState(transformed, transformedState));
+        return transformedState;
     }
 
     public boolean hasTransformationService() {
@@ -26,6 +26,7 @@ public class ModbusPollerConfiguration {
     private String type;
     private int maxTries = 3;// backwards compatibility and tests
     private long cacheMillis = 50L;
+    private boolean adaptivePolling;
 
     /**
      * Gets refresh period in milliseconds
@@ -113,4 +114,18 @@ public class ModbusPollerConfiguration {
         this.cacheMillis = cacheMillis;
     }
 
+    /**
+     * Gets whether poll period is stretched with slow or failing slaves
+     */
+    public boolean isAdaptivePolling() {
+        return adaptivePolling;
+    }
+
+    /**
+     * Sets whether poll period is stretched with slow or failing slaves
+     */
+    public void setAdaptivePolling(boolean adaptivePolling) {
+        this.adaptivePolling = adaptivePolling;
+    }
+
 }
@@ -39,6 +39,8 @@ public class ModbusSerialConfiguration {
     private int timeBetweenTransactionsMillis;
     private int connectMaxTries;
     private int connectTimeoutMillis;
+    private boolean coalescePolls;
+    private boolean rtuBusScheduling;
 
     public @Nullable String getPort() {
         return port;
@@ -152,4 +154,20 @@ public class ModbusSerialConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public boolean isCoalescePolls() {
+        return coalescePolls;
+    }
+
+    public void setCoalescePolls(boolean coalescePolls) {
+        this.coalescePolls = coalescePolls;
+    }
+
+    public boolean isRtuBusScheduling() {
+        return rtuBusScheduling;
+    }
+
+    public void setRtuBusScheduling(boolean rtuBusScheduling) {
+        this.rtuBusScheduling = rtuBusScheduling;
+    }
+
 }
@@ -28,6 +28,10 @@ public class ModbusTcpConfiguration {
     private int connectMaxTries;
     private int reconnectAfterMillis;
     private int connectTimeoutMillis;
+    private boolean coalescePolls;
+    private int maxPipelinedTransactions;
+    private int responseTimeoutMillis;
+    private boolean nonBlockingIO;
 
     public @Nullable String getHost() {
         return host;
@@ -93,4 +97,36 @@ public class ModbusTcpConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public boolean isCoalescePolls() {
+        return coalescePolls;
+    }
+
+    public void setCoalescePolls(boolean coalescePolls) {
+        this.coalescePolls = coalescePolls;
+    }
+
+    public int getMaxPipelinedTransactions() {
+        return maxPipelinedTransactions;
+    }
+
+    public void setMaxPipelinedTransactions(int maxPipelinedTransactions) {
+        this.maxPipelinedTransactions = maxPipelinedTransactions;
+    }
+
+    public int getResponseTimeoutMillis() {
+        return responseTimeoutMillis;
+    }
+
+    public void setResponseTimeoutMillis(int responseTimeoutMillis) {
+        this.responseTimeoutMillis = responseTimeoutMillis;
+    }
+
+    public boolean isNonBlockingIO() {
+        return nonBlockingIO;
+    }
+
+    public void setNonBlockingIO(boolean nonBlockingIO) {
+        this.nonBlockingIO = nonBlockingIO;
+    }
+
 }
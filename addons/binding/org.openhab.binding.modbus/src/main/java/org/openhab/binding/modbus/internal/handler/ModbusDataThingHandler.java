@@ -135,6 +135,16 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
     private volatile boolean childOfEndpoint;
     private volatile @Nullable ModbusPollerThingHandler pollerHandler;
     private volatile Map<String, ChannelUID> channelCache = new HashMap<>();
+    /**
+     * Raw value of the latest registers or bit read, and the numeric state decoded from it. The state is decoded again
+     * only when the raw value changes. Null state means that there is no valid previous value to compare to.
+     */
+    private volatile long lastRawValue;
+    private volatile @Nullable DecimalType lastNumericState;
+    /**
+     * Number of polls with unchanged value since channels were last updated
+     */
+    private volatile int unchangedPollCount;
 
     private volatile LocalDateTime lastStatusInfoUpdate = LocalDateTime.MIN;
     private volatile ThingStatusInfo statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE,
@@ -153,6 +163,8 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         if (config == null || manager == null) {
             return;
         }
+        // Refresh and writes should be reflected in channels even if the polled value does not change
+        invalidateLastValue();
 
         if (RefreshType.REFRESH == command) {
             ModbusPollerThingHandler poller = pollerHandler;
@@ -377,13 +389,25 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         }
     }
 
+    private void disposeTransformations() {
+        Transformation readTransformation = this.readTransformation;
+        if (readTransformation != null) {
+            readTransformation.dispose();
+        }
+        Transformation writeTransformation = this.writeTransformation;
+        if (writeTransformation != null) {
+            writeTransformation.dispose();
+        }
+        this.readTransformation = null;
+        this.writeTransformation = null;
+    }
+
     @Override
     public synchronized void dispose() {
         config = null;
         readValueType = null;
         writeValueType = null;
-        readTransformation = null;
-        writeTransformation = null;
+        disposeTransformations();
         readIndex = Optional.empty();
         readSubIndex = Optional.empty();
         writeStart = null;
@@ -398,6 +422,9 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         childOfEndpoint = false;
         pollerHandler = null;
         channelCache = new HashMap<>();
+        lastRawValue = 0;
+        lastNumericState = null;
+        unchangedPollCount = 0;
         lastStatusInfoUpdate = LocalDateTime.MIN;
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
     }
@@ -661,9 +688,16 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             int itemsPerRegister = 16 / readValueType.getBits();
             extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
         }
-        numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType);
+        long rawValue = ModbusBitUtilities.extractRawValueFromRegisters(registers, extractIndex, readValueType);
+        numericState = lastNumericState;
+        boolean changed = numericState == null || rawValue != lastRawValue;
+        if (changed) {
+            numericState = ModbusBitUtilities.rawValueToState(rawValue, readValueType);
+            lastRawValue = rawValue;
+            lastNumericState = numericState;
+        }
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
-        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
+        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue, shouldUpdateChannels(changed));
         logger.debug(
                 "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> numeric value {} and boolValue={}. Registers {} for request {}",
                 thing.getUID(), values, readValueType, readIndex, readSubIndex.orElse(0), extractIndex, numericState,
@@ -678,8 +712,15 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             return;
         }
         boolean boolValue = bits.getBit(readIndex.get() - pollStart);
-        DecimalType numericState = boolValue ? new DecimalType(BigDecimal.ONE) : DecimalType.ZERO;
-        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
+        long rawValue = boolValue ? 1 : 0;
+        DecimalType numericState = lastNumericState;
+        boolean changed = numericState == null || rawValue != lastRawValue;
+        if (changed) {
+            numericState = boolValue ? new DecimalType(BigDecimal.ONE) : DecimalType.ZERO;
+            lastRawValue = rawValue;
+            lastNumericState = numericState;
+        }
+        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue, shouldUpdateChannels(changed));
         logger.debug(
                 "Thing {} channels updated: {}. readValueType={}, readIndex={} -> numeric value {} and boolValue={}. Bits {} for request {}",
                 thing.getUID(), values, readValueType, readIndex, numericState, boolValue, bits, request);
@@ -704,6 +745,8 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
                     getThing().getUID(), getThing().getLabel(), error.getClass().getName(), error.toString(),
                     error.getMessage(), error);
         }
+        // Value is updated to channels on next successful read
+        invalidateLastValue();
         Map<@NonNull ChannelUID, @NonNull State> states = new HashMap<>();
         ChannelUID lastReadErrorUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_ERROR);
         if (isLinked(lastReadErrorUID)) {
@@ -774,18 +817,59 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         }
     }
 
+    /**
+     * Whether value channels should be updated with the polled value
+     *
+     * Changed values are always updated. Unchanged values are updated on every N'th poll, as configured with
+     * updateUnchangedValuesEveryNPolls. Zero disables updates of unchanged values altogether.
+     *
+     * @param changed whether the polled value differs from the previous one
+     * @return true if channels should be updated
+     */
+    private boolean shouldUpdateChannels(boolean changed) {
+        ModbusDataConfiguration config = this.config;
+        int updateEvery = config == null ? 1 : config.getUpdateUnchangedValuesEveryNPolls();
+        if (changed) {
+            unchangedPollCount = 0;
+            return true;
+        }
+        unchangedPollCount++;
+        if (updateEvery > 0 && unchangedPollCount >= updateEvery) {
+            unchangedPollCount = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Forget the previous value, so that the next value read is updated to channels
+     */
+    private void invalidateLastValue() {
+        lastNumericState = null;
+    }
+
+    @Override
+    public void channelLinked(ChannelUID channelUID) {
+        // Newly linked channel should receive the value with next poll
+        invalidateLastValue();
+        super.channelLinked(channelUID);
+    }
+
     /**
      * Update linked channels
      *
      * @param numericState numeric state corresponding to polled data
      * @param boolValue boolean value corresponding to polled data
+     * @param updateValueChannels whether value channels should be updated, the last read success channel is updated
+     *            regardless
      * @return updated channel data
      */
-    private Map<ChannelUID, State> processUpdatedValue(DecimalType numericState, boolean boolValue) {
+    private Map<ChannelUID, State> processUpdatedValue(DecimalType numericState, boolean boolValue,
+            boolean updateValueChannels) {
         Map<@NonNull ChannelUID, @NonNull State> states = new HashMap<>();
         CHANNEL_ID_TO_ACCEPTED_TYPES.keySet().stream().forEach(channelId -> {
             ChannelUID channelUID = getChannelUID(channelId);
-            if (!isLinked(channelUID)) {
+            if (!updateValueChannels || !isLinked(channelUID)) {
                 return;
             }
             List<Class<? extends State>> acceptedDataTypes = CHANNEL_ID_TO_ACCEPTED_TYPES.get(channelId);
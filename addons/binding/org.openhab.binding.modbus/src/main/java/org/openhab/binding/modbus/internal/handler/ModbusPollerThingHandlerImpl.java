@@ -10,8 +10,12 @@ package org.openhab.binding.modbus.internal.handler;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -34,6 +38,7 @@ import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.AtomicStampedKeyValue;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
 import org.openhab.binding.modbus.internal.config.ModbusPollerConfiguration;
+import org.openhab.io.transport.modbus.AdaptivePollStatistics;
 import org.openhab.io.transport.modbus.BitArray;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
@@ -244,12 +249,28 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
 
     private final Logger logger = LoggerFactory.getLogger(ModbusPollerThingHandlerImpl.class);
 
+    /**
+     * Minimum interval between updates of the adaptive polling properties, unless the poll period changes
+     * significantly
+     */
+    private static final long ADAPTIVE_POLL_PROPERTIES_INTERVAL_MILLIS = 60_000;
+    /**
+     * Relative change of the effective poll period which is shown in the properties right away
+     */
+    private static final double SIGNIFICANT_POLL_PERIOD_CHANGE = 0.25;
+
     @NonNullByDefault({})
     private ModbusPollerConfiguration config;
     private long cacheMillis;
     private volatile @Nullable PollTask pollTask;
     private Supplier<ModbusManager> managerRef;
     private volatile boolean disposed;
+    // all guarded by adaptivePollPropertiesLock
+    private final Object adaptivePollPropertiesLock = new Object();
+    private long publishedPollPeriodMillis = -1;
+    private long adaptivePollPropertiesUpdatedMillis;
+    private @Nullable AdaptivePollStatistics pendingPollStatistics;
+    private @Nullable ScheduledFuture<?> pendingPollPropertiesJob;
     private volatile List<ModbusReadCallback> childCallbacks = new CopyOnWriteArrayList<>();
 
     private ReadCallbackDelegator callbackDelegator = new ReadCallbackDelegator();
@@ -313,6 +334,7 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
         logger.debug("dispose()");
         // Mark handler as disposed as soon as possible to halt processing of callbacks
         disposed = true;
+        cancelPendingPollProperties();
         unregisterPollTask();
         this.callbackDelegator.resetCache();
     }
@@ -369,17 +391,121 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
         @NonNull
         PollTask task = new BasicPollTaskImpl(endpoint, request, callbackDelegator);
         pollTask = task;
+        synchronized (adaptivePollPropertiesLock) {
+            cancelPendingPollProperties();
+            publishedPollPeriodMillis = -1;
+        }
 
         if (config.getRefresh() <= 0L) {
             logger.debug("Not registering polling with ModbusManager since refresh disabled");
             updateStatus(ThingStatus.ONLINE, ThingStatusDetail.NONE, "Not polling");
         } else {
             logger.debug("Registering polling with ModbusManager");
-            managerRef.get().registerRegularPoll(task, config.getRefresh(), 0);
+            if (config.isAdaptivePolling()) {
+                managerRef.get().registerRegularPoll(task, config.getRefresh(), 0, this::onPollPeriodUpdated);
+            } else {
+                removeAdaptivePollProperties();
+                managerRef.get().registerRegularPoll(task, config.getRefresh(), 0);
+            }
             updateStatus(ThingStatus.ONLINE);
         }
     }
 
+    /**
+     * Show the state of adaptive polling in the thing properties
+     *
+     * The properties are persisted with the thing, so they are updated at most once per
+     * {@link #ADAPTIVE_POLL_PROPERTIES_INTERVAL_MILLIS}, unless the effective poll period changes significantly.
+     * Updates skipped within the interval are not lost: the latest one is published when the interval ends.
+     */
+    private void onPollPeriodUpdated(PollTask task, AdaptivePollStatistics statistics) {
+        if (disposed || task != pollTask) {
+            return;
+        }
+        long periodMillis = statistics.getEffectivePeriodMillis();
+        if (periodMillis > statistics.getConfiguredPeriodMillis()) {
+            logger.debug("Poller {} stretched poll interval to {} ms: average duration {} ms, {} failures in a row",
+                    getThing().getUID(), periodMillis, statistics.getAverageDurationMillis(),
+                    statistics.getConsecutiveFailures());
+        }
+        if (shouldPublishPollPeriod(task, statistics, periodMillis)) {
+            updateAdaptivePollProperties(statistics, periodMillis);
+        }
+    }
+
+    private void updateAdaptivePollProperties(AdaptivePollStatistics statistics, long periodMillis) {
+        Map<String, String> properties = editProperties();
+        properties.put(ModbusBindingConstantsInternal.PROPERTY_EFFECTIVE_POLL_PERIOD, String.valueOf(periodMillis));
+        properties.put(ModbusBindingConstantsInternal.PROPERTY_AVERAGE_POLL_DURATION,
+                String.valueOf(statistics.getAverageDurationMillis()));
+        properties.put(ModbusBindingConstantsInternal.PROPERTY_POLL_ERROR_RATE,
+                String.format(Locale.ROOT, "%.2f", statistics.getErrorRate()));
+        properties.put(ModbusBindingConstantsInternal.PROPERTY_CONSECUTIVE_POLL_FAILURES,
+                String.valueOf(statistics.getConsecutiveFailures()));
+        updateProperties(properties);
+    }
+
+    private boolean shouldPublishPollPeriod(PollTask task, AdaptivePollStatistics statistics, long periodMillis) {
+        long configuredPeriodMillis = statistics.getConfiguredPeriodMillis();
+        long now = System.currentTimeMillis();
+        synchronized (adaptivePollPropertiesLock) {
+            long published = publishedPollPeriodMillis;
+            // first update, back to the configured period, or stretched by a significant amount
+            boolean significantChange = published < 0
+                    || (periodMillis == configuredPeriodMillis) != (published == configuredPeriodMillis)
+                    || Math.abs(periodMillis - published) > SIGNIFICANT_POLL_PERIOD_CHANGE * published;
+            long elapsedMillis = now - adaptivePollPropertiesUpdatedMillis;
+            if (!significantChange && elapsedMillis < ADAPTIVE_POLL_PROPERTIES_INTERVAL_MILLIS) {
+                // keep the latest statistics, and publish them once the interval is over
+                pendingPollStatistics = statistics;
+                if (pendingPollPropertiesJob == null) {
+                    pendingPollPropertiesJob = scheduler.schedule(() -> publishPendingPollProperties(task),
+                            ADAPTIVE_POLL_PROPERTIES_INTERVAL_MILLIS - elapsedMillis, TimeUnit.MILLISECONDS);
+                }
+                return false;
+            }
+            cancelPendingPollProperties();
+            publishedPollPeriodMillis = periodMillis;
+            adaptivePollPropertiesUpdatedMillis = now;
+            return true;
+        }
+    }
+
+    private void publishPendingPollProperties(PollTask task) {
+        AdaptivePollStatistics statistics;
+        long periodMillis;
+        synchronized (adaptivePollPropertiesLock) {
+            statistics = pendingPollStatistics;
+            pendingPollStatistics = null;
+            pendingPollPropertiesJob = null;
+            if (statistics == null || disposed || task != pollTask) {
+                return;
+            }
+            periodMillis = statistics.getEffectivePeriodMillis();
+            publishedPollPeriodMillis = periodMillis;
+            adaptivePollPropertiesUpdatedMillis = System.currentTimeMillis();
+        }
+        updateAdaptivePollProperties(statistics, periodMillis);
+    }
+
+    private void cancelPendingPollProperties() {
+        synchronized (adaptivePollPropertiesLock) {
+            ScheduledFuture<?> job = pendingPollPropertiesJob;
+            if (job != null) {
+                job.cancel(false);
+            }
+            pendingPollPropertiesJob = null;
+            pendingPollStatistics = null;
+        }
+    }
+
+    private void removeAdaptivePollProperties() {
+        Map<String, String> properties = editProperties();
+        if (properties.keySet().removeAll(Arrays.asList(ModbusBindingConstantsInternal.ADAPTIVE_POLL_PROPERTIES))) {
+            updateProperties(properties);
+        }
+    }
+
     private boolean hasConfigurationError() {
         ThingStatusInfo statusInfo = getThing().getStatusInfo();
         return statusInfo.getStatus() == ThingStatus.OFFLINE
@@ -55,6 +55,8 @@ public class ModbusSerialThingHandler
         this.poolConfiguration = poolConfiguration;
         poolConfiguration.setConnectMaxTries(config.getConnectMaxTries());
         poolConfiguration.setConnectTimeoutMillis(config.getConnectTimeoutMillis());
+        poolConfiguration.setCoalescePolls(config.isCoalescePolls());
+        poolConfiguration.setRtuBusScheduling(config.isRtuBusScheduling());
         poolConfiguration.setInterTransactionDelayMillis(config.getTimeBetweenTransactionsMillis());
 
         // Never reconnect serial connections "automatically"
@@ -49,9 +49,13 @@ public class ModbusTcpThingHandler
         this.poolConfiguration = poolConfiguration;
         poolConfiguration.setConnectMaxTries(config.getConnectMaxTries());
         poolConfiguration.setConnectTimeoutMillis(config.getConnectTimeoutMillis());
+        poolConfiguration.setCoalescePolls(config.isCoalescePolls());
         poolConfiguration.setInterConnectDelayMillis(config.getTimeBetweenReconnectMillis());
         poolConfiguration.setInterTransactionDelayMillis(config.getTimeBetweenTransactionsMillis());
+        poolConfiguration.setMaxPipelinedTransactions(config.getMaxPipelinedTransactions());
+        poolConfiguration.setNonBlockingIO(config.isNonBlockingIO());
         poolConfiguration.setReconnectAfterMillis(config.getReconnectAfterMillis());
+        poolConfiguration.setResponseTimeoutMillis(config.getResponseTimeoutMillis());
     }
 
     @Override
@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.junit.Assert.*;
+
+import java.net.UnknownHostException;
+import java.util.Hashtable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.beowulfe.hap.HomekitCharacteristicChangeCallback;
+
+/**
+ * Tests for the debounced notifications of {@link HomekitAccessoryUpdater}
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class HomekitAccessoryUpdaterTest {
+
+    private static final int INTERVAL = 1000;
+    private static final int ACCESSORY_ID = 1;
+
+    private static class CountingCallback implements HomekitCharacteristicChangeCallback {
+        private final AtomicInteger changes = new AtomicInteger();
+
+        @Override
+        public void changed() {
+            changes.incrementAndGet();
+        }
+
+        private int get() {
+            return changes.get();
+        }
+    }
+
+    private final HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater();
+    private final SwitchItem itemA = new SwitchItem("a");
+    private final SwitchItem itemB = new SwitchItem("b");
+
+    @Before
+    public void setUp() throws UnknownHostException {
+        updater.setSettings(settings(INTERVAL));
+    }
+
+    private static HomekitSettings settings(int notificationInterval) throws UnknownHostException {
+        Hashtable<String, Object> properties = new Hashtable<>();
+        properties.put("minimumNotificationInterval", notificationInterval);
+        properties.put("networkInterface", "127.0.0.1");
+        HomekitSettings settings = new HomekitSettings();
+        settings.fill(properties);
+        return settings;
+    }
+
+    private void subscribe(SwitchItem item, CountingCallback callback) {
+        updater.subscribe(ACCESSORY_ID, HomekitDeviceType.SWITCH, item, null, callback);
+    }
+
+    private static void toggle(SwitchItem item) {
+        item.setState(item.getState() == OnOffType.ON ? OnOffType.OFF : OnOffType.ON);
+    }
+
+    private static boolean waitFor(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    @Test
+    public void testChanged_coalescedWithinInterval() throws InterruptedException {
+        CountingCallback callbackA = new CountingCallback();
+        CountingCallback callbackB = new CountingCallback();
+        subscribe(itemA, callbackA);
+        subscribe(itemB, callbackB);
+
+        // the first change of an idle accessory is notified right away
+        toggle(itemA);
+        assertTrue(waitFor(() -> callbackA.get() == 1, INTERVAL / 2));
+
+        toggle(itemA);
+        toggle(itemA);
+        toggle(itemA);
+        toggle(itemB);
+        Thread.sleep(INTERVAL / 4);
+        assertEquals(1, callbackA.get());
+        assertEquals(0, callbackB.get());
+
+        // single notification per characteristic, when the interval has passed
+        assertTrue(waitFor(() -> callbackA.get() == 2 && callbackB.get() == 1, 2 * INTERVAL));
+        Thread.sleep(INTERVAL + INTERVAL / 2);
+        assertEquals(2, callbackA.get());
+        assertEquals(1, callbackB.get());
+    }
+
+    @Test
+    public void testUnsubscribe_pendingNotificationCancelled() throws InterruptedException {
+        CountingCallback callbackA = new CountingCallback();
+        CountingCallback callbackB = new CountingCallback();
+        subscribe(itemA, callbackA);
+        subscribe(itemB, callbackB);
+        toggle(itemA);
+        assertTrue(waitFor(() -> callbackA.get() == 1, INTERVAL / 2));
+
+        toggle(itemA);
+        Thread.sleep(INTERVAL / 10);
+        updater.unsubscribe(itemA);
+
+        Thread.sleep(INTERVAL + INTERVAL / 2);
+        assertEquals(1, callbackA.get());
+    }
+
+    @Test
+    public void testUnsubscribe_notificationsReleasedWithLastSubscription() throws InterruptedException {
+        CountingCallback callback = new CountingCallback();
+        subscribe(itemA, callback);
+        toggle(itemA);
+        assertTrue(waitFor(() -> callback.get() == 1, INTERVAL / 2));
+        updater.unsubscribe(itemA);
+
+        // the accessory is idle again: the first change is not delayed by the earlier notification
+        CountingCallback newCallback = new CountingCallback();
+        subscribe(itemA, newCallback);
+        toggle(itemA);
+        assertTrue(waitFor(() -> newCallback.get() == 1, INTERVAL / 2));
+        assertEquals(1, callback.get());
+    }
+
+    @Test
+    public void testSubscribe_duplicateReplacesAndReleasesPrevious() throws InterruptedException {
+        CountingCallback first = new CountingCallback();
+        CountingCallback second = new CountingCallback();
+        subscribe(itemA, first);
+        subscribe(itemA, second);
+
+        toggle(itemA);
+        assertTrue(waitFor(() -> second.get() == 1, INTERVAL / 2));
+        assertEquals(0, first.get());
+
+        // only the replacing subscription remains, so the notifications are released with it
+        updater.unsubscribe(itemA);
+        CountingCallback third = new CountingCallback();
+        subscribe(itemA, third);
+        toggle(itemA);
+        assertTrue(waitFor(() -> third.get() == 1, INTERVAL / 2));
+        assertEquals(1, second.get());
+    }
+
+    @Test
+    public void testSetSettings_intervalReapplied() throws InterruptedException, UnknownHostException {
+        CountingCallback callback = new CountingCallback();
+        subscribe(itemA, callback);
+        toggle(itemA);
+        assertTrue(waitFor(() -> callback.get() == 1, INTERVAL / 2));
+
+        updater.setSettings(settings(0));
+        toggle(itemA);
+        assertTrue(waitFor(() -> callback.get() == 2, INTERVAL / 2));
+    }
+}
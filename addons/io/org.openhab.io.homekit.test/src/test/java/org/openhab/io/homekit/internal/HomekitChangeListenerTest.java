@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Proxy;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.smarthome.core.items.GenericItem;
+import org.eclipse.smarthome.core.items.GroupItem;
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.library.items.NumberItem;
+import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the incremental application of item registry changes by {@link HomekitChangeListener}
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class HomekitChangeListenerTest {
+
+    /**
+     * Records the accessories removed by the listener and the items replaced without re-creating their accessory
+     */
+    private static class RecordingUpdater extends HomekitAccessoryUpdater {
+        private final List<Integer> removedAccessories = new ArrayList<>();
+        private final List<GenericItem> replacedItems = new ArrayList<>();
+
+        @Override
+        public void removeAccessory(int accessoryId) {
+            removedAccessories.add(accessoryId);
+            super.removeAccessory(accessoryId);
+        }
+
+        @Override
+        public void replaceItem(GenericItem oldItem, GenericItem newItem) {
+            replacedItems.add(newItem);
+            super.replaceItem(oldItem, newItem);
+        }
+    }
+
+    private final Map<String, Item> items = new LinkedHashMap<>();
+    private final ItemRegistry itemRegistry = (ItemRegistry) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] { ItemRegistry.class }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "get":
+                        return items.get(args[0]);
+                    case "getAll":
+                        return new ArrayList<>(items.values());
+                    default:
+                        return null;
+                }
+            });
+    private final RecordingUpdater updater = new RecordingUpdater();
+    private final HomekitChangeListener listener = new HomekitChangeListener();
+
+    @Before
+    public void setUp() throws UnknownHostException {
+        Hashtable<String, Object> properties = new Hashtable<>();
+        properties.put("networkInterface", "127.0.0.1");
+        HomekitSettings settings = new HomekitSettings();
+        settings.fill(properties);
+        listener.setSettings(settings);
+        listener.setUpdater(updater);
+    }
+
+    @After
+    public void tearDown() {
+        listener.stop();
+    }
+
+    private static <T extends GenericItem> T tagged(T item, String label, String tag, String... groupNames) {
+        item.setLabel(label);
+        item.addTag(tag);
+        for (String groupName : groupNames) {
+            item.addGroupName(groupName);
+        }
+        return item;
+    }
+
+    private void put(Item item) {
+        items.put(item.getName(), item);
+    }
+
+    private void update(Item oldItem, Item newItem) {
+        put(newItem);
+        listener.updated(oldItem, newItem);
+    }
+
+    private int getId(Item item) {
+        return new HomekitTaggedItem(item, itemRegistry).getId();
+    }
+
+    @Test
+    public void testUpdated_stateChangeKeepsAccessory() {
+        SwitchItem oldItem = tagged(new SwitchItem("switch"), "Switch", "Switchable");
+        put(oldItem);
+        listener.setItemRegistry(itemRegistry);
+
+        SwitchItem newItem = tagged(new SwitchItem("switch"), "Switch", "Switchable");
+        newItem.setState(OnOffType.ON);
+        update(oldItem, newItem);
+
+        assertTrue(updater.removedAccessories.isEmpty());
+        assertEquals(Arrays.asList(newItem), updater.replacedItems);
+    }
+
+    @Test
+    public void testUpdated_labelChangeRecreatesAccessory() {
+        SwitchItem oldItem = tagged(new SwitchItem("switch"), "Switch", "Switchable");
+        put(oldItem);
+        listener.setItemRegistry(itemRegistry);
+
+        update(oldItem, tagged(new SwitchItem("switch"), "Renamed switch", "Switchable"));
+
+        assertEquals(Arrays.asList(getId(oldItem)), updater.removedAccessories);
+        assertTrue(updater.replacedItems.isEmpty());
+    }
+
+    @Test
+    public void testUpdated_removedTagRemovesAccessory() {
+        SwitchItem oldItem = tagged(new SwitchItem("switch"), "Switch", "Switchable");
+        put(oldItem);
+        listener.setItemRegistry(itemRegistry);
+
+        SwitchItem newItem = new SwitchItem("switch");
+        newItem.setLabel("Switch");
+        update(oldItem, newItem);
+
+        assertEquals(Arrays.asList(getId(oldItem)), updater.removedAccessories);
+    }
+
+    @Test
+    public void testUpdated_untaggedItemIgnored() {
+        SwitchItem oldItem = new SwitchItem("other");
+        put(oldItem);
+        put(tagged(new SwitchItem("switch"), "Switch", "Switchable"));
+        listener.setItemRegistry(itemRegistry);
+
+        SwitchItem newItem = new SwitchItem("other");
+        newItem.setLabel("Other");
+        update(oldItem, newItem);
+
+        assertTrue(updater.removedAccessories.isEmpty());
+        assertTrue(updater.replacedItems.isEmpty());
+    }
+
+    @Test
+    public void testUpdated_changedCharacteristicRecreatesGroup() {
+        GroupItem group = tagged(new GroupItem("thermostat"), "Thermostat", "Thermostat");
+        NumberItem oldTemperature = tagged(new NumberItem("temperature"), "Temperature", "CurrentTemperature",
+                "thermostat");
+        put(group);
+        put(oldTemperature);
+        listener.setItemRegistry(itemRegistry);
+
+        // a characteristic moved to another group changes the structure of the grouped accessory
+        update(oldTemperature, tagged(new NumberItem("temperature"), "Temperature", "CurrentTemperature",
+                "thermostat", "other"));
+
+        assertEquals(Arrays.asList(getId(group)), updater.removedAccessories);
+    }
+
+    @Test
+    public void testUpdated_characteristicStateChangeKeepsGroup() {
+        GroupItem group = tagged(new GroupItem("thermostat"), "Thermostat", "Thermostat");
+        NumberItem oldTemperature = tagged(new NumberItem("temperature"), "Temperature", "CurrentTemperature",
+                "thermostat");
+        put(group);
+        put(oldTemperature);
+        listener.setItemRegistry(itemRegistry);
+
+        NumberItem newTemperature = tagged(new NumberItem("temperature"), "Temperature", "CurrentTemperature",
+                "thermostat");
+        newTemperature.setState(new DecimalType(21));
+        update(oldTemperature, newTemperature);
+
+        assertTrue(updater.removedAccessories.isEmpty());
+        assertEquals(Arrays.asList(newTemperature), updater.replacedItems);
+    }
+
+    @Test
+    public void testAllItemsChanged_onlyRemovedItemsRemoved() {
+        SwitchItem switchA = tagged(new SwitchItem("switchA"), "Switch A", "Switchable");
+        SwitchItem switchB = tagged(new SwitchItem("switchB"), "Switch B", "Switchable");
+        put(switchA);
+        put(switchB);
+        listener.setItemRegistry(itemRegistry);
+
+        items.clear();
+        put(tagged(new SwitchItem("switchA"), "Switch A", "Switchable"));
+        listener.allItemsChanged(Arrays.asList("switchA", "switchB"));
+
+        assertEquals(Arrays.asList(getId(switchB)), updater.removedAccessories);
+        assertEquals(1, updater.replacedItems.size());
+    }
+
+    @Test
+    public void testHasSameStructure() {
+        HomekitTaggedItem taggedItem = new HomekitTaggedItem(
+                tagged(new SwitchItem("switch"), "Switch", "Switchable"), itemRegistry);
+
+        SwitchItem stateChanged = tagged(new SwitchItem("switch"), "Switch", "Switchable");
+        stateChanged.setState(OnOffType.ON);
+        assertTrue(taggedItem.hasSameStructure(new HomekitTaggedItem(stateChanged, itemRegistry)));
+        assertFalse(taggedItem.hasSameStructure(
+                new HomekitTaggedItem(tagged(new SwitchItem("switch"), "Other", "Switchable"), itemRegistry)));
+        assertFalse(taggedItem.hasSameStructure(
+                new HomekitTaggedItem(tagged(new SwitchItem("switch"), "Switch", "Lighting"), itemRegistry)));
+        assertEquals(taggedItem.getStructureHashCode(),
+                new HomekitTaggedItem(stateChanged, itemRegistry).getStructureHashCode());
+    }
+
+    @Test
+    public void testHasSameStructure_groupsOfCharacteristicCompared() {
+        put(tagged(new GroupItem("thermostat"), "Thermostat", "Thermostat"));
+        HomekitTaggedItem characteristic = new HomekitTaggedItem(
+                tagged(new NumberItem("temperature"), "Temperature", "CurrentTemperature", "thermostat"),
+                itemRegistry);
+
+        assertTrue(characteristic.isCharacteristic());
+        assertTrue(characteristic.hasSameStructure(new HomekitTaggedItem(
+                tagged(new NumberItem("temperature"), "Temperature", "CurrentTemperature", "thermostat"),
+                itemRegistry)));
+        assertFalse(characteristic.hasSameStructure(new HomekitTaggedItem(tagged(new NumberItem("temperature"),
+                "Temperature", "CurrentTemperature", "thermostat", "other"), itemRegistry)));
+    }
+}
@@ -8,6 +8,7 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -36,16 +37,28 @@ class HomekitAccessoryRegistry {
     private final Set<Integer> createdIds = new HashSet<>();
     private final Map<String, GroupedAccessory> pendingGroupedAccessories = new HashMap<>();
     private final List<HomekitTaggedItem> pendingCharacteristics = new LinkedList<>();
+    private int configurationIndex = 1;
 
     private final Logger logger = LoggerFactory.getLogger(HomekitAccessoryRegistry.class);
 
-    public void remove(HomekitTaggedItem taggedItem) {
+    public synchronized void remove(HomekitTaggedItem taggedItem) {
+        if (taggedItem.isCharacteristic()) {
+            String itemName = taggedItem.getItem().getName();
+            pendingCharacteristics.removeIf(characteristic -> characteristic.getItem().getName().equals(itemName));
+        }
+        if (!taggedItem.isRootDevice()) {
+            return;
+        }
+        pendingGroupedAccessories.remove(taggedItem.getItem().getName());
         Iterator<HomekitAccessory> i = createdAccessories.iterator();
         while (i.hasNext()) {
             HomekitAccessory accessory = i.next();
             if (accessory.getId() == taggedItem.getId()) {
                 logger.debug("Removed accessory {}", accessory.getId());
-                bridge.removeAccessory(accessory);
+                if (bridge != null) {
+                    bridge.removeAccessory(accessory);
+                }
+                createdIds.remove(accessory.getId());
                 i.remove();
             }
         }
@@ -53,14 +66,35 @@ class HomekitAccessoryRegistry {
 
     public synchronized void clear() {
         while (!createdAccessories.isEmpty()) {
-            bridge.removeAccessory(createdAccessories.remove(0));
+            HomekitAccessory accessory = createdAccessories.remove(0);
+            if (bridge != null) {
+                bridge.removeAccessory(accessory);
+            }
         }
         createdIds.clear();
+        pendingGroupedAccessories.clear();
+        pendingCharacteristics.clear();
     }
 
     public synchronized void setBridge(HomekitRoot bridge) {
         this.bridge = bridge;
-        createdAccessories.forEach(accessory -> bridge.addAccessory(accessory));
+        if (bridge != null) {
+            applyConfigurationIndex();
+            createdAccessories.forEach(accessory -> bridge.addAccessory(accessory));
+        }
+    }
+
+    /**
+     * Set the configuration number advertised to Homekit clients, which makes them fetch the accessories again when
+     * changed. It is thus only to be changed when accessories or their characteristics were added or removed.
+     */
+    public synchronized void setConfigurationIndex(int configurationIndex) {
+        if (this.configurationIndex != configurationIndex) {
+            this.configurationIndex = configurationIndex;
+            if (bridge != null) {
+                applyConfigurationIndex();
+            }
+        }
     }
 
     public synchronized void addRootDevice(HomekitAccessory accessory) {
@@ -98,6 +132,15 @@ class HomekitAccessoryRegistry {
         }
     }
 
+    private void applyConfigurationIndex() {
+        try {
+            bridge.setConfigurationIndex(configurationIndex);
+            logger.debug("Set configuration index {}", configurationIndex);
+        } catch (IOException e) {
+            logger.warn("Could not set configuration index: {}", e.getMessage(), e);
+        }
+    }
+
     private void doAddDevice(HomekitAccessory accessory) {
         createdAccessories.add(accessory);
         createdIds.add(accessory.getId());
@@ -8,9 +8,16 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.StateChangeListener;
@@ -26,31 +33,73 @@ import com.beowulfe.hap.HomekitCharacteristicChangeCallback;
  * Homekit library takes care of insuring only a single subscription exists for
  * each accessory.
  *
+ * Notifications are debounced per accessory: changes of the characteristics of an accessory are collected and
+ * notified at most once per minimum notification interval of the accessory type. Repeated changes of a
+ * characteristic within the interval result in a single notification, reporting the latest value. The HomeKit
+ * library sends a separate event for every changed characteristic, so changes of different characteristics are
+ * notified at the same time, but not within a single event.
+ *
  * @author Andy Lintner
  */
 public class HomekitAccessoryUpdater {
 
+    private static final String THREADPOOL_NAME = "homekit";
+
     private Logger logger = LoggerFactory.getLogger(HomekitAccessoryUpdater.class);
     private final ConcurrentMap<ItemKey, Subscription> subscriptionsByName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, AccessoryNotifications> notificationsByAccessory = new ConcurrentHashMap<>();
+    private HomekitSettings settings;
+
+    public void setSettings(HomekitSettings settings) {
+        this.settings = settings;
+        notificationsByAccessory.values()
+                .forEach(notifications -> notifications.setInterval(getNotificationInterval(notifications.deviceType)));
+    }
 
     public void subscribe(GenericItem item, HomekitCharacteristicChangeCallback callback) {
         subscribe(item, null, callback);
     }
 
     public void subscribe(GenericItem item, String key, HomekitCharacteristicChangeCallback callback) {
+        subscribe(0, null, item, key, callback);
+    }
+
+    /**
+     * Subscribe to the changes of an item of an accessory, notifying the changes debounced per accessory
+     *
+     * @param accessoryId id of the accessory, 0 to notify changes immediately
+     * @param deviceType type of the accessory, determining the minimum notification interval
+     * @param item the item
+     * @param key key to distinguish several subscriptions of the same item, or null
+     * @param callback callback notifying Homekit clients about the change
+     */
+    public void subscribe(int accessoryId, HomekitDeviceType deviceType, GenericItem item, String key,
+            HomekitCharacteristicChangeCallback callback) {
         if (item == null) {
             return;
         }
-        ItemKey itemKey = new ItemKey(item, key);
-        if (subscriptionsByName.containsKey(itemKey)) {
-            logger.error("Received duplicate subscription on {}", item.getName());
-        }
-        subscriptionsByName.compute(itemKey, (k, v) -> {
+        subscriptionsByName.compute(new ItemKey(item, key), (k, v) -> {
             if (v != null) {
                 logger.error("Received duplicate subscription on {}", item.getName());
-                unsubscribe(item, key);
+                // replace the previous subscription, without updating this map again from within compute
+                item.removeStateChangeListener(v);
+                if (v instanceof DebouncedSubscription) {
+                    release((DebouncedSubscription) v);
+                }
+            }
+            Subscription subscription;
+            long interval = getNotificationInterval(deviceType);
+            if (accessoryId == 0 || interval <= 0) {
+                subscription = (changedItem, oldState, newState) -> callback.changed();
+            } else {
+                AccessoryNotifications notifications = notificationsByAccessory.compute(accessoryId, (id, n) -> {
+                    AccessoryNotifications result = n != null ? n : new AccessoryNotifications(id, deviceType);
+                    result.subscriptions++;
+                    return result;
+                });
+                notifications.setInterval(interval);
+                subscription = new DebouncedSubscription(notifications, callback);
             }
-            Subscription subscription = (changedItem, oldState, newState) -> callback.changed();
             item.addStateChangeListener(subscription);
             return subscription;
         });
@@ -66,10 +115,159 @@ public class HomekitAccessoryUpdater {
         }
         subscriptionsByName.computeIfPresent(new ItemKey(item, key), (k, v) -> {
             item.removeStateChangeListener(v);
+            if (v instanceof DebouncedSubscription) {
+                release((DebouncedSubscription) v);
+            }
             return null;
         });
     }
 
+    /**
+     * Drop all subscriptions and pending notifications of an accessory, e.g. after it was removed from the bridge
+     *
+     * @param accessoryId id of the accessory
+     */
+    public void removeAccessory(int accessoryId) {
+        subscriptionsByName.forEach((itemKey, subscription) -> {
+            if (subscription instanceof DebouncedSubscription
+                    && ((DebouncedSubscription) subscription).notifications.accessoryId == accessoryId
+                    && subscriptionsByName.remove(itemKey, subscription)) {
+                itemKey.item.removeStateChangeListener(subscription);
+            }
+        });
+        AccessoryNotifications notifications = notificationsByAccessory.remove(accessoryId);
+        if (notifications != null) {
+            notifications.cancelAll();
+        }
+    }
+
+    /*
+     * Cancel the pending notification of a subscription, dropping the notifications of its accessory with the last
+     * subscription
+     */
+    private void release(DebouncedSubscription subscription) {
+        AccessoryNotifications notifications = subscription.notifications;
+        notifications.cancel(subscription.callback);
+        notificationsByAccessory.computeIfPresent(notifications.accessoryId, (id, n) -> {
+            if (n != notifications || --n.subscriptions > 0) {
+                return n;
+            }
+            n.cancelAll();
+            return null;
+        });
+    }
+
+    /**
+     * Move the subscriptions of an item to a new instance of the same item, e.g. after the item was updated in the
+     * item registry without changes relevant to Homekit
+     *
+     * @param oldItem the previous instance of the item
+     * @param newItem the current instance of the item
+     */
+    public void replaceItem(GenericItem oldItem, GenericItem newItem) {
+        if (oldItem == newItem) {
+            return;
+        }
+        for (ItemKey itemKey : subscriptionsByName.keySet()) {
+            if (itemKey.item != oldItem) {
+                continue;
+            }
+            Subscription subscription = subscriptionsByName.remove(itemKey);
+            if (subscription != null) {
+                oldItem.removeStateChangeListener(subscription);
+                newItem.addStateChangeListener(subscription);
+                subscriptionsByName.put(new ItemKey(newItem, itemKey.key), subscription);
+            }
+        }
+    }
+
+    private long getNotificationInterval(HomekitDeviceType deviceType) {
+        HomekitSettings settings = this.settings;
+        return settings != null ? settings.getNotificationInterval(deviceType) : 0;
+    }
+
+    /*
+     * Pending notifications of the characteristics of an accessory
+     */
+    private static class AccessoryNotifications {
+        private final Logger logger = LoggerFactory.getLogger(AccessoryNotifications.class);
+        private final int accessoryId;
+        private final HomekitDeviceType deviceType;
+
+        // guarded by notificationsByAccessory
+        private int subscriptions;
+
+        // all below guarded by this
+        private final Set<HomekitCharacteristicChangeCallback> pending = new LinkedHashSet<>();
+        private ScheduledFuture<?> flushJob;
+        private long interval;
+        private long lastFlushMillis;
+
+        private AccessoryNotifications(int accessoryId, HomekitDeviceType deviceType) {
+            this.accessoryId = accessoryId;
+            this.deviceType = deviceType;
+        }
+
+        private synchronized void setInterval(long interval) {
+            this.interval = interval;
+        }
+
+        private synchronized void changed(HomekitCharacteristicChangeCallback callback) {
+            pending.add(callback);
+            if (flushJob == null) {
+                long delay = Math.max(0, lastFlushMillis + interval - System.currentTimeMillis());
+                flushJob = ThreadPoolManager.getScheduledPool(THREADPOOL_NAME).schedule(this::flush, delay,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private synchronized void cancel(HomekitCharacteristicChangeCallback callback) {
+            pending.remove(callback);
+        }
+
+        private synchronized void cancelAll() {
+            pending.clear();
+            if (flushJob != null) {
+                flushJob.cancel(false);
+                flushJob = null;
+            }
+        }
+
+        private void flush() {
+            List<HomekitCharacteristicChangeCallback> callbacks;
+            synchronized (this) {
+                callbacks = new ArrayList<>(pending);
+                pending.clear();
+                flushJob = null;
+                lastFlushMillis = System.currentTimeMillis();
+            }
+            logger.trace("Notifying {} changed characteristics of accessory {}", callbacks.size(), accessoryId);
+            for (HomekitCharacteristicChangeCallback callback : callbacks) {
+                try {
+                    callback.changed();
+                } catch (RuntimeException e) {
+                    logger.warn("Could not notify change of accessory {}: {}", accessoryId, e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private static class DebouncedSubscription implements Subscription {
+        private final AccessoryNotifications notifications;
+        private final HomekitCharacteristicChangeCallback callback;
+
+        private DebouncedSubscription(AccessoryNotifications notifications,
+                HomekitCharacteristicChangeCallback callback) {
+            this.notifications = notifications;
+            this.callback = callback;
+        }
+
+        @Override
+        public void stateChanged(Item item, State oldState, State newState) {
+            notifications.changed(callback);
+        }
+    }
+
     @FunctionalInterface
     private static interface Subscription extends StateChangeListener {
 
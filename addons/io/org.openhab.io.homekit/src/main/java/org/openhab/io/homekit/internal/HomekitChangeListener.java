@@ -9,7 +9,14 @@
 package org.openhab.io.homekit.internal;
 
 import java.util.Collection;
-
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.items.ItemRegistryChangeListener;
@@ -23,6 +30,12 @@ import com.beowulfe.hap.HomekitRoot;
  * Listens for changes to the item registry. When changes are detected, check
  * for Homekit tags and, if present, add the items to the HomekitAccessoryRegistry.
  *
+ * Changes are applied incrementally: only accessories whose items changed in a way relevant to Homekit are
+ * re-created, together with the characteristics of grouped accessories. Since every added or removed accessory resets
+ * the connections of the Homekit clients, items which only changed in state or in attributes not exposed to Homekit
+ * keep their accessory. The configuration number advertised to the clients is derived from the tagged items, so it
+ * only changes when the accessories do.
+ *
  * @author Andy Lintner
  */
 public class HomekitChangeListener implements ItemRegistryChangeListener {
@@ -32,41 +45,39 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private Logger logger = LoggerFactory.getLogger(HomekitChangeListener.class);
     private final HomekitAccessoryRegistry accessoryRegistry = new HomekitAccessoryRegistry();
     private HomekitSettings settings;
+    // tagged items the accessories were created from, by item name
+    private final Map<String, HomekitTaggedItem> taggedItems = new HashMap<>();
 
     @Override
-    public synchronized void added(Item item) {
-        HomekitTaggedItem taggedItem = new HomekitTaggedItem(item, itemRegistry);
-        if (taggedItem.isTagged()) {
-            if (taggedItem.isRootDevice()) {
-                createRootDevice(taggedItem);
-            }
-            if (taggedItem.isCharacteristic()) {
-                createCharacteristic(taggedItem);
-            }
-        }
+    public void added(Item item) {
+        applyChanges(singleChange(item.getName(), item));
     }
 
     @Override
-    public void allItemsChanged(Collection<String> oldItemNames) {
-        clearAccessories();
+    public synchronized void allItemsChanged(Collection<String> oldItemNames) {
+        Map<String, Item> changedItems = new HashMap<>();
+        taggedItems.keySet().forEach(itemName -> changedItems.put(itemName, null));
+        itemRegistry.getAll().forEach(item -> changedItems.put(item.getName(), item));
+        applyChanges(changedItems);
     }
 
     @Override
-    public synchronized void removed(Item item) {
-        HomekitTaggedItem taggedItem = new HomekitTaggedItem(item, itemRegistry);
-        if (taggedItem.isTagged()) {
-            accessoryRegistry.remove(taggedItem);
-        }
+    public void removed(Item item) {
+        applyChanges(singleChange(item.getName(), null));
     }
 
     @Override
     public void updated(Item oldElement, Item element) {
-        removed(oldElement);
-        added(element);
+        Map<String, Item> changedItems = singleChange(oldElement.getName(), null);
+        changedItems.put(element.getName(), element);
+        applyChanges(changedItems);
     }
 
     public synchronized void clearAccessories() {
         accessoryRegistry.clear();
+        taggedItems.values().stream().filter(HomekitTaggedItem::isRootDevice)
+                .forEach(taggedItem -> updater.removeAccessory(taggedItem.getId()));
+        taggedItems.clear();
     }
 
     public synchronized void setBridge(HomekitRoot bridge) {
@@ -76,15 +87,19 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     public synchronized void setItemRegistry(ItemRegistry itemRegistry) {
         this.itemRegistry = itemRegistry;
         itemRegistry.addRegistryChangeListener(this);
-        itemRegistry.getAll().forEach(item -> added(item));
+        Map<String, Item> changedItems = new HashMap<>();
+        itemRegistry.getAll().forEach(item -> changedItems.put(item.getName(), item));
+        applyChanges(changedItems);
     }
 
     public void setUpdater(HomekitAccessoryUpdater updater) {
         this.updater = updater;
+        updater.setSettings(settings);
     }
 
     public void setSettings(HomekitSettings settings) {
         this.settings = settings;
+        updater.setSettings(settings);
     }
 
     public void stop() {
@@ -93,6 +108,101 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         }
     }
 
+    private static Map<String, Item> singleChange(String itemName, Item item) {
+        Map<String, Item> changedItems = new HashMap<>();
+        changedItems.put(itemName, item);
+        return changedItems;
+    }
+
+    /*
+     * Brings the accessories in line with the changed items, which are null if removed
+     */
+    private synchronized void applyChanges(Map<String, Item> changedItems) {
+        Map<String, HomekitTaggedItem> removedItems = new LinkedHashMap<>();
+        Map<String, HomekitTaggedItem> addedItems = new LinkedHashMap<>();
+        Set<String> changedGroups = new LinkedHashSet<>();
+        for (Map.Entry<String, Item> entry : changedItems.entrySet()) {
+            HomekitTaggedItem oldTaggedItem = taggedItems.get(entry.getKey());
+            HomekitTaggedItem newTaggedItem = null;
+            if (entry.getValue() != null) {
+                newTaggedItem = new HomekitTaggedItem(entry.getValue(), itemRegistry);
+                if (!newTaggedItem.isTagged()) {
+                    newTaggedItem = null;
+                }
+            }
+            if (oldTaggedItem != null && newTaggedItem != null && oldTaggedItem.hasSameStructure(newTaggedItem)) {
+                taggedItems.put(entry.getKey(), newTaggedItem);
+                replaceItem(oldTaggedItem.getItem(), newTaggedItem.getItem());
+                continue;
+            }
+            if (oldTaggedItem != null) {
+                removedItems.put(entry.getKey(), oldTaggedItem);
+                taggedItems.remove(entry.getKey());
+                addChangedGroups(oldTaggedItem, changedGroups);
+            }
+            if (newTaggedItem != null) {
+                addedItems.put(entry.getKey(), newTaggedItem);
+                taggedItems.put(entry.getKey(), newTaggedItem);
+                addChangedGroups(newTaggedItem, changedGroups);
+            }
+        }
+
+        // grouped accessories are re-created along with all of their characteristics
+        for (String groupName : changedGroups) {
+            HomekitTaggedItem group = taggedItems.get(groupName);
+            if (group == null || !group.isRootDevice()) {
+                continue;
+            }
+            taggedItems.forEach((itemName, taggedItem) -> {
+                if (taggedItem == group || (taggedItem.isCharacteristic()
+                        && taggedItem.getItem().getGroupNames().contains(groupName))) {
+                    removedItems.putIfAbsent(itemName, taggedItem);
+                    addedItems.putIfAbsent(itemName, taggedItem);
+                }
+            });
+        }
+
+        if (removedItems.isEmpty() && addedItems.isEmpty()) {
+            return;
+        }
+        removedItems.values().forEach(taggedItem -> {
+            logger.debug("Removing homekit item {}", taggedItem.getItem().getName());
+            accessoryRegistry.remove(taggedItem);
+            if (taggedItem.isRootDevice()) {
+                updater.removeAccessory(taggedItem.getId());
+            }
+        });
+        addedItems.values().stream().filter(HomekitTaggedItem::isRootDevice).forEach(this::createRootDevice);
+        addedItems.values().stream().filter(HomekitTaggedItem::isCharacteristic).forEach(this::createCharacteristic);
+        accessoryRegistry.setConfigurationIndex(calculateConfigurationIndex());
+    }
+
+    private void addChangedGroups(HomekitTaggedItem taggedItem, Set<String> changedGroups) {
+        if (taggedItem.isRootDevice()) {
+            changedGroups.add(taggedItem.getItem().getName());
+        }
+        if (taggedItem.isCharacteristic()) {
+            changedGroups.addAll(taggedItem.getItem().getGroupNames());
+        }
+    }
+
+    private void replaceItem(Item oldItem, Item newItem) {
+        if (oldItem instanceof GenericItem && newItem instanceof GenericItem) {
+            updater.replaceItem((GenericItem) oldItem, (GenericItem) newItem);
+        }
+    }
+
+    /*
+     * The configuration index is in the range 1 to 65535 and only depends on the tagged items
+     */
+    private int calculateConfigurationIndex() {
+        int hash = 1;
+        for (HomekitTaggedItem taggedItem : new TreeMap<>(taggedItems).values()) {
+            hash = 31 * hash + taggedItem.getStructureHashCode();
+        }
+        return Math.floorMod(hash, 65535) + 1;
+    }
+
     private void createRootDevice(HomekitTaggedItem taggedItem) {
         try {
             logger.debug("Adding homekit device {}", taggedItem.getItem().getName());
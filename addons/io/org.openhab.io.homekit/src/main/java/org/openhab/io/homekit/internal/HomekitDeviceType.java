@@ -41,6 +41,10 @@ public enum HomekitDeviceType {
         this.tag = tag;
     }
 
+    public String getTag() {
+        return tag;
+    }
+
     public static HomekitDeviceType valueOfTag(String tag) {
         return tagMap.get(tag);
     }
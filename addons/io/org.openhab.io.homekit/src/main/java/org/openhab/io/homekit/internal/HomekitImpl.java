@@ -97,7 +97,8 @@ public class HomekitImpl implements Homekit {
         homekit = new HomekitServer(settings.getNetworkInterface(), settings.getPort());
         bridge = homekit.createBridge(new HomekitAuthInfoImpl(storageService, settings.getPin()), settings.getName(),
                 settings.getManufacturer(), settings.getModel(), settings.getSerialNumber());
-        bridge.start();
+        // add the accessories before starting, as every accessory added to a started bridge resets the connections
         changeListener.setBridge(bridge);
+        bridge.start();
     }
 }
@@ -8,9 +8,13 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.math.BigDecimal;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.Collections;
 import java.util.Dictionary;
+import java.util.EnumMap;
+import java.util.Map;
 
 import org.osgi.framework.FrameworkUtil;
 import org.slf4j.Logger;
@@ -26,6 +30,7 @@ public class HomekitSettings {
     private static final String NAME = "openHAB";
     private static final String MANUFACTURER = "openHAB";
     private static final String SERIAL_NUMBER = "none";
+    private static final String NOTIFICATION_INTERVAL = "minimumNotificationInterval";
 
     /* Name under which openHAB announces itself as HomeKit bridge (#1946) */
     private String name = NAME;
@@ -39,6 +44,9 @@ public class HomekitSettings {
     private String thermostatAutoMode = "Auto";
     private String thermostatOffMode = "Off";
     private InetAddress networkInterface;
+    /* Minimum interval between change notifications of an accessory, in milliseconds, overridable per device type */
+    private int notificationInterval = 250;
+    private Map<HomekitDeviceType, Integer> notificationIntervals = new EnumMap<>(HomekitDeviceType.class);
 
     private final Logger logger = LoggerFactory.getLogger(HomekitSettings.class);
 
@@ -79,6 +87,24 @@ public class HomekitSettings {
         this.thermostatAutoMode = (String) properties.get("thermostatAutoMode");
         this.thermostatOffMode = (String) properties.get("thermostatOffMode");
 
+        Object notificationInterval = properties.get(NOTIFICATION_INTERVAL);
+        if (notificationInterval != null) {
+            this.notificationInterval = parseInterval(notificationInterval);
+        }
+        Map<HomekitDeviceType, Integer> notificationIntervals = new EnumMap<>(HomekitDeviceType.class);
+        for (String key : Collections.list(properties.keys())) {
+            if (key.startsWith(NOTIFICATION_INTERVAL + ".")) {
+                HomekitDeviceType type = HomekitDeviceType
+                        .valueOfTag(key.substring(NOTIFICATION_INTERVAL.length() + 1));
+                if (type != null) {
+                    notificationIntervals.put(type, parseInterval(properties.get(key)));
+                } else {
+                    logger.warn("Ignoring {} for unknown accessory type", key);
+                }
+            }
+        }
+        this.notificationIntervals = notificationIntervals;
+
         String networkInterface = (String) properties.get("networkInterface");
         if (networkInterface == null) {
             this.networkInterface = InetAddress.getLocalHost();
@@ -87,6 +113,16 @@ public class HomekitSettings {
         }
     }
 
+    /*
+     * Intervals may be configured as decimal numbers, e.g. "250.0" when stored as BigDecimal
+     */
+    private static int parseInterval(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        return new BigDecimal(value.toString().trim()).intValue();
+    }
+
     private static String getOrDefault(Object value, String defaultValue) {
         return value != null ? (String) value : defaultValue;
     }
@@ -148,6 +184,14 @@ public class HomekitSettings {
         return thermostatOffMode;
     }
 
+    /**
+     * Returns the minimum interval between change notifications of an accessory of the given type, in milliseconds
+     */
+    public int getNotificationInterval(HomekitDeviceType deviceType) {
+        Integer interval = deviceType != null ? notificationIntervals.get(deviceType) : null;
+        return interval != null ? interval : notificationInterval;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -157,6 +201,8 @@ public class HomekitSettings {
         result = prime * result + (int) (temp ^ (temp >>> 32));
         temp = Double.doubleToLongBits(minimumTemperature);
         result = prime * result + (int) (temp ^ (temp >>> 32));
+        result = prime * result + notificationInterval;
+        result = prime * result + notificationIntervals.hashCode();
         result = prime * result + ((pin == null) ? 0 : pin.hashCode());
         result = prime * result + port;
         result = prime * result + ((thermostatAutoMode == null) ? 0 : thermostatAutoMode.hashCode());
@@ -185,6 +231,12 @@ public class HomekitSettings {
         if (Double.doubleToLongBits(minimumTemperature) != Double.doubleToLongBits(other.minimumTemperature)) {
             return false;
         }
+        if (notificationInterval != other.notificationInterval) {
+            return false;
+        }
+        if (!notificationIntervals.equals(other.notificationIntervals)) {
+            return false;
+        }
         if (pin == null) {
             if (other.pin != null) {
                 return false;
@@ -9,6 +9,7 @@
 package org.openhab.io.homekit.internal;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.builder.HashCodeBuilder;
@@ -99,6 +100,29 @@ public class HomekitTaggedItem {
         return id;
     }
 
+    /**
+     * Whether the other tagged item results in the same accessory or characteristic as this one, i.e. whether they
+     * only differ in state or in attributes not exposed to Homekit
+     */
+    public boolean hasSameStructure(HomekitTaggedItem other) {
+        return id == other.id && homekitDeviceType == other.homekitDeviceType
+                && homekitCharacteristicType == other.homekitCharacteristicType
+                && item.getClass() == other.item.getClass() && Objects.equals(item.getName(), other.item.getName())
+                && Objects.equals(item.getLabel(), other.item.getLabel())
+                && (!isCharacteristic() || item.getGroupNames().equals(other.item.getGroupNames()));
+    }
+
+    /**
+     * Hash code of the attributes compared by {@link #hasSameStructure(HomekitTaggedItem)}, which is stable across
+     * restarts
+     */
+    public int getStructureHashCode() {
+        return Objects.hash(item.getName(), item.getClass().getName(), item.getLabel(),
+                homekitDeviceType != null ? homekitDeviceType.name() : null,
+                homekitCharacteristicType != null ? homekitCharacteristicType.name() : null, id,
+                isCharacteristic() ? item.getGroupNames() : null);
+    }
+
     private int calculateId(Item item) {
         int id = new HashCodeBuilder().append(item.getName()).hashCode();
         if (id < 0) {
@@ -13,11 +13,13 @@ import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.openhab.io.homekit.internal.HomekitAccessoryUpdater;
+import org.openhab.io.homekit.internal.HomekitDeviceType;
 import org.openhab.io.homekit.internal.HomekitTaggedItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.beowulfe.hap.HomekitAccessory;
+import com.beowulfe.hap.HomekitCharacteristicChangeCallback;
 
 /**
  * Abstract class for HomekitAccessory implementations, this provides the
@@ -28,6 +30,7 @@ import com.beowulfe.hap.HomekitAccessory;
 abstract class AbstractHomekitAccessoryImpl<T extends GenericItem> implements HomekitAccessory {
 
     private final int accessoryId;
+    private final HomekitDeviceType deviceType;
     private final String itemName;
     private final String itemLabel;
     private final ItemRegistry itemRegistry;
@@ -38,6 +41,7 @@ abstract class AbstractHomekitAccessoryImpl<T extends GenericItem> implements Ho
     public AbstractHomekitAccessoryImpl(HomekitTaggedItem taggedItem, ItemRegistry itemRegistry,
             HomekitAccessoryUpdater updater, Class<T> expectedItemClass) {
         this.accessoryId = taggedItem.getId();
+        this.deviceType = taggedItem.getDeviceType();
         this.itemName = taggedItem.getItem().getName();
         this.itemLabel = taggedItem.getItem().getLabel();
         this.itemRegistry = itemRegistry;
@@ -95,6 +99,26 @@ abstract class AbstractHomekitAccessoryImpl<T extends GenericItem> implements Ho
         return updater;
     }
 
+    /**
+     * Subscribe to the changes of an item of this accessory, the notifications of all items share the debounce
+     * interval of the accessory
+     */
+    protected void subscribe(GenericItem item, HomekitCharacteristicChangeCallback callback) {
+        subscribe(item, null, callback);
+    }
+
+    protected void subscribe(GenericItem item, String key, HomekitCharacteristicChangeCallback callback) {
+        updater.subscribe(accessoryId, deviceType, item, key, callback);
+    }
+
+    protected void unsubscribe(GenericItem item) {
+        unsubscribe(item, null);
+    }
+
+    protected void unsubscribe(GenericItem item, String key) {
+        updater.unsubscribe(item, key);
+    }
+
     protected GenericItem getItem() {
         return (GenericItem) getItemRegistry().get(getItemName());
     }
@@ -53,12 +53,12 @@ abstract class AbstractHomekitLightbulbImpl<T extends SwitchItem> extends Abstra
 
     @Override
     public void subscribeLightbulbPowerState(HomekitCharacteristicChangeCallback callback) {
-        getUpdater().subscribe(getItem(), callback);
+        subscribe(getItem(), callback);
     }
 
     @Override
     public void unsubscribeLightbulbPowerState() {
-        getUpdater().unsubscribe(getItem());
+        unsubscribe(getItem());
     }
 
 }
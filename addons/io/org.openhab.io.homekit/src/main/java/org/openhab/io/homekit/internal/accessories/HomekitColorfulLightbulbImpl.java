@@ -122,32 +122,32 @@ class HomekitColorfulLightbulbImpl extends AbstractHomekitLightbulbImpl<ColorIte
 
     @Override
     public void subscribeHue(HomekitCharacteristicChangeCallback callback) {
-        getUpdater().subscribe(getItem(), "hue", callback);
+        subscribe(getItem(), "hue", callback);
     }
 
     @Override
     public void subscribeSaturation(HomekitCharacteristicChangeCallback callback) {
-        getUpdater().subscribe(getItem(), "saturation", callback);
+        subscribe(getItem(), "saturation", callback);
     }
 
     @Override
     public void subscribeBrightness(HomekitCharacteristicChangeCallback callback) {
-        getUpdater().subscribe(getItem(), "brightness", callback);
+        subscribe(getItem(), "brightness", callback);
     }
 
     @Override
     public void unsubscribeHue() {
-        getUpdater().unsubscribe(getItem(), "hue");
+        unsubscribe(getItem(), "hue");
     }
 
     @Override
     public void unsubscribeSaturation() {
-        getUpdater().unsubscribe(getItem(), "saturation");
+        unsubscribe(getItem(), "saturation");
     }
 
     @Override
     public void unsubscribeBrightness() {
-        getUpdater().unsubscribe(getItem(), "brightness");
+        unsubscribe(getItem(), "brightness");
     }
 
 }
@@ -58,12 +58,12 @@ class HomekitDimmableLightbulbImpl extends AbstractHomekitLightbulbImpl<DimmerIt
 
     @Override
     public void subscribeBrightness(HomekitCharacteristicChangeCallback callback) {
-        getUpdater().subscribe(getItem(), "brightness", callback);
+        subscribe(getItem(), "brightness", callback);
     }
 
     @Override
     public void unsubscribeBrightness() {
-        getUpdater().unsubscribe(getItem(), "brightness");
+        unsubscribe(getItem(), "brightness");
     }
 
 }
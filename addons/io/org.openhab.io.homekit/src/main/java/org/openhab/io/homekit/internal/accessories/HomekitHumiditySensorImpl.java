@@ -41,12 +41,12 @@ public class HomekitHumiditySensorImpl extends AbstractHomekitAccessoryImpl<Numb
 
     @Override
     public void subscribeCurrentRelativeHumidity(HomekitCharacteristicChangeCallback callback) {
-        getUpdater().subscribe(getItem(), callback);
+        subscribe(getItem(), callback);
     }
 
     @Override
     public void unsubscribeCurrentRelativeHumidity() {
-        getUpdater().unsubscribe(getItem());
+        unsubscribe(getItem());
     }
 
 }
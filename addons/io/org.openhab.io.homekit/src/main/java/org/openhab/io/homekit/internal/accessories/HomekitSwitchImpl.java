@@ -51,12 +51,12 @@ public class HomekitSwitchImpl extends AbstractHomekitAccessoryImpl<SwitchItem>i
 
     @Override
     public void subscribeSwitchState(HomekitCharacteristicChangeCallback callback) {
-        getUpdater().subscribe(getItem(), callback);
+        subscribe(getItem(), callback);
     }
 
     @Override
     public void unsubscribeSwitchState() {
-        getUpdater().unsubscribe(getItem());
+        unsubscribe(getItem());
     }
 
 }
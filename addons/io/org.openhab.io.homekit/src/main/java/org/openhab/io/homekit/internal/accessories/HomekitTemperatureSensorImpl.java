@@ -44,11 +44,11 @@ class HomekitTemperatureSensorImpl extends AbstractTemperatureHomekitAccessoryIm
 
     @Override
     public void subscribeCurrentTemperature(HomekitCharacteristicChangeCallback callback) {
-        getUpdater().subscribe(getItem(), callback);
+        subscribe(getItem(), callback);
     }
 
     @Override
     public void unsubscribeCurrentTemperature() {
-        getUpdater().unsubscribe(getItem());
+        unsubscribe(getItem());
     }
 }
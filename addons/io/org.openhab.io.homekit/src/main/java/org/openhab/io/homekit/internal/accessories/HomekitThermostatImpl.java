@@ -186,42 +186,42 @@ class HomekitThermostatImpl extends AbstractTemperatureHomekitAccessoryImpl<Grou
 
     @Override
     public void subscribeCurrentMode(HomekitCharacteristicChangeCallback callback) {
-        getUpdater().subscribe(getGenericItem(heatingCoolingModeItemName), callback);
+        subscribe(getGenericItem(heatingCoolingModeItemName), callback);
     }
 
     @Override
     public void subscribeCurrentTemperature(HomekitCharacteristicChangeCallback callback) {
-        getUpdater().subscribe(getGenericItem(currentTemperatureItemName), callback);
+        subscribe(getGenericItem(currentTemperatureItemName), callback);
     }
 
     @Override
     public void subscribeTargetMode(HomekitCharacteristicChangeCallback callback) {
-        getUpdater().subscribe(getGenericItem(heatingCoolingModeItemName), callback);
+        subscribe(getGenericItem(heatingCoolingModeItemName), callback);
     }
 
     @Override
     public void subscribeTargetTemperature(HomekitCharacteristicChangeCallback callback) {
-        getUpdater().subscribe(getGenericItem(targetTemperatureItemName), callback);
+        subscribe(getGenericItem(targetTemperatureItemName), callback);
     }
 
     @Override
     public void unsubscribeCurrentMode() {
-        getUpdater().unsubscribe(getGenericItem(heatingCoolingModeItemName));
+        unsubscribe(getGenericItem(heatingCoolingModeItemName));
     }
 
     @Override
     public void unsubscribeCurrentTemperature() {
-        getUpdater().unsubscribe(getGenericItem(currentTemperatureItemName));
+        unsubscribe(getGenericItem(currentTemperatureItemName));
     }
 
     @Override
     public void unsubscribeTargetMode() {
-        getUpdater().unsubscribe(getGenericItem(heatingCoolingModeItemName));
+        unsubscribe(getGenericItem(heatingCoolingModeItemName));
     }
 
     @Override
     public void unsubscribeTargetTemperature() {
-        getUpdater().unsubscribe(getGenericItem(targetTemperatureItemName));
+        unsubscribe(getGenericItem(targetTemperatureItemName));
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.hueemulation.internal.dto.HueAuthorizedConfig;
+
+/**
+ * Tests for {@link HueEmulationUpnpServer}, using unicast M-SEARCH requests on the loopback interface.
+ *
+ * @author agent - Initial contribution
+ */
+public class HueEmulationUpnpServerTest {
+    private static final String M_SEARCH = "M-SEARCH * HTTP/1.1\r\nHOST: 239.255.255.250:1900\r\n"
+            + "MAN: \"ssdp:discover\"\r\nMX: 1\r\nST: urn:schemas-upnp-org:device:basic:1\r\n\r\n";
+
+    private HueEmulationUpnpServer server;
+    private InetSocketAddress serverAddress;
+    private List<DatagramChannel> clients = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        server = new HueEmulationUpnpServer("/description.xml", new HueAuthorizedConfig(), loopback, 8080, 0);
+        server.start();
+        assertThat(server.getUpnpPort() > 0, is(true));
+        serverAddress = new InetSocketAddress(loopback, server.getUpnpPort());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        for (DatagramChannel client : clients) {
+            client.close();
+        }
+    }
+
+    private DatagramChannel client() throws IOException {
+        DatagramChannel client = DatagramChannel.open();
+        client.setOption(StandardSocketOptions.SO_RCVBUF, 256 * 1024);
+        client.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client.configureBlocking(false);
+        clients.add(client);
+        return client;
+    }
+
+    /**
+     * Receives replies until the timeout
+     */
+    private void receive(DatagramChannel client, List<String> replies, long timeoutMillis)
+            throws IOException, InterruptedException {
+        ByteBuffer buf = ByteBuffer.allocate(1000);
+        long end = System.currentTimeMillis() + timeoutMillis;
+        while (System.currentTimeMillis() < end) {
+            buf.clear();
+            if (client.receive(buf) == null) {
+                Thread.sleep(1);
+                continue;
+            }
+            buf.flip();
+            replies.add(StandardCharsets.UTF_8.decode(buf).toString());
+        }
+    }
+
+    @Test
+    public void searchIsAnswered() throws Exception {
+        DatagramChannel client = client();
+        client.send(ByteBuffer.wrap(M_SEARCH.getBytes(StandardCharsets.UTF_8)), serverAddress);
+        List<String> replies = new ArrayList<>();
+        receive(client, replies, 300);
+        assertThat(replies.size(), is(3));
+        assertThat(replies.get(0), containsString("LOCATION: http://127.0.0.1:8080/description.xml"));
+        assertThat(replies.get(2), containsString("ST: uuid:" + new HueAuthorizedConfig().uuid));
+    }
+
+    @Test
+    public void otherRequestsAreIgnored() throws Exception {
+        DatagramChannel client = client();
+        client.send(ByteBuffer.wrap("NOTIFY * HTTP/1.1\r\n\r\n".getBytes(StandardCharsets.UTF_8)), serverAddress);
+        List<String> replies = new ArrayList<>();
+        receive(client, replies, 200);
+        assertThat(replies.size(), is(0));
+    }
+
+    /**
+     * Many requesters repeating their search in a storm: every requester is answered, and only once per interval.
+     */
+    @Test
+    public void searchStormIsAnsweredOncePerRequester() throws Exception {
+        final int requesters = 50;
+        final int searchesPerRequester = 40;
+        DatagramChannel[] channels = new DatagramChannel[requesters];
+        int[] replies = new int[requesters];
+        for (int i = 0; i < requesters; i++) {
+            channels[i] = client();
+        }
+
+        long start = System.currentTimeMillis();
+        ByteBuffer search = ByteBuffer.wrap(M_SEARCH.getBytes(StandardCharsets.UTF_8));
+        for (int round = 0; round < searchesPerRequester; round++) {
+            for (int i = 0; i < requesters; i++) {
+                channels[i].send(search.duplicate(), serverAddress);
+            }
+        }
+
+        // Generous timeout for loaded machines
+        ByteBuffer buf = ByteBuffer.allocate(1000);
+        int answered = 0;
+        long end = System.currentTimeMillis() + 5000;
+        while (answered < requesters && System.currentTimeMillis() < end) {
+            answered = 0;
+            for (int i = 0; i < requesters; i++) {
+                buf.clear();
+                if (channels[i].receive(buf) != null) {
+                    replies[i]++;
+                }
+                if (replies[i] >= 3) {
+                    answered++;
+                }
+            }
+            Thread.sleep(1);
+        }
+
+        for (int i = 0; i < requesters; i++) {
+            List<String> late = new ArrayList<>();
+            receive(channels[i], late, 5);
+            replies[i] += late.size();
+        }
+
+        // Repeated searches are answered at most once per reply interval, however long the storm took
+        long intervals = 1 + (System.currentTimeMillis() - start) / HueEmulationUpnpServer.MIN_REPLY_INTERVAL_MSECS;
+        for (int i = 0; i < requesters; i++) {
+            assertThat("requester " + i + " got " + replies[i] + " replies",
+                    replies[i] >= 3 && replies[i] <= 3 * intervals, is(true));
+        }
+    }
+}
@@ -14,13 +14,14 @@ package org.openhab.io.hueemulation.internal;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
-import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.file.Paths;
+import java.util.Arrays;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -29,6 +30,7 @@ import org.eclipse.smarthome.core.events.EventPublisher;
 import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.library.items.ColorItem;
 import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -92,6 +94,28 @@ public class HueRestAPITest {
         assertEquals(200, result);
     }
 
+    @Test
+    public void fullStateEqualsSerializedDataStore() throws IOException {
+        ds.config.whitelist.put("testuser", new HueUserAuth("testuser"));
+        StringWriter out = new StringWriter();
+        int result = restAPI.handleUser(HttpMethod.GET, "", out, "testuser", Paths.get("/"), Paths.get(""), false);
+        assertEquals(200, result);
+        assertThat(out.toString(), is(gson.toJson(ds)));
+    }
+
+    @Test
+    public void serializedLightFollowsItemState() throws IOException {
+        ds.config.whitelist.put("testuser", new HueUserAuth("testuser"));
+        StringWriter out = new StringWriter();
+        restAPI.handle(HttpMethod.GET, "", out, Paths.get("/api/testuser/lights/1"), false);
+        assertThat(out.toString(), containsString("\"on\":false"));
+
+        ((SwitchItem) ds.lights.get(1).item).setState(OnOffType.ON);
+        out = new StringWriter();
+        restAPI.handle(HttpMethod.GET, "", out, Paths.get("/api/testuser/lights/1"), false);
+        assertThat(out.toString(), containsString("\"on\":true"));
+    }
+
     @Test
     public void addUser() throws IOException {
         PrintWriter out = mock(PrintWriter.class);
@@ -165,4 +189,20 @@ public class HueRestAPITest {
         assertThat(((HueStateColorBulb) ds.lights.get(2).state).on, is(true));
         assertThat(((HueStateColorBulb) ds.lights.get(2).state).bri, is(200));
     }
+
+    @Test
+    public void changeGroupState() throws IOException {
+        ds.config.whitelist.put("testuser", new HueUserAuth("testuser"));
+        ds.groups.get(0).lights = Arrays.asList("1", "2", "3");
+
+        String body = "{'on':true}";
+        StringWriter out = new StringWriter();
+        int result = restAPI.handle(HttpMethod.PUT, body, out, Paths.get("/api/testuser/groups/0/action"), false);
+        assertEquals(200, result);
+        assertThat(out.toString(), containsString("success"));
+        assertThat(out.toString(), not(containsString("error")));
+        assertThat(((HueStatePlug) ds.lights.get(1).state).on, is(true));
+        assertThat(((HueStateColorBulb) ds.lights.get(2).state).on, is(true));
+        verify(eventPublisher, times(3)).post(any());
+    }
 }
@@ -196,8 +196,18 @@ public class HueEmulationService implements ReadyTracker {
                     apiServerError(req, out, HueResponse.INVALID_JSON, "Invalid request: " + e.getMessage());
                 }
 
+                String body = out.toString();
+                if (method == HttpMethod.GET && statuscode == 200 && !isDebug) {
+                    String etag = Utils.getETag(body);
+                    resp.setHeader("ETag", etag);
+                    if (etag.equals(req.getHeader("If-None-Match"))) {
+                        resp.setStatus(304);
+                        return;
+                    }
+                }
+
                 resp.setStatus(statuscode);
-                httpOut.print(out.toString());
+                httpOut.print(body);
 
             }
         }
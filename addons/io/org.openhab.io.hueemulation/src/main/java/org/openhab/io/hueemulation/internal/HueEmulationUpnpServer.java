@@ -9,15 +9,20 @@
 package org.openhab.io.hueemulation.internal;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
-import java.net.MulticastSocket;
 import java.net.NetworkInterface;
-import java.net.SocketException;
-import java.net.SocketTimeoutException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -28,6 +33,13 @@ import org.slf4j.LoggerFactory;
 /**
  * Advertises a Hue UPNP compatible bridge
  *
+ * <p>
+ * A single thread waits on a selector for M-SEARCH requests, and answers them with one non-blocking send channel.
+ * Requests are never queued behind slow operations, so that they are answered within a bounded latency even with
+ * many devices searching at the same time. Devices repeating their search are answered at most once per
+ * {@link #MIN_REPLY_INTERVAL_MSECS}.
+ * </p>
+ *
  * @author Dan Cunningham - Initial contribution
  * @author David Graeff - Refactored
  */
@@ -40,15 +52,37 @@ public class HueEmulationUpnpServer implements Runnable {
      */
     static final int MIN_MAX_AGE_MSECS = 1800000;
 
+    /**
+     * Minimum time between two replies to the same requester (address and port)
+     */
+    static final int MIN_REPLY_INTERVAL_MSECS = 1000;
+
+    /**
+     * Maximum number of requesters tracked for rate limiting, the least recently answered one is forgotten first
+     */
+    private static final int MAX_TRACKED_REQUESTERS = 1024;
+
     // jUPNP shares port 1900, but since this is multicast, we can also bind to it
     private static final int UPNP_PORT_RECV = 1900;
     private static final String MULTI_ADDR = "239.255.255.250";
     private final InetAddress MULTI_ADDR_IP;
-    private boolean running;
+    private volatile boolean running;
     private final InetAddress address;
-    private final String[] stVersions = { "", "", "" };
+    private final int upnpPort;
+    private final ByteBuffer[] stVersions = new ByteBuffer[3];
+    // ordered by the time of the last reply, oldest first
+    private final Map<SocketAddress, Long> lastReplyMillis = new LinkedHashMap<SocketAddress, Long>() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<SocketAddress, Long> eldest) {
+            return size() > MAX_TRACKED_REQUESTERS;
+        }
+    };
     private @Nullable Thread thread;
-    private @Nullable DatagramSocket socket;
+    private @Nullable Selector selector;
+    private @Nullable DatagramChannel recvChannel;
+    private @Nullable DatagramChannel sendChannel;
     private int webPort;
 
     /**
@@ -59,9 +93,19 @@ public class HueEmulationUpnpServer implements Runnable {
      * @param address IP to advertise for UPNP
      */
     public HueEmulationUpnpServer(String relativePath, HueAuthorizedConfig config, InetAddress address, int webPort) {
+        this(relativePath, config, address, webPort, UPNP_PORT_RECV);
+    }
+
+    /**
+     * Server listening to the given port instead of the UPNP port. Used by tests.
+     *
+     * @param upnpPort The port to receive M-SEARCH requests from. Zero for any free port.
+     */
+    HueEmulationUpnpServer(String relativePath, HueAuthorizedConfig config, InetAddress address, int webPort,
+            int upnpPort) {
         this.webPort = webPort;
-        this.running = true;
         this.address = address;
+        this.upnpPort = upnpPort;
         try {
             MULTI_ADDR_IP = InetAddress.getByName(MULTI_ADDR);
         } catch (UnknownHostException e) {
@@ -70,105 +114,224 @@ public class HueEmulationUpnpServer implements Runnable {
 
         final String[] stVersions = { "upnp:rootdevice", "urn:schemas-upnp-org:device:basic:1", "uuid:" + config.uuid };
         for (int i = 0; i < stVersions.length; ++i) {
-            this.stVersions[i] = String.format(
+            String msg = String.format(
                     "HTTP/1.1 200 OK\r\n" + "HOST: %s:%d\r\n" + "EXT:\r\n" + "CACHE-CONTROL: max-age=100\r\n"
                             + "LOCATION: %s\r\n" + "SERVER: FreeRTOS/7.4.2, UPnP/1.0, IpBridge/1.15.0\r\n"
                             + "hue-bridgeid: %s\r\n" + "ST: %s\r\n" + "USN: uuid:%s::upnp:rootdevice\r\n\r\n",
                     MULTI_ADDR, UPNP_PORT_RECV,
                     "http://" + address.getHostAddress().toString() + ":" + webPort + relativePath, config.bridgeid,
                     stVersions[i], config.uuid);
+            this.stVersions[i] = ByteBuffer.wrap(msg.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
         }
-
     }
 
-    public void start() {
-        if (socket != null) {
+    /**
+     * Opens the channels and starts answering M-SEARCH requests
+     */
+    public synchronized void start() {
+        if (thread != null) {
             return;
         }
 
+        Selector selector = null;
+        DatagramChannel recvChannel = null;
+        DatagramChannel sendChannel = null;
+        try {
+            selector = Selector.open();
+            recvChannel = DatagramChannel.open(StandardProtocolFamily.INET);
+            recvChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            recvChannel.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+            recvChannel.bind(new InetSocketAddress(upnpPort));
+            recvChannel.configureBlocking(false);
+            try {
+                NetworkInterface networkInterface = NetworkInterface.getByInetAddress(address);
+                if (networkInterface != null) {
+                    recvChannel.join(MULTI_ADDR_IP, networkInterface);
+                } else {
+                    logger.warn("No network interface for {}, not joining the UPNP multicast group", address);
+                }
+            } catch (IOException | UnsupportedOperationException e) {
+                // Unicast M-SEARCH requests are still answered
+                logger.warn("Could not join the UPNP multicast group on {}: {}", address, e.getMessage());
+            }
+            recvChannel.register(selector, SelectionKey.OP_READ);
+            sendChannel = DatagramChannel.open(StandardProtocolFamily.INET);
+            sendChannel.bind(null);
+            sendChannel.configureBlocking(false);
+        } catch (IOException e) {
+            logger.warn("Could not start UPNP server: {}", e.getMessage());
+            closeQuietly(selector, recvChannel, sendChannel);
+            return;
+        }
+
+        this.selector = selector;
+        this.recvChannel = recvChannel;
+        this.sendChannel = sendChannel;
         running = true;
-        Thread thread = new Thread(this);
+        Thread thread = new Thread(this, "HueEmulationUpnpServer");
+        thread.setDaemon(true);
         this.thread = thread;
         thread.start();
     }
 
     /**
      * Stops the upnp server from running
-     *
-     * @throws InterruptedException
      */
     public void shutdown() {
-        Thread thread = this.thread;
-        DatagramSocket socket = this.socket;
-        if (thread == null || socket == null) {
-            return;
+        Thread thread;
+        synchronized (this) {
+            thread = this.thread;
+            if (thread == null) {
+                return;
+            }
+            this.thread = null;
+            running = false;
+            Selector selector = this.selector;
+            if (selector != null) {
+                selector.wakeup();
+            }
         }
 
-        this.running = false;
-        socket.close();
-
         try {
             thread.join();
         } catch (InterruptedException ignore) {
             Thread.currentThread().interrupt();
         }
-        thread = null;
     }
 
     @Override
     public void run() {
-        byte[] buf = new byte[1000];
-        DatagramPacket recv = new DatagramPacket(buf, buf.length);
-        try (MulticastSocket recvSocket = new MulticastSocket(UPNP_PORT_RECV);
-                DatagramSocket sendSocket = new DatagramSocket()) {
-            recvSocket.setReuseAddress(true);
-            recvSocket.setLoopbackMode(true);
-            recvSocket.setSoTimeout(MIN_MAX_AGE_MSECS);
-            this.socket = recvSocket;
-            recvSocket.joinGroup(new InetSocketAddress(MULTI_ADDR, UPNP_PORT_RECV),
-                    NetworkInterface.getByInetAddress(address));
+        Selector selector = this.selector;
+        DatagramChannel recvChannel = this.recvChannel;
+        DatagramChannel sendChannel = this.sendChannel;
+        if (selector == null || recvChannel == null || sendChannel == null) {
+            return;
+        }
 
+        ByteBuffer buf = ByteBuffer.allocate(1000);
+        long lastAdvertisementMillis = System.currentTimeMillis();
+        try {
+            int sendPort = ((InetSocketAddress) sendChannel.getLocalAddress()).getPort();
             while (running) {
-                try {
-                    recvSocket.receive(recv);
-                } catch (SocketTimeoutException ignore) {
+                long now = System.currentTimeMillis();
+                if (now - lastAdvertisementMillis >= MIN_MAX_AGE_MSECS) {
                     // Broadcast every MIN_MAX_AGE_MSECS
-                    sendUPNPDatagrams(recvSocket, MULTI_ADDR_IP, UPNP_PORT_RECV);
-                    continue;
-                }
-                if (recv.getLength() == 0
-                        || (recv.getAddress() == address && recv.getPort() == sendSocket.getLocalPort())) {
-                    continue;
-                }
-                String data = new String(recv.getData());
-                if (!data.startsWith("M-SEARCH")) {
-                    continue;
+                    sendUPNPDatagrams(recvChannel, new InetSocketAddress(MULTI_ADDR_IP, UPNP_PORT_RECV));
+                    lastAdvertisementMillis = now;
                 }
+                selector.select(Math.max(1, MIN_MAX_AGE_MSECS - (now - lastAdvertisementMillis)));
+                selector.selectedKeys().clear();
 
-                sendUPNPDatagrams(sendSocket, recv.getAddress(), recv.getPort());
-            }
-        } catch (SocketException e) {
-            if (running) {
-                logger.warn("Socket error with UPNP server", e);
+                // Drain all pending requests
+                InetSocketAddress sender;
+                while (running && (sender = (InetSocketAddress) recvChannel.receive(buf)) != null) {
+                    buf.flip();
+                    boolean isSearch = isSearch(buf);
+                    buf.clear();
+                    if (!isSearch || (sender.getAddress().equals(address) && sender.getPort() == sendPort)) {
+                        continue;
+                    }
+                    long replyMillis = System.currentTimeMillis();
+                    if (shouldReply(sender, replyMillis)) {
+                        // recorded before sending, a partially sent reply is not repeated with duplicate responses
+                        replied(sender, replyMillis);
+                        sendUPNPDatagrams(sendChannel, sender);
+                    }
+                }
             }
         } catch (IOException e) {
             if (running) {
                 logger.warn("IO Error with UPNP server", e);
             }
+        } finally {
+            closeQuietly(selector, recvChannel, sendChannel);
+            synchronized (this) {
+                this.selector = null;
+                this.recvChannel = null;
+                this.sendChannel = null;
+            }
+        }
+    }
+
+    private static boolean isSearch(ByteBuffer packet) {
+        byte[] search = { 'M', '-', 'S', 'E', 'A', 'R', 'C', 'H' };
+        if (packet.remaining() < search.length) {
+            return false;
+        }
+        for (int i = 0; i < search.length; i++) {
+            if (packet.get(packet.position() + i) != search[i]) {
+                return false;
+            }
         }
-        this.socket = null;
+        return true;
+    }
+
+    /**
+     * Rate limits the replies per requester
+     */
+    private boolean shouldReply(SocketAddress requester, long now) {
+        Long last = lastReplyMillis.get(requester);
+        if (last != null && now - last < MIN_REPLY_INTERVAL_MSECS) {
+            logger.trace("Not replying to {}, already replied {} ms ago", requester, now - last);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records a reply sent to a requester, for rate limiting
+     */
+    private void replied(SocketAddress requester, long now) {
+        // re-insert to move the requester to the end of the map
+        lastReplyMillis.remove(requester);
+        lastReplyMillis.put(requester, now);
     }
 
-    private void sendUPNPDatagrams(DatagramSocket sendSocket, InetAddress address, int port) {
-        for (String msg : stVersions) {
-            DatagramPacket response = new DatagramPacket(msg.getBytes(), msg.length(), address, port);
+    /**
+     * Sends the UPNP responses to the target
+     *
+     * @return true if all responses were sent, false if any was dropped
+     */
+    private boolean sendUPNPDatagrams(DatagramChannel channel, InetSocketAddress target) {
+        boolean sent = true;
+        for (ByteBuffer msg : stVersions) {
             try {
-                logger.trace("Sending to {} : {}", address.getHostAddress(), msg);
-                sendSocket.send(response);
+                logger.trace("Sending to {} : {}", target, msg);
+                if (channel.send(msg.duplicate(), target) == 0) {
+                    logger.debug("Send buffer full, dropping UPNP response to {}", target);
+                    sent = false;
+                }
             } catch (IOException e) {
                 logger.warn("Could not send UPNP response: {}", e.getMessage());
+                sent = false;
             }
         }
+        return sent;
+    }
+
+    private void closeQuietly(@Nullable AutoCloseable... closeables) {
+        for (AutoCloseable closeable : closeables) {
+            if (closeable == null) {
+                continue;
+            }
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.debug("Could not close {}: {}", closeable, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the port M-SEARCH requests are received from, or -1 if the server is not running
+     */
+    int getUpnpPort() {
+        DatagramChannel recvChannel = this.recvChannel;
+        try {
+            return recvChannel == null ? -1 : ((InetSocketAddress) recvChannel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            return -1;
+        }
     }
 
     InetAddress getAddress() {
@@ -241,6 +241,15 @@ public class LightItems implements RegistryChangeListener<Item> {
     @Override
     public synchronized void added(Item element) {
         addItem(element);
+        invalidateGroups();
+    }
+
+    /**
+     * Any registry change may change the group members. Groups are serialized again on the next request. This has to
+     * be called after the change has been applied, otherwise a concurrent request may cache the old serialized form.
+     */
+    private void invalidateGroups() {
+        dataStore.groups.values().forEach(HueGroup::invalidate);
     }
 
     String getType(Item element) {
@@ -306,9 +315,14 @@ public class LightItems implements RegistryChangeListener<Item> {
                 .collect(Collectors.toList());
     }
 
-    @SuppressWarnings({ "null", "unused" })
     @Override
     public synchronized void removed(Item element) {
+        removeItem(element);
+        invalidateGroups();
+    }
+
+    @SuppressWarnings({ "null", "unused" })
+    private void removeItem(Item element) {
         Integer hueID = itemUIDtoHueID.get(element.getUID());
         if (hueID == null) {
             return;
@@ -324,13 +338,18 @@ public class LightItems implements RegistryChangeListener<Item> {
     /**
      * The tags might have changed
      */
-    @SuppressWarnings({ "null", "unused" })
     @Override
     public synchronized void updated(Item oldElement, Item element) {
+        updateItem(element);
+        invalidateGroups();
+    }
+
+    @SuppressWarnings({ "null", "unused" })
+    private void updateItem(Item element) {
         Integer hueID = itemUIDtoHueID.get(element.getUID());
         if (hueID == null) {
             // If the correct tags got added -> use the logic within added()
-            added(element);
+            addItem(element);
             return;
         }
 
@@ -346,14 +365,14 @@ public class LightItems implements RegistryChangeListener<Item> {
         HueDevice hueDevice = dataStore.lights.get(hueID);
         if (hueDevice == null) {
             // If the correct tags got added -> use the logic within added()
-            added(element);
+            addItem(element);
             return;
         }
 
         // Check if type can still be determined (tags and category is still sufficient)
         DeviceType t = determineTargetType(element.getCategory(), getType(element), element.getTags());
         if (t == null) {
-            removed(element);
+            removeItem(element);
             return;
         }
 
@@ -16,19 +16,25 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.Function;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.core.events.EventPublisher;
 import org.eclipse.smarthome.core.items.events.ItemEventFactory;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.io.hueemulation.internal.dto.HueDataStore;
 import org.openhab.io.hueemulation.internal.dto.HueDevice;
+import org.openhab.io.hueemulation.internal.dto.HueGroup;
 import org.openhab.io.hueemulation.internal.dto.HueNewLights;
 import org.openhab.io.hueemulation.internal.dto.HueStateChange;
 import org.openhab.io.hueemulation.internal.dto.HueUnauthorizedConfig;
@@ -164,7 +170,24 @@ public class RESTApi {
         if (remainingPath.getNameCount() == 0) { /** /api/{username} */
             switch (method) {
                 case GET:
-                    out.write(gson.toJson(ds));
+                    // Same as serializing the data store, but with the cached lights and groups
+                    out.write("{\"config\":");
+                    out.write(gson.toJson(ds.config));
+                    out.write(",\"lights\":");
+                    writeMap(out, ds.lights, light -> light.toJson(gson));
+                    out.write(",\"groups\":");
+                    writeMap(out, ds.groups, group -> group.toJson(gson));
+                    out.write(",\"scenes\":");
+                    out.write(gson.toJson(ds.scenes));
+                    out.write(",\"rules\":");
+                    out.write(gson.toJson(ds.rules));
+                    out.write(",\"sensors\":");
+                    out.write(gson.toJson(ds.sensors));
+                    out.write(",\"schedules\":");
+                    out.write(gson.toJson(ds.schedules));
+                    out.write(",\"resourcelinks\":");
+                    out.write(gson.toJson(ds.resourcelinks));
+                    out.write("}");
                     return 200;
                 default:
                     return 405;
@@ -270,8 +293,7 @@ public class RESTApi {
                             out.write("\n");
                         }
                     } else {
-                        ds.lights.values().forEach(v -> v.updateState());
-                        out.write(gson.toJson(ds.lights));
+                        writeMap(out, ds.lights, light -> light.toJson(gson));
                     }
                     return 200;
                 case POST:
@@ -314,8 +336,7 @@ public class RESTApi {
 
         /** /api/{username}/lights/{id} */
         if (remainingPath.getNameCount() == 1) {
-            hueDevice.updateState();
-            out.write(gson.toJson(hueDevice));
+            out.write(hueDevice.toJson(gson));
             return 200;
         }
 
@@ -337,7 +358,7 @@ public class RESTApi {
         if (remainingPath.getNameCount() == 0) {
             switch (method) {
                 case GET:
-                    out.write(gson.toJson(ds.groups));
+                    writeMap(out, ds.groups, group -> group.toJson(gson));
                     return 200;
                 case POST:
                     int hueid = ds.generateNextGroupHueID();
@@ -362,19 +383,84 @@ public class RESTApi {
             return 404;
         }
 
+        HueGroup hueGroup = ds.groups.get(hueID);
+        if (hueGroup == null) {
+            return 404;
+        }
+
         /** /api/{username}/groups/{id} */
         if (remainingPath.getNameCount() == 1) {
-            Object value = ds.groups.get(hueID);
-            if (value == null) {
-                return 404;
-            } else {
-                out.write(gson.toJson(value));
-                return 200;
+            out.write(hueGroup.toJson(gson));
+            return 200;
+        }
+
+        /** /api/{username}/groups/{id}/action */
+        if (remainingPath.getNameCount() == 2 && "action".equals(remainingPath.getName(1).toString())) {
+            switch (method) {
+                case PUT:
+                    return handleGroupAction(body, out, hueID, hueGroup);
+                default:
+                    return 405;
             }
         }
         return 404;
     }
 
+    /**
+     * Hue API call to set the state of all lights of a group.
+     * Enpoint: /api/{username}/groups/{id}/action
+     *
+     * The state change is parsed once and applied to all lights, before any command is posted. Groups backed by a
+     * group item are commanded with a single command to the group item, which the framework forwards to the members.
+     * Other groups, like group 0 of all lights, are commanded light by light. The response is aggregated over all
+     * lights: a change is successful if it could be applied to any of the lights.
+     */
+    @SuppressWarnings({ "null", "unused" })
+    private int handleGroupAction(String body, Writer out, int hueID, HueGroup hueGroup)
+            throws IOException, JsonParseException {
+        HueStateChange state = gson.fromJson(body, HueStateChange.class);
+        if (state == null) {
+            throw new JsonParseException("No state change data received!");
+        }
+
+        Map<String, Object> successApplied = new TreeMap<>();
+        Set<String> errorApplied = new TreeSet<>();
+        List<Event> events = new ArrayList<>();
+
+        HueDevice groupDevice = ds.lights.get(hueID);
+        if (hueGroup.groupItem != null && groupDevice != null) {
+            applyState(groupDevice, state, successApplied, errorApplied, events);
+        } else {
+            for (String lightID : hueGroup.updateLights()) {
+                HueDevice hueDevice = ds.lights.get(Integer.valueOf(lightID));
+                if (hueDevice != null) {
+                    applyState(hueDevice, state, successApplied, errorApplied, events);
+                }
+            }
+        }
+        errorApplied.removeAll(successApplied.keySet());
+
+        logger.debug("sending {} commands to the lights of group {}", events.size(), hueGroup.name);
+        events.forEach(eventPublisher::post);
+
+        writeStateChangeResponse(out, Paths.get("groups", String.valueOf(hueID), "action"), successApplied,
+                errorApplied);
+        return 200;
+    }
+
+    /**
+     * Apply the state change to a light, and collect the resulting command event
+     */
+    private void applyState(HueDevice hueDevice, HueStateChange state, Map<String, Object> successApplied,
+            Set<String> errorApplied, List<Event> events) {
+        List<String> errors = new ArrayList<>();
+        Command command = hueDevice.applyState(state, successApplied, errors);
+        errorApplied.addAll(errors);
+        if (command != null) {
+            events.add(ItemEventFactory.createCommandEvent(hueDevice.item.getName(), command, "hueemulation"));
+        }
+    }
+
     /**
      * Hue API call to set the state of a light.
      * Enpoint: /api/{username}/lights/{id}/state
@@ -403,7 +489,15 @@ public class RESTApi {
         // Generate the response. The response consists of a list with an entry each for all
         // submitted change requests. If for example "on" and "bri" was send, 2 entries in the response are
         // expected.
-        Path contextPath = fullURI.subpath(2, fullURI.getNameCount() - 1);
+        writeStateChangeResponse(out, fullURI.subpath(2, fullURI.getNameCount() - 1), successApplied, errorApplied);
+        return 200;
+    }
+
+    /**
+     * Writes the response of a state change, with an entry for each applied and each failed change
+     */
+    private void writeStateChangeResponse(Writer out, Path contextPath, Map<String, Object> successApplied,
+            Collection<String> errorApplied) throws IOException {
         List<HueResponse> responses = new ArrayList<>();
         successApplied.forEach((t, v) -> {
             responses.add(new HueResponse(new HueSuccessResponseStateChanged(contextPath.resolve(t).toString(), v)));
@@ -417,7 +511,25 @@ public class RESTApi {
             gson.toJson(responses, new TypeToken<List<?>>() {
             }.getType(), writer);
         }
-        return 200;
+    }
+
+    /**
+     * Writes a hue id map as JSON object, assembled from the serialized form of each value.
+     */
+    private <T> void writeMap(Writer out, Map<Integer, T> map, Function<T, String> toJson) throws IOException {
+        out.write('{');
+        boolean first = true;
+        for (Map.Entry<Integer, T> entry : map.entrySet()) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            out.write('"');
+            out.write(entry.getKey().toString());
+            out.write("\":");
+            out.write(toJson.apply(entry.getValue()));
+        }
+        out.write('}');
     }
 
     /**
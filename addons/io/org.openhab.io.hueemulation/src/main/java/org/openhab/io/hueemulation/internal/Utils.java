@@ -12,6 +12,8 @@ import java.net.InetAddress;
 import java.net.NetworkInterface;
 import java.net.SocketException;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -35,6 +37,27 @@ public class Utils {
         response.setHeader("Access-Control-Allow-Headers", "Origin, X-Requested-With, Content-Type, Accept");
     }
 
+    /**
+     * Computes an entity tag for the given response body. Clients polling the REST API can use the tag for conditional
+     * requests, which are answered with status code 304 if the response has not changed.
+     *
+     * @param body The response body
+     * @return A quoted entity tag
+     */
+    static String getETag(String body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(body.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder("\"");
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            // MD5 is supported by every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Try to get the ethernet interface MAC for the network interface that belongs to the given IP address.
      * Returns a default MAC on any failure.
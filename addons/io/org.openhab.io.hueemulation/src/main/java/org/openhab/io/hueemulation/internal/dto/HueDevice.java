@@ -22,6 +22,8 @@ import org.eclipse.smarthome.core.types.State;
 import org.openhab.io.hueemulation.internal.DeviceType;
 import org.openhab.io.hueemulation.internal.dto.HueStateColorBulb.ColorMode;
 
+import com.google.gson.Gson;
+
 /**
  * Hue API device object
  *
@@ -70,6 +72,11 @@ public class HueDevice {
 
     public Capabilities capabilities = new Capabilities();
 
+    /** Serialized form of this device, see {@link #toJson(Gson)} */
+    private transient @Nullable String json;
+    /** Item state that the serialized form has been created with */
+    private transient @Nullable State jsonItemState;
+
     /**
      * Create a hue device.
      *
@@ -358,12 +365,14 @@ public class HueDevice {
             errorApplied.add("xy_inc");
         }
 
+        invalidate();
         return command;
     }
 
     public void updateItem(Item element) {
         item = element;
         setState(item.getState());
+        invalidate();
 
         // Just update the item label and item reference
         String label = element.getLabel();
@@ -379,6 +388,32 @@ public class HueDevice {
         setState(item.getState());
     }
 
+    /**
+     * Returns the serialized form of this device. The item state is synchronized with the hue state object and the
+     * device is serialized again only if the item state has changed since the last call.
+     *
+     * @param gson The serializer
+     * @return The device as JSON object
+     */
+    public synchronized String toJson(Gson gson) {
+        State itemState = item.getState();
+        String json = this.json;
+        if (json == null || !itemState.equals(jsonItemState)) {
+            setState(itemState);
+            json = gson.toJson(this);
+            this.json = json;
+            jsonItemState = itemState;
+        }
+        return json;
+    }
+
+    /**
+     * Discards the serialized form of this device, after the device has been changed
+     */
+    public synchronized void invalidate() {
+        json = null;
+    }
+
     @Override
     public String toString() {
         StringBuilder b = new StringBuilder();
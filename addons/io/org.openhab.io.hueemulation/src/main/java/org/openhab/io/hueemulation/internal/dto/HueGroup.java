@@ -18,6 +18,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.items.GroupItem;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSerializationContext;
@@ -38,6 +39,9 @@ public class HueGroup {
     public transient @Nullable GroupItem groupItem;
     public transient Map<String, Integer> itemUIDtoHueID;
 
+    /** Serialized form of this group, see {@link #toJson(Gson)} */
+    private transient @Nullable String json;
+
     public HueGroup(String name, @Nullable GroupItem groupItem, Map<String, Integer> itemUIDtoHueID) {
         this.name = name;
         this.groupItem = groupItem;
@@ -46,12 +50,51 @@ public class HueGroup {
 
     public void updateItem(GroupItem element) {
         groupItem = element;
+        invalidate();
+    }
+
+    /**
+     * Computes the {@link HueGroup#lights} list, by looking up all item members of the referenced groupItem and map
+     * them to either a known hue ID or filtering them out. Groups without a group item keep their list of lights.
+     *
+     * @return The hue IDs of the lights of this group
+     */
+    @SuppressWarnings("null")
+    public List<String> updateLights() {
+        GroupItem item = groupItem;
+        if (item != null) {
+            lights = item.getMembers().stream().map(gitem -> itemUIDtoHueID.get(gitem.getUID()))
+                    .filter(id -> id != null).map(e -> String.valueOf(e)).collect(Collectors.toList());
+        }
+        return lights;
+    }
+
+    /**
+     * Returns the serialized form of this group. The group is serialized again only if it has been invalidated, for
+     * example because the group members have changed.
+     *
+     * @param gson The serializer
+     * @return The group as JSON object
+     */
+    public synchronized String toJson(Gson gson) {
+        String json = this.json;
+        if (json == null) {
+            json = gson.toJson(this);
+            this.json = json;
+        }
+        return json;
+    }
+
+    /**
+     * Discards the serialized form of this group
+     */
+    public synchronized void invalidate() {
+        json = null;
     }
 
     /**
-     * This custom serializer computes the {@link HueGroup#lights} list, before serializing.
-     * It does so, by looking up all item members of the references groupItem and map them to
-     * either a known hue ID or filtering them out.
+     * This custom serializer computes the {@link HueGroup#lights} list with {@link HueGroup#updateLights()}, before
+     * serializing.
      *
      */
     @NonNullByDefault({})
@@ -60,11 +103,7 @@ public class HueGroup {
         @SuppressWarnings("null")
         @Override
         public JsonElement serialize(HueGroup product, Type type, JsonSerializationContext jsc) {
-            GroupItem item = product.groupItem;
-            if (item != null) {
-                product.lights = item.getMembers().stream().map(gitem -> product.itemUIDtoHueID.get(gitem.getUID()))
-                        .filter(id -> id != null).map(e -> String.valueOf(e)).collect(Collectors.toList());
-            }
+            product.updateLights();
 
             JsonObject o = new JsonObject();
             o.addProperty("name", product.name);
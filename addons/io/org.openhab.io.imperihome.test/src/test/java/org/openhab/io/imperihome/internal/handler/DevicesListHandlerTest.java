@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.imperihome.internal.handler;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.imperihome.internal.model.device.AbstractDevice;
+import org.openhab.io.imperihome.internal.model.device.DeviceType;
+import org.openhab.io.imperihome.internal.model.param.DeviceParam;
+import org.openhab.io.imperihome.internal.model.param.ParamType;
+import org.openhab.io.imperihome.internal.processor.DeviceRegistry;
+
+import com.google.gson.Gson;
+
+/**
+ * Tests for the versioned device list and the conditional requests of {@link DevicesListHandler}
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class DevicesListHandlerTest {
+
+    private static class TestDevice extends AbstractDevice {
+        private TestDevice(String id) {
+            super(DeviceType.SWITCH, null);
+            setId(id);
+            setName(id);
+        }
+    }
+
+    /**
+     * Result of a request: the response headers, status and body
+     */
+    private static class Response {
+        private final Map<String, String> headers = new HashMap<>();
+        private final StringWriter body = new StringWriter();
+        private int status = 200;
+
+        private String getETag() {
+            return headers.get("ETag");
+        }
+
+        private String getBody() {
+            return body.toString();
+        }
+    }
+
+    private final DeviceRegistry registry = new DeviceRegistry();
+    private final TestDevice deviceA = new TestDevice("a");
+    private final TestDevice deviceB = new TestDevice("b");
+    private DevicesListHandler handler;
+
+    @Before
+    public void setUp() {
+        deviceA.addParam(new DeviceParam(ParamType.STATUS, "0"));
+        deviceB.addParam(new DeviceParam(ParamType.STATUS, "0"));
+        registry.add(deviceA);
+        registry.add(deviceB);
+        handler = new DevicesListHandler(registry, new Gson());
+    }
+
+    private Response request(String ifNoneMatch) throws IOException {
+        Response response = new Response();
+        HttpServletRequest req = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class },
+                (proxy, method, args) -> "getHeader".equals(method.getName()) && "If-None-Match".equals(args[0])
+                        ? ifNoneMatch
+                        : null);
+        HttpServletResponse resp = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setHeader":
+                            response.headers.put((String) args[0], (String) args[1]);
+                            return null;
+                        case "setStatus":
+                            response.status = (Integer) args[0];
+                            return null;
+                        case "getWriter":
+                            return new PrintWriter(response.body, true);
+                        default:
+                            return null;
+                    }
+                });
+        handler.handle(req, resp);
+        return response;
+    }
+
+    @Test
+    public void testHandle_listWithETag() throws IOException {
+        Response response = request(null);
+
+        assertEquals(200, response.status);
+        assertNotNull(response.getETag());
+        assertTrue(response.getBody().startsWith("{\"devices\":["));
+        assertTrue(response.getBody().contains("\"id\":\"a\""));
+        assertTrue(response.getBody().contains("\"id\":\"b\""));
+    }
+
+    @Test
+    public void testHandle_notModifiedForMatchingETag() throws IOException {
+        Response first = request(null);
+
+        Response second = request(first.getETag());
+
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, second.status);
+        assertEquals(first.getETag(), second.getETag());
+        assertEquals("", second.getBody());
+    }
+
+    @Test
+    public void testHandle_sameListWithoutIfNoneMatch() throws IOException {
+        Response first = request(null);
+
+        Response second = request(null);
+
+        assertEquals(200, second.status);
+        assertEquals(first.getETag(), second.getETag());
+        assertEquals(first.getBody(), second.getBody());
+    }
+
+    @Test
+    public void testHandle_changedParamChangesETag() throws IOException {
+        Response first = request(null);
+        long revision = deviceA.getRevision();
+
+        deviceA.addParam(new DeviceParam(ParamType.STATUS, "1"));
+        Response second = request(first.getETag());
+
+        assertEquals(revision + 1, deviceA.getRevision());
+        assertEquals(200, second.status);
+        assertNotEquals(first.getETag(), second.getETag());
+        assertNotEquals(first.getBody(), second.getBody());
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, request(second.getETag()).status);
+    }
+
+    @Test
+    public void testHandle_equalParamKeepsETag() throws IOException {
+        Response first = request(null);
+        long revision = deviceA.getRevision();
+
+        deviceA.addParam(new DeviceParam(ParamType.STATUS, "0"));
+        Response second = request(first.getETag());
+
+        assertEquals(revision, deviceA.getRevision());
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, second.status);
+    }
+
+    @Test
+    public void testHandle_removedDeviceChangesETag() throws IOException {
+        Response first = request(null);
+
+        registry.remove("b");
+        Response second = request(first.getETag());
+
+        assertEquals(200, second.status);
+        assertNotEquals(first.getETag(), second.getETag());
+        assertTrue(second.getBody().contains("\"id\":\"a\""));
+        assertFalse(second.getBody().contains("\"id\":\"b\""));
+    }
+
+    @Test
+    public void testHandle_addedDeviceChangesETag() throws IOException {
+        Response first = request(null);
+
+        registry.add(new TestDevice("c"));
+        Response second = request(first.getETag());
+
+        assertEquals(200, second.status);
+        assertNotEquals(first.getETag(), second.getETag());
+        assertTrue(second.getBody().contains("\"id\":\"c\""));
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.imperihome.internal.handler;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for the min/max bucket downsampling of {@link HistoryDownsampler}
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class HistoryDownsamplerTest {
+
+    private final List<String> values = new ArrayList<>();
+
+    private HistoryDownsampler downsampler(long start, long end, int maxPoints) {
+        return new HistoryDownsampler(start, end, maxPoints,
+                item -> values.add(item.getDate() + ":" + item.getValue()));
+    }
+
+    @Test
+    public void testAdd_sparseSeriesUnchanged() throws IOException {
+        // 2 buckets of 50 ms
+        HistoryDownsampler downsampler = downsampler(0, 99, 4);
+        downsampler.add(10, 5);
+        downsampler.add(20, 1);
+        downsampler.add(60, 3);
+        downsampler.finish();
+
+        assertEquals(Arrays.asList("10:5", "20:1", "60:3"), values);
+    }
+
+    @Test
+    public void testAdd_minAndMaxKeptInTimeOrder() throws IOException {
+        HistoryDownsampler downsampler = downsampler(0, 99, 4);
+        downsampler.add(0, 5);
+        downsampler.add(10, 9);
+        downsampler.add(20, 2);
+        downsampler.add(30, 7);
+        downsampler.add(50, 4);
+        downsampler.add(60, 1);
+        downsampler.add(70, 8);
+        downsampler.add(80, 6);
+        downsampler.finish();
+
+        // the peak is kept, also when the maximum precedes the minimum
+        assertEquals(Arrays.asList("10:9", "20:2", "60:1", "70:8"), values);
+    }
+
+    @Test
+    public void testAdd_bucketBoundaries() throws IOException {
+        HistoryDownsampler downsampler = downsampler(0, 99, 4);
+        downsampler.add(49, 1);
+        downsampler.add(49, 2);
+        downsampler.add(49, 3);
+        // first value of the second bucket
+        downsampler.add(50, 4);
+        downsampler.add(99, 5);
+        downsampler.add(99, 6);
+        downsampler.finish();
+
+        assertEquals(Arrays.asList("49:1", "49:3", "50:4", "99:6"), values);
+    }
+
+    @Test
+    public void testAdd_valuesOutsideRangeInFirstAndLastBucket() throws IOException {
+        HistoryDownsampler downsampler = downsampler(100, 199, 4);
+        downsampler.add(50, 1);
+        downsampler.add(120, 2);
+        downsampler.add(130, 3);
+        downsampler.add(180, 4);
+        downsampler.add(250, 5);
+        downsampler.add(300, 6);
+        downsampler.finish();
+
+        assertEquals(Arrays.asList("50:1", "130:3", "180:4", "300:6"), values);
+    }
+
+    @Test
+    public void testAdd_olderValueCountedInBucketOfPredecessor() throws IOException {
+        HistoryDownsampler downsampler = downsampler(0, 99, 4);
+        downsampler.add(10, 5);
+        downsampler.add(60, 5);
+        downsampler.add(20, 1);
+        downsampler.finish();
+
+        // the values of a bucket are passed on in time order
+        assertEquals(Arrays.asList("10:5", "20:1", "60:5"), values);
+    }
+
+    @Test
+    public void testAdd_equalValuesKeepFirstAndSecond() throws IOException {
+        HistoryDownsampler downsampler = downsampler(0, 99, 2);
+        downsampler.add(10, 3);
+        downsampler.add(20, 3);
+        downsampler.add(30, 3);
+        downsampler.finish();
+
+        assertEquals(Arrays.asList("10:3", "20:3"), values);
+    }
+
+    @Test
+    public void testAdd_pointBudgetKept() throws IOException {
+        HistoryDownsampler downsampler = downsampler(0, 9999, 100);
+        for (int i = 0; i < 10000; i++) {
+            downsampler.add(i, Math.sin(i / 100.0));
+        }
+        downsampler.finish();
+
+        assertEquals(100, values.size());
+    }
+
+    @Test
+    public void testFinish_emptySeries() throws IOException {
+        downsampler(0, 99, 4).finish();
+
+        assertTrue(values.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreate_singlePointRejected() {
+        downsampler(0, 99, 1);
+    }
+}
@@ -111,7 +111,7 @@ public class ImperiHomeApiServlet extends HttpServlet {
         actionRegistry = new ActionRegistry(eventPublisher, deviceRegistry);
         itemProcessor = new ItemProcessor(itemRegistry, deviceRegistry, actionRegistry, imperiHomeConfig);
         roomListHandler = new RoomListHandler(deviceRegistry);
-        devicesListHandler = new DevicesListHandler(deviceRegistry);
+        devicesListHandler = new DevicesListHandler(deviceRegistry, gson);
         deviceActionHandler = new DeviceActionHandler(deviceRegistry);
         deviceHistoryHandler = new DeviceHistoryHandler(deviceRegistry, persistenceServiceRegistry);
 
@@ -201,11 +201,16 @@ public class ImperiHomeApiServlet extends HttpServlet {
         if (URL_PATTERN_ROOMS.matcher(path).matches()) {
             response = roomListHandler.handle(req);
         } else if (URL_PATTERN_DEVICES.matcher(path).matches()) {
-            response = devicesListHandler.handle(req);
+            // Device list is served from a snapshot, answering conditional requests
+            devicesListHandler.handle(req, resp);
+            return;
         } else if (actionMatcher.matches()) {
             deviceActionHandler.handle(req, actionMatcher);
         } else if (historyMatcher.matches()) {
-            response = deviceHistoryHandler.handle(req, historyMatcher);
+            // History is streamed to the response while it is read from persistence
+            if (deviceHistoryHandler.handle(req, historyMatcher, resp.getWriter())) {
+                return;
+            }
         } else if (URL_PATTERN_SYSTEM.matcher(path).matches()) {
             response = systemHandler.handle(req);
         } else {
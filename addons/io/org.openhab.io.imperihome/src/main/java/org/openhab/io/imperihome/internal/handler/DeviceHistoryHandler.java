@@ -8,32 +8,39 @@
  */
 package org.openhab.io.imperihome.internal.handler;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.URLDecoder;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
 import org.eclipse.smarthome.core.persistence.HistoricItem;
 import org.eclipse.smarthome.core.persistence.PersistenceService;
 import org.eclipse.smarthome.core.persistence.PersistenceServiceRegistry;
 import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
 import org.eclipse.smarthome.core.types.State;
 import org.openhab.io.imperihome.internal.model.HistoryItem;
-import org.openhab.io.imperihome.internal.model.HistoryList;
 import org.openhab.io.imperihome.internal.model.device.AbstractDevice;
 import org.openhab.io.imperihome.internal.processor.DeviceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.stream.JsonWriter;
+
 /**
- * Device history request handler.
+ * Device history request handler. The history is downsampled to a point budget and streamed to the response while
+ * the persistence results are consumed. Results of recent requests are cached for repeated identical ranges.
  *
  * @author Pepijn de Geus - Initial contribution
  */
@@ -41,17 +48,55 @@ public class DeviceHistoryHandler {
 
     private static final String CHARSET = "UTF-8";
 
+    /**
+     * Request parameter to override the default point budget.
+     */
+    private static final String PARAM_POINTS = "points";
+    private static final int DEFAULT_MAX_POINTS = 500;
+    private static final int MAX_POINTS_LIMIT = 5000;
+
+    private static final int CACHE_SIZE = 16;
+    private static final long CACHE_TTL_MILLIS = 60 * 1000;
+
     private final Logger logger = LoggerFactory.getLogger(DeviceHistoryHandler.class);
 
     private final DeviceRegistry deviceRegistry;
     private final PersistenceServiceRegistry persistenceServiceRegistry;
 
+    private final Map<String, CachedHistory> cache = new LinkedHashMap<String, CachedHistory>(CACHE_SIZE, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedHistory> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private static class CachedHistory {
+        private final List<HistoryItem> items;
+        private final long created = System.currentTimeMillis();
+
+        private CachedHistory(List<HistoryItem> items) {
+            this.items = items;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - created > CACHE_TTL_MILLIS;
+        }
+    }
+
     public DeviceHistoryHandler(DeviceRegistry deviceRegistry, PersistenceServiceRegistry persistenceServiceRegistry) {
         this.deviceRegistry = deviceRegistry;
         this.persistenceServiceRegistry = persistenceServiceRegistry;
     }
 
-    public HistoryList handle(HttpServletRequest req, Matcher urlMatcher) {
+    /**
+     * Write the history list for the request to the writer.
+     *
+     * @return false if no history list was written, since the request could not be served
+     */
+    public boolean handle(HttpServletRequest req, Matcher urlMatcher, Writer writer) throws IOException {
         String deviceId, field;
         long start, end;
         try {
@@ -68,52 +113,109 @@ public class DeviceHistoryHandler {
         AbstractDevice device = deviceRegistry.getDevice(deviceId);
         if (device == null) {
             logger.warn("Received history request for unknown device: {}", urlMatcher.group(0));
-            return null;
+            return false;
         }
 
         PersistenceService persistence = persistenceServiceRegistry.getDefault();
         if (persistence == null) {
             logger.warn("Could not retrieve default persistence service; can't serve history request");
-            return null;
+            return false;
         }
         if (!(persistence instanceof QueryablePersistenceService)) {
             logger.warn("Default persistence service is not queryable; can't serve history request");
-            return null;
+            return false;
+        }
+
+        serveHistory(device, (QueryablePersistenceService) persistence, start, end, getMaxPoints(req), writer);
+        return true;
+    }
+
+    private int getMaxPoints(HttpServletRequest req) {
+        String points = req.getParameter(PARAM_POINTS);
+        if (points != null) {
+            try {
+                return Math.max(2, Math.min(MAX_POINTS_LIMIT, Integer.parseInt(points)));
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring invalid point budget: {}", points);
+            }
+        }
+        return DEFAULT_MAX_POINTS;
+    }
+
+    private void serveHistory(AbstractDevice device, QueryablePersistenceService persistence, long start, long end,
+            int maxPoints, Writer writer) throws IOException {
+        String cacheKey = persistence.getId() + '/' + device.getItemName() + '/' + start + '/' + end + '/'
+                + maxPoints;
+        CachedHistory cached;
+        synchronized (cache) {
+            cached = cache.get(cacheKey);
+            if (cached != null && cached.isExpired()) {
+                cache.remove(cacheKey);
+                cached = null;
+            }
         }
 
-        return serveHistory(device, (QueryablePersistenceService) persistence, start, end);
+        JsonWriter jsonWriter = new JsonWriter(writer);
+        jsonWriter.beginObject().name("values").beginArray();
+        if (cached != null) {
+            logger.debug("Serving history of Item {} from cache", device.getItemName());
+            for (HistoryItem item : cached.items) {
+                writeItem(jsonWriter, item);
+            }
+        } else {
+            List<HistoryItem> resultItems = queryHistory(device, persistence, start, end, maxPoints, jsonWriter);
+            synchronized (cache) {
+                cache.put(cacheKey, new CachedHistory(resultItems));
+            }
+        }
+        jsonWriter.endArray().endObject();
+        jsonWriter.flush();
     }
 
-    private HistoryList serveHistory(AbstractDevice device, QueryablePersistenceService persistence, long start,
-            long end) {
+    private List<HistoryItem> queryHistory(AbstractDevice device, QueryablePersistenceService persistence, long start,
+            long end, int maxPoints, JsonWriter jsonWriter) throws IOException {
         logger.info("Querying persistence for history of Item {}, from {} to {}", device.getItemName(), start, end);
 
         FilterCriteria criteria = new FilterCriteria().setItemName(device.getItemName()).setBeginDate(new Date(start))
-                .setEndDate(new Date(end));
-
-        List<HistoryItem> resultItems = new LinkedList<>();
+                .setEndDate(new Date(end)).setOrdering(Ordering.ASCENDING);
+
+        // The downsampled items are bounded by the point budget, keep them for the cache
+        List<HistoryItem> resultItems = new ArrayList<>();
+        HistoryDownsampler downsampler = new HistoryDownsampler(start, end, maxPoints, item -> {
+            resultItems.add(item);
+            writeItem(jsonWriter, item);
+        });
         Iterable<HistoricItem> historicItems = persistence.query(criteria);
 
         Iterator<HistoricItem> iterator = historicItems.iterator();
         if (!iterator.hasNext()) {
             logger.info("Persistence returned no results for history query");
         } else {
+            int count = 0;
             while (iterator.hasNext()) {
                 HistoricItem historicItem = iterator.next();
                 State state = historicItem.getState();
                 if (state instanceof DecimalType) {
                     Number value = ((DecimalType) state).toBigDecimal();
-                    resultItems.add(new HistoryItem(historicItem.getTimestamp(), value));
+                    downsampler.add(historicItem.getTimestamp().getTime(), value);
+                    count++;
                 }
             }
+            downsampler.finish();
 
-            if (resultItems.isEmpty()) {
+            if (count == 0) {
                 logger.warn(
                         "Persistence returned results for history query, but could not be interpreted as DecimalTypes");
+            } else {
+                logger.debug("Downsampled {} history values to {}", count, resultItems.size());
             }
         }
 
-        return new HistoryList(resultItems);
+        return resultItems;
+    }
+
+    private void writeItem(JsonWriter jsonWriter, HistoryItem item) throws IOException {
+        jsonWriter.beginObject().name("date").value(item.getDate()).name("value").value(item.getValue()).endObject();
     }
 
 }
@@ -8,43 +8,117 @@
  */
 package org.openhab.io.imperihome.internal.handler;
 
-import java.util.Collection;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.openhab.io.imperihome.internal.model.device.AbstractDevice;
-import org.openhab.io.imperihome.internal.model.device.DeviceList;
 import org.openhab.io.imperihome.internal.processor.DeviceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.Gson;
+
 /**
- * Device list request handler.
+ * Device list request handler. Keeps a versioned snapshot of the serialized device list, in which only devices whose
+ * parameters changed since the previous request are serialized again. The snapshot version is sent as ETag, so that
+ * polls without any change are answered with 304 Not Modified.
  *
  * @author Pepijn de Geus - Initial contribution
  */
 public class DevicesListHandler {
 
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+
     private final Logger logger = LoggerFactory.getLogger(DevicesListHandler.class);
 
     private final DeviceRegistry deviceRegistry;
+    private final Gson gson;
+
+    // all below guarded by this
+    private final Map<String, SerializedDevice> serializedDevices = new HashMap<>();
+    private long registryVersion = -1;
+    // start with current time, so that versions of an earlier instance are not mistaken for the current one
+    private long listVersion = System.currentTimeMillis();
+    private String listJson;
+
+    private static class SerializedDevice {
+        private final AbstractDevice device;
+        private final long revision;
+        private final String json;
 
-    public DevicesListHandler(DeviceRegistry deviceRegistry) {
+        private SerializedDevice(AbstractDevice device, long revision, String json) {
+            this.device = device;
+            this.revision = revision;
+            this.json = json;
+        }
+    }
+
+    public DevicesListHandler(DeviceRegistry deviceRegistry, Gson gson) {
         this.deviceRegistry = deviceRegistry;
+        this.gson = gson;
+    }
+
+    public void handle(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String etag;
+        String json;
+        synchronized (this) {
+            updateSnapshot();
+            etag = "\"" + listVersion + "\"";
+            json = listJson;
+        }
+
+        resp.setHeader(HEADER_ETAG, etag);
+        if (etag.equals(req.getHeader(HEADER_IF_NONE_MATCH))) {
+            logger.debug("Device list not modified since version {}", etag);
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        logger.debug("Device list response: {}", json);
+        resp.getWriter().write(json);
     }
 
-    public DeviceList handle(HttpServletRequest req) {
-        DeviceList response = new DeviceList();
+    private void updateSnapshot() {
+        long currentRegistryVersion = deviceRegistry.getVersion();
+        boolean changed = currentRegistryVersion != registryVersion;
+        if (changed) {
+            serializedDevices.keySet().retainAll(deviceRegistry.getDevices().keySet());
+            registryVersion = currentRegistryVersion;
+        }
 
-        Collection<AbstractDevice> devices = deviceRegistry.getDevices().values();
-        for (AbstractDevice device : devices) {
+        int serializedCount = 0;
+        for (AbstractDevice device : deviceRegistry) {
             device.updateParams();
+            // read revision before serializing, a concurrent change is then picked up by the next request
+            long revision = device.getRevision();
+            SerializedDevice serialized = serializedDevices.get(device.getId());
+            if (serialized == null || serialized.device != device || serialized.revision != revision) {
+                serializedDevices.put(device.getId(), new SerializedDevice(device, revision, gson.toJson(device)));
+                serializedCount++;
+                changed = true;
+            }
         }
 
-        response.setDevices(devices);
-
-        logger.debug("Device list response: {}", response);
-        return response;
+        if (changed || listJson == null) {
+            StringBuilder builder = new StringBuilder("{\"devices\":[");
+            boolean first = true;
+            for (SerializedDevice serialized : serializedDevices.values()) {
+                if (!first) {
+                    builder.append(',');
+                }
+                builder.append(serialized.json);
+                first = false;
+            }
+            listJson = builder.append("]}").toString();
+            listVersion++;
+            logger.debug("Device list version {}, serialized {} of {} devices", listVersion, serializedCount,
+                    serializedDevices.size());
+        }
     }
 
 }
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.imperihome.internal.handler;
+
+import java.io.IOException;
+
+import org.openhab.io.imperihome.internal.model.HistoryItem;
+
+/**
+ * Reduces a time ordered series of history values to a point budget, using min/max buckets: the requested range is
+ * divided into buckets of equal duration, and only the lowest and highest value of each bucket are kept. Peaks are
+ * thus preserved, unlike with averaging. Buckets with up to two values keep all of them, so sparse series are not
+ * changed at all.
+ *
+ * Values are passed on to the consumer as soon as their bucket is complete, so memory use does not depend on the
+ * number of values in the range.
+ *
+ * @author agent - Initial contribution
+ */
+public class HistoryDownsampler {
+
+    /**
+     * Consumer of the downsampled values, in time order
+     */
+    @FunctionalInterface
+    public interface Consumer {
+        void accept(HistoryItem item) throws IOException;
+    }
+
+    private final long start;
+    private final long bucketDuration;
+    private final int bucketCount;
+    private final Consumer consumer;
+
+    private int bucket = -1;
+    private HistoryItem min;
+    private HistoryItem max;
+
+    /**
+     * @param start start of the range, in milliseconds since the epoch
+     * @param end end of the range, in milliseconds since the epoch
+     * @param maxPoints maximum number of values passed on, at least 2
+     * @param consumer consumer of the downsampled values
+     */
+    public HistoryDownsampler(long start, long end, int maxPoints, Consumer consumer) {
+        if (maxPoints < 2) {
+            throw new IllegalArgumentException("At least 2 points required");
+        }
+        this.start = start;
+        this.bucketCount = maxPoints / 2;
+        long range = Math.max(1, end - start + 1);
+        this.bucketDuration = (range + bucketCount - 1) / bucketCount;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Add the next value of the series. Values are expected in ascending time order, a value older than its
+     * predecessor is counted towards the bucket of the predecessor.
+     */
+    public void add(long date, Number value) throws IOException {
+        int index = (int) Math.max(0, Math.min(bucketCount - 1, (date - start) / bucketDuration));
+        if (index > bucket) {
+            flush();
+            bucket = index;
+        }
+        double doubleValue = value.doubleValue();
+        if (min == null) {
+            min = max = new HistoryItem(date, value);
+        } else if (doubleValue < min.getValue().doubleValue()) {
+            min = new HistoryItem(date, value);
+        } else if (doubleValue > max.getValue().doubleValue()) {
+            max = new HistoryItem(date, value);
+        } else if (min == max) {
+            // keep second value of the bucket, in case it is the last one
+            max = new HistoryItem(date, value);
+        }
+    }
+
+    /**
+     * Pass on the values of the last bucket. Must be called after the last value was added.
+     */
+    public void finish() throws IOException {
+        flush();
+    }
+
+    private void flush() throws IOException {
+        if (min == null) {
+            return;
+        }
+        if (min == max) {
+            consumer.accept(min);
+        } else if (min.getDate() <= max.getDate()) {
+            consumer.accept(min);
+            consumer.accept(max);
+        } else {
+            consumer.accept(max);
+            consumer.accept(min);
+        }
+        min = max = null;
+    }
+
+}
@@ -11,6 +11,7 @@ package org.openhab.io.imperihome.internal.model.device;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
@@ -53,6 +54,8 @@ public abstract class AbstractDevice implements StateChangeListener {
     private transient DeviceRegistry deviceRegistry;
     private transient ActionRegistry actionRegistry;
 
+    private final transient AtomicLong revision = new AtomicLong();
+
     public AbstractDevice(DeviceType type, Item item) {
         this.type = type;
         this.item = item;
@@ -136,7 +139,19 @@ public abstract class AbstractDevice implements StateChangeListener {
 
     public void addParam(DeviceParam param) {
         logger.trace("Setting param for device {}: {}", this, param);
+        DeviceParam previous = params.get(param.getKey());
         params.set(param);
+        if (!param.equals(previous)) {
+            revision.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the revision of the device parameters, which is incremented whenever a parameter changes. Used to
+     * serialize devices again only when they changed.
+     */
+    public long getRevision() {
+        return revision.get();
     }
 
     public Map<String, String> getLinks() {
@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ItemUpdateBuffer}
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class ItemUpdateBufferTest {
+
+    private static final long WINDOW_MILLIS = 100;
+
+    /*
+     * Records the scheduled flushes, which are run by the test instead of after the delay
+     */
+    private static class ManualScheduler extends ScheduledThreadPoolExecutor {
+        private final List<Runnable> commands = new ArrayList<>();
+        private final List<Long> delaysMillis = new ArrayList<>();
+
+        private ManualScheduler() {
+            super(1);
+        }
+
+        @Override
+        public synchronized ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            commands.add(command);
+            delaysMillis.add(unit.toMillis(delay));
+            return super.schedule(() -> {
+            }, 1, TimeUnit.DAYS);
+        }
+
+        private synchronized List<Long> getDelaysMillis() {
+            return new ArrayList<>(delaysMillis);
+        }
+
+        private void runScheduled() {
+            List<Runnable> scheduled;
+            synchronized (this) {
+                scheduled = new ArrayList<>(commands);
+                commands.clear();
+            }
+            scheduled.forEach(Runnable::run);
+        }
+    }
+
+    private final List<Map<String, String>> sentBatches = new ArrayList<>();
+    private ManualScheduler scheduler;
+    private ItemUpdateBuffer buffer;
+    private int sendLimit = Integer.MAX_VALUE;
+
+    @Before
+    public void setUp() {
+        scheduler = new ManualScheduler();
+        buffer = new ItemUpdateBuffer(scheduler, WINDOW_MILLIS, itemStates -> {
+            sentBatches.add(itemStates);
+            return Math.min(sendLimit, itemStates.size());
+        });
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testAdd_latestStateWins() {
+        buffer.setConnected(true);
+        buffer.add("first", "1");
+        buffer.add("second", "ON");
+        buffer.add("first", "2");
+        buffer.add("first", "3");
+        scheduler.runScheduled();
+
+        assertEquals(1, sentBatches.size());
+        Map<String, String> batch = sentBatches.get(0);
+        assertEquals(Arrays.asList("first", "second"), new ArrayList<>(batch.keySet()));
+        assertEquals("3", batch.get("first"));
+        assertEquals("ON", batch.get("second"));
+        assertEquals(2, buffer.getCoalescedCount());
+        assertEquals(2, buffer.getSentCount());
+    }
+
+    @Test
+    public void testAdd_sentWhenWindowExpires() {
+        buffer.setConnected(true);
+        buffer.add("item", "1");
+        buffer.add("other", "1");
+
+        // one flush per window, nothing sent before it expires
+        assertEquals(Arrays.asList(WINDOW_MILLIS), scheduler.getDelaysMillis());
+        assertTrue(sentBatches.isEmpty());
+
+        scheduler.runScheduled();
+        assertEquals(1, sentBatches.size());
+
+        // updates after the flush start a new window
+        buffer.add("item", "2");
+        assertEquals(Arrays.asList(WINDOW_MILLIS, WINDOW_MILLIS), scheduler.getDelaysMillis());
+        scheduler.runScheduled();
+        assertEquals(2, sentBatches.size());
+        assertEquals("2", sentBatches.get(1).get("item"));
+        assertEquals(0, buffer.getCoalescedCount());
+    }
+
+    @Test
+    public void testSetConnected_updatesKeptWhileDisconnected() {
+        buffer.add("item", "1");
+        buffer.add("item", "2");
+        assertTrue(scheduler.getDelaysMillis().isEmpty());
+
+        buffer.setConnected(true);
+        scheduler.runScheduled();
+        assertEquals(1, sentBatches.size());
+        assertEquals("2", sentBatches.get(0).get("item"));
+        assertEquals(1, sentBatches.get(0).size());
+    }
+
+    @Test
+    public void testGetSentCount_unsentUpdatesNotCounted() {
+        sendLimit = 0;
+        buffer.setConnected(true);
+        buffer.add("first", "1");
+        buffer.add("second", "2");
+        scheduler.runScheduled();
+
+        assertEquals(1, sentBatches.size());
+        assertEquals(0, buffer.getSentCount());
+    }
+
+    @Test
+    public void testFlush_unsentUpdatesKept() {
+        sendLimit = 1;
+        buffer.setConnected(true);
+        buffer.add("first", "1");
+        buffer.add("second", "1");
+        buffer.add("third", "1");
+        scheduler.runScheduled();
+        assertEquals(1, buffer.getSentCount());
+
+        // connection lost after the first update, a later state of an unsent item wins
+        buffer.setConnected(false);
+        buffer.add("third", "2");
+        scheduler.runScheduled();
+        assertEquals(1, sentBatches.size());
+
+        sendLimit = Integer.MAX_VALUE;
+        buffer.setConnected(true);
+        scheduler.runScheduled();
+        assertEquals(2, sentBatches.size());
+        Map<String, String> batch = sentBatches.get(1);
+        assertEquals(2, batch.size());
+        assertEquals("1", batch.get("second"));
+        assertEquals("2", batch.get("third"));
+        assertEquals(3, buffer.getSentCount());
+    }
+}
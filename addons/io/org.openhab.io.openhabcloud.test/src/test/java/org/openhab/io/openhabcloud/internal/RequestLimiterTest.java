@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link RequestLimiter}
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class RequestLimiterTest {
+
+    private static final int MAX_RUNNING = 2;
+    private static final int MAX_PENDING = 2;
+
+    private final List<String> started = new ArrayList<>();
+    private RequestLimiter limiter;
+
+    @Before
+    public void setUp() {
+        limiter = new RequestLimiter(MAX_RUNNING, MAX_PENDING);
+    }
+
+    private boolean submit(String requester, String request) {
+        return limiter.submit(requester, () -> started.add(request));
+    }
+
+    @Test
+    public void testSubmit_startedUpToLimit() {
+        assertTrue(submit("user", "1"));
+        assertTrue(submit("user", "2"));
+        assertTrue(submit("user", "3"));
+
+        assertEquals(Arrays.asList("1", "2"), started);
+    }
+
+    @Test
+    public void testSubmit_limitPerRequester() {
+        submit("user", "1");
+        submit("user", "2");
+        submit("user", "3");
+        assertTrue(submit("other", "a"));
+
+        // the other requester is not blocked by the waiting request of the first one
+        assertEquals(Arrays.asList("1", "2", "a"), started);
+    }
+
+    @Test
+    public void testSubmit_rejectedWhenQueueFull() {
+        submit("user", "1");
+        submit("user", "2");
+        assertTrue(submit("user", "3"));
+        assertTrue(submit("user", "4"));
+        assertFalse(submit("user", "5"));
+
+        assertEquals(Arrays.asList("1", "2"), started);
+    }
+
+    @Test
+    public void testRelease_startsWaitingRequestsInOrder() {
+        submit("user", "1");
+        submit("user", "2");
+        submit("user", "3");
+        submit("user", "4");
+
+        limiter.release("user");
+        assertEquals(Arrays.asList("1", "2", "3"), started);
+        limiter.release("user");
+        assertEquals(Arrays.asList("1", "2", "3", "4"), started);
+
+        // running requests complete, the slots are free again
+        limiter.release("user");
+        limiter.release("user");
+        limiter.release("user");
+        limiter.release("user");
+        assertTrue(submit("user", "5"));
+        assertTrue(submit("user", "6"));
+        assertEquals(Arrays.asList("1", "2", "3", "4", "5", "6"), started);
+    }
+
+    @Test
+    public void testRelease_unknownRequesterIgnored() {
+        limiter.release("user");
+
+        assertTrue(submit("user", "1"));
+        assertTrue(submit("user", "2"));
+        assertEquals(Arrays.asList("1", "2"), started);
+    }
+
+    @Test
+    public void testClear_forgetsRunningAndWaitingRequests() {
+        submit("user", "1");
+        submit("user", "2");
+        submit("user", "3");
+
+        limiter.clear();
+        // releases of requests started before clear do not start the discarded request
+        limiter.release("user");
+        assertEquals(Arrays.asList("1", "2"), started);
+
+        assertTrue(submit("user", "4"));
+        assertTrue(submit("user", "5"));
+        assertEquals(Arrays.asList("1", "2", "4", "5"), started);
+    }
+}
@@ -10,18 +10,19 @@ package org.openhab.io.openhabcloud.internal;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
-import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.net.URLEncoder;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.Request;
@@ -33,10 +34,10 @@ import org.eclipse.jetty.client.api.Result;
 import org.eclipse.jetty.client.util.BytesContentProvider;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpStatus;
 import org.eclipse.jetty.util.BufferUtil;
-import org.eclipse.jetty.util.URIUtil;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -79,6 +80,31 @@ public class CloudClient {
      */
     private static final int HTTP_CLIENT_TIMEOUT = 30000;
 
+    /*
+     * Thread pool for sending responses and item updates to the openHAB Cloud
+     */
+    private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
+
+    /*
+     * These constants bound the number of proxied requests a single remote user can run concurrently, and the
+     * number of the user's requests waiting for one of them to complete
+     */
+    private static final int MAX_RUNNING_REQUESTS_PER_USER = 16;
+    private static final int MAX_PENDING_REQUESTS_PER_USER = 256;
+
+    /*
+     * Running requests without any progress for this time are aborted and removed, in case the openHAB Cloud never
+     * cancels them. Pending requests are aborted after this time as well.
+     */
+    private static final long REQUEST_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    /*
+     * Response content is collected up to this size before it is sent to the openHAB Cloud, or until no further
+     * content is received within the linger time
+     */
+    private static final int RESPONSE_FRAME_SIZE = 64 * 1024;
+    private static final long RESPONSE_FRAME_LINGER_MILLIS = 10;
+
     /*
      * This variable holds base URL for the openHAB Cloud connections
      */
@@ -105,9 +131,20 @@ public class CloudClient {
     private HttpClient jettyClient;
 
     /*
-     * This hashmap holds HTTP requests to local openHAB which are currently running
+     * This map holds HTTP requests to local openHAB which are currently running or waiting to be started
      */
-    private HashMap<Integer, Request> runningRequests;
+    private final Map<Integer, ProxiedRequest> runningRequests = new ConcurrentHashMap<>();
+
+    /*
+     * This variable holds the limiter of concurrently running requests per remote user
+     */
+    private final RequestLimiter requestLimiter = new RequestLimiter(MAX_RUNNING_REQUESTS_PER_USER,
+            MAX_PENDING_REQUESTS_PER_USER);
+
+    /*
+     * This variable holds the job aborting requests without progress
+     */
+    private ScheduledFuture<?> requestEvictionJob;
 
     /*
      * This variable indicates if connection to the openHAB Cloud is currently in an established state
@@ -138,6 +175,11 @@ public class CloudClient {
     private boolean remoteAccessEnabled;
     private Set<String> exposedItems;
 
+    /*
+     * This variable holds the buffer coalescing item updates, or null if item updates are sent immediately
+     */
+    private ItemUpdateBuffer itemUpdateBuffer;
+
     /**
      * Constructor of CloudClient
      *
@@ -145,17 +187,22 @@ public class CloudClient {
      * @param secret openHAB's Secret to connect to the openHAB Cloud
      * @param remoteAccessEnabled Allow the openHAB Cloud to be used as a remote proxy
      * @param exposedItems Items that are made available to apps connected to the openHAB Cloud
+     * @param itemUpdateWindowMillis How long item updates are coalesced before they are sent, zero to send them
+     *            immediately
      *
      */
     public CloudClient(String uuid, String secret, String baseURL, String localBaseUrl, boolean remoteAccessEnabled,
-            Set<String> exposedItems) {
+            Set<String> exposedItems, int itemUpdateWindowMillis) {
         this.uuid = uuid;
         this.secret = secret;
         this.baseURL = baseURL;
         this.localBaseUrl = localBaseUrl;
         this.remoteAccessEnabled = remoteAccessEnabled;
         this.exposedItems = exposedItems;
-        runningRequests = new HashMap<Integer, Request>();
+        if (itemUpdateWindowMillis > 0) {
+            itemUpdateBuffer = new ItemUpdateBuffer(ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD),
+                    itemUpdateWindowMillis, this::emitItemUpdates);
+        }
         jettyClient = new HttpClient();
         jettyClient.setMaxConnectionsPerDestination(HTTP_CLIENT_MAX_CONNECTIONS_PER_DEST);
         jettyClient.setConnectTimeout(HTTP_CLIENT_TIMEOUT);
@@ -241,6 +288,9 @@ public class CloudClient {
     public void onConnect() {
         logger.info("Connected to the openHAB Cloud service (UUID = {}, base URL = {})", this.uuid, this.localBaseUrl);
         isConnected = true;
+        if (itemUpdateBuffer != null) {
+            itemUpdateBuffer.setConnected(true);
+        }
         // On connect start jetty client to process local requests to openHAB
         if (jettyClient != null) {
             try {
@@ -249,6 +299,13 @@ public class CloudClient {
                 logger.error("Could not start Jetty client: {}", e.getMessage());
             }
         }
+        synchronized (this) {
+            if (requestEvictionJob == null) {
+                requestEvictionJob = ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD).scheduleWithFixedDelay(
+                        this::evictIdleRequests, REQUEST_IDLE_TIMEOUT_MILLIS, REQUEST_IDLE_TIMEOUT_MILLIS / 5,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
     }
 
     /**
@@ -259,6 +316,11 @@ public class CloudClient {
         logger.info("Disconnected from the openHAB Cloud service (UUID = {}, base URL = {})", this.uuid,
                 this.localBaseUrl);
         isConnected = false;
+        if (itemUpdateBuffer != null) {
+            // Keep the latest item states until connected again
+            itemUpdateBuffer.setConnected(false);
+            logItemUpdateCounts();
+        }
         // On disconnect stop jetty client to shutdown all ongoing requests if there were any
         if (jettyClient != null) {
             try {
@@ -267,9 +329,33 @@ public class CloudClient {
                 logger.error("Could not stop Jetty client: {}", e.getMessage());
             }
         }
-        // And clean up the list of running requests
-        if (runningRequests != null) {
-            runningRequests.clear();
+        // And clean up the list of running requests, aborted requests are released from the limiter as they complete
+        stopRequestEviction();
+        runningRequests.clear();
+    }
+
+    private synchronized void stopRequestEviction() {
+        if (requestEvictionJob != null) {
+            requestEvictionJob.cancel(false);
+            requestEvictionJob = null;
+        }
+    }
+
+    /**
+     * Abort requests which have not made any progress within the idle timeout, e.g. because their cancel event from
+     * the openHAB Cloud was lost
+     */
+    private void evictIdleRequests() {
+        long now = System.currentTimeMillis();
+        for (Iterator<Map.Entry<Integer, ProxiedRequest>> iterator = runningRequests.entrySet().iterator(); iterator
+                .hasNext();) {
+            Map.Entry<Integer, ProxiedRequest> entry = iterator.next();
+            if (now - entry.getValue().lastActivityMillis > REQUEST_IDLE_TIMEOUT_MILLIS) {
+                logger.debug("Aborting request {} without progress for {} ms", entry.getKey(),
+                        REQUEST_IDLE_TIMEOUT_MILLIS);
+                iterator.remove();
+                entry.getValue().request.abort(new TimeoutException("No progress in proxied request"));
+            }
         }
     }
 
@@ -318,28 +404,18 @@ public class CloudClient {
             logger.debug("{}", requestHeadersJson.toString());
             // Get JSONObject for request query parameters
             JSONObject requestQueryJson = data.getJSONObject("query");
-            // Create URI builder with base request URI of openHAB and path from request
-            String newPath = URIUtil.addPaths(localBaseUrl, requestPath);
+            // Create request with base request URI of openHAB and path from request
+            Request request = jettyClient.newRequest(localBaseUrl).path(requestPath);
             @SuppressWarnings("unchecked")
             Iterator<String> queryIterator = requestQueryJson.keys();
-            // Add query parameters to URI builder, if any
-            newPath += "?";
+            // Add query parameters, they are encoded by the client
             while (queryIterator.hasNext()) {
                 String queryName = queryIterator.next();
-                newPath += queryName;
-                newPath += "=";
-                newPath += URLEncoder.encode(requestQueryJson.getString(queryName), "UTF-8");
-                if (queryIterator.hasNext()) {
-                    newPath += "&";
-                }
+                request.param(queryName, requestQueryJson.getString(queryName));
             }
-            // Finally get the future request URI
-            URI requestUri = new URI(newPath);
             // All preparations which are common for different methods are done
             // Now perform the request to openHAB
-            // If method is GET
             logger.debug("Request method is {}", requestMethod);
-            Request request = jettyClient.newRequest(requestUri);
             setRequestHeaders(request, requestHeadersJson);
             String proto = protocol;
             if (data.has("protocol")) {
@@ -351,29 +427,72 @@ public class CloudClient {
                 request.method(HttpMethod.GET);
             } else if (requestMethod.equals("POST")) {
                 request.method(HttpMethod.POST);
-                request.content(new BytesContentProvider(requestBody.getBytes()));
+                request.content(new BytesContentProvider(requestBody.getBytes(StandardCharsets.UTF_8)));
             } else if (requestMethod.equals("PUT")) {
                 request.method(HttpMethod.PUT);
-                request.content(new BytesContentProvider(requestBody.getBytes()));
+                request.content(new BytesContentProvider(requestBody.getBytes(StandardCharsets.UTF_8)));
             } else {
                 // TODO: Reject unsupported methods
                 logger.error("Unsupported request method {}", requestMethod);
                 return;
             }
-            ResponseListener listener = new ResponseListener(requestId);
-            request.onResponseHeaders(listener).onResponseContent(listener).onRequestFailure(listener).send(listener);
-            // If successfully submitted request to http client, add it to the list of currently
-            // running requests to be able to cancel it if needed
-            runningRequests.put(requestId, request);
+            String requester = getRequester(requestHeadersJson);
+            ProxiedRequest proxiedRequest = new ProxiedRequest(request, requester);
+            // Add request to the list of running requests before it is started to be able to cancel it if needed
+            runningRequests.put(requestId, proxiedRequest);
+            boolean accepted = requestLimiter.submit(requester, () -> {
+                if (runningRequests.get(requestId) != proxiedRequest) {
+                    // cancelled or evicted while waiting
+                    requestLimiter.release(requester);
+                    return;
+                }
+                proxiedRequest.touch();
+                ResponseListener listener = new ResponseListener(requestId, proxiedRequest);
+                try {
+                    request.onResponseHeaders(listener).onResponseContent(listener).onRequestFailure(listener)
+                            .send(listener);
+                } catch (RuntimeException e) {
+                    // the listener is not called if the request cannot be sent, so free the slot here
+                    runningRequests.remove(requestId, proxiedRequest);
+                    requestLimiter.release(requester);
+                    listener.onFailure(request, e);
+                }
+            });
+            if (!accepted) {
+                runningRequests.remove(requestId);
+                logger.warn("Too many requests pending for a single user, rejecting request {}", requestId);
+                JSONObject responseJson = new JSONObject();
+                responseJson.put("id", requestId);
+                responseJson.put("responseStatusText", "openHAB connection error: too many pending requests");
+                socket.emit("responseError", responseJson);
+            }
         } catch (JSONException e) {
             logger.error("{}", e.getMessage());
-        } catch (IOException e) {
-            logger.error("{}", e.getMessage());
-        } catch (URISyntaxException e) {
+        } catch (IllegalArgumentException e) {
             logger.error("{}", e.getMessage());
         }
     }
 
+    /**
+     * Return the key identifying the remote user of a request for the limit of concurrent requests. Requests of apps
+     * carry the credentials of the user, requests of browsers relayed by the openHAB Cloud carry the session cookie
+     * instead. Only requests with neither of them share the same key, and thus the same limit.
+     */
+    private String getRequester(JSONObject requestHeadersJson) {
+        String cookie = null;
+        @SuppressWarnings("unchecked")
+        Iterator<String> headersIterator = requestHeadersJson.keys();
+        while (headersIterator.hasNext()) {
+            String headerName = headersIterator.next();
+            if (HttpHeader.AUTHORIZATION.is(headerName)) {
+                return requestHeadersJson.optString(headerName, "");
+            } else if (HttpHeader.COOKIE.is(headerName)) {
+                cookie = requestHeadersJson.optString(headerName, "");
+            }
+        }
+        return cookie != null ? cookie : "";
+    }
+
     private void setRequestHeaders(Request request, JSONObject requestHeadersJson) {
         @SuppressWarnings("unchecked")
         Iterator<String> headersIterator = requestHeadersJson.keys();
@@ -398,10 +517,9 @@ public class CloudClient {
             int requestId = data.getInt("id");
             logger.debug("Received cancel for request {}", requestId);
             // Find and abort running request
-            if (runningRequests.containsKey(requestId)) {
-                Request request = runningRequests.get(requestId);
-                request.abort(new InterruptedException());
-                runningRequests.remove(requestId);
+            ProxiedRequest proxiedRequest = runningRequests.remove(requestId);
+            if (proxiedRequest != null) {
+                proxiedRequest.request.abort(new InterruptedException());
             }
         } catch (JSONException e) {
             logger.error("{}", e.getMessage());
@@ -499,13 +617,34 @@ public class CloudClient {
     }
 
     /**
-     * Send item update to openHAB Cloud
+     * Send item update to openHAB Cloud. With coalescing, the update is sent with the other updates of the window,
+     * and replaced by a later update of the same item.
      *
      * @param itemName the name of the item
      * @param itemState updated item state
      *
      */
     public void sendItemUpdate(String itemName, String itemState) {
+        if (itemUpdateBuffer != null) {
+            itemUpdateBuffer.add(itemName, itemState);
+        } else {
+            emitItemUpdate(itemName, itemState);
+        }
+    }
+
+    private int emitItemUpdates(Map<String, String> itemStates) {
+        int sent = 0;
+        for (Map.Entry<String, String> itemState : itemStates.entrySet()) {
+            if (!emitItemUpdate(itemState.getKey(), itemState.getValue())) {
+                // the buffer keeps the remaining updates
+                break;
+            }
+            sent++;
+        }
+        return sent;
+    }
+
+    private boolean emitItemUpdate(String itemName, String itemState) {
         if (isConnected()) {
             logger.debug("Sending update '{}' for item '{}'", itemState, itemName);
             JSONObject itemUpdateMessage = new JSONObject();
@@ -513,12 +652,14 @@ public class CloudClient {
                 itemUpdateMessage.put("itemName", itemName);
                 itemUpdateMessage.put("itemStatus", itemState);
                 socket.emit("itemupdate", itemUpdateMessage);
+                return true;
             } catch (JSONException e) {
                 logger.error("{}", e.getMessage());
             }
         } else {
             logger.debug("No connection, Item update is not sent");
         }
+        return false;
     }
 
     /**
@@ -528,11 +669,37 @@ public class CloudClient {
         return isConnected;
     }
 
+    /**
+     * Returns the number of item updates which were replaced by a later update before they were sent
+     */
+    public long getCoalescedItemUpdateCount() {
+        return itemUpdateBuffer != null ? itemUpdateBuffer.getCoalescedCount() : 0;
+    }
+
+    /**
+     * Returns the number of coalesced item updates sent
+     */
+    public long getSentItemUpdateCount() {
+        return itemUpdateBuffer != null ? itemUpdateBuffer.getSentCount() : 0;
+    }
+
+    private void logItemUpdateCounts() {
+        logger.info("Sent {} item updates to the openHAB Cloud service, {} updates were replaced by a later update",
+                getSentItemUpdateCount(), getCoalescedItemUpdateCount());
+    }
+
     /**
      * Disconnect from openHAB Cloud
      */
     public void shutdown() {
         logger.info("Shutting down openHAB Cloud service connection");
+        if (itemUpdateBuffer != null) {
+            itemUpdateBuffer.clear();
+            logItemUpdateCounts();
+        }
+        stopRequestEviction();
+        runningRequests.clear();
+        requestLimiter.clear();
         try {
             jettyClient.stop();
         } catch (Exception e) {
@@ -554,17 +721,42 @@ public class CloudClient {
     }
 
     /*
-     * An internal class which forwards response headers and data back to the openHAB Cloud
+     * An internal class which holds a proxied request and the time of its last progress
+     */
+    private static class ProxiedRequest {
+        private final Request request;
+        private final String requester;
+        private volatile long lastActivityMillis = System.currentTimeMillis();
+
+        private ProxiedRequest(Request request, String requester) {
+            this.request = request;
+            this.requester = requester;
+        }
+
+        private void touch() {
+            lastActivityMillis = System.currentTimeMillis();
+        }
+    }
+
+    /*
+     * An internal class which forwards response headers and data back to the openHAB Cloud. Response content is
+     * collected into frames of up to RESPONSE_FRAME_SIZE bytes, instead of sending every received chunk separately.
      */
     private class ResponseListener
             implements Response.CompleteListener, HeadersListener, ContentListener, FailureListener {
 
-        private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
         private int mRequestId;
+        private ProxiedRequest mProxiedRequest;
         private boolean mHeadersSent = false;
 
-        public ResponseListener(int requestId) {
+        // all below guarded by this
+        private byte[] mFrame;
+        private int mFrameLength;
+        private ScheduledFuture<?> mFlushJob;
+
+        public ResponseListener(int requestId, ProxiedRequest proxiedRequest) {
             mRequestId = requestId;
+            mProxiedRequest = proxiedRequest;
         }
 
         private JSONObject getJSONHeaders(HttpFields httpFields) {
@@ -582,7 +774,8 @@ public class CloudClient {
         @Override
         public void onComplete(Result result) {
             // Remove this request from list of running requests
-            runningRequests.remove(mRequestId);
+            runningRequests.remove(mRequestId, mProxiedRequest);
+            requestLimiter.release(mProxiedRequest.requester);
             if ((result != null && result.isFailed())
                     && (result.getResponse() != null && result.getResponse().getStatus() != HttpStatus.OK_200)) {
                 if (result.getFailure() != null) {
@@ -595,6 +788,8 @@ public class CloudClient {
                     logger.warn("Response Failure: {}", result.getResponseFailure().getMessage());
                 }
             }
+            // Send the remaining content before finishing the response
+            flushContent();
 
             /**
              * What is this? In some cases where latency is very low the myopenhab service
@@ -627,14 +822,60 @@ public class CloudClient {
         }
 
         @Override
-        public void onContent(Response response, ByteBuffer content) {
+        public synchronized void onContent(Response response, ByteBuffer content) {
             logger.debug("Jetty received response content of size {}", String.valueOf(content.remaining()));
+            mProxiedRequest.touch();
+            if (mFrameLength == 0 && content.remaining() >= RESPONSE_FRAME_SIZE) {
+                // Large chunk, send it as is
+                emitContent(BufferUtil.toArray(content));
+                return;
+            }
+            // The content buffer is reused by Jetty after returning, copy it into the frame
+            while (content.hasRemaining()) {
+                if (mFrame == null) {
+                    mFrame = new byte[RESPONSE_FRAME_SIZE];
+                }
+                int length = Math.min(content.remaining(), RESPONSE_FRAME_SIZE - mFrameLength);
+                content.get(mFrame, mFrameLength, length);
+                mFrameLength += length;
+                if (mFrameLength == RESPONSE_FRAME_SIZE) {
+                    flushContent();
+                }
+            }
+            if (mFrameLength > 0 && mFlushJob == null) {
+                // Send partial frame unless more content follows soon, e.g. for streaming responses
+                mFlushJob = ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD).schedule(this::flushContent,
+                        RESPONSE_FRAME_LINGER_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private synchronized void flushContent() {
+            if (mFlushJob != null) {
+                mFlushJob.cancel(false);
+                mFlushJob = null;
+            }
+            if (mFrameLength == 0) {
+                return;
+            }
+            byte[] body;
+            if (mFrameLength == mFrame.length) {
+                // Hand over the full frame, a new one is allocated for further content
+                body = mFrame;
+                mFrame = null;
+            } else {
+                body = Arrays.copyOf(mFrame, mFrameLength);
+            }
+            mFrameLength = 0;
+            emitContent(body);
+        }
+
+        private void emitContent(byte[] body) {
             JSONObject responseJson = new JSONObject();
             try {
                 responseJson.put("id", mRequestId);
-                responseJson.put("body", BufferUtil.toArray(content));
+                responseJson.put("body", body);
                 socket.emit("responseContentBinary", responseJson);
-                logger.debug("Sent content to request {}", mRequestId);
+                logger.debug("Sent content of size {} to request {}", body.length, mRequestId);
             } catch (JSONException e) {
                 logger.error("{}", e.getMessage());
             }
@@ -642,6 +883,7 @@ public class CloudClient {
 
         @Override
         public void onHeaders(Response response) {
+            mProxiedRequest.touch();
             if (!mHeadersSent) {
                 logger.debug("Jetty finished receiving response header");
                 JSONObject responseJson = new JSONObject();
@@ -13,6 +13,7 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -60,6 +61,8 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private static final String CFG_EXPOSE = "expose";
     private static final String CFG_BASE_URL = "baseURL";
     private static final String CFG_MODE = "mode";
+    private static final String CFG_ITEM_UPDATE_WINDOW = "itemUpdateWindowMillis";
+    private static final int DEFAULT_ITEM_UPDATE_WINDOW_MILLIS = 1000;
     private static final String SECRET_FILE_NAME = "openhabcloud" + File.separator + "secret";
     private static final String DEFAULT_URL = "https://myopenhab.org/";
 
@@ -184,6 +187,17 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
             }
         }
 
+        int itemUpdateWindowMillis = DEFAULT_ITEM_UPDATE_WINDOW_MILLIS;
+        Object windowCfg = config.get(CFG_ITEM_UPDATE_WINDOW);
+        if (windowCfg != null) {
+            try {
+                itemUpdateWindowMillis = new BigDecimal(windowCfg.toString()).intValue();
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid {} '{}', using {} ms", CFG_ITEM_UPDATE_WINDOW, windowCfg,
+                        DEFAULT_ITEM_UPDATE_WINDOW_MILLIS);
+            }
+        }
+
         logger.debug("UUID = {}, secret = {}", InstanceUUID.get(), getSecret());
 
         if (cloudClient != null) {
@@ -192,7 +206,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
         String localBaseUrl = "http://localhost:" + localPort;
         cloudClient = new CloudClient(InstanceUUID.get(), getSecret(), cloudBaseUrl, localBaseUrl, remoteAccessEnabled,
-                exposedItems);
+                exposedItems, itemUpdateWindowMillis);
         cloudClient.setOpenHABVersion(OpenHAB.getVersion());
         cloudClient.connect();
         cloudClient.setListener(this);
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class coalesces item updates which are sent to the openHAB Cloud. Only the latest state of an item is kept,
+ * and the kept states are sent together once per window. While the connection to the openHAB Cloud is down, the
+ * latest states are kept and sent after the connection is established again. Updates the sender could not send
+ * because the connection was lost during a window are kept as well, unless a later state of the same item was added
+ * meanwhile. Memory use is thus bounded by the number of exposed items, however chatty the items are.
+ * <p>
+ * Only a lost connection holds back the updates. The Socket.IO client queues emitted messages without reporting the
+ * progress of the socket, so a slow but connected socket still receives one batch per window. The batch size is
+ * however bounded by the number of exposed items, too.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class ItemUpdateBuffer {
+
+    /**
+     * Sends the item updates of a window
+     */
+    @FunctionalInterface
+    public interface Sender {
+        /**
+         * Send the latest states of the items, in the order of the map. Sending stops at the first update which
+         * cannot be sent, for example because the connection has been lost.
+         *
+         * @param itemStates map from item name to item state, in the order of the first update within the window
+         * @return the number of item updates actually sent, the remaining updates are kept by the buffer
+         */
+        int sendItemUpdates(Map<String, String> itemStates);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ItemUpdateBuffer.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+    private final Sender sender;
+
+    // all below guarded by this
+    private final Map<String, String> pendingStates = new LinkedHashMap<>();
+    private ScheduledFuture<?> flushJob;
+    private boolean connected;
+    private long coalescedCount;
+    private long sentCount;
+
+    /**
+     * Constructor of ItemUpdateBuffer
+     *
+     * @param scheduler scheduler for sending the updates
+     * @param windowMillis how long item updates are collected before they are sent, in milliseconds
+     * @param sender sender of the item updates
+     */
+    public ItemUpdateBuffer(ScheduledExecutorService scheduler, long windowMillis, Sender sender) {
+        this.scheduler = scheduler;
+        this.windowMillis = windowMillis;
+        this.sender = sender;
+    }
+
+    /**
+     * Add item update to the buffer, replacing any earlier state of the item not sent yet
+     *
+     * @param itemName the name of the item
+     * @param itemState updated item state
+     */
+    public synchronized void add(String itemName, String itemState) {
+        if (pendingStates.put(itemName, itemState) != null) {
+            coalescedCount++;
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Should be called when the connection to the openHAB Cloud is established or lost. Item updates are kept in the
+     * buffer while the connection is lost.
+     *
+     * @param connected whether the connection is established
+     */
+    public synchronized void setConnected(boolean connected) {
+        this.connected = connected;
+        if (connected) {
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Discard the item updates not sent yet
+     */
+    public synchronized void clear() {
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            flushJob = null;
+        }
+        pendingStates.clear();
+    }
+
+    /**
+     * Returns the number of item updates replaced by a later update of the same item before they were sent
+     */
+    public synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Returns the number of item updates sent
+     */
+    public synchronized long getSentCount() {
+        return sentCount;
+    }
+
+    private void scheduleFlush() {
+        if (!connected || pendingStates.isEmpty() || flushJob != null) {
+            return;
+        }
+        flushJob = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        Map<String, String> itemStates;
+        synchronized (this) {
+            flushJob = null;
+            if (!connected || pendingStates.isEmpty()) {
+                return;
+            }
+            itemStates = new LinkedHashMap<>(pendingStates);
+            pendingStates.clear();
+        }
+        int sent = sender.sendItemUpdates(itemStates);
+        synchronized (this) {
+            sentCount += sent;
+            if (sent < itemStates.size()) {
+                // keep the updates not sent, unless a later state has been added meanwhile
+                itemStates.entrySet().stream().skip(sent)
+                        .forEach(itemState -> pendingStates.putIfAbsent(itemState.getKey(), itemState.getValue()));
+                scheduleFlush();
+            }
+        }
+        logger.debug("Sent {} of {} item updates to the openHAB Cloud ({} sent, {} coalesced in total)", sent,
+                itemStates.size(), getSentCount(), getCoalescedCount());
+    }
+}
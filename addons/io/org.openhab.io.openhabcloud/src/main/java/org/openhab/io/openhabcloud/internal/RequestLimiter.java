@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class bounds the number of proxied requests which are running concurrently for a single remote requester.
+ * Requests exceeding the limit are queued and started in order as earlier requests of the same requester complete,
+ * so that a single remote user (e.g. a dashboard loading dozens of charts) cannot occupy all the connections to the
+ * local openHAB. The queue of a requester is bounded as well, requests exceeding it are rejected.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class RequestLimiter {
+
+    private static class Requester {
+        private int running;
+        private final Deque<Runnable> pending = new ArrayDeque<>();
+    }
+
+    private final int maxRunning;
+    private final int maxPending;
+
+    // guarded by this
+    private final Map<String, Requester> requesters = new HashMap<>();
+
+    /**
+     * Constructor of RequestLimiter
+     *
+     * @param maxRunning maximum number of requests running concurrently per requester
+     * @param maxPending maximum number of requests waiting to be started per requester
+     */
+    public RequestLimiter(int maxRunning, int maxPending) {
+        this.maxRunning = maxRunning;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Start the request now, or once earlier requests of the requester complete. Every started request must be
+     * followed by exactly one call of {@link #release(String)}.
+     *
+     * @param requester key identifying the remote requester
+     * @param start starts the request
+     * @return false if the request was rejected, since too many requests of the requester are waiting already
+     */
+    public boolean submit(String requester, Runnable start) {
+        synchronized (this) {
+            Requester state = requesters.computeIfAbsent(requester, key -> new Requester());
+            if (state.running >= maxRunning) {
+                if (state.pending.size() >= maxPending) {
+                    return false;
+                }
+                state.pending.add(start);
+                return true;
+            }
+            state.running++;
+        }
+        start.run();
+        return true;
+    }
+
+    /**
+     * Signal that a started request of the requester is complete, starting the next waiting request, if any
+     *
+     * @param requester key identifying the remote requester
+     */
+    public void release(String requester) {
+        Runnable next;
+        synchronized (this) {
+            Requester state = requesters.get(requester);
+            if (state == null) {
+                // cleared in the meantime
+                return;
+            }
+            next = state.pending.poll();
+            if (next == null && --state.running <= 0) {
+                requesters.remove(requester);
+            }
+        }
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    /**
+     * Forget all running and waiting requests, e.g. when the connection to the openHAB Cloud is shut down
+     */
+    public synchronized void clear() {
+        requesters.clear();
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.internal.AdaptivePollPeriod;
+
+public class AdaptivePollPeriodTest {
+
+    @Test
+    public void testHealthySlaveKeepsConfiguredPeriod() {
+        AdaptivePollPeriod period = new AdaptivePollPeriod(1000);
+        for (int i = 0; i < 100; i++) {
+            assertThat(period.recordPoll(20, false), is(false));
+        }
+        assertThat(period.getEffectivePeriodMillis(), is(equalTo(1000L)));
+        assertThat(period.getAverageDurationMillis(), is(equalTo(20L)));
+        assertThat(period.getErrorRate(), is(equalTo(0.0)));
+    }
+
+    @Test
+    public void testSlowSlaveStretchesPeriodToDuration() {
+        AdaptivePollPeriod period = new AdaptivePollPeriod(100);
+        assertThat(period.recordPoll(400, false), is(true));
+        assertThat(period.getEffectivePeriodMillis(), is(equalTo(400L)));
+        // moving average follows the faster polls
+        period.recordPoll(200, false);
+        assertThat(period.getEffectivePeriodMillis(), is(equalTo(350L)));
+        for (int i = 0; i < 50; i++) {
+            period.recordPoll(10, false);
+        }
+        assertThat(period.getEffectivePeriodMillis(), is(equalTo(100L)));
+    }
+
+    @Test
+    public void testFailingSlaveBacksOffExponentially() {
+        AdaptivePollPeriod period = new AdaptivePollPeriod(1000);
+        period.recordPoll(10, true);
+        long first = period.getEffectivePeriodMillis();
+        // first failure only grows the error rate
+        assertThat(first, is(equalTo(1250L)));
+        period.recordPoll(10, true);
+        long second = period.getEffectivePeriodMillis();
+        period.recordPoll(10, true);
+        long third = period.getEffectivePeriodMillis();
+        assertThat(second > 2 * 1000, is(true));
+        assertThat(third > 2 * second * 0.9, is(true));
+        assertThat(period.getConsecutiveFailures(), is(equalTo(3)));
+
+        for (int i = 0; i < 20; i++) {
+            period.recordPoll(10, true);
+        }
+        assertThat(period.getEffectivePeriodMillis(), is(equalTo(60_000L)));
+        assertThat(period.getErrorRate() > 0.99, is(true));
+    }
+
+    @Test
+    public void testRecoveredSlaveReturnsToConfiguredPeriod() {
+        AdaptivePollPeriod period = new AdaptivePollPeriod(1000);
+        for (int i = 0; i < 10; i++) {
+            period.recordPoll(3000, true);
+        }
+        assertThat(period.recordPoll(10, false), is(true));
+        assertThat(period.getConsecutiveFailures(), is(equalTo(0)));
+        // error rate still stretches the period
+        assertThat(period.getEffectivePeriodMillis() > 1000, is(true));
+        for (int i = 0; i < 20; i++) {
+            period.recordPoll(10, false);
+        }
+        assertThat(period.getEffectivePeriodMillis(), is(equalTo(1000L)));
+    }
+
+    @Test
+    public void testLongConfiguredPeriodIsNotCapped() {
+        AdaptivePollPeriod period = new AdaptivePollPeriod(120_000);
+        for (int i = 0; i < 10; i++) {
+            period.recordPoll(10, true);
+        }
+        assertThat(period.getEffectivePeriodMillis(), is(equalTo(120_000L)));
+    }
+}
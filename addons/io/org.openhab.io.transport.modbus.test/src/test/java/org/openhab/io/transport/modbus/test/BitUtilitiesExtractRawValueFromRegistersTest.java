@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusRegister;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * Compare the allocation-free decoding with straightforward decoding using byte buffers
+ */
+public class BitUtilitiesExtractRawValueFromRegistersTest {
+
+    private static final int[] SPECIAL_REGISTERS = { 0x0000, 0x0001, 0x7FFF, 0x8000, 0x8001, 0xFFFF };
+
+    private static ModbusRegisterArray registers(int... values) {
+        ModbusRegister[] registers = new ModbusRegister[values.length];
+        for (int i = 0; i < values.length; i++) {
+            registers[i] = new BasicModbusRegister((byte) (values[i] >> 8), (byte) values[i]);
+        }
+        return new BasicModbusRegisterArray(registers);
+    }
+
+    /**
+     * Reference implementation, reading the registers into a big endian byte buffer
+     */
+    private static DecimalType decodeWithByteBuffer(ModbusRegisterArray registers, int index, ValueType type) {
+        switch (type) {
+            case BIT:
+                return new DecimalType((registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1);
+            case INT8:
+                return new DecimalType(registers.getRegister(index / 2).getBytes()[1 - (index % 2)]);
+            case UINT8:
+                return new DecimalType(registers.getRegister(index / 2).getBytes()[1 - (index % 2)] & 0xff);
+            case INT16:
+                return new DecimalType(bytes(registers, index).getShort(0));
+            case UINT16:
+                return new DecimalType(bytes(registers, index).getShort(0) & 0xffff);
+            case INT32:
+                return new DecimalType(bytes(registers, index, index + 1).getInt(0));
+            case UINT32:
+                return new DecimalType(bytes(registers, index, index + 1).getInt(0) & 0xffffffffL);
+            case FLOAT32:
+                return new DecimalType(bytes(registers, index, index + 1).getFloat(0));
+            case INT64:
+                return new DecimalType(bytes(registers, index, index + 1, index + 2, index + 3).getLong(0));
+            case UINT64:
+                return new DecimalType(new BigDecimal(
+                        new BigInteger(1, bytes(registers, index, index + 1, index + 2, index + 3).array())));
+            case INT32_SWAP:
+                return new DecimalType(bytes(registers, index + 1, index).getInt(0));
+            case UINT32_SWAP:
+                return new DecimalType(bytes(registers, index + 1, index).getInt(0) & 0xffffffffL);
+            case FLOAT32_SWAP:
+                return new DecimalType(bytes(registers, index + 1, index).getFloat(0));
+            case INT64_SWAP:
+                return new DecimalType(bytes(registers, index + 3, index + 2, index + 1, index).getLong(0));
+            case UINT64_SWAP:
+                return new DecimalType(new BigDecimal(
+                        new BigInteger(1, bytes(registers, index + 3, index + 2, index + 1, index).array())));
+            default:
+                throw new IllegalArgumentException(type.getConfigValue());
+        }
+    }
+
+    private static ByteBuffer bytes(ModbusRegisterArray registers, int... indices) {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * indices.length);
+        for (int index : indices) {
+            buffer.put(registers.getRegister(index).getBytes());
+        }
+        return buffer;
+    }
+
+    private static void assertDecodedEqually(ModbusRegisterArray registers, ValueType type) {
+        int items = type.getBits() >= 16 ? registers.size() - type.getBits() / 16 + 1
+                : registers.size() * 16 / type.getBits();
+        for (int index = 0; index < items; index++) {
+            if ((type == ValueType.FLOAT32 || type == ValueType.FLOAT32_SWAP) && !Float.isFinite(Float.intBitsToFloat(
+                    (int) ModbusBitUtilities.extractRawValueFromRegisters(registers, index, type)))) {
+                // not representable as DecimalType
+                continue;
+            }
+            DecimalType expected = decodeWithByteBuffer(registers, index, type);
+            String message = String.format("registers=%s, index=%d, type=%s", registers, index, type);
+            assertThat(message, ModbusBitUtilities.extractStateFromRegisters(registers, index, type),
+                    is(equalTo(expected)));
+            // numeric comparison, considering -0.0 and 0.0 equal
+            assertThat(message,
+                    ModbusBitUtilities.extractDoubleFromRegisters(registers, index, type) == expected.doubleValue(),
+                    is(true));
+        }
+    }
+
+    @Test
+    public void testSpecialValuesDecodedEquallyForAllTypes() {
+        for (ValueType type : ValueType.values()) {
+            for (int first : SPECIAL_REGISTERS) {
+                for (int second : SPECIAL_REGISTERS) {
+                    assertDecodedEqually(registers(first, second, second, first), type);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRandomValuesDecodedEquallyForAllTypes() {
+        Random random = new Random(0);
+        for (ValueType type : ValueType.values()) {
+            for (int i = 0; i < 1000; i++) {
+                assertDecodedEqually(
+                        registers(random.nextInt(0x10000), random.nextInt(0x10000), random.nextInt(0x10000),
+                                random.nextInt(0x10000), random.nextInt(0x10000)),
+                        type);
+            }
+        }
+    }
+
+    @Test
+    public void testRawValueChangesOnlyWithData() {
+        ModbusRegisterArray registers = registers(0x1234, 0xFFFF, 0x0000, 0x8000);
+        for (ValueType type : ValueType.values()) {
+            assertThat(ModbusBitUtilities.extractRawValueFromRegisters(registers, 0, type),
+                    is(equalTo(ModbusBitUtilities.extractRawValueFromRegisters(registers(0x1234, 0xFFFF, 0x0000,
+                            0x8000), 0, type))));
+        }
+        assertThat(ModbusBitUtilities.extractRawValueFromRegisters(registers, 0, ValueType.UINT64),
+                is(equalTo(0x1234FFFF00008000L)));
+        assertThat(ModbusBitUtilities.extractRawValueFromRegisters(registers, 0, ValueType.UINT64_SWAP),
+                is(equalTo(0x80000000FFFF1234L)));
+        assertThat(ModbusBitUtilities.extractRawValueFromRegisters(registers, 1, ValueType.INT32_SWAP),
+                is(equalTo(0x0000FFFFL)));
+        assertThat(ModbusBitUtilities.extractRawValueFromRegisters(registers, 3, ValueType.INT16),
+                is(equalTo(0x8000L)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfBounds() {
+        ModbusBitUtilities.extractRawValueFromRegisters(registers(1, 2, 3), 0, ValueType.INT64);
+    }
+}
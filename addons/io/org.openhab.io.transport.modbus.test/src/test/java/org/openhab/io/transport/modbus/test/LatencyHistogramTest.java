@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.internal.LatencyHistogram;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getCount(), is(equalTo(0L)));
+        assertThat(histogram.getMeanMillis(), is(equalTo(0.0)));
+        assertThat(histogram.getMaxMillis(), is(equalTo(0L)));
+        assertThat(histogram.getPercentileMillis(99), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testPercentilesAreBucketUpperBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(3);
+        }
+        for (int i = 0; i < 9; i++) {
+            histogram.record(150);
+        }
+        histogram.record(1500);
+
+        assertThat(histogram.getCount(), is(equalTo(100L)));
+        assertThat(histogram.getMaxMillis(), is(equalTo(1500L)));
+        assertThat(histogram.getMeanMillis(), is(equalTo((90 * 3 + 9 * 150 + 1500) / 100.0)));
+        assertThat(histogram.getPercentileMillis(0), is(equalTo(5L)));
+        assertThat(histogram.getPercentileMillis(50), is(equalTo(5L)));
+        assertThat(histogram.getPercentileMillis(90), is(equalTo(5L)));
+        assertThat(histogram.getPercentileMillis(95), is(equalTo(200L)));
+        assertThat(histogram.getPercentileMillis(99), is(equalTo(200L)));
+        // capped at maximum
+        assertThat(histogram.getPercentileMillis(100), is(equalTo(1500L)));
+    }
+
+    @Test
+    public void testOverflowBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(120000);
+        assertThat(histogram.getPercentileMillis(50), is(equalTo(1L)));
+        assertThat(histogram.getPercentileMillis(100), is(equalTo(120000L)));
+    }
+
+    @Test
+    public void testReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        histogram.reset();
+        assertThat(histogram.getCount(), is(equalTo(0L)));
+        assertThat(histogram.getMaxMillis(), is(equalTo(0L)));
+        assertThat(histogram.getPercentileMillis(50), is(equalTo(0L)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPercentile() {
+        new LatencyHistogram().getPercentileMillis(100.1);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 10000; i++) {
+                    histogram.record(i % 100);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(histogram.getCount(), is(equalTo(40000L)));
+        assertThat(histogram.getMaxMillis(), is(equalTo(99L)));
+    }
+}
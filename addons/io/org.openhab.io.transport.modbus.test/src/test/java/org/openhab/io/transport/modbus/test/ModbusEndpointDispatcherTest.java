@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.ModbusEndpointDispatcher;
+import org.openhab.io.transport.modbus.internal.ModbusEndpointDispatcher.Priority;
+
+public class ModbusEndpointDispatcherTest {
+
+    private ScheduledExecutorService executor;
+    private List<String> executed = new CopyOnWriteArrayList<>();
+    private List<Integer> queueSizes = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() {
+        executor = Executors.newScheduledThreadPool(3);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private ModbusEndpointDispatcher createDispatcher(long interTransactionDelayMillis) {
+        return new ModbusEndpointDispatcher(new ModbusTCPSlaveEndpoint("localhost", 502), executor,
+                () -> interTransactionDelayMillis, (endpoint, queueSize, waitMillis) -> queueSizes.add(queueSize));
+    }
+
+    private ModbusEndpointDispatcher createConcurrentDispatcher(int maxConcurrentOperations) {
+        return new ModbusEndpointDispatcher(new ModbusTCPSlaveEndpoint("localhost", 502), executor, () -> 0,
+                () -> maxConcurrentOperations, (endpoint, queueSize, waitMillis) -> queueSizes.add(queueSize));
+    }
+
+    private ModbusEndpointDispatcher createBusDispatcher(long interTransactionDelayMillis, long interFrameDelayMillis) {
+        return new ModbusEndpointDispatcher(new ModbusTCPSlaveEndpoint("localhost", 502), executor,
+                () -> interTransactionDelayMillis, () -> 1, () -> interFrameDelayMillis,
+                (endpoint, queueSize, waitMillis) -> queueSizes.add(queueSize));
+    }
+
+    private static PollTask pollTask(int unitId, int reference) {
+        return new BasicPollTaskImpl(new ModbusTCPSlaveEndpoint("localhost", 502), new BasicModbusReadRequestBlueprint(
+                unitId, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, reference, 1, 1));
+    }
+
+    /**
+     * Submit operation that blocks the dispatcher until the returned latch is released
+     */
+    private CountDownLatch block(ModbusEndpointDispatcher dispatcher, Priority priority) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        dispatcher.submit(priority, "blocker", () -> {
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS), is(equalTo(true)));
+        return blocker;
+    }
+
+    @Test
+    public void testWritesAreExecutedBeforePolls() throws Exception {
+        ModbusEndpointDispatcher dispatcher = createDispatcher(0);
+        CountDownLatch blocker = block(dispatcher, Priority.REGULAR_POLL);
+        dispatcher.submit(Priority.REGULAR_POLL, "poll", () -> executed.add("poll"));
+        dispatcher.submit(Priority.ONE_OFF_POLL, "oneoff", () -> executed.add("oneoff"));
+        ScheduledFuture<?> last = dispatcher.submit(Priority.WRITE, "write", () -> executed.add("write"));
+        dispatcher.submit(Priority.WRITE, "write2", () -> executed.add("write2"));
+        assertThat(last.isDone(), is(equalTo(false)));
+
+        blocker.countDown();
+        ScheduledFuture<?> end = dispatcher.submit(Priority.REGULAR_POLL, "end", () -> executed.add("end"));
+        end.get(5, TimeUnit.SECONDS);
+
+        assertThat(last.isDone(), is(equalTo(true)));
+        assertThat(executed.toString(), is(equalTo("[write, write2, oneoff, poll, end]")));
+    }
+
+    @Test
+    public void testRegularPollIsQueuedOnlyOnce() throws Exception {
+        ModbusEndpointDispatcher dispatcher = createDispatcher(0);
+        CountDownLatch blocker = block(dispatcher, Priority.WRITE);
+        ScheduledFuture<?> first = dispatcher.submit(Priority.REGULAR_POLL, "poll", () -> executed.add("poll"));
+        ScheduledFuture<?> second = dispatcher.submit(Priority.REGULAR_POLL, "poll", () -> executed.add("poll2"));
+        assertThat(second, is(sameInstance(first)));
+        assertThat(dispatcher.getQueueSize(), is(equalTo(1)));
+
+        blocker.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertThat(executed.toString(), is(equalTo("[poll]")));
+    }
+
+    @Test
+    public void testRemovedOperationIsNotExecuted() throws Exception {
+        ModbusEndpointDispatcher dispatcher = createDispatcher(0);
+        CountDownLatch blocker = block(dispatcher, Priority.WRITE);
+        ScheduledFuture<?> removed = dispatcher.submit(Priority.REGULAR_POLL, "poll", () -> executed.add("poll"));
+        dispatcher.remove("poll");
+        assertThat(removed.isCancelled(), is(equalTo(true)));
+
+        blocker.countDown();
+        dispatcher.submit(Priority.WRITE, "end", () -> executed.add("end")).get(5, TimeUnit.SECONDS);
+        assertThat(executed.toString(), is(equalTo("[end]")));
+    }
+
+    @Test
+    public void testInterTransactionDelayIsRespected() throws Exception {
+        ModbusEndpointDispatcher dispatcher = createDispatcher(200);
+        List<Long> times = new CopyOnWriteArrayList<>();
+        dispatcher.submit(Priority.WRITE, "first", () -> times.add(System.currentTimeMillis()));
+        dispatcher.submit(Priority.WRITE, "second", () -> times.add(System.currentTimeMillis())).get(5,
+                TimeUnit.SECONDS);
+        assertThat(times.size(), is(equalTo(2)));
+        assertThat(times.get(1) - times.get(0) >= 190, is(equalTo(true)));
+        assertThat(queueSizes.size(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testOtherUnitIdsAreExecutedBackToBack() throws Exception {
+        ModbusEndpointDispatcher dispatcher = createBusDispatcher(300, 5);
+        List<Long> times = new CopyOnWriteArrayList<>();
+        dispatcher.submit(Priority.REGULAR_POLL, pollTask(1, 0), () -> {
+            executed.add("1a");
+            times.add(System.currentTimeMillis());
+        });
+        ScheduledFuture<?> last = dispatcher.submit(Priority.REGULAR_POLL, pollTask(1, 1), () -> {
+            executed.add("1b");
+            times.add(System.currentTimeMillis());
+        });
+        dispatcher.submit(Priority.REGULAR_POLL, pollTask(2, 0), () -> {
+            executed.add("2a");
+            times.add(System.currentTimeMillis());
+        });
+        dispatcher.submit(Priority.REGULAR_POLL, pollTask(3, 0), () -> {
+            executed.add("3a");
+            times.add(System.currentTimeMillis());
+        });
+        last.get(5, TimeUnit.SECONDS);
+
+        // slaves 2 and 3 are polled while slave 1 waits for the inter-transaction delay
+        assertThat(executed.toString(), is(equalTo("[1a, 2a, 3a, 1b]")));
+        assertThat(times.get(2) - times.get(0) < 200, is(equalTo(true)));
+        assertThat(times.get(3) - times.get(0) >= 290, is(equalTo(true)));
+    }
+
+    @Test
+    public void testInterFrameDelayIsRespected() throws Exception {
+        ModbusEndpointDispatcher dispatcher = createBusDispatcher(300, 100);
+        List<Long> times = new CopyOnWriteArrayList<>();
+        dispatcher.submit(Priority.WRITE, pollTask(1, 0), () -> times.add(System.currentTimeMillis()));
+        dispatcher.submit(Priority.WRITE, pollTask(2, 0), () -> times.add(System.currentTimeMillis())).get(5,
+                TimeUnit.SECONDS);
+        assertThat(times.get(1) - times.get(0) >= 90, is(equalTo(true)));
+        assertThat(times.get(1) - times.get(0) < 290, is(equalTo(true)));
+    }
+
+    @Test
+    public void testConcurrentOperationsAreLimited() throws Exception {
+        ModbusEndpointDispatcher dispatcher = createConcurrentDispatcher(2);
+        CountDownLatch blocker1 = block(dispatcher, Priority.REGULAR_POLL);
+        CountDownLatch blocker2 = block(dispatcher, Priority.REGULAR_POLL);
+        assertThat(dispatcher.getExecutingCount(), is(equalTo(2)));
+
+        ScheduledFuture<?> third = dispatcher.submit(Priority.WRITE, "third", () -> executed.add("third"));
+        Thread.sleep(100);
+        assertThat(third.isDone(), is(equalTo(false)));
+        assertThat(dispatcher.getQueueSize(), is(equalTo(1)));
+
+        blocker1.countDown();
+        third.get(5, TimeUnit.SECONDS);
+        assertThat(executed.toString(), is(equalTo("[third]")));
+        blocker2.countDown();
+    }
+
+}
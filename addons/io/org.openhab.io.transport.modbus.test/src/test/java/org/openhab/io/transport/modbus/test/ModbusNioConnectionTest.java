@@ -0,0 +1,377 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusSlaveIOException;
+import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
+import org.openhab.io.transport.modbus.endpoint.ModbusIPSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusUDPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.nio.ModbusNioConnection;
+import org.openhab.io.transport.modbus.internal.nio.ModbusNioReactor;
+import org.openhab.io.transport.modbus.test.IntegrationTestSupport.NonOSGIModbusManager;
+
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.ModbusSlaveException;
+import net.wimpi.modbus.msg.ModbusResponse;
+import net.wimpi.modbus.msg.ReadInputRegistersRequest;
+import net.wimpi.modbus.msg.ReadMultipleRegistersRequest;
+import net.wimpi.modbus.msg.ReadMultipleRegistersResponse;
+
+public class ModbusNioConnectionTest {
+
+    /**
+     * Modbus/TCP and Modbus/UDP slave simulator serving any number of loopback ports with single thread
+     *
+     * Read holding registers (FC03) is responded with register values equal to their addresses. Any other function
+     * code is responded with exception code 1 (illegal function). Silent slaves never respond.
+     */
+    private static class LoopbackSlaveSimulator implements AutoCloseable {
+
+        private final Selector selector;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        private LoopbackSlaveSimulator() throws IOException {
+            selector = Selector.open();
+            thread = new Thread(this::run, "loopbackSlaveSimulator");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private ModbusTCPSlaveEndpoint addTcpSlave(boolean silent) throws IOException {
+            ServerSocketChannel server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            server.configureBlocking(false);
+            register(server, SelectionKey.OP_ACCEPT, silent);
+            return new ModbusTCPSlaveEndpoint(InetAddress.getLoopbackAddress().getHostAddress(),
+                    server.socket().getLocalPort());
+        }
+
+        private ModbusUDPSlaveEndpoint addUdpSlave() throws IOException {
+            DatagramChannel channel = DatagramChannel.open();
+            channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            channel.configureBlocking(false);
+            register(channel, SelectionKey.OP_READ, false);
+            return new ModbusUDPSlaveEndpoint(InetAddress.getLoopbackAddress().getHostAddress(),
+                    channel.socket().getLocalPort());
+        }
+
+        private void register(SelectableChannel channel, int ops, boolean silent) throws IOException {
+            // registering blocks while the selector is selecting
+            synchronized (this) {
+                selector.wakeup();
+                channel.register(selector, ops, silent);
+            }
+        }
+
+        private void run() {
+            ByteBuffer buffer = ByteBuffer.allocate(260);
+            while (running) {
+                try {
+                    selector.select(100);
+                    synchronized (this) {
+                        // let register() proceed
+                    }
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        boolean silent = (Boolean) key.attachment();
+                        if (key.isAcceptable()) {
+                            SocketChannel client = ((ServerSocketChannel) key.channel()).accept();
+                            client.configureBlocking(false);
+                            client.register(selector, SelectionKey.OP_READ, silent);
+                        } else if (key.isReadable() && key.channel() instanceof SocketChannel) {
+                            SocketChannel client = (SocketChannel) key.channel();
+                            buffer.clear();
+                            if (client.read(buffer) < 0) {
+                                key.cancel();
+                                client.close();
+                                continue;
+                            }
+                            buffer.flip();
+                            // requests fit in single read with loopback
+                            while (buffer.remaining() >= 12 && !silent) {
+                                client.write(respond(buffer));
+                            }
+                        } else if (key.isReadable()) {
+                            DatagramChannel channel = (DatagramChannel) key.channel();
+                            buffer.clear();
+                            SocketAddress sender = channel.receive(buffer);
+                            buffer.flip();
+                            channel.send(respond(buffer), sender);
+                        }
+                    }
+                    selector.selectedKeys().clear();
+                } catch (IOException e) {
+                    // connection closed by the master
+                }
+            }
+        }
+
+        private ByteBuffer respond(ByteBuffer request) {
+            int transactionId = request.getShort() & 0xffff;
+            request.getShort(); // protocol
+            int length = request.getShort() & 0xffff;
+            int unitId = request.get() & 0xff;
+            int functionCode = request.get() & 0xff;
+            int reference = request.getShort() & 0xffff;
+            int count = request.getShort() & 0xffff;
+            request.position(request.position() + length - 6);
+            ByteBuffer response = ByteBuffer.allocate(260);
+            response.putShort((short) transactionId).putShort((short) 0);
+            if (functionCode == 3) {
+                response.putShort((short) (3 + 2 * count)).put((byte) unitId).put((byte) 3).put((byte) (2 * count));
+                for (int i = 0; i < count; i++) {
+                    response.putShort((short) (reference + i));
+                }
+            } else {
+                response.putShort((short) 3).put((byte) unitId).put((byte) (functionCode | 0x80)).put((byte) 1);
+            }
+            response.flip();
+            return response;
+        }
+
+        @Override
+        public void close() throws Exception {
+            running = false;
+            thread.join(1000);
+            if (!selector.isOpen()) {
+                return;
+            }
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        }
+    }
+
+    private LoopbackSlaveSimulator simulator;
+    private ModbusNioReactor reactor;
+    private List<ModbusNioConnection> connections = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        simulator = new LoopbackSlaveSimulator();
+        reactor = new ModbusNioReactor("testModbusNioReactor");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connections.forEach(ModbusNioConnection::resetConnection);
+        reactor.close();
+        simulator.close();
+    }
+
+    private ModbusNioConnection connect(ModbusIPSlaveEndpoint endpoint, int responseTimeoutMillis) throws Exception {
+        ModbusNioConnection connection = new ModbusNioConnection(reactor, endpoint, 1000, responseTimeoutMillis);
+        connections.add(connection);
+        connection.connect();
+        return connection;
+    }
+
+    private static int firstRegister(ModbusResponse response) {
+        return ((ReadMultipleRegistersResponse) response).getRegisterValue(0);
+    }
+
+    @Test
+    public void testReadTcp() throws Exception {
+        ModbusNioConnection connection = connect(simulator.addTcpSlave(false), 1000);
+        assertThat(connection.isConnected(), is(true));
+        ModbusResponse response = connection.execute(new ReadMultipleRegistersRequest(5, 2));
+        assertThat(((ReadMultipleRegistersResponse) response).getWordCount(), is(equalTo(2)));
+        assertThat(((ReadMultipleRegistersResponse) response).getRegisterValue(1), is(equalTo(6)));
+    }
+
+    @Test
+    public void testReadUdp() throws Exception {
+        ModbusNioConnection connection = connect(simulator.addUdpSlave(), 1000);
+        assertThat(firstRegister(connection.execute(new ReadMultipleRegistersRequest(7, 1))), is(equalTo(7)));
+    }
+
+    @Test
+    public void testManyRequestsOutstanding() throws Exception {
+        ModbusNioConnection connection = connect(simulator.addTcpSlave(false), 1000);
+        List<CompletableFuture<ModbusResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            responses.add(connection.executeAsync(new ReadMultipleRegistersRequest(i, 1)));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertThat(firstRegister(responses.get(i).get(5, TimeUnit.SECONDS)), is(equalTo(i)));
+        }
+    }
+
+    @Test
+    public void testExceptionResponse() throws Exception {
+        ModbusNioConnection connection = connect(simulator.addTcpSlave(false), 1000);
+        try {
+            connection.execute(new ReadInputRegistersRequest(0, 1));
+            fail("Expecting slave exception");
+        } catch (ModbusSlaveException e) {
+            assertThat(e.getType(), is(equalTo(1)));
+        }
+    }
+
+    @Test
+    public void testResponseTimeout() throws Exception {
+        ModbusNioConnection connection = connect(simulator.addTcpSlave(true), 200);
+        long start = System.currentTimeMillis();
+        try {
+            connection.execute(new ReadMultipleRegistersRequest(0, 1));
+            fail("Expecting timeout");
+        } catch (ModbusIOException e) {
+            assertThat(System.currentTimeMillis() - start >= 200, is(true));
+        }
+        // connection is still usable after timeout
+        assertThat(connection.isConnected(), is(true));
+    }
+
+    @Test
+    public void testConnectionRefused() throws Exception {
+        ModbusTCPSlaveEndpoint endpoint = simulator.addTcpSlave(false);
+        simulator.close();
+        ModbusNioConnection connection = new ModbusNioConnection(reactor, endpoint, 1000, 1000);
+        try {
+            connection.connect();
+            fail("Expecting connection error");
+        } catch (IOException | ModbusIOException e) {
+            assertThat(connection.isConnected(), is(false));
+        }
+    }
+
+    /**
+     * Poll single register of the endpoint through the manager, using non-blocking I/O
+     *
+     * @return future completing with the value of the register
+     */
+    private static CompletableFuture<Integer> pollRegister(NonOSGIModbusManager manager,
+            ModbusTCPSlaveEndpoint endpoint, int reference, int responseTimeoutMillis) {
+        EndpointPoolConfiguration configuration = new EndpointPoolConfiguration();
+        configuration.setNonBlockingIO(true);
+        configuration.setConnectTimeoutMillis(1000);
+        configuration.setResponseTimeoutMillis(responseTimeoutMillis);
+        manager.setEndpointPoolConfiguration(endpoint, configuration);
+        CompletableFuture<Integer> value = new CompletableFuture<>();
+        manager.submitOneTimePoll(new BasicPollTaskImpl(endpoint,
+                new BasicModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, reference, 1, 1),
+                new ModbusReadCallback() {
+
+                    @Override
+                    public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+                        value.complete(registers.getRegister(0).getValue());
+                    }
+
+                    @Override
+                    public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+                        value.completeExceptionally(new IllegalStateException("Expecting registers"));
+                    }
+
+                    @Override
+                    public void onError(ModbusReadRequestBlueprint request, Exception error) {
+                        value.completeExceptionally(error);
+                    }
+                }));
+        return value;
+    }
+
+    private List<CompletableFuture<Integer>> pollEndpoints(NonOSGIModbusManager manager, int endpointCount)
+            throws IOException {
+        List<CompletableFuture<Integer>> values = new ArrayList<>();
+        for (int i = 0; i < endpointCount; i++) {
+            values.add(pollRegister(manager, simulator.addTcpSlave(false), i, 5000));
+        }
+        return values;
+    }
+
+    private static void assertRegisterValues(List<CompletableFuture<Integer>> values) throws Exception {
+        for (int i = 0; i < values.size(); i++) {
+            try {
+                assertThat(values.get(i).get(10, TimeUnit.SECONDS), is(equalTo(i)));
+            } catch (ExecutionException e) {
+                fail(String.format("Poll %d failed: %s", i, e.getCause()));
+            }
+        }
+    }
+
+    /**
+     * Poll increasing number of endpoints concurrently through the manager, and ensure that the number of threads does
+     * not grow
+     */
+    @Test
+    public void testThreadCountStaysFlatAsEndpointsGrow() throws Exception {
+        try (NonOSGIModbusManager manager = new NonOSGIModbusManager()) {
+            // threads of the manager and the reactor are started with the first polls
+            assertRegisterValues(pollEndpoints(manager, 10));
+            int baseline = Thread.activeCount();
+            int maxThreads = 0;
+            for (int endpointCount : new int[] { 100, 200 }) {
+                List<CompletableFuture<Integer>> values = pollEndpoints(manager, endpointCount);
+                maxThreads = Math.max(maxThreads, Thread.activeCount());
+                assertRegisterValues(values);
+                maxThreads = Math.max(maxThreads, Thread.activeCount());
+            }
+            // no threads per endpoint
+            assertThat(String.format("baseline %d threads, max %d threads", baseline, maxThreads),
+                    maxThreads - baseline <= 2, is(true));
+        }
+    }
+
+    /**
+     * Threads of the manager are not held while the polls are waiting for the response
+     */
+    @Test
+    public void testNoThreadHeldWhileWaitingForResponses() throws Exception {
+        try (NonOSGIModbusManager manager = new NonOSGIModbusManager()) {
+            List<CompletableFuture<Integer>> values = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                values.add(pollRegister(manager, simulator.addTcpSlave(true), i, 1000));
+            }
+            Thread.sleep(300);
+            assertThat(values.stream().anyMatch(CompletableFuture::isDone), is(false));
+            assertThat(manager.getThreadPoolActiveCount(), is(equalTo(0)));
+            for (CompletableFuture<Integer> value : values) {
+                try {
+                    value.get(10, TimeUnit.SECONDS);
+                    fail("Expecting timeout");
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause() instanceof ModbusSlaveIOException, is(true));
+                }
+            }
+        }
+    }
+
+}
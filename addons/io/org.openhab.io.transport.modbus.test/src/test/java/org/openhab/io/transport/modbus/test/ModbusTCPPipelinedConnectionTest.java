@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.ModbusTCPPipelinedConnection;
+
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.ModbusSlaveException;
+import net.wimpi.modbus.msg.ExceptionResponse;
+import net.wimpi.modbus.msg.ModbusResponse;
+import net.wimpi.modbus.msg.ReadMultipleRegistersRequest;
+import net.wimpi.modbus.msg.ReadMultipleRegistersResponse;
+import net.wimpi.modbus.procimg.Register;
+import net.wimpi.modbus.procimg.SimpleRegister;
+
+public class ModbusTCPPipelinedConnectionTest {
+
+    /**
+     * Request as received by the simulated slave
+     */
+    private static class ReceivedRequest {
+        private final int transactionId;
+        private final int unitId;
+        private final int reference;
+
+        private ReceivedRequest(int transactionId, int unitId, int reference) {
+            this.transactionId = transactionId;
+            this.unitId = unitId;
+            this.reference = reference;
+        }
+    }
+
+    private ServerSocket serverSocket;
+    private Socket slaveSocket;
+    private ExecutorService executor;
+    private ModbusTCPPipelinedConnection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        executor = Executors.newCachedThreadPool();
+        connection = new ModbusTCPPipelinedConnection(
+                new ModbusTCPSlaveEndpoint(InetAddress.getLoopbackAddress().getHostAddress(),
+                        serverSocket.getLocalPort()),
+                1000, 500);
+        connection.connect();
+        slaveSocket = serverSocket.accept();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connection.resetConnection();
+        executor.shutdownNow();
+        slaveSocket.close();
+        serverSocket.close();
+    }
+
+    private ReceivedRequest receive() throws IOException {
+        DataInputStream input = new DataInputStream(slaveSocket.getInputStream());
+        int transactionId = input.readUnsignedShort();
+        input.readUnsignedShort(); // protocol id
+        int length = input.readUnsignedShort();
+        int unitId = input.readUnsignedByte();
+        input.readUnsignedByte(); // function code
+        int reference = input.readUnsignedShort();
+        input.skipBytes(length - 4);
+        return new ReceivedRequest(transactionId, unitId, reference);
+    }
+
+    private void respond(ReceivedRequest request, ModbusResponse response) throws IOException {
+        response.setTransactionID(request.transactionId);
+        response.setUnitID(request.unitId);
+        response.writeTo(new DataOutputStream(slaveSocket.getOutputStream()));
+        slaveSocket.getOutputStream().flush();
+    }
+
+    /**
+     * Respond with single register, having value equal to the requested reference
+     */
+    private void respondWithReference(ReceivedRequest request) throws IOException {
+        respond(request, new ReadMultipleRegistersResponse(new Register[] { new SimpleRegister(request.reference) }));
+    }
+
+    private Future<ModbusResponse> submitRead(int reference) {
+        return executor.submit(() -> connection.execute(new ReadMultipleRegistersRequest(reference, 1)));
+    }
+
+    private int registerValue(Future<ModbusResponse> response) throws Exception {
+        return ((ReadMultipleRegistersResponse) response.get(5, TimeUnit.SECONDS)).getRegisterValue(0);
+    }
+
+    @Test
+    public void testResponsesOutOfOrderAreMatchedByTransactionId() throws Exception {
+        List<Future<ModbusResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            responses.add(submitRead(100 + i));
+        }
+        // all requests are sent before any response
+        List<ReceivedRequest> received = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            received.add(receive());
+        }
+        assertThat(connection.getOutstandingCount(), is(equalTo(3)));
+
+        Collections.reverse(received);
+        for (ReceivedRequest request : received) {
+            respondWithReference(request);
+        }
+        for (int i = 0; i < 3; i++) {
+            assertThat(registerValue(responses.get(i)), is(equalTo(100 + i)));
+        }
+        assertThat(connection.getOutstandingCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testTimeoutFailsOnlyTheUnansweredRequest() throws Exception {
+        Future<ModbusResponse> unanswered = submitRead(1);
+        ReceivedRequest first = receive();
+        Future<ModbusResponse> answered = submitRead(2);
+        ReceivedRequest second = receive();
+
+        respondWithReference(second);
+        assertThat(registerValue(answered), is(equalTo(2)));
+        try {
+            unanswered.get(5, TimeUnit.SECONDS);
+            fail("Expecting timeout");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(ModbusIOException.class)));
+        }
+
+        // late response is discarded and the connection is still usable
+        respondWithReference(first);
+        Future<ModbusResponse> next = submitRead(3);
+        respondWithReference(receive());
+        assertThat(registerValue(next), is(equalTo(3)));
+        assertThat(connection.isConnected(), is(true));
+    }
+
+    @Test
+    public void testExceptionResponse() throws Exception {
+        Future<ModbusResponse> response = submitRead(1);
+        ReceivedRequest request = receive();
+        respond(request, new ExceptionResponse(3, 2));
+        try {
+            response.get(5, TimeUnit.SECONDS);
+            fail("Expecting slave exception");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(ModbusSlaveException.class)));
+            assertThat(((ModbusSlaveException) e.getCause()).getType(), is(equalTo(2)));
+        }
+    }
+
+    @Test
+    public void testDisconnectFailsAllOutstanding() throws Exception {
+        Future<ModbusResponse> response1 = submitRead(1);
+        Future<ModbusResponse> response2 = submitRead(2);
+        receive();
+        receive();
+        slaveSocket.close();
+        for (Future<ModbusResponse> response : Arrays.asList(response1, response2)) {
+            try {
+                response.get(5, TimeUnit.SECONDS);
+                fail("Expecting I/O error");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), is(instanceOf(ModbusIOException.class)));
+            }
+        }
+        assertThat(connection.isConnected(), is(false));
+    }
+
+}
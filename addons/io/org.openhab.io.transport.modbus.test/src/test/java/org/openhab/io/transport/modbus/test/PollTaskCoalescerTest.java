@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.CoalescedPollTask;
+import org.openhab.io.transport.modbus.internal.PollTaskCoalescer;
+
+public class PollTaskCoalescerTest {
+
+    private final ModbusTCPSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    private BasicPollTaskImpl task(ModbusReadFunctionCode functionCode, int start, int length,
+            ModbusReadCallback callback) {
+        return new BasicPollTaskImpl(endpoint,
+                new BasicModbusReadRequestBlueprint(1, functionCode, start, length, 3), callback);
+    }
+
+    private BasicPollTaskImpl task(int start, int length) {
+        return task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, length, mock(ModbusReadCallback.class));
+    }
+
+    @Test
+    public void testSingleTaskIsNotWrapped() {
+        PollTask task = task(0, 5);
+        List<PollTask> plan = PollTaskCoalescer.plan(Collections.singletonList(task));
+        assertThat(plan.size(), is(equalTo(1)));
+        assertThat(plan.get(0), is(sameInstance(task)));
+    }
+
+    @Test
+    public void testAdjacentAndOverlappingTasksAreMerged() {
+        PollTask task1 = task(10, 5);
+        PollTask task2 = task(0, 10);
+        PollTask task3 = task(12, 8);
+        List<PollTask> plan = PollTaskCoalescer.plan(Arrays.asList(task1, task2, task3));
+        assertThat(plan.size(), is(equalTo(1)));
+        assertThat(plan.get(0), is(instanceOf(CoalescedPollTask.class)));
+        ModbusReadRequestBlueprint request = plan.get(0).getRequest();
+        assertThat(request.getReference(), is(equalTo(0)));
+        assertThat(request.getDataLength(), is(equalTo(20)));
+        assertThat(request.getFunctionCode(), is(equalTo(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS)));
+        assertThat(request.getUnitID(), is(equalTo(1)));
+        assertThat(((CoalescedPollTask) plan.get(0)).getMembers(), is(equalTo(Arrays.asList(task2, task1, task3))));
+    }
+
+    @Test
+    public void testGapIsNotMerged() {
+        PollTask task1 = task(0, 5);
+        PollTask task2 = task(6, 5);
+        List<PollTask> plan = PollTaskCoalescer.plan(Arrays.asList(task2, task1));
+        assertThat(plan, is(equalTo(Arrays.asList(task1, task2))));
+    }
+
+    @Test
+    public void testRegisterLimitIsRespected() {
+        PollTask task1 = task(0, 100);
+        PollTask task2 = task(100, 25);
+        PollTask task3 = task(125, 1);
+        List<PollTask> plan = PollTaskCoalescer.plan(Arrays.asList(task1, task2, task3));
+        assertThat(plan.size(), is(equalTo(2)));
+        assertThat(plan.get(0).getRequest().getDataLength(), is(equalTo(PollTaskCoalescer.MAX_REGISTERS_PER_READ)));
+        assertThat(plan.get(1), is(sameInstance(task3)));
+    }
+
+    @Test
+    public void testCoilLimitIsRespected() {
+        ModbusReadCallback callback = mock(ModbusReadCallback.class);
+        PollTask task1 = task(ModbusReadFunctionCode.READ_COILS, 0, 1000, callback);
+        PollTask task2 = task(ModbusReadFunctionCode.READ_COILS, 1000, 1000, callback);
+        PollTask task3 = task(ModbusReadFunctionCode.READ_COILS, 2000, 1, callback);
+        List<PollTask> plan = PollTaskCoalescer.plan(Arrays.asList(task1, task2, task3));
+        assertThat(plan.size(), is(equalTo(2)));
+        assertThat(plan.get(0).getRequest().getDataLength(), is(equalTo(PollTaskCoalescer.MAX_BITS_PER_READ)));
+        assertThat(plan.get(1), is(sameInstance(task3)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDifferentFunctionCodesAreRejected() {
+        ModbusReadCallback callback = mock(ModbusReadCallback.class);
+        PollTaskCoalescer.plan(Arrays.asList(task(ModbusReadFunctionCode.READ_COILS, 0, 1, callback),
+                task(ModbusReadFunctionCode.READ_INPUT_DISCRETES, 1, 1, callback)));
+    }
+
+    @Test
+    public void testRegistersAreSlicedToMembers() {
+        ModbusReadCallback callback1 = mock(ModbusReadCallback.class);
+        ModbusReadCallback callback2 = mock(ModbusReadCallback.class);
+        PollTask task1 = task(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 5, 2, callback1);
+        PollTask task2 = task(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 6, 3, callback2);
+        PollTask merged = PollTaskCoalescer.plan(Arrays.asList(task1, task2)).get(0);
+        assertThat(merged.getRequest().getReference(), is(equalTo(5)));
+        assertThat(merged.getRequest().getDataLength(), is(equalTo(4)));
+
+        merged.getCallback().onRegisters(merged.getRequest(), new BasicModbusRegisterArray(1, 2, 3, 4));
+
+        ArgumentCaptor<ModbusRegisterArray> registers1 = ArgumentCaptor.forClass(ModbusRegisterArray.class);
+        verify(callback1).onRegisters(eq(task1.getRequest()), registers1.capture());
+        assertThat(registers1.getValue().size(), is(equalTo(2)));
+        assertThat(registers1.getValue().getRegister(0).getValue(), is(equalTo(1)));
+        assertThat(registers1.getValue().getRegister(1).getValue(), is(equalTo(2)));
+
+        ArgumentCaptor<ModbusRegisterArray> registers2 = ArgumentCaptor.forClass(ModbusRegisterArray.class);
+        verify(callback2).onRegisters(eq(task2.getRequest()), registers2.capture());
+        assertThat(registers2.getValue().size(), is(equalTo(3)));
+        assertThat(registers2.getValue().getRegister(0).getValue(), is(equalTo(2)));
+        assertThat(registers2.getValue().getRegister(2).getValue(), is(equalTo(4)));
+    }
+
+    @Test
+    public void testBitsAreSlicedToMembers() {
+        ModbusReadCallback callback1 = mock(ModbusReadCallback.class);
+        ModbusReadCallback callback2 = mock(ModbusReadCallback.class);
+        PollTask task1 = task(ModbusReadFunctionCode.READ_COILS, 0, 2, callback1);
+        PollTask task2 = task(ModbusReadFunctionCode.READ_COILS, 2, 2, callback2);
+        PollTask merged = PollTaskCoalescer.plan(Arrays.asList(task1, task2)).get(0);
+
+        merged.getCallback().onBits(merged.getRequest(), new BasicBitArray(true, false, false, true));
+
+        verify(callback1).onBits(task1.getRequest(), new BasicBitArray(true, false));
+        verify(callback2).onBits(task2.getRequest(), new BasicBitArray(false, true));
+    }
+
+    @Test
+    public void testErrorIsForwardedToAllMembers() {
+        ModbusReadCallback callback1 = mock(ModbusReadCallback.class);
+        ModbusReadCallback callback2 = mock(ModbusReadCallback.class);
+        PollTask task1 = task(ModbusReadFunctionCode.READ_COILS, 0, 2, callback1);
+        PollTask task2 = task(ModbusReadFunctionCode.READ_COILS, 2, 2, callback2);
+        PollTask merged = PollTaskCoalescer.plan(Arrays.asList(task1, task2)).get(0);
+
+        Exception error = new Exception("test error");
+        merged.getCallback().onError(merged.getRequest(), error);
+
+        verify(callback1).onError(task1.getRequest(), error);
+        verify(callback2).onError(task2.getRequest(), error);
+        verify(callback1, never()).onBits(any(ModbusReadRequestBlueprint.class), any(BitArray.class));
+    }
+
+    @Test
+    public void testUnregisteredMembersAreNotCalledBack() {
+        ModbusReadCallback callback1 = mock(ModbusReadCallback.class);
+        ModbusReadCallback callback2 = mock(ModbusReadCallback.class);
+        PollTask task1 = task(ModbusReadFunctionCode.READ_COILS, 0, 2, callback1);
+        PollTask task2 = task(ModbusReadFunctionCode.READ_COILS, 2, 2, callback2);
+        Set<PollTask> registered = new HashSet<>(Arrays.asList(task1, task2));
+        PollTask merged = PollTaskCoalescer.plan(Arrays.asList(task1, task2), registered::contains).get(0);
+
+        // task unregistered while the read is in flight
+        registered.remove(task1);
+        merged.getCallback().onBits(merged.getRequest(), new BasicBitArray(true, false, false, true));
+        merged.getCallback().onError(merged.getRequest(), new Exception("test error"));
+
+        verifyZeroInteractions(callback1);
+        verify(callback2).onBits(task2.getRequest(), new BasicBitArray(false, true));
+        verify(callback2).onError(eq(task2.getRequest()), any(Exception.class));
+    }
+
+}
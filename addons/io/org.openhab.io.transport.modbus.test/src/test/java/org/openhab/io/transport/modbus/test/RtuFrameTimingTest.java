@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
+import org.openhab.io.transport.modbus.endpoint.ModbusSerialSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.RtuFrameTiming;
+
+public class RtuFrameTimingTest {
+
+    private static ModbusSerialSlaveEndpoint endpoint(int baudRate, String stopBits, String parity, String encoding) {
+        return new ModbusSerialSlaveEndpoint("/dev/ttyS0", baudRate, "none", "none", 8, stopBits, parity, encoding,
+                false, 1500);
+    }
+
+    private static EndpointPoolConfiguration configuration(boolean rtuBusScheduling) {
+        EndpointPoolConfiguration configuration = new EndpointPoolConfiguration();
+        configuration.setRtuBusScheduling(rtuBusScheduling);
+        return configuration;
+    }
+
+    @Test
+    public void testCharacterTime() {
+        // 8N1: 10 bits
+        assertThat(RtuFrameTiming.getCharacterTimeMicros(endpoint(9600, "1", "none", "rtu").getSerialParameters()),
+                is(equalTo(1042L)));
+        // 8E1: 11 bits
+        assertThat(RtuFrameTiming.getCharacterTimeMicros(endpoint(9600, "1", "even", "rtu").getSerialParameters()),
+                is(equalTo(1146L)));
+        // 8N1.5: 10.5 bits
+        assertThat(RtuFrameTiming.getCharacterTimeMicros(endpoint(9600, "1.5", "none", "rtu").getSerialParameters()),
+                is(equalTo(1094L)));
+        // 8N2: 11 bits
+        assertThat(RtuFrameTiming.getCharacterTimeMicros(endpoint(9600, "2", "none", "rtu").getSerialParameters()),
+                is(equalTo(1146L)));
+    }
+
+    @Test
+    public void testInterFrameDelay() {
+        // 3.5 * 11 bits / 9600 baud
+        assertThat(RtuFrameTiming.getInterFrameDelayMicros(endpoint(9600, "1", "even", "rtu").getSerialParameters()),
+                is(equalTo(4011L)));
+        assertThat(RtuFrameTiming.getInterFrameDelayMicros(endpoint(19200, "1", "none", "rtu").getSerialParameters()),
+                is(equalTo(1823L)));
+        // fixed with high baud rates
+        assertThat(RtuFrameTiming.getInterFrameDelayMicros(endpoint(38400, "1", "none", "rtu").getSerialParameters()),
+                is(equalTo(1750L)));
+        assertThat(
+                RtuFrameTiming.getInterFrameDelayMicros(endpoint(115200, "1", "even", "rtu").getSerialParameters()),
+                is(equalTo(1750L)));
+    }
+
+    @Test
+    public void testInterFrameDelayMillis() {
+        assertThat(RtuFrameTiming.getInterFrameDelayMillis(endpoint(9600, "1", "even", "rtu"), configuration(true)),
+                is(equalTo(5L)));
+        assertThat(RtuFrameTiming.getInterFrameDelayMillis(endpoint(1200, "1", "none", "rtu"), configuration(true)),
+                is(equalTo(30L)));
+        assertThat(RtuFrameTiming.getInterFrameDelayMillis(endpoint(115200, "1", "none", "rtu"), configuration(true)),
+                is(equalTo(2L)));
+    }
+
+    @Test
+    public void testInterFrameDelayMillisNotApplicable() {
+        assertThat(RtuFrameTiming.getInterFrameDelayMillis(endpoint(9600, "1", "even", "rtu"), configuration(false)),
+                is(equalTo(0L)));
+        assertThat(RtuFrameTiming.getInterFrameDelayMillis(endpoint(9600, "1", "even", "rtu"), null),
+                is(equalTo(0L)));
+        assertThat(RtuFrameTiming.getInterFrameDelayMillis(endpoint(9600, "1", "even", "ascii"), configuration(true)),
+                is(equalTo(0L)));
+        assertThat(RtuFrameTiming.getInterFrameDelayMillis(new ModbusTCPSlaveEndpoint("localhost", 502),
+                configuration(true)), is(equalTo(0L)));
+    }
+}
@@ -19,6 +19,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.lang.StringUtils;
 import org.junit.Test;
+import org.openhab.io.transport.modbus.AdaptivePollStatistics;
 import org.openhab.io.transport.modbus.BasicBitArray;
 import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
 import org.openhab.io.transport.modbus.BasicModbusWriteCoilRequestBlueprint;
@@ -45,6 +46,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.ImmutableSet;
 
 import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ReadMultipleRegistersRequest;
 import net.wimpi.modbus.msg.WriteCoilRequest;
 import net.wimpi.modbus.msg.WriteMultipleCoilsRequest;
 import net.wimpi.modbus.procimg.SimpleDigitalIn;
@@ -824,6 +826,110 @@ public class SmokeTest extends IntegrationTestSupport {
         assertThat(unexpectedCount.get(), is(equalTo(0)));
     }
 
+    /**
+     * Read callback counting the received registers, failing on anything else
+     */
+    private static class CountingReadCallback implements ModbusReadCallback {
+        private final AtomicInteger registersReceived = new AtomicInteger();
+        private final AtomicInteger unexpectedCount = new AtomicInteger();
+        private final CountDownLatch registersCalled = new CountDownLatch(1);
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            registersReceived.incrementAndGet();
+            registersCalled.countDown();
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            unexpectedCount.incrementAndGet();
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            unexpectedCount.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void testAdaptivePollingContinuesWhenCallbackThrows() throws InterruptedException {
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+        generateData();
+
+        CountDownLatch callbackCalled = new CountDownLatch(3);
+        AtomicReference<AdaptivePollStatistics> firstStatistics = new AtomicReference<>();
+        BasicPollTaskImpl task = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 1, 15, 1), new ModbusReadCallback() {
+
+                    @Override
+                    public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+                        callbackCalled.countDown();
+                        throw new IllegalStateException("failing callback");
+                    }
+
+                    @Override
+                    public void onError(ModbusReadRequestBlueprint request, Exception error) {
+                    }
+
+                    @Override
+                    public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+                    }
+                });
+        modbusManager.registerRegularPoll(task, 150, 0,
+                (pollTask, statistics) -> firstStatistics.compareAndSet(null, statistics));
+
+        // the poll is scheduled again although the operation completed exceptionally
+        assertTrue(callbackCalled.await(10, TimeUnit.SECONDS));
+        modbusManager.unregisterRegularPoll(task);
+        AdaptivePollStatistics statistics = firstStatistics.get();
+        assertThat(statistics, is(notNullValue()));
+        // the exception counts as failed poll
+        assertThat(statistics.getErrorRate() > 0, is(true));
+    }
+
+    @Test
+    public void testUnregisterPollingWhileCoalescedPollIsQueued() throws InterruptedException {
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+        generateData();
+        EndpointPoolConfiguration configuration = new EndpointPoolConfiguration();
+        configuration.setCoalescePolls(true);
+        configuration.setInterTransactionDelayMillis(1500);
+        modbusManager.setEndpointPoolConfiguration(endpoint, configuration);
+
+        // the next poll has to wait for the inter transaction delay after this one
+        CountingReadCallback oneOffCallback = new CountingReadCallback();
+        modbusManager.submitOneTimePoll(new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(
+                SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 1, 1), oneOffCallback));
+        assertTrue(oneOffCallback.registersCalled.await(5, TimeUnit.SECONDS));
+
+        // adjacent registers, polled with single request
+        CountingReadCallback unregisteredCallback = new CountingReadCallback();
+        CountingReadCallback remainingCallback = new CountingReadCallback();
+        BasicPollTaskImpl unregisteredTask = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(
+                SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 1, 2, 1), unregisteredCallback);
+        BasicPollTaskImpl remainingTask = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(
+                SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 3, 2, 1), remainingCallback);
+        modbusManager.registerRegularPoll(unregisteredTask, 5000, 100);
+        modbusManager.registerRegularPoll(remainingTask, 5000, 100);
+
+        // the coalesced poll is queued, waiting for the inter transaction delay
+        Thread.sleep(400);
+        assertTrue(modbusManager.unregisterRegularPoll(unregisteredTask));
+
+        assertTrue(remainingCallback.registersCalled.await(5, TimeUnit.SECONDS));
+        waitForRequests(2);
+        // only the registers of the remaining poll task are read
+        ReadMultipleRegistersRequest request = (ReadMultipleRegistersRequest) modbustRequestCaptor
+                .getAllReturnValues().get(1);
+        assertThat(request.getReference(), is(equalTo(3)));
+        assertThat(request.getWordCount(), is(equalTo(2)));
+        assertThat(unregisteredCallback.registersReceived.get(), is(equalTo(0)));
+        assertThat(remainingCallback.registersReceived.get(), is(equalTo(1)));
+        assertThat(unregisteredCallback.unexpectedCount.get() + remainingCallback.unexpectedCount.get(),
+                is(equalTo(0)));
+        modbusManager.unregisterRegularPoll(remainingTask);
+    }
+
     @SuppressWarnings("null")
     @Test
     public void testPoolConfigurationWithoutListener() {
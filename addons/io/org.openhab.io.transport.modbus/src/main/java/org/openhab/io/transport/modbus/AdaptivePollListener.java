@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Listener for changes of adaptively scheduled regular poll
+ *
+ * @author agent - Initial contribution
+ */
+@FunctionalInterface
+@NonNullByDefault
+public interface AdaptivePollListener {
+
+    /**
+     * Called after the poll when the effective poll period has changed, and after the first poll
+     *
+     * @param task regularly polled task
+     * @param statistics current state of the adaptive scheduling
+     */
+    public void onPollPeriodUpdated(PollTask task, AdaptivePollStatistics statistics);
+
+}
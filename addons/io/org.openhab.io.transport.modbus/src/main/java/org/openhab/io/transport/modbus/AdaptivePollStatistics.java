@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * State of regular poll registered with adaptive scheduling
+ *
+ * @see ModbusManager#registerRegularPoll(PollTask, long, long, AdaptivePollListener)
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface AdaptivePollStatistics {
+
+    /**
+     * Get the poll period requested on registration
+     *
+     * @return configured poll period, in milliseconds
+     */
+    public long getConfiguredPeriodMillis();
+
+    /**
+     * Get the delay currently used between the polls
+     *
+     * @return effective poll period, in milliseconds. Never smaller than the configured period.
+     */
+    public long getEffectivePeriodMillis();
+
+    /**
+     * Get moving average of the poll durations, including retries
+     *
+     * @return average duration, in milliseconds
+     */
+    public long getAverageDurationMillis();
+
+    /**
+     * Get moving average of the poll failures
+     *
+     * @return error rate between 0 (all recent polls succeeded) and 1 (all recent polls failed)
+     */
+    public double getErrorRate();
+
+    /**
+     * Get number of polls failed in a row
+     *
+     * @return number of consecutive failures, 0 if the last poll succeeded
+     */
+    public int getConsecutiveFailures();
+
+}
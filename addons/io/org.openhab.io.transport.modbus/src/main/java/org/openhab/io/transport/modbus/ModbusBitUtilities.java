@@ -10,8 +10,6 @@ package org.openhab.io.transport.modbus;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.Optional;
 
@@ -94,6 +92,28 @@ public class ModbusBitUtilities {
      */
     public static DecimalType extractStateFromRegisters(ModbusRegisterArray registers, int index,
             ModbusConstants.ValueType type) {
+        return rawValueToState(extractRawValueFromRegisters(registers, index, type), type);
+    }
+
+    /**
+     * Read data from registers as raw bits, without allocating any objects
+     *
+     * The bits of the value are returned in the least significant bits of the long, in the order specified by the
+     * type. That is, registers of the swapped types are already swapped. Bits above the value type size are zero. The
+     * sign is not interpreted: use {@link #rawValueToState(long, ModbusConstants.ValueType)} or
+     * {@link #extractDoubleFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)} to interpret the value.
+     *
+     * Raw values are equal exactly when the underlying data is equal, making them suitable for detecting changes.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index, as in
+     *            {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type
+     * @return raw bits of the value
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers
+     */
+    public static long extractRawValueFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
         int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
         // each register has 16 bits
         int lastValidIndex = registers.size() * 16 - 1;
@@ -104,94 +124,125 @@ public class ModbusBitUtilities {
         }
         switch (type) {
             case BIT:
-                return new DecimalType((registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1);
+                return (registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1;
             case INT8:
-                return new DecimalType(registers.getRegister(index / 2).getBytes()[1 - (index % 2)]);
             case UINT8:
-                return new DecimalType(
-                        (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff);
-            case INT16: {
-                ByteBuffer buff = ByteBuffer.allocate(2);
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getShort(0));
-            }
+                return (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff;
+            case INT16:
             case UINT16:
-                return new DecimalType(registers.getRegister(index).toUnsignedShort());
-            case INT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0));
-            }
-            case UINT32: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0));
-            }
-            case FLOAT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0));
-            }
-            case INT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0));
-            }
-            case UINT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array())));
-            }
-            case INT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0));
-            }
-            case UINT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0));
-            }
-            case FLOAT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0));
-            }
-            case INT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0));
-            }
-            case UINT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array())));
-            }
+                return registers.getRegister(index).toUnsignedShort();
+            case INT32:
+            case UINT32:
+            case FLOAT32:
+                return ((long) registers.getRegister(index).toUnsignedShort() << 16)
+                        | registers.getRegister(index + 1).toUnsignedShort();
+            case INT64:
+            case UINT64:
+                return ((long) registers.getRegister(index).toUnsignedShort() << 48)
+                        | ((long) registers.getRegister(index + 1).toUnsignedShort() << 32)
+                        | ((long) registers.getRegister(index + 2).toUnsignedShort() << 16)
+                        | registers.getRegister(index + 3).toUnsignedShort();
+            case INT32_SWAP:
+            case UINT32_SWAP:
+            case FLOAT32_SWAP:
+                return ((long) registers.getRegister(index + 1).toUnsignedShort() << 16)
+                        | registers.getRegister(index).toUnsignedShort();
+            case INT64_SWAP:
+            case UINT64_SWAP:
+                return ((long) registers.getRegister(index + 3).toUnsignedShort() << 48)
+                        | ((long) registers.getRegister(index + 2).toUnsignedShort() << 32)
+                        | ((long) registers.getRegister(index + 1).toUnsignedShort() << 16)
+                        | registers.getRegister(index).toUnsignedShort();
             default:
                 throw new IllegalArgumentException(type.getConfigValue());
         }
     }
 
+    /**
+     * Read data from registers and convert the result to double, without allocating any objects
+     *
+     * Note that 64bit integers exceeding 2^53 in magnitude cannot be represented exactly as double.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index, as in
+     *            {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type
+     * @return numeric value
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers
+     */
+    public static double extractDoubleFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        return rawValueToDouble(extractRawValueFromRegisters(registers, index, type), type);
+    }
+
+    /**
+     * Interpret raw value as double
+     *
+     * @param rawValue raw value as returned by
+     *            {@link #extractRawValueFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type
+     * @return numeric value
+     */
+    public static double rawValueToDouble(long rawValue, ModbusConstants.ValueType type) {
+        switch (type) {
+            case FLOAT32:
+            case FLOAT32_SWAP:
+                return Float.intBitsToFloat((int) rawValue);
+            case UINT64:
+            case UINT64_SWAP:
+                if (rawValue < 0) {
+                    // Exceeds range of signed long, halve to avoid overflow
+                    return ((rawValue >>> 1) | (rawValue & 1)) * 2.0;
+                }
+                return rawValue;
+            default:
+                return rawValueToLong(rawValue, type);
+        }
+    }
+
+    /**
+     * Interpret raw value as DecimalType
+     *
+     * @param rawValue raw value as returned by
+     *            {@link #extractRawValueFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type
+     * @return number representation of the value
+     */
+    public static DecimalType rawValueToState(long rawValue, ModbusConstants.ValueType type) {
+        switch (type) {
+            case FLOAT32:
+            case FLOAT32_SWAP:
+                return new DecimalType(Float.intBitsToFloat((int) rawValue));
+            case UINT64:
+            case UINT64_SWAP:
+                if (rawValue < 0) {
+                    // Exceeds range of signed long
+                    return new DecimalType(new BigDecimal(new BigInteger(Long.toUnsignedString(rawValue))));
+                }
+                return new DecimalType(rawValue);
+            default:
+                return new DecimalType(rawValueToLong(rawValue, type));
+        }
+    }
+
+    /**
+     * Sign extend the raw value of integer types
+     */
+    private static long rawValueToLong(long rawValue, ModbusConstants.ValueType type) {
+        switch (type) {
+            case INT8:
+                return (byte) rawValue;
+            case INT16:
+                return (short) rawValue;
+            case INT32:
+            case INT32_SWAP:
+                return (int) rawValue;
+            default:
+                // unsigned types and 64bit signed types
+                return rawValue;
+        }
+    }
+
     /**
      * Read data from registers and convert the result to StringType
      * Strings should start the the first byte of a register, but could
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Metrics of operations (reads and writes) of single endpoint
+ *
+ * Counters and histograms accumulate since the manager was activated, or since metrics were reset with
+ * {@link ModbusMetricsService#reset()}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface ModbusEndpointMetrics {
+
+    /**
+     * Get number of operations executed
+     *
+     * @return number of operations
+     */
+    public long getOperationCount();
+
+    /**
+     * Get number of operations that failed, after all tries
+     *
+     * @return number of failed operations
+     */
+    public long getFailedOperationCount();
+
+    /**
+     * Get number of retries, that is, tries after the first one
+     *
+     * @return number of retries
+     */
+    public long getRetryCount();
+
+    /**
+     * Get number of times a connection could not be established
+     *
+     * @return number of connection failures
+     */
+    public long getConnectionFailureCount();
+
+    /**
+     * Get number of times a connection was invalidated (closed) due to an error
+     *
+     * @return number of invalidated connections
+     */
+    public long getConnectionInvalidationCount();
+
+    /**
+     * Get number of operations currently waiting in the queue of the endpoint
+     *
+     * @return current queue size
+     */
+    public int getQueueSize();
+
+    /**
+     * Get distribution of total operation durations, from start of the execution to the end of the callback
+     *
+     * @return operation durations
+     */
+    public ModbusLatencyHistogram getOperationTime();
+
+    /**
+     * Get distribution of durations of single tries, i.e. transactions with the slave
+     *
+     * @return transaction durations
+     */
+    public ModbusLatencyHistogram getTransactionTime();
+
+    /**
+     * Get distribution of time waited to get a connection from the connection pool
+     *
+     * @return connection wait durations
+     */
+    public ModbusLatencyHistogram getConnectionWaitTime();
+
+    /**
+     * Get distribution of time operations waited in the queue of the endpoint before execution
+     *
+     * @return queue wait durations
+     */
+    public ModbusLatencyHistogram getQueueWaitTime();
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Distribution of durations, in milliseconds
+ *
+ * Durations are counted in buckets with exponentially growing bounds, and thus percentiles are estimates: percentile is
+ * reported as the upper bound of the bucket it falls in.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface ModbusLatencyHistogram {
+
+    /**
+     * Get number of durations recorded
+     *
+     * @return number of durations
+     */
+    public long getCount();
+
+    /**
+     * Get mean of the durations recorded
+     *
+     * @return mean duration in milliseconds, or 0 if nothing has been recorded
+     */
+    public double getMeanMillis();
+
+    /**
+     * Get longest duration recorded
+     *
+     * @return maximum duration in milliseconds, or 0 if nothing has been recorded
+     */
+    public long getMaxMillis();
+
+    /**
+     * Get estimate of the given percentile
+     *
+     * @param percentile percentile between 0 and 100, e.g. 95 for 95th percentile
+     * @return duration in milliseconds, or 0 if nothing has been recorded
+     * @throws IllegalArgumentException when percentile is not between 0 and 100
+     */
+    public long getPercentileMillis(double percentile);
+}
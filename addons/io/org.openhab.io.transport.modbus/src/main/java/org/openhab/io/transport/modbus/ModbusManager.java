@@ -37,11 +37,37 @@ public interface ModbusManager {
      * Register regularly polled task. The method returns immediately, and the execution of the poll task will happen in
      * the background.
      *
+     * When the endpoint is configured to coalesce polls (see {@link EndpointPoolConfiguration#isCoalescePolls()}),
+     * poll tasks sharing the unit id, function code and poll period are read using as few requests as possible.
+     * Callbacks still receive the data of their own request only.
+     *
      * @param task
      * @return
      */
     public void registerRegularPoll(PollTask task, long pollPeriodMillis, long initialDelayMillis);
 
+    /**
+     * Register regularly polled task with adaptive scheduling. The method returns immediately, and the execution of
+     * the poll task will happen in the background.
+     *
+     * The poll period is stretched when the polls take long or keep failing, and it returns to the given poll period
+     * when the slave recovers. See {@link AdaptivePollStatistics} for the state of the scheduling.
+     *
+     * Adaptive scheduling is not applied with endpoints coalescing polls (see
+     * {@link EndpointPoolConfiguration#isCoalescePolls()}), the poll task is registered with fixed poll period instead.
+     *
+     * The default implementation registers the poll task with fixed poll period, without notifying the listener.
+     *
+     * @param task task to poll
+     * @param pollPeriodMillis poll period used with healthy slave
+     * @param initialDelayMillis delay before the first poll
+     * @param listener listener called when the effective poll period changes
+     */
+    public default void registerRegularPoll(PollTask task, long pollPeriodMillis, long initialDelayMillis,
+            AdaptivePollListener listener) {
+        registerRegularPoll(task, pollPeriodMillis, initialDelayMillis);
+    }
+
     /**
      * Unregister regularly polled task
      *
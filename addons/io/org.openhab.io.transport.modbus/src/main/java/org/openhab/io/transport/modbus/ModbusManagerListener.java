@@ -30,4 +30,17 @@ public interface ModbusManagerListener {
     public void onEndpointPoolConfigurationSet(ModbusSlaveEndpoint endpoint,
             @Nullable EndpointPoolConfiguration configuration);
 
+    /**
+     * Called every time an operation (read or write) of the endpoint is taken from the endpoint queue for execution.
+     *
+     * Operations of each endpoint are executed one at a time, other operations wait in the queue. Default
+     * implementation does nothing.
+     *
+     * @param endpoint endpoint of the operation
+     * @param queueSize number of operations still waiting in the queue of the endpoint
+     * @param waitMillis how long the operation waited in the queue before execution, in milliseconds
+     */
+    public default void onEndpointQueueStatistics(ModbusSlaveEndpoint endpoint, int queueSize, long waitMillis) {
+    }
+
 }
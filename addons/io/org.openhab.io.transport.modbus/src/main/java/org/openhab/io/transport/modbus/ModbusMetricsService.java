@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus;
+
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Service providing metrics of the Modbus operations, for sizing poll periods and diagnosing slow slaves
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface ModbusMetricsService {
+
+    /**
+     * Get metrics of all endpoints that have executed operations
+     *
+     * @return metrics by endpoint
+     */
+    public Map<ModbusSlaveEndpoint, ModbusEndpointMetrics> getEndpointMetrics();
+
+    /**
+     * Get number of tasks waiting in the queue of the thread pool executing the operations
+     *
+     * @return thread pool queue size
+     */
+    public int getThreadPoolQueueSize();
+
+    /**
+     * Get number of threads actively executing tasks in the thread pool
+     *
+     * @return active thread count
+     */
+    public int getThreadPoolActiveCount();
+
+    /**
+     * Reset all counters and histograms
+     */
+    public void reset();
+}
@@ -15,6 +15,8 @@ import org.apache.commons.lang.builder.ToStringBuilder;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 
+import net.wimpi.modbus.Modbus;
+
 /**
  * Class representing pooling related configuration of a single endpoint
  *
@@ -57,6 +59,40 @@ public class EndpointPoolConfiguration {
      */
     private int connectTimeoutMillis;
 
+    /**
+     * Whether regularly polled tasks sharing unit id, function code and poll period should be merged into
+     * contiguous read requests. Default false, that is, every poll task is executed with a separate transaction.
+     */
+    private boolean coalescePolls;
+
+    /**
+     * How many transactions can be outstanding at the same time. Responses are matched to the requests using the
+     * transaction id. Applicable only with Modbus/TCP endpoints. Default of 1 means that transactions are executed
+     * strictly one after another, re-using the connection from the pool.
+     */
+    private int maxPipelinedTransactions = 1;
+
+    /**
+     * How long to wait for the response of a single transaction, when many transactions can be outstanding at the same
+     * time. In milliseconds. Default equals the response timeout of the modbus library.
+     */
+    private int responseTimeoutMillis = Modbus.DEFAULT_TIMEOUT;
+
+    /**
+     * Whether to use non-blocking I/O with Modbus/TCP and Modbus/UDP endpoints. With non-blocking I/O, the connections
+     * of all endpoints are served by a single selector thread. Default false, that is, blocking connections of the
+     * modbus library are used.
+     */
+    private boolean nonBlockingIO;
+
+    /**
+     * Whether to schedule the transactions of Modbus RTU serial endpoints using the silent interval of 3.5 characters,
+     * computed from the baud rate and the other serial parameters. The inter-transaction delay is then applied only
+     * between transactions with the same unit id, and transactions of different unit ids are executed back-to-back.
+     * Default false, that is, the inter-transaction delay is applied between all transactions.
+     */
+    private boolean rtuBusScheduling;
+
     private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
 
     static {
@@ -103,10 +139,52 @@ public class EndpointPoolConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public boolean isCoalescePolls() {
+        return coalescePolls;
+    }
+
+    public void setCoalescePolls(boolean coalescePolls) {
+        this.coalescePolls = coalescePolls;
+    }
+
+    public int getMaxPipelinedTransactions() {
+        return maxPipelinedTransactions;
+    }
+
+    public void setMaxPipelinedTransactions(int maxPipelinedTransactions) {
+        this.maxPipelinedTransactions = maxPipelinedTransactions;
+    }
+
+    public int getResponseTimeoutMillis() {
+        return responseTimeoutMillis;
+    }
+
+    public void setResponseTimeoutMillis(int responseTimeoutMillis) {
+        this.responseTimeoutMillis = responseTimeoutMillis;
+    }
+
+    public boolean isNonBlockingIO() {
+        return nonBlockingIO;
+    }
+
+    public void setNonBlockingIO(boolean nonBlockingIO) {
+        this.nonBlockingIO = nonBlockingIO;
+    }
+
+    public boolean isRtuBusScheduling() {
+        return rtuBusScheduling;
+    }
+
+    public void setRtuBusScheduling(boolean rtuBusScheduling) {
+        this.rtuBusScheduling = rtuBusScheduling;
+    }
+
     @Override
     public int hashCode() {
         return new HashCodeBuilder(2149, 3117).append(interTransactionDelayMillis).append(interConnectDelayMillis)
-                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis).toHashCode();
+                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis).append(coalescePolls)
+                .append(maxPipelinedTransactions).append(responseTimeoutMillis).append(nonBlockingIO).append(rtuBusScheduling)
+                .toHashCode();
     }
 
     @Override
@@ -115,7 +193,10 @@ public class EndpointPoolConfiguration {
                 .append("interTransactionDelayMillis", interTransactionDelayMillis)
                 .append("interConnectDelayMillis", interConnectDelayMillis).append("connectMaxTries", connectMaxTries)
                 .append("reconnectAfterMillis", reconnectAfterMillis)
-                .append("connectTimeoutMillis", connectTimeoutMillis).toString();
+                .append("connectTimeoutMillis", connectTimeoutMillis).append("coalescePolls", coalescePolls)
+                .append("maxPipelinedTransactions", maxPipelinedTransactions)
+                .append("responseTimeoutMillis", responseTimeoutMillis).append("nonBlockingIO", nonBlockingIO)
+                .append("rtuBusScheduling", rtuBusScheduling).toString();
     }
 
     @Override
@@ -133,7 +214,10 @@ public class EndpointPoolConfiguration {
         return new EqualsBuilder().append(interTransactionDelayMillis, rhs.interTransactionDelayMillis)
                 .append(interConnectDelayMillis, rhs.interConnectDelayMillis)
                 .append(connectMaxTries, rhs.connectMaxTries).append(reconnectAfterMillis, rhs.reconnectAfterMillis)
-                .append(connectTimeoutMillis, rhs.connectTimeoutMillis).isEquals();
+                .append(connectTimeoutMillis, rhs.connectTimeoutMillis).append(coalescePolls, rhs.coalescePolls)
+                .append(maxPipelinedTransactions, rhs.maxPipelinedTransactions)
+                .append(responseTimeoutMillis, rhs.responseTimeoutMillis)
+                .append(nonBlockingIO, rhs.nonBlockingIO).append(rtuBusScheduling, rhs.rtuBusScheduling).isEquals();
     }
 
 }
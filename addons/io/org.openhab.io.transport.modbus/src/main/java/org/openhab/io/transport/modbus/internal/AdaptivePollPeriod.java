@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.AdaptivePollStatistics;
+
+/**
+ * Poll period stretched based on the measured duration and outcome of the polls
+ *
+ * The period is adjusted after every poll:
+ * <ul>
+ * <li>the delay between polls is at least the average poll duration, that is, slow slave occupies at most half of
+ * the bus time</li>
+ * <li>the period grows with the error rate, up to twice the period when all recent polls failed</li>
+ * <li>polls failing in a row back off exponentially, up to {@value #MAX_BACKOFF_PERIOD_MILLIS} milliseconds</li>
+ * </ul>
+ * The averages are exponentially weighted, so the period returns to the configured one once the slave recovers.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class AdaptivePollPeriod implements AdaptivePollStatistics {
+
+    /**
+     * Weight of the latest poll in the moving averages
+     */
+    static final double SMOOTHING_FACTOR = 0.25;
+    /**
+     * Error rates below this are considered as healthy slave, not stretching the period
+     */
+    static final double ERROR_RATE_THRESHOLD = 0.05;
+    static final long MAX_BACKOFF_PERIOD_MILLIS = 60_000;
+    private static final int MAX_BACKOFF_EXPONENT = 10;
+
+    private final long configuredPeriodMillis;
+    private long effectivePeriodMillis;
+    private double averageDurationMillis = -1;
+    private double errorRate;
+    private int consecutiveFailures;
+
+    public AdaptivePollPeriod(long configuredPeriodMillis) {
+        this.configuredPeriodMillis = configuredPeriodMillis;
+        this.effectivePeriodMillis = configuredPeriodMillis;
+    }
+
+    /**
+     * Update the period with the outcome of a poll
+     *
+     * @param durationMillis duration of the poll, including retries
+     * @param failed whether the poll failed
+     * @return whether the effective period changed
+     */
+    public synchronized boolean recordPoll(long durationMillis, boolean failed) {
+        averageDurationMillis = averageDurationMillis < 0 ? durationMillis
+                : averageDurationMillis + SMOOTHING_FACTOR * (durationMillis - averageDurationMillis);
+        errorRate += SMOOTHING_FACTOR * ((failed ? 1 : 0) - errorRate);
+        consecutiveFailures = failed ? consecutiveFailures + 1 : 0;
+
+        double period = Math.max(configuredPeriodMillis, averageDurationMillis);
+        if (errorRate >= ERROR_RATE_THRESHOLD) {
+            period *= 1 + errorRate;
+        }
+        if (consecutiveFailures > 1) {
+            // single failure might be transient, back off only when the slave keeps failing
+            period *= 1L << Math.min(consecutiveFailures - 1, MAX_BACKOFF_EXPONENT);
+        }
+        long previous = effectivePeriodMillis;
+        effectivePeriodMillis = Math
+                .round(Math.min(period, Math.max(configuredPeriodMillis, MAX_BACKOFF_PERIOD_MILLIS)));
+        return previous != effectivePeriodMillis;
+    }
+
+    @Override
+    public long getConfiguredPeriodMillis() {
+        return configuredPeriodMillis;
+    }
+
+    @Override
+    public synchronized long getEffectivePeriodMillis() {
+        return effectivePeriodMillis;
+    }
+
+    @Override
+    public synchronized long getAverageDurationMillis() {
+        return Math.round(Math.max(0, averageDurationMillis));
+    }
+
+    @Override
+    public synchronized double getErrorRate() {
+        return errorRate;
+    }
+
+    @Override
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(
+                "AdaptivePollPeriod(configured=%d ms, effective=%d ms, averageDuration=%d ms, errorRate=%.2f, consecutiveFailures=%d)",
+                configuredPeriodMillis, effectivePeriodMillis, getAverageDurationMillis(), errorRate,
+                consecutiveFailures);
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Poll task reading the data of many poll tasks with a single request
+ *
+ * The response is split back to the member tasks: each member callback is called with the original request of the
+ * member, and with the slice of the data corresponding to that request. Members unregistered while the read is in
+ * flight are not called back.
+ *
+ * Instances are created by {@link PollTaskCoalescer}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class CoalescedPollTask implements PollTask {
+
+    private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(CoalescedPollTask.class);
+
+    private final List<PollTask> members;
+    private final Predicate<PollTask> registered;
+    private final ModbusSlaveEndpoint endpoint;
+    private final BasicModbusReadRequestBlueprint request;
+    private final ModbusReadCallback callback = new ModbusReadCallback() {
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint mergedRequest, ModbusRegisterArray registers) {
+            for (PollTask member : members) {
+                ModbusReadRequestBlueprint memberRequest = member.getRequest();
+                ModbusReadCallback memberCallback = getMemberCallback(member);
+                if (memberCallback == null) {
+                    continue;
+                }
+                int offset = memberRequest.getReference() - request.getReference();
+                int length = memberRequest.getDataLength();
+                try {
+                    if (offset + length > registers.size()) {
+                        memberCallback.onError(memberRequest, new ModbusSlaveIOExceptionImpl(new IOException(
+                                String.format("Expected at least %d registers in the response, received %d",
+                                        offset + length, registers.size()))));
+                        continue;
+                    }
+                    ModbusRegister[] slice = new ModbusRegister[length];
+                    for (int i = 0; i < length; i++) {
+                        slice[i] = registers.getRegister(offset + i);
+                    }
+                    memberCallback.onRegisters(memberRequest, new BasicModbusRegisterArray(slice));
+                } catch (RuntimeException e) {
+                    logger.error("Unhandled exception in callback {} for request {}: {} {}", memberCallback,
+                            memberRequest, e.getClass().getName(), e.getMessage(), e);
+                }
+            }
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint mergedRequest, BitArray bits) {
+            for (PollTask member : members) {
+                ModbusReadRequestBlueprint memberRequest = member.getRequest();
+                ModbusReadCallback memberCallback = getMemberCallback(member);
+                if (memberCallback == null) {
+                    continue;
+                }
+                int offset = memberRequest.getReference() - request.getReference();
+                int length = memberRequest.getDataLength();
+                try {
+                    if (offset + length > bits.size()) {
+                        memberCallback.onError(memberRequest,
+                                new ModbusSlaveIOExceptionImpl(new IOException(
+                                        String.format("Expected at least %d bits in the response, received %d",
+                                                offset + length, bits.size()))));
+                        continue;
+                    }
+                    BasicBitArray slice = new BasicBitArray(length);
+                    for (int i = 0; i < length; i++) {
+                        slice.setBit(i, bits.getBit(offset + i));
+                    }
+                    memberCallback.onBits(memberRequest, slice);
+                } catch (RuntimeException e) {
+                    logger.error("Unhandled exception in callback {} for request {}: {} {}", memberCallback,
+                            memberRequest, e.getClass().getName(), e.getMessage(), e);
+                }
+            }
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint mergedRequest, Exception error) {
+            for (PollTask member : members) {
+                ModbusReadCallback memberCallback = getMemberCallback(member);
+                if (memberCallback == null) {
+                    continue;
+                }
+                try {
+                    memberCallback.onError(member.getRequest(), error);
+                } catch (RuntimeException e) {
+                    logger.error("Unhandled exception in callback {} for request {}: {} {}", memberCallback,
+                            member.getRequest(), e.getClass().getName(), e.getMessage(), e);
+                }
+            }
+        }
+    };
+
+    /**
+     * Construct coalesced poll task
+     *
+     * @param members poll tasks sharing the endpoint, unit id and function code. Must be non-empty.
+     * @param start start address of the merged read
+     * @param length length of the merged read
+     * @param registered tells whether a member is still registered, and should be called back
+     */
+    CoalescedPollTask(List<PollTask> members, int start, int length, Predicate<PollTask> registered) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("Must have at least one member");
+        }
+        this.members = Collections.unmodifiableList(members);
+        this.registered = registered;
+        PollTask first = members.get(0);
+        this.endpoint = first.getEndpoint();
+        int maxTries = members.stream().mapToInt(task -> task.getMaxTries()).max().getAsInt();
+        this.request = new BasicModbusReadRequestBlueprint(first.getRequest().getUnitID(),
+                first.getRequest().getFunctionCode(), start, length, maxTries);
+    }
+
+    private @Nullable ModbusReadCallback getMemberCallback(PollTask member) {
+        if (!registered.test(member)) {
+            logger.trace("Poll task {} has been unregistered, not calling back", member);
+            return null;
+        }
+        return member.getCallback();
+    }
+
+    /**
+     * Get poll tasks whose data is read using this task
+     *
+     * @return unmodifiable list of member poll tasks
+     */
+    public List<PollTask> getMembers() {
+        return members;
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public ModbusReadRequestBlueprint getRequest() {
+        return request;
+    }
+
+    @Override
+    public @Nullable ModbusReadCallback getCallback() {
+        return callback;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("request", request).append("endpoint", endpoint)
+                .append("members", members.size()).toString();
+    }
+
+}
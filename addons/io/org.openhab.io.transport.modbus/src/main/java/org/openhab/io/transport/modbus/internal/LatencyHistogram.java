@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusLatencyHistogram;
+
+/**
+ * Lock-free histogram of durations with fixed buckets
+ *
+ * Memory use is constant, and recording is cheap enough to be done for every operation.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class LatencyHistogram implements ModbusLatencyHistogram {
+
+    /**
+     * Inclusive upper bounds of the buckets, in milliseconds. Durations above the last bound are counted in an extra
+     * bucket.
+     */
+    static final long[] BUCKET_UPPER_BOUNDS_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000,
+            30000, 60000 };
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_UPPER_BOUNDS_MILLIS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumMillis = new AtomicLong();
+    private final AtomicLong maxMillis = new AtomicLong();
+
+    /**
+     * Record duration
+     *
+     * @param millis duration in milliseconds. Negative values are recorded as zero.
+     */
+    public void record(long millis) {
+        long duration = Math.max(0, millis);
+        int bucket = 0;
+        while (bucket < BUCKET_UPPER_BOUNDS_MILLIS.length && duration > BUCKET_UPPER_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+        count.incrementAndGet();
+        sumMillis.addAndGet(duration);
+        maxMillis.accumulateAndGet(duration, Math::max);
+    }
+
+    @Override
+    public long getCount() {
+        return count.get();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        long count = this.count.get();
+        return count == 0 ? 0 : (double) sumMillis.get() / count;
+    }
+
+    @Override
+    public long getMaxMillis() {
+        return maxMillis.get();
+    }
+
+    @Override
+    public long getPercentileMillis(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException(String.format("Percentile %f not between 0 and 100", percentile));
+        }
+        long[] snapshot = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long max = maxMillis.get();
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS_MILLIS.length; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= rank) {
+                return Math.min(BUCKET_UPPER_BOUNDS_MILLIS[i], max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Forget all recorded durations
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sumMillis.set(0);
+        maxMillis.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%.1f ms, p50=%d ms, p95=%d ms, p99=%d ms, max=%d ms", getCount(),
+                getMeanMillis(), getPercentileMillis(50), getPercentileMillis(95), getPercentileMillis(99),
+                getMaxMillis());
+    }
+}
@@ -0,0 +1,483 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.ModbusRequestBlueprint;
+import org.openhab.io.transport.modbus.TaskWithEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dispatcher executing the operations of a single endpoint
+ *
+ * Operations are queued per endpoint, and ordered by their priority: writes are executed before one-off polls, which
+ * are executed before regular polls. Operations with equal priority are executed in submission order.
+ *
+ * By default, operations are executed one at a time. With pipelined endpoints (see
+ * {@link org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration#getMaxPipelinedTransactions()}), up to
+ * the configured number of operations are executed concurrently.
+ *
+ * The dispatcher occupies threads of the executor only while operations are actually executing. The minimum delay
+ * between transactions is respected by scheduling the next operation with a delay, instead of sleeping in a thread.
+ *
+ * With shared serial bus (see
+ * {@link org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration#isRtuBusScheduling()}), the minimum
+ * delay applies only between operations of the same unit id, while operations of other unit ids need to wait only the
+ * inter-frame delay. When the next operation needs to wait for its slave, operations of the same priority addressed to
+ * other slaves are executed in between. The unit id is resolved from the key of the operation, in case it is a
+ * {@link TaskWithEndpoint}.
+ *
+ * Operations submitted with {@link #submitAsync(Priority, Object, Supplier)} only start their transaction in the
+ * executor thread, and occupy their place among the concurrently executing operations until the returned stage
+ * completes. This way, operations waiting for the response of the slave do not hold any thread.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusEndpointDispatcher {
+
+    /**
+     * Priority of the operation. Operations with lower ordinal are executed first.
+     */
+    public enum Priority {
+        WRITE,
+        ONE_OFF_POLL,
+        REGULAR_POLL
+    }
+
+    /**
+     * Listener for queue statistics
+     */
+    @FunctionalInterface
+    public interface QueueListener {
+        /**
+         * Called when operation is taken from the queue for execution
+         *
+         * @param endpoint endpoint of the dispatcher
+         * @param queueSize number of operations remaining in the queue
+         * @param waitMillis how long the operation waited in the queue
+         */
+        void onDequeue(ModbusSlaveEndpoint endpoint, int queueSize, long waitMillis);
+    }
+
+    /**
+     * Future representing a queued operation
+     */
+    private static class OperationFuture extends CompletableFuture<@Nullable Void>
+            implements ScheduledFuture<@Nullable Void> {
+
+        @Override
+        public long getDelay(@Nullable TimeUnit unit) {
+            return 0;
+        }
+
+        @Override
+        public int compareTo(@Nullable Delayed other) {
+            if (other == null) {
+                return 1;
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private static class QueuedOperation implements Comparable<QueuedOperation> {
+        private final Priority priority;
+        private final long sequence;
+        private final long enqueuedMillis = System.currentTimeMillis();
+        private final Object key;
+        private final int unitId;
+        private final Supplier<? extends CompletionStage<?>> operation;
+        private final OperationFuture future = new OperationFuture();
+
+        public QueuedOperation(Priority priority, long sequence, Object key, int unitId,
+                Supplier<? extends CompletionStage<?>> operation) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.key = key;
+            this.unitId = unitId;
+            this.operation = operation;
+        }
+
+        @Override
+        public int compareTo(QueuedOperation other) {
+            int priorityComparison = priority.compareTo(other.priority);
+            return priorityComparison != 0 ? priorityComparison : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static final int NO_UNIT_ID = -1;
+
+    private static int getUnitId(Object key) {
+        Object request = key instanceof TaskWithEndpoint ? ((TaskWithEndpoint<?, ?>) key).getRequest() : null;
+        return request instanceof ModbusRequestBlueprint ? ((ModbusRequestBlueprint) request).getUnitID() : NO_UNIT_ID;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusEndpointDispatcher.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final ScheduledExecutorService executor;
+    private final LongSupplier interTransactionDelayMillis;
+    private final IntSupplier maxConcurrentOperations;
+    private final LongSupplier interFrameDelayMillis;
+    private final QueueListener queueListener;
+
+    // all below guarded by this
+    private final PriorityQueue<QueuedOperation> queue = new PriorityQueue<>();
+    private long nextSequence;
+    private boolean dispatching;
+    private @Nullable ScheduledFuture<?> dispatchFuture;
+    private long dispatchAtMillis;
+    private int executing;
+    private boolean shutdown;
+    private long lastOperationMillis = -1;
+    private final Map<Integer, Long> lastOperationMillisByUnitId = new HashMap<>();
+
+    /**
+     * Construct dispatcher for an endpoint
+     *
+     * @param endpoint endpoint of the dispatched operations
+     * @param executor executor for executing the operations
+     * @param interTransactionDelayMillis supplier for the minimum delay between operations, in milliseconds
+     * @param queueListener listener for queue statistics
+     */
+    public ModbusEndpointDispatcher(ModbusSlaveEndpoint endpoint, ScheduledExecutorService executor,
+            LongSupplier interTransactionDelayMillis, QueueListener queueListener) {
+        this(endpoint, executor, interTransactionDelayMillis, () -> 1, queueListener);
+    }
+
+    /**
+     * Construct dispatcher for an endpoint, possibly executing many operations concurrently
+     *
+     * With concurrent operations, the minimum delay between operations is measured from the start or the end of the
+     * previous operation, whichever happened last.
+     *
+     * @param endpoint endpoint of the dispatched operations
+     * @param executor executor for executing the operations
+     * @param interTransactionDelayMillis supplier for the minimum delay between operations, in milliseconds
+     * @param maxConcurrentOperations supplier for the maximum number of operations executing at the same time
+     * @param queueListener listener for queue statistics
+     */
+    public ModbusEndpointDispatcher(ModbusSlaveEndpoint endpoint, ScheduledExecutorService executor,
+            LongSupplier interTransactionDelayMillis, IntSupplier maxConcurrentOperations,
+            QueueListener queueListener) {
+        this(endpoint, executor, interTransactionDelayMillis, maxConcurrentOperations, () -> 0, queueListener);
+    }
+
+    /**
+     * Construct dispatcher for an endpoint, possibly executing operations of different unit ids back-to-back
+     *
+     * @param endpoint endpoint of the dispatched operations
+     * @param executor executor for executing the operations
+     * @param interTransactionDelayMillis supplier for the minimum delay between operations of the same unit id, in
+     *            milliseconds
+     * @param maxConcurrentOperations supplier for the maximum number of operations executing at the same time
+     * @param interFrameDelayMillis supplier for the minimum delay between operations of different unit ids, in
+     *            milliseconds. Non-positive values disable the distinction between unit ids.
+     * @param queueListener listener for queue statistics
+     */
+    public ModbusEndpointDispatcher(ModbusSlaveEndpoint endpoint, ScheduledExecutorService executor,
+            LongSupplier interTransactionDelayMillis, IntSupplier maxConcurrentOperations,
+            LongSupplier interFrameDelayMillis, QueueListener queueListener) {
+        this.endpoint = endpoint;
+        this.executor = executor;
+        this.interTransactionDelayMillis = interTransactionDelayMillis;
+        this.maxConcurrentOperations = maxConcurrentOperations;
+        this.interFrameDelayMillis = interFrameDelayMillis;
+        this.queueListener = queueListener;
+    }
+
+    /**
+     * Submit operation for execution
+     *
+     * Regular polls are queued only once: in case an operation with the same key is already waiting in the queue, the
+     * future of the queued operation is returned.
+     *
+     * @param priority priority of the operation
+     * @param key key identifying the operation, e.g. the task
+     * @param operation operation to execute
+     * @return future representing the operation. The future completes once the operation has been executed.
+     */
+    public ScheduledFuture<?> submit(Priority priority, Object key, Runnable operation) {
+        return submitAsync(priority, key, () -> {
+            operation.run();
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    /**
+     * Submit operation completing asynchronously for execution
+     *
+     * The operation is started in the executor thread, and is considered executing until the returned stage
+     * completes.
+     *
+     * @param priority priority of the operation
+     * @param key key identifying the operation, e.g. the task
+     * @param operation operation to start, returning the stage completing once the operation has been executed
+     * @return future representing the operation. The future completes once the operation has been executed.
+     * @see #submit(Priority, Object, Runnable)
+     */
+    public ScheduledFuture<?> submitAsync(Priority priority, Object key,
+            Supplier<? extends CompletionStage<?>> operation) {
+        return submitAsync(priority, key, getUnitId(key), operation);
+    }
+
+    /**
+     * Submit operation addressed to given unit id, completing asynchronously, for execution
+     *
+     * Useful when the key of the operation is not a {@link TaskWithEndpoint}, and thus does not tell the unit id.
+     *
+     * @param priority priority of the operation
+     * @param key key identifying the operation
+     * @param unitId unit id the operation is addressed to
+     * @param operation operation to start, returning the stage completing once the operation has been executed
+     * @return future representing the operation. The future completes once the operation has been executed.
+     * @see #submitAsync(Priority, Object, Supplier)
+     */
+    public ScheduledFuture<?> submitAsync(Priority priority, Object key, int unitId,
+            Supplier<? extends CompletionStage<?>> operation) {
+        synchronized (this) {
+            if (shutdown) {
+                throw new RejectedExecutionException(String.format("Dispatcher of endpoint %s is shut down", endpoint));
+            }
+            if (priority == Priority.REGULAR_POLL) {
+                for (QueuedOperation queued : queue) {
+                    if (queued.priority == Priority.REGULAR_POLL && queued.key.equals(key)) {
+                        logger.debug("Regular poll {} is still queued for endpoint {}, not queuing again", key,
+                                endpoint);
+                        return queued.future;
+                    }
+                }
+            }
+            QueuedOperation queued = new QueuedOperation(priority, nextSequence++, key, unitId, operation);
+            queue.add(queued);
+            logger.trace("Queued {} operation {} for endpoint {}. Queue size {}", priority, key, endpoint,
+                    queue.size());
+            dispatchIfIdle();
+            return queued.future;
+        }
+    }
+
+    /**
+     * Remove queued operations with the given key. Operation currently executing is not affected.
+     *
+     * @param key key identifying the operations
+     */
+    public void remove(Object key) {
+        removeIf(key::equals);
+    }
+
+    /**
+     * Remove queued operations with keys matching the filter. Operation currently executing is not affected.
+     *
+     * @param keyFilter filter for the keys of the operations to remove
+     */
+    public void removeIf(Predicate<Object> keyFilter) {
+        synchronized (this) {
+            Iterator<QueuedOperation> iterator = queue.iterator();
+            while (iterator.hasNext()) {
+                QueuedOperation queued = iterator.next();
+                if (keyFilter.test(queued.key)) {
+                    iterator.remove();
+                    queued.future.cancel(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancel all queued operations, and reject any further submissions
+     */
+    public void shutdown() {
+        synchronized (this) {
+            shutdown = true;
+            queue.forEach(queued -> queued.future.cancel(false));
+            queue.clear();
+        }
+    }
+
+    /**
+     * Get number of operations waiting in the queue
+     *
+     * @return number of queued operations
+     */
+    public int getQueueSize() {
+        synchronized (this) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * Get number of operations currently executing
+     *
+     * @return number of executing operations
+     */
+    public int getExecutingCount() {
+        synchronized (this) {
+            return executing;
+        }
+    }
+
+    /**
+     * Get how long the operation should still wait before execution
+     */
+    private long getRemainingDelayMillis(QueuedOperation operation, long now) {
+        if (lastOperationMillis < 0) {
+            return 0;
+        }
+        long frameDelay = interFrameDelayMillis.getAsLong();
+        if (frameDelay <= 0) {
+            return Math.max(0, interTransactionDelayMillis.getAsLong() - (now - lastOperationMillis));
+        }
+        // The bus needs to be silent between frames, and the slave needs the inter-transaction delay
+        long remaining = Math.max(0, frameDelay - (now - lastOperationMillis));
+        Long lastOfUnit = lastOperationMillisByUnitId.get(operation.unitId);
+        if (lastOfUnit != null) {
+            remaining = Math.max(remaining, interTransactionDelayMillis.getAsLong() - (now - lastOfUnit));
+        }
+        return remaining;
+    }
+
+    /**
+     * Get operation to execute next: the first operation in the queue or, when it needs to wait for its slave, the
+     * operation with the same priority that can be executed soonest.
+     */
+    private @Nullable QueuedOperation peekNext(long now) {
+        QueuedOperation head = queue.peek();
+        if (head == null || interFrameDelayMillis.getAsLong() <= 0) {
+            return head;
+        }
+        QueuedOperation next = head;
+        long nextDelay = getRemainingDelayMillis(head, now);
+        if (nextDelay == 0) {
+            return head;
+        }
+        // The queue iterates in no particular order, all candidates need to be compared
+        for (QueuedOperation candidate : queue) {
+            if (candidate.priority != head.priority) {
+                continue;
+            }
+            long delay = getRemainingDelayMillis(candidate, now);
+            if (delay < nextDelay || (delay == nextDelay && candidate.compareTo(next) < 0)) {
+                next = candidate;
+                nextDelay = delay;
+            }
+        }
+        return next;
+    }
+
+    private void dispatchIfIdle() {
+        if (shutdown || queue.isEmpty() || executing >= Math.max(1, maxConcurrentOperations.getAsInt())) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        QueuedOperation next = peekNext(now);
+        long delay = next == null ? 0 : getRemainingDelayMillis(next, now);
+        if (dispatching) {
+            // With packing of the operations, new operation might be executable before the dispatched one
+            ScheduledFuture<?> dispatchFuture = this.dispatchFuture;
+            if (now + delay >= dispatchAtMillis || dispatchFuture == null || !dispatchFuture.cancel(false)) {
+                return;
+            }
+        }
+        try {
+            dispatchFuture = executor.schedule(this::executeNext, delay, TimeUnit.MILLISECONDS);
+            dispatchAtMillis = now + delay;
+            dispatching = true;
+        } catch (RejectedExecutionException e) {
+            dispatching = false;
+            logger.error("Could not dispatch operations for endpoint {}: {}", endpoint, e.getMessage());
+        }
+    }
+
+    private void executeNext() {
+        QueuedOperation next;
+        int queueSize;
+        synchronized (this) {
+            dispatching = false;
+            dispatchFuture = null;
+            long now = System.currentTimeMillis();
+            next = peekNext(now);
+            if (next == null) {
+                return;
+            }
+            if (interFrameDelayMillis.getAsLong() > 0 && getRemainingDelayMillis(next, now) > 0) {
+                // Operation of the previous slave was queued after the dispatch, wait for the slave
+                dispatchIfIdle();
+                return;
+            }
+            queue.remove(next);
+            queueSize = queue.size();
+            executing++;
+            lastOperationMillis = now;
+            lastOperationMillisByUnitId.put(next.unitId, now);
+            // dispatch concurrently with this operation, if allowed
+            dispatchIfIdle();
+        }
+        CompletionStage<?> completion;
+        try {
+            if (next.future.isCancelled()) {
+                completion = CompletableFuture.completedFuture(null);
+            } else {
+                long waitMillis = System.currentTimeMillis() - next.enqueuedMillis;
+                logger.trace("Executing {} operation {} for endpoint {}, waited in queue for {} ms", next.priority,
+                        next.key, endpoint, waitMillis);
+                queueListener.onDequeue(endpoint, queueSize, waitMillis);
+                completion = next.operation.get();
+            }
+        } catch (RuntimeException e) {
+            CompletableFuture<@Nullable Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            completion = failed;
+        }
+        completion.whenComplete((result, error) -> operationCompleted(next, error));
+    }
+
+    private void operationCompleted(QueuedOperation operation, @Nullable Throwable error) {
+        try {
+            if (error == null) {
+                operation.future.complete(null);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+                logger.error("Unhandled exception when executing operation {} for endpoint {}: {} {}",
+                        operation.key, endpoint, cause.getClass().getName(), cause.getMessage(), cause);
+                operation.future.completeExceptionally(cause);
+            }
+        } finally {
+            synchronized (this) {
+                executing--;
+                lastOperationMillis = System.currentTimeMillis();
+                lastOperationMillisByUnitId.put(operation.unitId, lastOperationMillis);
+                dispatchIfIdle();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+
+/**
+ * Metrics of single endpoint, updated by the manager as operations are executed
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusEndpointMetricsImpl implements ModbusEndpointMetrics {
+
+    private final IntSupplier queueSize;
+
+    private final AtomicLong operations = new AtomicLong();
+    private final AtomicLong failedOperations = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong connectionFailures = new AtomicLong();
+    private final AtomicLong connectionInvalidations = new AtomicLong();
+    private final LatencyHistogram operationTime = new LatencyHistogram();
+    private final LatencyHistogram transactionTime = new LatencyHistogram();
+    private final LatencyHistogram connectionWaitTime = new LatencyHistogram();
+    private final LatencyHistogram queueWaitTime = new LatencyHistogram();
+
+    /**
+     * Construct metrics
+     *
+     * @param queueSize supplier of the current queue size of the endpoint
+     */
+    public ModbusEndpointMetricsImpl(IntSupplier queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    void recordOperation(long millis, boolean failed) {
+        operations.incrementAndGet();
+        if (failed) {
+            failedOperations.incrementAndGet();
+        }
+        operationTime.record(millis);
+    }
+
+    void recordTransaction(long millis) {
+        transactionTime.record(millis);
+    }
+
+    void recordRetry() {
+        retries.incrementAndGet();
+    }
+
+    void recordConnectionFailure() {
+        connectionFailures.incrementAndGet();
+    }
+
+    void recordConnectionInvalidation() {
+        connectionInvalidations.incrementAndGet();
+    }
+
+    void recordConnectionWait(long millis) {
+        connectionWaitTime.record(millis);
+    }
+
+    void recordQueueWait(long millis) {
+        queueWaitTime.record(millis);
+    }
+
+    void reset() {
+        operations.set(0);
+        failedOperations.set(0);
+        retries.set(0);
+        connectionFailures.set(0);
+        connectionInvalidations.set(0);
+        operationTime.reset();
+        transactionTime.reset();
+        connectionWaitTime.reset();
+        queueWaitTime.reset();
+    }
+
+    @Override
+    public long getOperationCount() {
+        return operations.get();
+    }
+
+    @Override
+    public long getFailedOperationCount() {
+        return failedOperations.get();
+    }
+
+    @Override
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    @Override
+    public long getConnectionFailureCount() {
+        return connectionFailures.get();
+    }
+
+    @Override
+    public long getConnectionInvalidationCount() {
+        return connectionInvalidations.get();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return queueSize.getAsInt();
+    }
+
+    @Override
+    public LatencyHistogram getOperationTime() {
+        return operationTime;
+    }
+
+    @Override
+    public LatencyHistogram getTransactionTime() {
+        return transactionTime;
+    }
+
+    @Override
+    public LatencyHistogram getConnectionWaitTime() {
+        return connectionWaitTime;
+    }
+
+    @Override
+    public LatencyHistogram getQueueWaitTime() {
+        return queueWaitTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "operations=%d, failed=%d, retries=%d, connectionFailures=%d, invalidations=%d, queueSize=%d",
+                getOperationCount(), getFailedOperationCount(), getRetryCount(), getConnectionFailureCount(),
+                getConnectionInvalidationCount(), getQueueSize());
+    }
+}
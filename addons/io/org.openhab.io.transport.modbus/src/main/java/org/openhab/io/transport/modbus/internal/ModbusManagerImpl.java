@@ -10,20 +10,29 @@ package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 import javax.imageio.IIOException;
 
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.pool2.KeyedObjectPool;
 import org.apache.commons.pool2.SwallowedExceptionListener;
 import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
@@ -31,11 +40,15 @@ import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.openhab.io.transport.modbus.AdaptivePollListener;
 import org.openhab.io.transport.modbus.ModbusCallback;
 import org.openhab.io.transport.modbus.ModbusConnectionException;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
+import org.openhab.io.transport.modbus.ModbusMetricsService;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
 import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusUnexpectedTransactionIdException;
@@ -45,11 +58,15 @@ import org.openhab.io.transport.modbus.PollTask;
 import org.openhab.io.transport.modbus.TaskWithEndpoint;
 import org.openhab.io.transport.modbus.WriteTask;
 import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
+import org.openhab.io.transport.modbus.endpoint.ModbusIPSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusSerialSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpointVisitor;
 import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusUDPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.ModbusEndpointDispatcher.Priority;
+import org.openhab.io.transport.modbus.internal.nio.ModbusNioConnection;
+import org.openhab.io.transport.modbus.internal.pooling.ModbusConnectionDelayedException;
 import org.openhab.io.transport.modbus.internal.pooling.ModbusSlaveConnectionFactoryImpl;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -73,11 +90,25 @@ import net.wimpi.modbus.net.ModbusSlaveConnection;
  * important with serial slaves but practice has shown that even many tcp slaves have limited
  * capability to handle many connections at the same time
  *
+ * Operations are queued per endpoint using {@link ModbusEndpointDispatcher}. Writes are executed before one-off polls,
+ * and one-off polls before regular polls. This way threads are not blocked waiting for a busy endpoint.
+ *
+ * Modbus/TCP endpoints can be configured to pipeline transactions (see
+ * {@link EndpointPoolConfiguration#getMaxPipelinedTransactions()}). With pipelined endpoints the connection pool is
+ * bypassed, and operations share a single {@link ModbusTCPPipelinedConnection} instead.
+ *
+ * Modbus/TCP and Modbus/UDP endpoints can be configured to use non-blocking I/O (see
+ * {@link EndpointPoolConfiguration#isNonBlockingIO()}). Such endpoints bypass the connection pool as well, and
+ * operations share a single {@link ModbusNioConnection}. The transactions are executed asynchronously, and the
+ * operation continues in the executor once the response has been received. This way no thread is held while waiting
+ * for the slave.
+ *
  * @author Sami Salonen - Initial contribution
  */
-@Component(service = ModbusManager.class, immediate = true, configurationPid = "transport.modbus")
+@Component(service = { ModbusManager.class,
+        ModbusMetricsService.class }, immediate = true, configurationPid = "transport.modbus")
 @NonNullByDefault
-public class ModbusManagerImpl implements ModbusManager {
+public class ModbusManagerImpl implements ModbusManager, ModbusMetricsService {
 
     static class PollTaskUnregistered extends Exception {
         public PollTaskUnregistered(String msg) {
@@ -87,7 +118,126 @@ public class ModbusManagerImpl implements ModbusManager {
         private static final long serialVersionUID = 6939730579178506885L;
     }
 
-    @FunctionalInterface
+    /**
+     * Key identifying regular polls that can be coalesced together: same endpoint, unit id, function code and poll
+     * period
+     *
+     * @author agent - Initial contribution
+     *
+     */
+    private static class PollGroupKey {
+        private final ModbusSlaveEndpoint endpoint;
+        private final int unitId;
+        private final ModbusReadFunctionCode functionCode;
+        private final long pollPeriodMillis;
+
+        public PollGroupKey(PollTask task, long pollPeriodMillis) {
+            this.endpoint = task.getEndpoint();
+            this.unitId = task.getRequest().getUnitID();
+            this.functionCode = task.getRequest().getFunctionCode();
+            this.pollPeriodMillis = pollPeriodMillis;
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder(31, 7).append(endpoint).append(unitId).append(functionCode)
+                    .append(pollPeriodMillis).toHashCode();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == null) {
+                return false;
+            }
+            if (obj == this) {
+                return true;
+            }
+            if (obj.getClass() != getClass()) {
+                return false;
+            }
+            PollGroupKey rhs = (PollGroupKey) obj;
+            return new EqualsBuilder().append(endpoint, rhs.endpoint).append(unitId, rhs.unitId)
+                    .append(functionCode, rhs.functionCode).append(pollPeriodMillis, rhs.pollPeriodMillis)
+                    .isEquals();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PollGroupKey(endpoint=%s, unitId=%d, functionCode=%s, pollPeriodMillis=%d)",
+                    endpoint, unitId, functionCode, pollPeriodMillis);
+        }
+    }
+
+    /**
+     * Key of a queued read of a coalesced poll group, identifying the read by its index in the plan of the group.
+     *
+     * The key stays the same when the group is replanned, so that each read is queued only once, and queued reads can
+     * be removed when poll tasks leave the group. The read executes the request planned at the index when it is taken
+     * from the queue.
+     *
+     * @author agent - Initial contribution
+     *
+     */
+    private static class PlannedPollKey {
+        private final PollGroupKey group;
+        private final int index;
+
+        public PlannedPollKey(PollGroupKey group, int index) {
+            this.group = group;
+            this.index = index;
+        }
+
+        /**
+         * Whether the read belongs to the group, but is no longer part of the plan of given size
+         */
+        private boolean isObsolete(PollGroupKey group, int planSize) {
+            return this.group.equals(group) && index >= planSize;
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder(37, 11).append(group).append(index).toHashCode();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == null) {
+                return false;
+            }
+            if (obj == this) {
+                return true;
+            }
+            if (obj.getClass() != getClass()) {
+                return false;
+            }
+            PlannedPollKey rhs = (PlannedPollKey) obj;
+            return new EqualsBuilder().append(group, rhs.group).append(index, rhs.index).isEquals();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PlannedPollKey(group=%s, index=%d)", group, index);
+        }
+    }
+
+    /**
+     * Regular polls sharing the same schedule. The poll tasks are merged to as few read requests as possible using
+     * {@link PollTaskCoalescer}.
+     *
+     * @author agent - Initial contribution
+     *
+     */
+    private static class PollGroup {
+        private final Set<PollTask> members = new CopyOnWriteArraySet<>();
+        private volatile List<PollTask> plan = Collections.emptyList();
+        @Nullable
+        private volatile ScheduledFuture<?> future;
+
+        private void replan(Predicate<PollTask> registered) {
+            plan = PollTaskCoalescer.plan(members, registered);
+        }
+    }
+
     private interface ModbusOperation<T> {
 
         /**
@@ -104,6 +254,27 @@ public class ModbusManagerImpl implements ModbusManager {
         public void accept(AggregateStopWatch timer, T task, ModbusSlaveConnection connection)
                 throws ModbusException, IIOException, ModbusUnexpectedTransactionIdException;
 
+        /**
+         * Create the request of the modbus library for the task
+         *
+         * @param task task to execute
+         * @return request to execute
+         */
+        public ModbusRequest createRequest(T task);
+
+        /**
+         * Handle the response of the request, calling the callback of the task
+         *
+         * @param timer aggregate stop watch for performance profiling
+         * @param task executed task
+         * @param libRequest executed request
+         * @param response response of the request
+         * @throws ModbusUnexpectedTransactionIdException when transaction IDs of the request and response do not
+         *             match
+         */
+        public void onResponse(AggregateStopWatch timer, T task, ModbusRequest libRequest, ModbusResponse response)
+                throws ModbusUnexpectedTransactionIdException;
+
     }
 
     /**
@@ -130,6 +301,34 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Execute the request using the connection, and return the response
+     *
+     * Pipelined connections match the response using the transaction id, other connections use a fresh transaction of
+     * the modbus library.
+     *
+     * @param timer aggregate stop watch for performance profiling
+     * @param endpoint endpoint of the request
+     * @param connection connection to use
+     * @param libRequest request to execute
+     * @return response
+     * @throws ModbusException on I/O errors and slave exception responses
+     */
+    private ModbusResponse executeTransaction(AggregateStopWatch timer, ModbusSlaveEndpoint endpoint,
+            ModbusSlaveConnection connection, ModbusRequest libRequest) throws ModbusException {
+        if (connection instanceof ModbusTCPPipelinedConnection) {
+            ModbusTCPPipelinedConnection pipelinedConnection = (ModbusTCPPipelinedConnection) connection;
+            AtomicReference<@Nullable ModbusResponse> response = new AtomicReference<>();
+            timer.transaction
+                    .timeRunnableWithModbusException(() -> response.set(pipelinedConnection.execute(libRequest)));
+            return Objects.requireNonNull(response.get());
+        }
+        ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
+        transaction.setRequest(libRequest);
+        timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
+        return transaction.getResponse();
+    }
+
     /**
      * Implementation for the PollTask operation
      *
@@ -142,19 +341,29 @@ public class ModbusManagerImpl implements ModbusManager {
                 throws ModbusException, ModbusUnexpectedTransactionIdException {
             ModbusSlaveEndpoint endpoint = task.getEndpoint();
             ModbusReadRequestBlueprint request = task.getRequest();
-            ModbusReadCallback callback = task.getCallback();
             String operationId = timer.operationId;
 
-            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
-            ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
-            transaction.setRequest(libRequest);
+            ModbusRequest libRequest = createRequest(task);
 
             logger.trace("Going execute transaction with request request (FC={}): {} [operation ID {}]",
                     request.getFunctionCode(), libRequest.getHexMessage(), operationId);
             // Might throw ModbusIOException (I/O error) or ModbusSlaveException (explicit exception response from
             // slave)
-            timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
-            ModbusResponse response = transaction.getResponse();
+            ModbusResponse response = executeTransaction(timer, endpoint, connection, libRequest);
+            onResponse(timer, task, libRequest, response);
+        }
+
+        @Override
+        public ModbusRequest createRequest(PollTask task) {
+            return ModbusLibraryWrapper.createRequest(task.getRequest());
+        }
+
+        @Override
+        public void onResponse(AggregateStopWatch timer, PollTask task, ModbusRequest libRequest,
+                ModbusResponse response) throws ModbusUnexpectedTransactionIdException {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            ModbusReadCallback callback = task.getCallback();
+            String operationId = timer.operationId;
             logger.trace("Response for read request (FC={}, transaction ID={}): {} [operation ID {}]",
                     response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
             checkTransactionId(response, libRequest, task, operationId);
@@ -177,20 +386,30 @@ public class ModbusManagerImpl implements ModbusManager {
                 throws ModbusException, ModbusUnexpectedTransactionIdException {
             ModbusSlaveEndpoint endpoint = task.getEndpoint();
             ModbusWriteRequestBlueprint request = task.getRequest();
-            ModbusWriteCallback callback = task.getCallback();
             String operationId = timer.operationId;
 
-            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
-            ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
-            transaction.setRequest(libRequest);
+            ModbusRequest libRequest = createRequest(task);
 
             logger.trace("Going execute transaction with read request (FC={}): {} [operation ID {}]",
                     request.getFunctionCode(), libRequest.getHexMessage(), operationId);
 
             // Might throw ModbusIOException (I/O error) or ModbusSlaveException (explicit exception response from
             // slave)
-            timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
-            ModbusResponse response = transaction.getResponse();
+            ModbusResponse response = executeTransaction(timer, endpoint, connection, libRequest);
+            onResponse(timer, task, libRequest, response);
+        }
+
+        @Override
+        public ModbusRequest createRequest(WriteTask task) {
+            return ModbusLibraryWrapper.createRequest(task.getRequest());
+        }
+
+        @Override
+        public void onResponse(AggregateStopWatch timer, WriteTask task, ModbusRequest libRequest,
+                ModbusResponse response) throws ModbusUnexpectedTransactionIdException {
+            ModbusWriteRequestBlueprint request = task.getRequest();
+            ModbusWriteCallback callback = task.getCallback();
+            String operationId = timer.operationId;
             logger.trace("Response for write request (FC={}, transaction ID={}): {} [operation ID {}]",
                     response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
 
@@ -202,6 +421,220 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Operation executed using the non-blocking connection of the endpoint, with the same retry mechanism as
+     * {@link PooledOperation}.
+     *
+     * Each try starts the transaction, and the operation continues in the executor once the response has been
+     * received or the transaction has failed. Retries are scheduled with the executor, instead of sleeping in a thread.
+     *
+     * @author agent - Initial contribution
+     *
+     */
+    private class NonBlockingOperation<R extends ModbusRequestBlueprint, C extends ModbusCallback, T extends TaskWithEndpoint<R, C>> {
+        private final AggregateStopWatch timer = new AggregateStopWatch();
+        private final T task;
+        private final boolean oneOffTask;
+        private final ModbusOperation<T> operation;
+        private final ModbusEndpointMetricsImpl endpointMetrics;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        // Tries are executed one after another, each continuing the previous one
+        private int tryIndex;
+
+        public NonBlockingOperation(T task, boolean oneOffTask, ModbusOperation<T> operation) {
+            this.task = task;
+            this.oneOffTask = oneOffTask;
+            this.operation = operation;
+            this.endpointMetrics = getMetrics(task.getEndpoint());
+        }
+
+        /**
+         * Start the operation
+         *
+         * @return future completing with whether the operation succeeded
+         */
+        public CompletableFuture<Boolean> start() {
+            if (task.getMaxTries() <= 0) {
+                throw new IllegalArgumentException("maxTries should be positive");
+            }
+            timer.total.resume();
+            logTaskQueueInfo();
+            try {
+                tryNext();
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+            return result;
+        }
+
+        private void tryNext() {
+            String operationId = timer.operationId;
+            ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+            ModbusNioConnection connection = getNioConnection(task.getEndpoint());
+            if (executor == null || connection == null) {
+                logger.debug("Manager has been shut down, aborting processing request {} [operation ID {}]",
+                        task.getRequest(), operationId);
+                finish(false);
+                return;
+            }
+            // Check poll task is still registered (this is all asynchronous)
+            if (!oneOffTask && task instanceof PollTask) {
+                try {
+                    verifyTaskIsRegistered((PollTask) task);
+                } catch (PollTaskUnregistered e) {
+                    logger.warn(
+                            "Poll task was unregistered -- not executing/proceeding with the poll: {} [operation ID {}]",
+                            e.getMessage(), operationId);
+                    finish(false);
+                    return;
+                }
+            }
+            tryIndex++;
+            if (tryIndex > 1) {
+                endpointMetrics.recordRetry();
+            }
+            logger.trace("Try {} out of {} [operation ID {}]", tryIndex, task.getMaxTries(), operationId);
+            if (connection.isConnected()) {
+                startTransaction(executor, connection);
+                return;
+            }
+            long connectStart = System.currentTimeMillis();
+            timer.connection.resume();
+            continueWith(connection.connectAsync(), executor, (ignored, error) -> {
+                timer.connection.suspend();
+                endpointMetrics.recordConnectionWait(System.currentTimeMillis() - connectStart);
+                if (error == null) {
+                    startTransaction(executor, connection);
+                } else {
+                    onConnectionFailure(unwrap(error));
+                }
+            });
+        }
+
+        private void startTransaction(ScheduledExecutorService executor, ModbusNioConnection connection) {
+            ModbusRequest libRequest = operation.createRequest(task);
+            logger.trace("Going execute non-blocking transaction with request (FC={}): {} [operation ID {}]",
+                    libRequest.getFunctionCode(), libRequest.getHexMessage(), timer.operationId);
+            long tryStart = System.currentTimeMillis();
+            timer.transaction.resume();
+            continueWith(connection.executeAsync(libRequest), executor, (response, error) -> {
+                timer.transaction.suspend();
+                endpointMetrics.recordTransaction(System.currentTimeMillis() - tryStart);
+                if (error != null) {
+                    onTryFailed(executor, unwrap(error));
+                    return;
+                }
+                try {
+                    operation.onResponse(timer, task, libRequest, response);
+                } catch (ModbusUnexpectedTransactionIdException e) {
+                    onTryFailed(executor, e);
+                    return;
+                }
+                finish(true);
+            });
+        }
+
+        private void onConnectionFailure(Throwable error) {
+            ModbusSlaveEndpoint endpoint = task.getEndpoint();
+            R request = task.getRequest();
+            @Nullable
+            C callback = task.getCallback();
+            endpointMetrics.recordConnectionFailure();
+            logger.warn("Could not connect to endpoint {} -- aborting request {}. Error was: {} {} [operation ID {}]",
+                    endpoint, request, error.getClass().getName(), error.getMessage(), timer.operationId);
+            if (callback != null) {
+                timer.callback.timeRunnable(
+                        () -> invokeCallbackWithError(request, callback, new ModbusConnectionException(endpoint)));
+            }
+            finish(false);
+        }
+
+        private void onTryFailed(ScheduledExecutorService executor, Throwable error) {
+            if (!(error instanceof Exception)) {
+                fail(error);
+                return;
+            }
+            R request = task.getRequest();
+            @Nullable
+            C callback = task.getCallback();
+            int maxTries = task.getMaxTries();
+            String operationId = timer.operationId;
+            Exception lastError;
+            if (error instanceof ModbusSlaveException) {
+                lastError = new ModbusSlaveErrorResponseExceptionImpl((ModbusSlaveException) error);
+            } else if (error instanceof ModbusIOException) {
+                lastError = new ModbusSlaveIOExceptionImpl((ModbusIOException) error);
+            } else {
+                lastError = (Exception) error;
+            }
+            // The connection is shared by other operations, and closes itself on I/O errors. Other errors (e.g.
+            // timeout with single transaction) do not warrant disconnecting the other outstanding transactions.
+            if (tryIndex < maxTries) {
+                logger.warn(
+                        "Try {} out of {} failed when executing request ({}). Will try again soon. Error was: {} {} [operation ID {}]",
+                        tryIndex, maxTries, request, error.getClass().getName(), error.getMessage(), operationId);
+                long retryDelay = getInterTransactionDelayMillis(task.getEndpoint());
+                try {
+                    executor.schedule(() -> {
+                        try {
+                            tryNext();
+                        } catch (RuntimeException e) {
+                            fail(e);
+                        }
+                    }, retryDelay, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    logger.debug("Could not schedule retry of request {}, manager has been shut down", request);
+                    finish(false);
+                }
+                return;
+            }
+            logger.error("Last try {} failed when executing request ({}). Aborting. Error was: {} {} [operation ID {}]",
+                    tryIndex, request, error.getClass().getName(), error.getMessage(), operationId);
+            if (callback != null) {
+                timer.callback.timeRunnable(() -> invokeCallbackWithError(request, callback, lastError));
+            }
+            finish(false);
+        }
+
+        /**
+         * Continue the operation in the executor once the future has completed
+         */
+        private <V> void continueWith(CompletableFuture<V> future, ScheduledExecutorService executor,
+                BiConsumer<V, @Nullable Throwable> step) {
+            future.whenCompleteAsync((value, error) -> {
+                try {
+                    if (scheduledThreadPoolExecutor == null) {
+                        logger.debug("Manager has been shut down, aborting processing request {} [operation ID {}]",
+                                task.getRequest(), timer.operationId);
+                        finish(false);
+                        return;
+                    }
+                    step.accept(value, error);
+                } catch (RuntimeException e) {
+                    fail(e);
+                }
+            }, executor);
+        }
+
+        private Throwable unwrap(Throwable error) {
+            Throwable cause = error.getCause();
+            return error instanceof CompletionException && cause != null ? cause : error;
+        }
+
+        private void finish(boolean succeeded) {
+            timer.suspendAllRunning();
+            endpointMetrics.recordOperation(timer.total.getTotalTimeMillis(), !succeeded);
+            logger.debug("Modbus operation ended, timing info: {} [operation ID {}]", timer, timer.operationId);
+            result.complete(succeeded);
+        }
+
+        private void fail(Throwable error) {
+            timer.suspendAllRunning();
+            endpointMetrics.recordOperation(timer.total.getTotalTimeMillis(), true);
+            result.completeExceptionally(error);
+        }
+    }
+
     private final Logger logger = LoggerFactory.getLogger(ModbusManagerImpl.class);
     private final Logger pollMonitorLogger = LoggerFactory
             .getLogger(ModbusManagerImpl.class.getName() + ".PollMonitor");
@@ -264,6 +697,26 @@ public class ModbusManagerImpl implements ModbusManager {
     @Nullable
     private volatile ModbusSlaveConnectionFactoryImpl connectionFactory;
     private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    /**
+     * Coalesced regular polls, see {@link EndpointPoolConfiguration#isCoalescePolls()}
+     */
+    private volatile Map<PollGroupKey, PollGroup> pollGroups = new ConcurrentHashMap<>();
+    /**
+     * Dispatchers executing the operations of each endpoint one at a time
+     */
+    private volatile Map<ModbusSlaveEndpoint, ModbusEndpointDispatcher> dispatchers = new ConcurrentHashMap<>();
+    /**
+     * Shared connections of pipelined endpoints, see {@link EndpointPoolConfiguration#getMaxPipelinedTransactions()}
+     */
+    private volatile Map<ModbusSlaveEndpoint, ModbusTCPPipelinedConnection> pipelinedConnections = new ConcurrentHashMap<>();
+    /**
+     * Shared connections of endpoints using non-blocking I/O, see {@link EndpointPoolConfiguration#isNonBlockingIO()}
+     */
+    private volatile Map<ModbusSlaveEndpoint, ModbusNioConnection> nioConnections = new ConcurrentHashMap<>();
+    /**
+     * Metrics of each endpoint
+     */
+    private final Map<ModbusSlaveEndpoint, ModbusEndpointMetricsImpl> metrics = new ConcurrentHashMap<>();
     /**
      * Executor for requests
      */
@@ -323,7 +776,8 @@ public class ModbusManagerImpl implements ModbusManager {
         this.connectionFactory = connectionFactory;
     }
 
-    private Optional<ModbusSlaveConnection> borrowConnection(ModbusSlaveEndpoint endpoint) {
+    private Optional<ModbusSlaveConnection> borrowConnection(ModbusSlaveEndpoint endpoint)
+            throws ModbusConnectionDelayedException {
         Optional<ModbusSlaveConnection> connection = Optional.empty();
         KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> pool = connectionPool;
         if (pool == null) {
@@ -333,6 +787,11 @@ public class ModbusManagerImpl implements ModbusManager {
         try {
             connection = Optional.ofNullable(pool.borrowObject(endpoint));
         } catch (Exception e) {
+            // The pool wraps the exceptions of activation
+            Throwable cause = e.getCause();
+            if (cause instanceof ModbusConnectionDelayedException) {
+                throw (ModbusConnectionDelayedException) cause;
+            }
             logger.warn("Error getting a new connection for endpoint {}. Error was: {} {}", endpoint,
                     e.getClass().getName(), e.getMessage());
         }
@@ -345,18 +804,48 @@ public class ModbusManagerImpl implements ModbusManager {
                 connection = Optional.empty();
             }
         }
-        logger.trace("borrowing connection (got {}) for endpoint {} took {} ms", connection, endpoint,
-                System.currentTimeMillis() - start);
+        long borrowMillis = System.currentTimeMillis() - start;
+        getMetrics(endpoint).recordConnectionWait(borrowMillis);
+        logger.trace("borrowing connection (got {}) for endpoint {} took {} ms", connection, endpoint, borrowMillis);
         return connection;
     }
 
+    private Optional<ModbusSlaveConnection> connectPipelined(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl factory = this.connectionFactory;
+        if (factory == null) {
+            return Optional.empty();
+        }
+        ModbusTCPPipelinedConnection connection = pipelinedConnections.computeIfAbsent(endpoint, e -> {
+            EndpointPoolConfiguration configuration = factory.getEndpointPoolConfiguration(e);
+            int connectTimeoutMillis = configuration == null ? 0 : configuration.getConnectTimeoutMillis();
+            int responseTimeoutMillis = configuration == null ? Modbus.DEFAULT_TIMEOUT
+                    : configuration.getResponseTimeoutMillis();
+            return new ModbusTCPPipelinedConnection((ModbusTCPSlaveEndpoint) e, connectTimeoutMillis,
+                    responseTimeoutMillis);
+        });
+        try {
+            connection.connect();
+        } catch (Exception e) {
+            logger.warn("Error connecting pipelined connection for endpoint {}. Error was: {} {}", endpoint,
+                    e.getClass().getName(), e.getMessage());
+            return Optional.empty();
+        }
+        return Optional.of(connection);
+    }
+
     private void invalidate(ModbusSlaveEndpoint endpoint, Optional<ModbusSlaveConnection> connection) {
         KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> pool = connectionPool;
         if (pool == null) {
             return;
         }
+        if (connection.filter(con -> con instanceof ModbusTCPPipelinedConnection).isPresent()) {
+            // Shared by other operations, and closes itself on I/O errors. Other errors (e.g. timeout with single
+            // transaction) do not warrant disconnecting the other outstanding transactions.
+            return;
+        }
         long start = System.currentTimeMillis();
         connection.ifPresent(con -> {
+            getMetrics(endpoint).recordConnectionInvalidation();
             try {
                 pool.invalidateObject(endpoint, con);
             } catch (Exception e) {
@@ -373,6 +862,10 @@ public class ModbusManagerImpl implements ModbusManager {
         if (pool == null) {
             return;
         }
+        if (connection.filter(con -> con instanceof ModbusTCPPipelinedConnection).isPresent()) {
+            // Not borrowed from the pool, kept open for other operations
+            return;
+        }
         long start = System.currentTimeMillis();
         connection.ifPresent(con -> {
             try {
@@ -389,17 +882,15 @@ public class ModbusManagerImpl implements ModbusManager {
     /**
      * Establishes connection to the endpoint specified by the task
      *
-     * In case connection cannot be established, callback is called with {@link ModbusConnectionException}
-     *
-     * @param operationId id appened to log messages for identifying the operation
+     * @param timer aggregate stop watch for performance profiling
      * @param oneOffTask whether this is one-off, or execution of previously scheduled poll
      * @param task task representing the read or write operation
      * @return {@link ModbusSlaveConnection} to the endpoint as specified by the task, or empty {@link Optional} when
      *         connection cannot be established
-     * @throws PollTaskUnregistered
+     * @throws ModbusConnectionDelayedException when the connection can be attempted only later
      */
     private <R extends ModbusRequestBlueprint, C extends ModbusCallback, T extends TaskWithEndpoint<R, C>> Optional<ModbusSlaveConnection> getConnection(
-            AggregateStopWatch timer, boolean oneOffTask, @NonNull T task) throws PollTaskUnregistered {
+            AggregateStopWatch timer, boolean oneOffTask, @NonNull T task) throws ModbusConnectionDelayedException {
         KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> connectionPool = this.connectionPool;
         if (connectionPool == null) {
             return Optional.empty();
@@ -410,11 +901,15 @@ public class ModbusManagerImpl implements ModbusManager {
                 task, oneOffTask, connectionPool.getNumIdle(task.getEndpoint()),
                 connectionPool.getNumActive(task.getEndpoint()), operationId);
         long connectionBorrowStart = System.currentTimeMillis();
-        ModbusCallback callback = task.getCallback();
         ModbusSlaveEndpoint endpoint = task.getEndpoint();
 
-        ModbusRequestBlueprint request = task.getRequest();
-        Optional<ModbusSlaveConnection> connection = timer.connection.timeSupplier(() -> borrowConnection(endpoint));
+        Optional<ModbusSlaveConnection> connection;
+        timer.connection.resume();
+        try {
+            connection = isPipelined(endpoint) ? connectPipelined(endpoint) : borrowConnection(endpoint);
+        } finally {
+            timer.connection.suspend();
+        }
         logger.trace("Executing task {} (oneOff={})! Connection received in {} ms [operation ID {}]", task, oneOffTask,
                 System.currentTimeMillis() - connectionBorrowStart, operationId);
         if (scheduledThreadPoolExecutor == null) {
@@ -423,12 +918,7 @@ public class ModbusManagerImpl implements ModbusManager {
             return Optional.empty();
         }
         if (!connection.isPresent()) {
-            logger.warn("Could not connect to endpoint {} -- aborting request {} [operation ID {}]", endpoint, request,
-                    operationId);
-            if (callback != null) {
-                timer.callback.timeRunnable(
-                        () -> invokeCallbackWithError(request, callback, new ModbusConnectionException(endpoint)));
-            }
+            getMetrics(endpoint).recordConnectionFailure();
         }
         return connection;
     }
@@ -464,7 +954,14 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     private void verifyTaskIsRegistered(PollTask task) throws PollTaskUnregistered {
-        if (!this.scheduledPollTasks.containsKey(task)) {
+        boolean registered;
+        if (task instanceof CoalescedPollTask) {
+            // Keep on polling as long as some of the merged poll tasks is registered
+            registered = ((CoalescedPollTask) task).getMembers().stream().anyMatch(scheduledPollTasks::containsKey);
+        } else {
+            registered = this.scheduledPollTasks.containsKey(task);
+        }
+        if (!registered) {
             String msg = String.format("Poll task %s is unregistered", task);
             logger.debug(msg);
             throw new PollTaskUnregistered(msg);
@@ -472,232 +969,329 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     /**
-     * Execute operation using a retry mechanism.
+     * Operation executed with a pooled (or pipelined) connection of the endpoint, using a retry mechanism.
      *
-     * This is a helper function for executing read and write operations and handling the exceptions in a common way.
+     * This is a helper for executing read and write operations and handling the exceptions in a common way.
      *
      * With some connection types, the connection is reseted (disconnected), and new connection is received from the
-     * pool. This means that potentially other operations queuing for the connection can be executed in-between.
+     * pool. With some other connection types, the operation is retried without reseting the connection type.
      *
-     * With some other connection types, the operation is retried without reseting the connection type.
+     * Tries are executed one after another in the calling thread, until the next try would need to wait: for the
+     * delay between the tries, or for the delay between connection attempts. The connection is then returned to the
+     * pool, and the operation continues later in the executor, instead of sleeping in a thread. The dispatcher of the
+     * endpoint considers the operation executing until it has completed, so other operations of the endpoint are not
+     * executed in between.
+     *
+     * @author agent - Initial contribution
      *
-     * @param task
-     * @param oneOffTask
-     * @param operation
      */
-    private <R extends ModbusRequestBlueprint, C extends ModbusCallback, T extends TaskWithEndpoint<R, C>> void executeOperation(
-            @NonNull T task, boolean oneOffTask, ModbusOperation<T> operation) {
-        AggregateStopWatch timer = new AggregateStopWatch();
-        timer.total.resume();
-        String operationId = timer.operationId;
-
-        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
-        if (connectionFactory == null) {
-            // deactivated manager
-            logger.trace("Deactivated manager - aborting operation.");
-            return;
+    private class PooledOperation<R extends ModbusRequestBlueprint, C extends ModbusCallback, T extends TaskWithEndpoint<R, C>> {
+        private static final long DONE = -1;
+
+        private final AggregateStopWatch timer = new AggregateStopWatch();
+        private final T task;
+        private final boolean oneOffTask;
+        private final ModbusOperation<T> operation;
+        private final ModbusEndpointMetricsImpl endpointMetrics;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        // Executions continue one after another, each continuing the previous one
+        private int tryIndex;
+        private int connectTries;
+        private @Nullable Long lastTryMillis;
+        private @Nullable Exception lastError;
+
+        public PooledOperation(T task, boolean oneOffTask, ModbusOperation<T> operation) {
+            this.task = task;
+            this.oneOffTask = oneOffTask;
+            this.operation = operation;
+            this.endpointMetrics = getMetrics(task.getEndpoint());
         }
 
-        logTaskQueueInfo();
-        R request = task.getRequest();
-        ModbusSlaveEndpoint endpoint = task.getEndpoint();
-        @Nullable
-        C callback = task.getCallback();
-        int maxTries = task.getMaxTries();
-        AtomicReference<@Nullable Exception> lastError = new AtomicReference<>();
-        long retryDelay = Optional.ofNullable(connectionFactory.getEndpointPoolConfiguration(endpoint))
-                .map(cfg -> cfg.getInterTransactionDelayMillis()).orElse(0L);
-
-        if (maxTries <= 0) {
-            throw new IllegalArgumentException("maxTries should be positive");
+        /**
+         * Start the operation
+         *
+         * @return future completing with whether the operation succeeded
+         */
+        public CompletableFuture<Boolean> start() {
+            if (task.getMaxTries() <= 0) {
+                throw new IllegalArgumentException("maxTries should be positive");
+            }
+            timer.total.resume();
+            logTaskQueueInfo();
+            execute();
+            return result;
         }
 
-        Optional<ModbusSlaveConnection> connection = Optional.empty();
-        try {
-            logger.trace("Starting new operation with task {}. Trying to get connection [operation ID {}]", task,
-                    operationId);
-            connection = getConnection(timer, oneOffTask, task);
-            logger.trace("Operation with task {}. Got a connection {} [operation ID {}]", task,
-                    connection.isPresent() ? "successfully" : "which was unconnected (connection issue)", operationId);
-            if (!connection.isPresent()) {
-                // Could not acquire connection, time to abort
-                // Error logged already, error callback called as well
-                logger.trace("Initial connection was not successful, aborting. [operation ID {}]", operationId);
+        private void execute() {
+            long delay;
+            try {
+                delay = executeTries();
+            } catch (RuntimeException e) {
+                timer.suspendAllRunning();
+                endpointMetrics.recordOperation(timer.total.getTotalTimeMillis(), true);
+                result.completeExceptionally(e);
                 return;
             }
-
-            if (scheduledThreadPoolExecutor == null) {
-                logger.debug("Manager has been shut down, aborting proecssing request {} [operation ID {}]", request,
-                        operationId);
+            if (delay == DONE) {
+                return;
+            }
+            ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+            if (executor == null) {
+                logger.debug("Manager has been shut down, aborting processing request {} [operation ID {}]",
+                        task.getRequest(), timer.operationId);
+                finish(false);
                 return;
             }
+            logger.trace("Continuing operation in {} ms [operation ID {}]", delay, timer.operationId);
+            try {
+                executor.schedule(this::execute, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Could not schedule retry of request {}, manager has been shut down", task.getRequest());
+                finish(false);
+            }
+        }
 
-            int tryIndex = 0;
-            /**
-             * last execution is tracked such that the endpoint is not spammed on retry. First retry can be executed
-             * right away since getConnection ensures enough time has passed since last transaction. More precisely,
-             * ModbusSlaveConnectionFactoryImpl sleeps on activate() (i.e. before returning connection).
-             */
-            @Nullable
-            Long lastTryMillis = null;
-            while (tryIndex < maxTries) {
-                logger.trace("Try {} out of {} [operation ID {}]", tryIndex + 1, maxTries, operationId);
-                if (!connection.isPresent()) {
-                    // Connection was likely reseted with previous try, and connection was not successfully
-                    // re-established. Error has been logged, time to abort.
-                    logger.trace("Try {} out of {}. Connection was not successful, aborting. [operation ID {}]",
-                            tryIndex + 1, maxTries, operationId);
-                    return;
-                }
-                if (Thread.interrupted()) {
-                    logger.warn("Thread interrupted. Aborting operation [operation ID {}]", operationId);
-                    return;
-                }
-                // Check poll task is still registered (this is all asynchronous)
-                if (!oneOffTask && task instanceof PollTask) {
-                    verifyTaskIsRegistered((PollTask) task);
-                }
-                // Let's ensure that enough time is between the retries
-                logger.trace(
-                        "Ensuring that enough time passes before retrying again. Sleeping if necessary [operation ID {}]",
-                        operationId);
-                long slept = ModbusSlaveConnectionFactoryImpl.waitAtleast(lastTryMillis, retryDelay);
-                logger.trace("Sleep ended, slept {} [operation ID {}]", slept, operationId);
+        private void setLastError(@Nullable Exception error) {
+            lastError = error;
+        }
 
-                boolean willRetry = false;
-                try {
-                    tryIndex++;
-                    willRetry = tryIndex < maxTries;
-                    operation.accept(timer, task, connection.get());
-                    lastError.set(null);
-                    break;
-                } catch (IOException e) {
-                    lastError.set(new ModbusSlaveIOExceptionImpl(e));
-                    // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
-                    // broken pipe on write)
-                    if (willRetry) {
-                        logger.warn(
-                                "Try {} out of {} failed when executing request ({}). Will try again soon. Error was I/O error, so reseting the connection. Error details: {} {} [operation ID {}]",
-                                tryIndex, maxTries, request, e.getClass().getName(), e.getMessage(), operationId);
-                    } else {
-                        logger.error(
-                                "Last try {} failed when executing request ({}). Aborting. Error was I/O error, so reseting the connection. Error details: {} {} [operation ID {}]",
-                                tryIndex, request, e.getClass().getName(), e.getMessage(), operationId);
+        /**
+         * Execute the tries until the operation has finished, or the next try needs to wait
+         *
+         * @return milliseconds to wait before executing again, or {@link #DONE} when the operation has finished
+         */
+        private long executeTries() {
+            String operationId = timer.operationId;
+            ModbusSlaveConnectionFactoryImpl connectionFactory = ModbusManagerImpl.this.connectionFactory;
+            if (connectionFactory == null) {
+                // deactivated manager
+                logger.trace("Deactivated manager - aborting operation.");
+                return finish(false);
+            }
+
+            R request = task.getRequest();
+            ModbusSlaveEndpoint endpoint = task.getEndpoint();
+            @Nullable
+            C callback = task.getCallback();
+            int maxTries = task.getMaxTries();
+            EndpointPoolConfiguration configuration = connectionFactory.getEndpointPoolConfiguration(endpoint);
+            long retryDelay = configuration == null ? 0 : configuration.getInterTransactionDelayMillis();
+            // same delay as the connection factory enforces between connection attempts
+            long connectRetryDelay = configuration == null ? 0
+                    : Math.max(configuration.getInterConnectDelayMillis(), retryDelay);
+            int connectMaxTries = configuration == null ? 1 : Math.max(1, configuration.getConnectMaxTries());
+
+            Optional<ModbusSlaveConnection> connection = Optional.empty();
+            try {
+                while (tryIndex < maxTries) {
+                    if (scheduledThreadPoolExecutor == null) {
+                        logger.debug("Manager has been shut down, aborting proecssing request {} [operation ID {}]",
+                                request, operationId);
+                        return finish(false);
                     }
-                    // Invalidate connection, and empty (so that new connection is acquired before new retry)
-                    timer.connection.timeConsumer(c -> invalidate(endpoint, c), connection);
-                    connection = Optional.empty();
-                    continue;
-                } catch (ModbusIOException e) {
-                    lastError.set(new ModbusSlaveIOExceptionImpl(e));
-                    // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
-                    // broken pipe on write)
-                    if (willRetry) {
-                        logger.warn(
-                                "Try {} out of {} failed when executing request ({}). Will try again soon. Error was I/O error, so reseting the connection. Error details: {} {} [operation ID {}]",
-                                tryIndex, maxTries, request, e.getClass().getName(), e.getMessage(), operationId);
-                    } else {
-                        logger.error(
-                                "Last try {} failed when executing request ({}). Aborting. Error was I/O error, so reseting the connection. Error details: {} {} [operation ID {}]",
-                                tryIndex, request, e.getClass().getName(), e.getMessage(), operationId);
+                    if (Thread.interrupted()) {
+                        logger.warn("Thread interrupted. Aborting operation [operation ID {}]", operationId);
+                        return finish(false);
                     }
-                    // Invalidate connection, and empty (so that new connection is acquired before new retry)
-                    timer.connection.timeConsumer(c -> invalidate(endpoint, c), connection);
-                    connection = Optional.empty();
-                    continue;
-                } catch (ModbusSlaveException e) {
-                    lastError.set(new ModbusSlaveErrorResponseExceptionImpl(e));
-                    // Slave returned explicit error response, no reason to re-establish new connection
-                    if (willRetry) {
-                        logger.warn(
-                                "Try {} out of {} failed when executing request ({}). Will try again soon. Error was: {} {} [operation ID {}]",
-                                tryIndex, maxTries, request, e.getClass().getName(), e.getMessage(), operationId);
-                    } else {
-                        logger.error(
-                                "Last try {} failed when executing request ({}). Aborting. Error was: {} {} [operation ID {}]",
-                                tryIndex, request, e.getClass().getName(), e.getMessage(), operationId);
+                    // Check poll task is still registered (this is all asynchronous)
+                    if (!oneOffTask && task instanceof PollTask) {
+                        verifyTaskIsRegistered((PollTask) task);
                     }
-                    continue;
-                } catch (ModbusUnexpectedTransactionIdException e) {
-                    lastError.set(e);
-                    // transaction error details already logged
-                    if (willRetry) {
-                        logger.warn(
-                                "Try {} out of {} failed when executing request ({}). Will try again soon. The response transaction ID did not match the request. Reseting the connection. Error details: {} {} [operation ID {}]",
-                                tryIndex, maxTries, request, e.getClass().getName(), e.getMessage(), operationId);
-                    } else {
-                        logger.error(
-                                "Last try {} failed when executing request ({}). Aborting. The response transaction ID did not match the request. Reseting the connection. Error details: {} {} [operation ID {}]",
-                                tryIndex, request, e.getClass().getName(), e.getMessage(), operationId);
+                    // Let's ensure that enough time is between the retries. First try can be executed right away
+                    // since the dispatcher ensures enough time has passed since last transaction.
+                    long retryWait = ModbusSlaveConnectionFactoryImpl.getRemainingDelayMillis(lastTryMillis,
+                            retryDelay);
+                    if (retryWait > 0) {
+                        return retryWait;
                     }
-                    // Invalidate connection, and empty (so that new connection is acquired before new retry)
-                    timer.connection.timeConsumer(c -> invalidate(endpoint, c), connection);
-                    connection = Optional.empty();
-                    continue;
-                } catch (ModbusException e) {
-                    lastError.set(e);
-                    // Some other (unexpected) exception occurred
-                    if (willRetry) {
-                        logger.warn(
-                                "Try {} out of {} failed when executing request ({}). Will try again soon. Error was unexpected error, so reseting the connection. Error details: {} {} [operation ID {}]",
-                                tryIndex, maxTries, request, e.getClass().getName(), e.getMessage(), operationId, e);
-                    } else {
-                        logger.error(
-                                "Last try {} failed when executing request ({}). Aborting. Error was unexpected error, so reseting the connection. Error details: {} {} [operation ID {}]",
-                                tryIndex, request, e.getClass().getName(), e.getMessage(), operationId, e);
+                    if (!connection.isPresent()) {
+                        logger.trace("Try {} out of {}. Trying to get connection [operation ID {}]", tryIndex + 1,
+                                maxTries, operationId);
+                        try {
+                            connection = getConnection(timer, oneOffTask, task);
+                        } catch (ModbusConnectionDelayedException e) {
+                            return e.getDelayMillis();
+                        }
+                        if (!connection.isPresent()) {
+                            connectTries++;
+                            if (connectTries < connectMaxTries) {
+                                logger.debug(
+                                        "Connect try {}/{} to endpoint {} failed, trying again in {} ms [operation ID {}]",
+                                        connectTries, connectMaxTries, endpoint, connectRetryDelay, operationId);
+                                // continue in the executor instead of reconnecting right away
+                                return connectRetryDelay;
+                            }
+                            // Could not acquire connection, time to abort
+                            logger.warn("Could not connect to endpoint {} -- aborting request {} [operation ID {}]",
+                                    endpoint, request, operationId);
+                            if (callback != null) {
+                                timer.callback.timeRunnable(() -> invokeCallbackWithError(request, callback,
+                                        new ModbusConnectionException(endpoint)));
+                            }
+                            return finish(false);
+                        }
+                        connectTries = 0;
                     }
-                    // Invalidate connection, and empty (so that new connection is acquired before new retry)
-                    timer.connection.timeConsumer(c -> invalidate(endpoint, c), connection);
-                    connection = Optional.empty();
-                    continue;
-                } finally {
-                    lastTryMillis = System.currentTimeMillis();
-                    // Connection was reseted in error handling and needs to be reconnected.
-                    // Try to re-establish connection.
-                    if (willRetry && !connection.isPresent()) {
-                        connection = getConnection(timer, oneOffTask, task);
+
+                    logger.trace("Try {} out of {} [operation ID {}]", tryIndex + 1, maxTries, operationId);
+                    boolean willRetry = false;
+                    long tryStart = System.currentTimeMillis();
+                    try {
+                        tryIndex++;
+                        if (tryIndex > 1) {
+                            endpointMetrics.recordRetry();
+                        }
+                        willRetry = tryIndex < maxTries;
+                        operation.accept(timer, task, connection.get());
+                        setLastError(null);
+                        return finish(true);
+                    } catch (IOException e) {
+                        setLastError(new ModbusSlaveIOExceptionImpl(e));
+                        // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
+                        // broken pipe on write)
+                        if (willRetry) {
+                            logger.warn(
+                                    "Try {} out of {} failed when executing request ({}). Will try again soon. Error was I/O error, so reseting the connection. Error details: {} {} [operation ID {}]",
+                                    tryIndex, maxTries, request, e.getClass().getName(), e.getMessage(), operationId);
+                        } else {
+                            logger.error(
+                                    "Last try {} failed when executing request ({}). Aborting. Error was I/O error, so reseting the connection. Error details: {} {} [operation ID {}]",
+                                    tryIndex, request, e.getClass().getName(), e.getMessage(), operationId);
+                        }
+                        // Invalidate connection, and empty (so that new connection is acquired before new retry)
+                        timer.connection.timeConsumer(c -> invalidate(endpoint, c), connection);
+                        connection = Optional.empty();
+                        continue;
+                    } catch (ModbusIOException e) {
+                        setLastError(new ModbusSlaveIOExceptionImpl(e));
+                        // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
+                        // broken pipe on write)
+                        if (willRetry) {
+                            logger.warn(
+                                    "Try {} out of {} failed when executing request ({}). Will try again soon. Error was I/O error, so reseting the connection. Error details: {} {} [operation ID {}]",
+                                    tryIndex, maxTries, request, e.getClass().getName(), e.getMessage(), operationId);
+                        } else {
+                            logger.error(
+                                    "Last try {} failed when executing request ({}). Aborting. Error was I/O error, so reseting the connection. Error details: {} {} [operation ID {}]",
+                                    tryIndex, request, e.getClass().getName(), e.getMessage(), operationId);
+                        }
+                        // Invalidate connection, and empty (so that new connection is acquired before new retry)
+                        timer.connection.timeConsumer(c -> invalidate(endpoint, c), connection);
+                        connection = Optional.empty();
+                        continue;
+                    } catch (ModbusSlaveException e) {
+                        setLastError(new ModbusSlaveErrorResponseExceptionImpl(e));
+                        // Slave returned explicit error response, no reason to re-establish new connection
+                        if (willRetry) {
+                            logger.warn(
+                                    "Try {} out of {} failed when executing request ({}). Will try again soon. Error was: {} {} [operation ID {}]",
+                                    tryIndex, maxTries, request, e.getClass().getName(), e.getMessage(), operationId);
+                        } else {
+                            logger.error(
+                                    "Last try {} failed when executing request ({}). Aborting. Error was: {} {} [operation ID {}]",
+                                    tryIndex, request, e.getClass().getName(), e.getMessage(), operationId);
+                        }
+                        continue;
+                    } catch (ModbusUnexpectedTransactionIdException e) {
+                        setLastError(e);
+                        // transaction error details already logged
+                        if (willRetry) {
+                            logger.warn(
+                                    "Try {} out of {} failed when executing request ({}). Will try again soon. The response transaction ID did not match the request. Reseting the connection. Error details: {} {} [operation ID {}]",
+                                    tryIndex, maxTries, request, e.getClass().getName(), e.getMessage(), operationId);
+                        } else {
+                            logger.error(
+                                    "Last try {} failed when executing request ({}). Aborting. The response transaction ID did not match the request. Reseting the connection. Error details: {} {} [operation ID {}]",
+                                    tryIndex, request, e.getClass().getName(), e.getMessage(), operationId);
+                        }
+                        // Invalidate connection, and empty (so that new connection is acquired before new retry)
+                        timer.connection.timeConsumer(c -> invalidate(endpoint, c), connection);
+                        connection = Optional.empty();
+                        continue;
+                    } catch (ModbusException e) {
+                        setLastError(e);
+                        // Some other (unexpected) exception occurred
+                        if (willRetry) {
+                            logger.warn(
+                                    "Try {} out of {} failed when executing request ({}). Will try again soon. Error was unexpected error, so reseting the connection. Error details: {} {} [operation ID {}]",
+                                    tryIndex, maxTries, request, e.getClass().getName(), e.getMessage(), operationId, e);
+                        } else {
+                            logger.error(
+                                    "Last try {} failed when executing request ({}). Aborting. Error was unexpected error, so reseting the connection. Error details: {} {} [operation ID {}]",
+                                    tryIndex, request, e.getClass().getName(), e.getMessage(), operationId, e);
+                        }
+                        // Invalidate connection, and empty (so that new connection is acquired before new retry)
+                        timer.connection.timeConsumer(c -> invalidate(endpoint, c), connection);
+                        connection = Optional.empty();
+                        continue;
+                    } finally {
+                        lastTryMillis = System.currentTimeMillis();
+                        endpointMetrics.recordTransaction(lastTryMillis - tryStart);
                     }
                 }
-            }
-            Exception exception = lastError.get();
-            if (exception != null) {
-                // All retries failed with some error
-                if (callback != null) {
-                    timer.callback.timeRunnable(() -> {
-                        invokeCallbackWithError(request, callback, exception);
-                    });
+                Exception exception = lastError;
+                if (exception != null) {
+                    // All retries failed with some error
+                    if (callback != null) {
+                        timer.callback.timeRunnable(() -> {
+                            invokeCallbackWithError(request, callback, exception);
+                        });
+                    }
                 }
+                return finish(false);
+            } catch (PollTaskUnregistered e) {
+                logger.warn(
+                        "Poll task was unregistered -- not executing/proceeding with the poll: {} [operation ID {}]",
+                        e.getMessage(), operationId);
+                return finish(false);
+            } finally {
+                // Returned also when continuing later, connection is received from the pool again
+                timer.connection.timeConsumer(c -> returnConnection(endpoint, c), connection);
+                logger.trace("Connection was returned to the pool [operation ID {}]", operationId);
             }
-        } catch (PollTaskUnregistered e) {
-            logger.warn("Poll task was unregistered -- not executing/proceeding with the poll: {} [operation ID {}]",
-                    e.getMessage(), operationId);
-            return;
-        } catch (InterruptedException e) {
-            logger.warn("Poll task was canceled -- not executing/proceeding with the poll: {} [operation ID {}]",
-                    e.getMessage(), operationId);
-            // Invalidate connection, and empty (so that new connection is acquired before new retry)
-            timer.connection.timeConsumer(c -> invalidate(endpoint, c), connection);
-            connection = Optional.empty();
-        } finally {
-            timer.connection.timeConsumer(c -> returnConnection(endpoint, c), connection);
-            logger.trace("Connection was returned to the pool, ending operation [operation ID {}]", operationId);
+        }
+
+        private long finish(boolean succeeded) {
             timer.suspendAllRunning();
-            logger.debug("Modbus operation ended, timing info: {} [operation ID {}]", timer, operationId);
+            endpointMetrics.recordOperation(timer.total.getTotalTimeMillis(), !succeeded);
+            logger.debug("Modbus operation ended, timing info: {} [operation ID {}]", timer, timer.operationId);
+            result.complete(succeeded);
+            return DONE;
         }
     }
 
+    /**
+     * Execute operation using a retry mechanism, without holding the thread while waiting for the slave.
+     *
+     * Endpoints using non-blocking I/O execute the operation with {@link NonBlockingOperation}. With other endpoints,
+     * the operation is executed with a pooled connection using {@link PooledOperation}.
+     *
+     * @param task
+     * @param oneOffTask
+     * @param operation
+     * @return future completing with whether the operation succeeded
+     */
+    private <R extends ModbusRequestBlueprint, C extends ModbusCallback, T extends TaskWithEndpoint<R, C>> CompletableFuture<Boolean> executeOperationAsync(
+            @NonNull T task, boolean oneOffTask, ModbusOperation<T> operation) {
+        if (!isNonBlockingIO(task.getEndpoint())) {
+            return new PooledOperation<>(task, oneOffTask, operation).start();
+        }
+        return new NonBlockingOperation<>(task, oneOffTask, operation).start();
+    }
+
     @Override
     public ScheduledFuture<?> submitOneTimePoll(PollTask task) {
         ScheduledExecutorService executor = scheduledThreadPoolExecutor;
         Objects.requireNonNull(executor, "Not activated!");
         long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off poll task {}", task);
-        ScheduledFuture<?> future = executor.schedule(() -> {
-            long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off poll task {}, waited in thread pool for {}", task,
-                    millisInThreadPoolWaiting);
-            executeOperation(task, true, pollOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> future = getDispatcher(executor, task.getEndpoint()).submitAsync(Priority.ONE_OFF_POLL,
+                task, () -> {
+                    long millisInQueue = System.currentTimeMillis() - scheduleTime;
+                    logger.debug("Will now execute one-off poll task {}, waited in queue for {}", task,
+                            millisInQueue);
+                    return executeOperationAsync(task, true, pollOperation);
+                });
         return future;
     }
 
@@ -712,15 +1306,23 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.trace("Unregistering previous poll task (possibly with different period)");
                 unregisterRegularPoll(task);
             }
+            if (isCoalescePolls(task.getEndpoint())) {
+                registerCoalescedPoll(executor, task, pollPeriodMillis, initialDelayMillis);
+                return;
+            }
+            ModbusEndpointDispatcher dispatcher = getDispatcher(executor, task.getEndpoint());
             ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
-                long started = System.currentTimeMillis();
-                logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
-                        started);
-                executeOperation(task, false, pollOperation);
-                long finished = System.currentTimeMillis();
-                logger.debug(
-                        "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
-                        pollPeriodMillis, task, finished, started, finished - started);
+                dispatcher.submitAsync(Priority.REGULAR_POLL, task, () -> {
+                    long started = System.currentTimeMillis();
+                    logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis,
+                            task, started);
+                    return executeOperationAsync(task, false, pollOperation).thenAccept(succeeded -> {
+                        long finished = System.currentTimeMillis();
+                        logger.debug(
+                                "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
+                                pollPeriodMillis, task, finished, started, finished - started);
+                    });
+                });
             }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
 
             scheduledPollTasks.put(task, future);
@@ -729,6 +1331,284 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    @Override
+    public void registerRegularPoll(@NonNull PollTask task, long pollPeriodMillis, long initialDelayMillis,
+            AdaptivePollListener listener) {
+        synchronized (this) {
+            ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+            Objects.requireNonNull(executor, "Not activated!");
+            if (isCoalescePolls(task.getEndpoint())) {
+                logger.debug("Endpoint {} coalesces polls, registering poll task {} with fixed period",
+                        task.getEndpoint(), task);
+                registerRegularPoll(task, pollPeriodMillis, initialDelayMillis);
+                return;
+            }
+            logger.trace("Registering adaptive poll task {} with period {} using initial delay {}", task,
+                    pollPeriodMillis, initialDelayMillis);
+            if (scheduledPollTasks.containsKey(task)) {
+                logger.trace("Unregistering previous poll task (possibly with different period)");
+                unregisterRegularPoll(task);
+            }
+            AdaptivePollPeriod period = new AdaptivePollPeriod(pollPeriodMillis);
+            ScheduledFuture<?> future = executor.schedule(
+                    () -> submitAdaptivePoll(executor, task, period, listener, true), initialDelayMillis,
+                    TimeUnit.MILLISECONDS);
+            scheduledPollTasks.put(task, future);
+        }
+    }
+
+    /**
+     * Queue adaptively scheduled poll, and schedule the next poll once the poll has been executed
+     */
+    private void submitAdaptivePoll(ScheduledExecutorService executor, PollTask task, AdaptivePollPeriod period,
+            AdaptivePollListener listener, boolean firstPoll) {
+        @Nullable
+        ScheduledFuture<?> current = scheduledPollTasks.get(task);
+        if (current == null) {
+            // unregistered
+            return;
+        }
+        getDispatcher(executor, task.getEndpoint()).submitAsync(Priority.REGULAR_POLL, task, () -> {
+            long started = System.currentTimeMillis();
+            // The next poll is scheduled also when the poll failed unexpectedly, e.g. when the callback raised an
+            // exception, otherwise the poll task would silently stop polling
+            return executeOperationAsync(task, false, pollOperation).handle((succeeded, error) -> {
+                if (error != null) {
+                    logger.warn("Adaptively scheduled poll task {} failed unexpectedly: {} {}", task,
+                            error.getClass().getName(), error.getMessage());
+                }
+                onAdaptivePollExecuted(executor, task, period, listener, firstPoll, current, started,
+                        error == null && succeeded);
+                return null;
+            });
+        });
+    }
+
+    /**
+     * Adapt the poll period based on the executed poll, and schedule the next poll
+     */
+    private void onAdaptivePollExecuted(ScheduledExecutorService executor, PollTask task, AdaptivePollPeriod period,
+            AdaptivePollListener listener, boolean firstPoll, ScheduledFuture<?> current, long started,
+            boolean succeeded) {
+        boolean changed = period.recordPoll(System.currentTimeMillis() - started, !succeeded);
+        logger.debug("Executed adaptively scheduled poll task {}, succeeded: {}. {}", task, succeeded, period);
+        if (changed || firstPoll) {
+            try {
+                listener.onPollPeriodUpdated(task, period);
+            } catch (RuntimeException e) {
+                logger.warn("Listener {} raised unexpected exception with poll period update: {} {}", listener,
+                        e.getClass().getName(), e.getMessage());
+            }
+        }
+        ScheduledFuture<?> next;
+        try {
+            next = executor.schedule(() -> submitAdaptivePoll(executor, task, period, listener, false),
+                    period.getEffectivePeriodMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Could not schedule next poll of {}, manager has been shut down", task);
+            return;
+        }
+        // Unregistered or re-registered meanwhile, the next poll is not ours to schedule
+        if (!scheduledPollTasks.replace(task, current, next)) {
+            next.cancel(false);
+        }
+    }
+
+    /**
+     * Get dispatcher for the endpoint, creating it if necessary
+     */
+    private ModbusEndpointDispatcher getDispatcher(ScheduledExecutorService executor, ModbusSlaveEndpoint endpoint) {
+        return dispatchers.computeIfAbsent(endpoint,
+                e -> new ModbusEndpointDispatcher(e, executor, () -> getInterTransactionDelayMillis(e),
+                        () -> getMaxPipelinedTransactions(e), () -> getInterFrameDelayMillis(e),
+                        this::notifyQueueStatistics));
+    }
+
+    /**
+     * Get number of transactions that can be outstanding at the same time. Pipelining is supported only with
+     * Modbus/TCP.
+     */
+    private int getMaxPipelinedTransactions(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl factory = this.connectionFactory;
+        if (factory == null || !(endpoint instanceof ModbusTCPSlaveEndpoint)) {
+            return 1;
+        }
+        EndpointPoolConfiguration configuration = factory.getEndpointPoolConfiguration(endpoint);
+        return configuration == null ? 1 : Math.max(1, configuration.getMaxPipelinedTransactions());
+    }
+
+    private boolean isPipelined(ModbusSlaveEndpoint endpoint) {
+        return getMaxPipelinedTransactions(endpoint) > 1;
+    }
+
+    /**
+     * Whether the endpoint uses non-blocking I/O. Non-blocking I/O is supported only with Modbus/TCP and Modbus/UDP.
+     */
+    private boolean isNonBlockingIO(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl factory = this.connectionFactory;
+        if (factory == null || !(endpoint instanceof ModbusIPSlaveEndpoint)) {
+            return false;
+        }
+        EndpointPoolConfiguration configuration = factory.getEndpointPoolConfiguration(endpoint);
+        return configuration != null && configuration.isNonBlockingIO();
+    }
+
+    /**
+     * Get the shared non-blocking connection of the endpoint, creating it if necessary. The connection is not
+     * necessarily connected.
+     *
+     * @return connection, or null when the manager has been deactivated
+     */
+    private @Nullable ModbusNioConnection getNioConnection(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl factory = this.connectionFactory;
+        if (factory == null) {
+            return null;
+        }
+        return nioConnections.computeIfAbsent(endpoint,
+                e -> factory.createNioConnection((ModbusIPSlaveEndpoint) e));
+    }
+
+    private long getInterTransactionDelayMillis(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl factory = this.connectionFactory;
+        if (factory == null) {
+            return 0;
+        }
+        EndpointPoolConfiguration configuration = factory.getEndpointPoolConfiguration(endpoint);
+        return configuration == null ? 0 : configuration.getInterTransactionDelayMillis();
+    }
+
+    private long getInterFrameDelayMillis(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl factory = this.connectionFactory;
+        if (factory == null) {
+            return 0;
+        }
+        return RtuFrameTiming.getInterFrameDelayMillis(endpoint, factory.getEndpointPoolConfiguration(endpoint));
+    }
+
+    private void notifyQueueStatistics(ModbusSlaveEndpoint endpoint, int queueSize, long waitMillis) {
+        getMetrics(endpoint).recordQueueWait(waitMillis);
+        for (ModbusManagerListener listener : listeners) {
+            try {
+                listener.onEndpointQueueStatistics(endpoint, queueSize, waitMillis);
+            } catch (RuntimeException e) {
+                logger.warn("Listener {} raised unexpected exception with queue statistics: {} {}", listener,
+                        e.getClass().getName(), e.getMessage());
+            }
+        }
+    }
+
+    private ModbusEndpointMetricsImpl getMetrics(ModbusSlaveEndpoint endpoint) {
+        return metrics.computeIfAbsent(endpoint, e -> new ModbusEndpointMetricsImpl(() -> {
+            ModbusEndpointDispatcher dispatcher = dispatchers.get(e);
+            return dispatcher == null ? 0 : dispatcher.getQueueSize();
+        }));
+    }
+
+    @Override
+    public Map<ModbusSlaveEndpoint, ModbusEndpointMetrics> getEndpointMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    @Override
+    public int getThreadPoolQueueSize() {
+        ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getQueue().size() : 0;
+    }
+
+    @Override
+    public int getThreadPoolActiveCount() {
+        ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getActiveCount() : 0;
+    }
+
+    @Override
+    public void reset() {
+        metrics.values().forEach(ModbusEndpointMetricsImpl::reset);
+    }
+
+    private boolean isCoalescePolls(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl factory = this.connectionFactory;
+        if (factory == null) {
+            return false;
+        }
+        EndpointPoolConfiguration configuration = factory.getEndpointPoolConfiguration(endpoint);
+        return configuration != null && configuration.isCoalescePolls();
+    }
+
+    /**
+     * Register regular poll such that it is executed together with other poll tasks sharing the endpoint, unit id,
+     * function code and poll period.
+     *
+     * The first poll task of the group determines the initial delay. Poll tasks joining the group later on are
+     * polled with the existing schedule.
+     */
+    private void registerCoalescedPoll(ScheduledExecutorService executor, PollTask task, long pollPeriodMillis,
+            long initialDelayMillis) {
+        PollGroupKey key = new PollGroupKey(task, pollPeriodMillis);
+        PollGroup group = pollGroups.get(key);
+        if (group == null) {
+            PollGroup newGroup = group = new PollGroup();
+            group.members.add(task);
+            group.replan(scheduledPollTasks::containsKey);
+            ModbusEndpointDispatcher dispatcher = getDispatcher(executor, task.getEndpoint());
+            group.future = executor.scheduleWithFixedDelay(() -> {
+                List<PollTask> plan = newGroup.plan;
+                logger.debug("Queuing scheduled ({}ms) coalesced poll of {} tasks with {} requests ({})",
+                        pollPeriodMillis, newGroup.members.size(), plan.size(), key);
+                for (int i = 0; i < plan.size(); i++) {
+                    int index = i;
+                    dispatcher.submitAsync(Priority.REGULAR_POLL, new PlannedPollKey(key, index), key.unitId, () -> {
+                        // Poll tasks might have been unregistered while the read was queued
+                        List<PollTask> currentPlan = newGroup.plan;
+                        if (index >= currentPlan.size()) {
+                            logger.debug("Coalesced read {} of {} is no longer planned, skipping", index, key);
+                            return CompletableFuture.completedFuture(false);
+                        }
+                        return executeOperationAsync(currentPlan.get(index), false, pollOperation);
+                    });
+                }
+            }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+            pollGroups.put(key, group);
+        } else {
+            group.members.add(task);
+            group.replan(scheduledPollTasks::containsKey);
+        }
+        ScheduledFuture<?> future = group.future;
+        Objects.requireNonNull(future);
+        scheduledPollTasks.put(task, future);
+        logger.trace("Registered poll task {} with period {} to coalesced poll group {}, planned {} requests", task,
+                pollPeriodMillis, key, group.plan.size());
+    }
+
+    /**
+     * Remove poll task from the coalesced poll group, if any. Queued reads that are no longer part of the plan of the
+     * group are removed from the dispatcher.
+     *
+     * @param task poll task to remove
+     * @param dispatcher dispatcher of the endpoint, if any
+     * @return whether the poll task was removed from a group that still has other poll tasks
+     */
+    private boolean removeFromPollGroup(PollTask task, @Nullable ModbusEndpointDispatcher dispatcher) {
+        for (Map.Entry<PollGroupKey, PollGroup> entry : pollGroups.entrySet()) {
+            PollGroupKey key = entry.getKey();
+            PollGroup group = entry.getValue();
+            if (group.members.remove(task)) {
+                group.replan(scheduledPollTasks::containsKey);
+                int planSize = group.plan.size();
+                if (dispatcher != null) {
+                    dispatcher.removeIf(queuedKey -> queuedKey instanceof PlannedPollKey
+                            && ((PlannedPollKey) queuedKey).isObsolete(key, planSize));
+                }
+                if (group.members.isEmpty()) {
+                    pollGroups.remove(key);
+                    return false;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
     @SuppressWarnings({ "null", "unused" })
     @Override
     public boolean unregisterRegularPoll(PollTask task) {
@@ -752,7 +1632,17 @@ public class ModbusManagerImpl implements ModbusManager {
             // is usually pretty soon as transactions should be relatively short-lived)
             factory.disconnectOnReturn(task.getEndpoint(), System.currentTimeMillis());
 
-            future.cancel(true);
+            ModbusEndpointDispatcher dispatcher = dispatchers.get(task.getEndpoint());
+            if (dispatcher != null) {
+                dispatcher.remove(task);
+            }
+
+            if (removeFromPollGroup(task, dispatcher)) {
+                // Other poll tasks remain in the coalesced poll group, keep the shared schedule running
+                logger.debug("Poll task {} removed from coalesced poll, the schedule is kept for other tasks", task);
+            } else {
+                future.cancel(true);
+            }
 
             logger.info("Poll task {} canceled", task);
 
@@ -777,12 +1667,13 @@ public class ModbusManagerImpl implements ModbusManager {
         Objects.requireNonNull(scheduledThreadPoolExecutor, "Not activated!");
         long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off write task {}", task);
-        ScheduledFuture<?> future = scheduledThreadPoolExecutor.schedule(() -> {
-            long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off write task {}, waited in thread pool for {}", task,
-                    millisInThreadPoolWaiting);
-            executeOperation(task, true, writeOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> future = getDispatcher(scheduledThreadPoolExecutor, task.getEndpoint())
+                .submitAsync(Priority.WRITE, task, () -> {
+                    long millisInQueue = System.currentTimeMillis() - scheduleTime;
+                    logger.debug("Will now execute one-off write task {}, waited in queue for {}", task,
+                            millisInQueue);
+                    return executeOperationAsync(task, true, writeOperation);
+                });
         return future;
     }
 
@@ -791,6 +1682,16 @@ public class ModbusManagerImpl implements ModbusManager {
             @Nullable EndpointPoolConfiguration configuration) {
         Objects.requireNonNull(connectionFactory, "Not activated!");
         connectionFactory.setEndpointPoolConfiguration(endpoint, configuration);
+        // Pipelined connection is re-created with the new configuration when needed
+        ModbusTCPPipelinedConnection pipelinedConnection = pipelinedConnections.remove(endpoint);
+        if (pipelinedConnection != null) {
+            pipelinedConnection.resetConnection();
+        }
+        // Likewise the non-blocking connection
+        ModbusNioConnection nioConnection = nioConnections.remove(endpoint);
+        if (nioConnection != null) {
+            nioConnection.resetConnection();
+        }
         for (ModbusManagerListener listener : listeners) {
             listener.onEndpointPoolConfigurationSet(endpoint, configuration);
         }
@@ -851,6 +1752,17 @@ public class ModbusManagerImpl implements ModbusManager {
                 connectionPool.close();
                 this.connectionPool = connectionPool = null;
             }
+            ModbusSlaveConnectionFactoryImpl factory = this.connectionFactory;
+            if (factory != null) {
+                factory.close();
+            }
+
+            dispatchers.values().forEach(ModbusEndpointDispatcher::shutdown);
+            dispatchers.clear();
+            pipelinedConnections.values().forEach(ModbusTCPPipelinedConnection::resetConnection);
+            pipelinedConnections.clear();
+            // closed together with the reactor of the connection factory
+            nioConnections.clear();
 
             if (monitorFuture != null) {
                 monitorFuture.cancel(true);
@@ -883,6 +1795,14 @@ public class ModbusManagerImpl implements ModbusManager {
                         task.getRequest().getDataLength(), future.isDone(), future.isCancelled(),
                         future.getDelay(TimeUnit.MILLISECONDS), task);
             });
+            this.dispatchers.forEach((endpoint, dispatcher) -> {
+                pollMonitorLogger.trace("POLL MONITOR: endpoint {} queue size: {}, executing: {}", endpoint,
+                        dispatcher.getQueueSize(), dispatcher.getExecutingCount());
+            });
+            this.metrics.forEach((endpoint, endpointMetrics) -> {
+                pollMonitorLogger.trace("POLL MONITOR: endpoint {} metrics: {}, operation time: {}", endpoint,
+                        endpointMetrics, endpointMetrics.getOperationTime());
+            });
             if (scheduledThreadPoolExecutor instanceof ThreadPoolExecutor) {
                 ThreadPoolExecutor executor = ((ThreadPoolExecutor) scheduledThreadPoolExecutor);
                 pollMonitorLogger.trace(
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+import org.openhab.io.transport.modbus.ModbusLatencyHistogram;
+import org.openhab.io.transport.modbus.ModbusMetricsService;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console commands for inspecting the metrics of the Modbus transport
+ *
+ * @author agent - Initial contribution
+ */
+@Component(service = ConsoleCommandExtension.class)
+@NonNullByDefault
+public class ModbusMetricsCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_METRICS = "metrics";
+    private static final String SUBCMD_RESET = "reset";
+
+    private @Nullable ModbusMetricsService metricsService;
+
+    public ModbusMetricsCommandExtension() {
+        super("modbus", "Inspect the Modbus transport.");
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        ModbusMetricsService metricsService = this.metricsService;
+        if (args.length == 0 || metricsService == null) {
+            printUsage(console);
+            return;
+        }
+        switch (args[0]) {
+            case SUBCMD_METRICS:
+                printMetrics(metricsService, console);
+                break;
+            case SUBCMD_RESET:
+                metricsService.reset();
+                console.println("Modbus metrics reset.");
+                break;
+            default:
+                console.println("Unknown command '" + args[0] + "'");
+                printUsage(console);
+                break;
+        }
+    }
+
+    private void printMetrics(ModbusMetricsService metricsService, Console console) {
+        console.println(String.format("Thread pool: queue size %d, active threads %d",
+                metricsService.getThreadPoolQueueSize(), metricsService.getThreadPoolActiveCount()));
+        for (Map.Entry<ModbusSlaveEndpoint, ModbusEndpointMetrics> entry : metricsService.getEndpointMetrics()
+                .entrySet()) {
+            ModbusEndpointMetrics metrics = entry.getValue();
+            console.println(entry.getKey().toString());
+            console.println("  " + metrics);
+            printHistogram(console, "operation", metrics.getOperationTime());
+            printHistogram(console, "transaction", metrics.getTransactionTime());
+            printHistogram(console, "connection wait", metrics.getConnectionWaitTime());
+            printHistogram(console, "queue wait", metrics.getQueueWaitTime());
+        }
+    }
+
+    private void printHistogram(Console console, String name, ModbusLatencyHistogram histogram) {
+        console.println(String.format("  %-16s count=%d, mean=%.1f ms, p50=%d ms, p95=%d ms, p99=%d ms, max=%d ms",
+                name + ":", histogram.getCount(), histogram.getMeanMillis(), histogram.getPercentileMillis(50),
+                histogram.getPercentileMillis(95), histogram.getPercentileMillis(99), histogram.getMaxMillis()));
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(
+                buildCommandUsage(SUBCMD_METRICS, "lists latencies, retries and queue sizes of the Modbus endpoints"),
+                buildCommandUsage(SUBCMD_RESET, "resets the Modbus metrics"));
+    }
+
+    @Reference
+    protected void setMetricsService(ModbusMetricsService metricsService) {
+        this.metricsService = metricsService;
+    }
+
+    protected void unsetMetricsService(ModbusMetricsService metricsService) {
+        this.metricsService = null;
+    }
+}
@@ -0,0 +1,354 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.ModbusSlaveException;
+import net.wimpi.modbus.msg.ExceptionResponse;
+import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ModbusResponse;
+import net.wimpi.modbus.net.ModbusSlaveConnection;
+
+/**
+ * Modbus/TCP connection having many transactions outstanding at the same time
+ *
+ * Requests are written to the socket as soon as they are executed, and the responses are matched to the requests
+ * using the transaction id. Each request times out on its own: late responses to timed out requests are discarded.
+ *
+ * There is no separate reader thread. Instead, one of the threads waiting for a response reads the responses from the
+ * socket, and hands them over to the waiting threads. This way the number of threads needed equals the number of
+ * outstanding transactions. The other threads sleep until their response has been handed over, or the reading thread
+ * stops reading and some other thread needs to take over.
+ *
+ * Any I/O error when reading or writing closes the socket, failing all outstanding transactions. The connection is
+ * re-established with next {@link #connect()}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusTCPPipelinedConnection implements ModbusSlaveConnection {
+
+    /**
+     * Length of the MBAP header, excluding the unit id
+     */
+    private static final int HEADER_LENGTH = 6;
+    /**
+     * Maximum value of the PDU length field, see Modbus Messaging on TCP/IP Implementation Guide V1.0b
+     */
+    private static final int MAX_LENGTH = 254;
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusTCPPipelinedConnection.class);
+
+    private final ModbusTCPSlaveEndpoint endpoint;
+    private final int connectTimeoutMillis;
+    private final int responseTimeoutMillis;
+
+    private final Map<Integer, CompletableFuture<ModbusResponse>> outstanding = new ConcurrentHashMap<>();
+    private final ReentrantLock readLock = new ReentrantLock();
+    /**
+     * Signaled when response is handed over, and when the reading thread stops reading
+     */
+    private final Object readerChanged = new Object();
+    private final Object writeLock = new Object();
+
+    // all below guarded by this
+    private @Nullable Socket socket;
+    private @Nullable DataInputStream input;
+    private @Nullable OutputStream output;
+    private int nextTransactionId = 1;
+
+    /**
+     * Construct pipelined connection
+     *
+     * @param endpoint endpoint to connect to
+     * @param connectTimeoutMillis timeout for establishing the connection. Zero means system default.
+     * @param responseTimeoutMillis how long to wait for the response of a single request
+     */
+    public ModbusTCPPipelinedConnection(ModbusTCPSlaveEndpoint endpoint, int connectTimeoutMillis,
+            int responseTimeoutMillis) {
+        this.endpoint = endpoint;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.responseTimeoutMillis = responseTimeoutMillis;
+    }
+
+    @Override
+    public synchronized boolean connect() throws IOException {
+        if (socket != null) {
+            return true;
+        }
+        Socket newSocket = new Socket();
+        try {
+            newSocket.setTcpNoDelay(true);
+            newSocket.connect(new InetSocketAddress(endpoint.getAddress(), endpoint.getPort()), connectTimeoutMillis);
+            input = new DataInputStream(newSocket.getInputStream());
+            output = newSocket.getOutputStream();
+        } catch (IOException e) {
+            newSocket.close();
+            throw e;
+        }
+        socket = newSocket;
+        logger.debug("Connected pipelined connection to endpoint {}", endpoint);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isConnected() {
+        Socket socket = this.socket;
+        return socket != null && socket.isConnected() && !socket.isClosed();
+    }
+
+    /**
+     * Close the socket, failing all outstanding transactions
+     */
+    @Override
+    public void resetConnection() {
+        close(new ModbusIOException("Connection was reset"));
+    }
+
+    /**
+     * Get number of requests waiting for response
+     *
+     * @return number of outstanding transactions
+     */
+    public int getOutstandingCount() {
+        return outstanding.size();
+    }
+
+    /**
+     * Execute the request, and wait for the matching response
+     *
+     * The transaction id of the request is assigned by this method.
+     *
+     * @param request request to execute
+     * @return response with transaction id matching the request
+     * @throws ModbusIOException on I/O errors, and when no response is received in time
+     * @throws ModbusSlaveException when slave responds with exception response
+     */
+    public ModbusResponse execute(ModbusRequest request) throws ModbusIOException, ModbusSlaveException {
+        CompletableFuture<ModbusResponse> future = new CompletableFuture<>();
+        int transactionId = register(request, future);
+        try {
+            write(request);
+            ModbusResponse response = await(transactionId, future);
+            if (response instanceof ExceptionResponse) {
+                throw new ModbusSlaveException(((ExceptionResponse) response).getExceptionCode());
+            }
+            return response;
+        } finally {
+            outstanding.remove(transactionId, future);
+        }
+    }
+
+    private synchronized int register(ModbusRequest request, CompletableFuture<ModbusResponse> future) {
+        // transaction id is 16 bits, skip ids still waiting for response
+        int transactionId;
+        do {
+            transactionId = nextTransactionId;
+            nextTransactionId = (nextTransactionId + 1) & 0xFFFF;
+        } while (outstanding.putIfAbsent(transactionId, future) != null);
+        request.setTransactionID(transactionId);
+        return transactionId;
+    }
+
+    private void write(ModbusRequest request) throws ModbusIOException {
+        OutputStream output;
+        synchronized (this) {
+            output = this.output;
+        }
+        if (output == null) {
+            throw new ModbusIOException("Not connected");
+        }
+        try {
+            ByteArrayOutputStream frame = new ByteArrayOutputStream(HEADER_LENGTH + MAX_LENGTH);
+            request.writeTo(new DataOutputStream(frame));
+            synchronized (writeLock) {
+                frame.writeTo(output);
+                output.flush();
+            }
+        } catch (IOException e) {
+            ModbusIOException error = new ModbusIOException(
+                    String.format("Writing request failed: %s %s", e.getClass().getSimpleName(), e.getMessage()));
+            close(error);
+            throw error;
+        }
+    }
+
+    private ModbusResponse await(int transactionId, CompletableFuture<ModbusResponse> future)
+            throws ModbusIOException {
+        long deadline = System.currentTimeMillis() + responseTimeoutMillis;
+        while (!future.isDone()) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                logger.debug("Response for transaction {} not received in {} ms from endpoint {}", transactionId,
+                        responseTimeoutMillis, endpoint);
+                throw new ModbusIOException(String.format("No response to transaction %d in %d ms", transactionId,
+                        responseTimeoutMillis));
+            }
+            if (readLock.tryLock()) {
+                try {
+                    // Only this thread can complete the response, unless the connection is closed which fails the read
+                    if (!future.isDone()) {
+                        readResponse((int) remaining);
+                    }
+                } finally {
+                    readLock.unlock();
+                    signalWaiters();
+                }
+            } else {
+                synchronized (readerChanged) {
+                    // Some other thread is reading, wait until it has handed over a response or stopped reading
+                    if (!future.isDone() && readLock.isLocked()) {
+                        try {
+                            readerChanged.wait(remaining);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new ModbusIOException("Interrupted while waiting for response");
+                        }
+                    }
+                }
+            }
+        }
+        try {
+            return future.getNow(null);
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ModbusIOException) {
+                throw (ModbusIOException) cause;
+            }
+            throw new ModbusIOException(String.format("Response failed: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * Read one response from the socket, and complete the matching request. Returns without reading if no data
+     * arrives within the given time.
+     */
+    private void readResponse(int timeoutMillis) throws ModbusIOException {
+        Socket socket;
+        DataInputStream input;
+        synchronized (this) {
+            socket = this.socket;
+            input = this.input;
+        }
+        if (socket == null || input == null) {
+            throw new ModbusIOException("Not connected");
+        }
+        byte[] frame;
+        try {
+            // Wait for the first byte until the deadline of the reading thread. No data is consumed on timeout.
+            socket.setSoTimeout(timeoutMillis);
+            int first;
+            try {
+                first = input.read();
+            } catch (SocketTimeoutException e) {
+                return;
+            }
+            if (first < 0) {
+                throw new IOException("Premature end of stream");
+            }
+            // Rest of the frame should follow without delay
+            socket.setSoTimeout(responseTimeoutMillis);
+            byte[] header = new byte[HEADER_LENGTH];
+            header[0] = (byte) first;
+            input.readFully(header, 1, HEADER_LENGTH - 1);
+            int length = ((header[4] & 0xff) << 8) | (header[5] & 0xff);
+            if (length < 2 || length > MAX_LENGTH) {
+                throw new IOException(String.format("Invalid length %d in MBAP header", length));
+            }
+            frame = new byte[HEADER_LENGTH + length];
+            System.arraycopy(header, 0, frame, 0, HEADER_LENGTH);
+            input.readFully(frame, HEADER_LENGTH, length);
+        } catch (IOException e) {
+            ModbusIOException error = new ModbusIOException(
+                    String.format("Reading response failed: %s %s", e.getClass().getSimpleName(), e.getMessage()));
+            close(error);
+            throw error;
+        }
+
+        int transactionId = ((frame[0] & 0xff) << 8) | (frame[1] & 0xff);
+        int functionCode = frame[HEADER_LENGTH + 1] & 0xff;
+        ModbusResponse response = ModbusResponse.createModbusResponse(functionCode);
+        try {
+            response.readFrom(new DataInputStream(new ByteArrayInputStream(frame)));
+        } catch (IOException e) {
+            ModbusIOException error = new ModbusIOException(
+                    String.format("Parsing response failed: %s %s", e.getClass().getSimpleName(), e.getMessage()));
+            close(error);
+            throw error;
+        }
+        CompletableFuture<ModbusResponse> future = outstanding.remove(transactionId);
+        if (future == null) {
+            logger.debug("Discarding response with unexpected transaction id {} from endpoint {}", transactionId,
+                    endpoint);
+        } else {
+            future.complete(response);
+            signalWaiters();
+        }
+    }
+
+    /**
+     * Wake up the threads waiting for other thread to read their response
+     */
+    private void signalWaiters() {
+        synchronized (readerChanged) {
+            readerChanged.notifyAll();
+        }
+    }
+
+    private void close(ModbusIOException error) {
+        List<CompletableFuture<ModbusResponse>> failed;
+        synchronized (this) {
+            Socket socket = this.socket;
+            this.socket = null;
+            input = null;
+            output = null;
+            if (socket != null) {
+                logger.debug("Closing pipelined connection to endpoint {}: {}", endpoint, error.getMessage());
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    logger.debug("Error closing socket of endpoint {}: {}", endpoint, e.getMessage());
+                }
+            }
+            failed = new ArrayList<>(outstanding.values());
+            outstanding.clear();
+        }
+        failed.forEach(future -> future.completeExceptionally(error));
+        signalWaiters();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ModbusTCPPipelinedConnection[endpoint=%s, outstanding=%d]", endpoint,
+                outstanding.size());
+    }
+}
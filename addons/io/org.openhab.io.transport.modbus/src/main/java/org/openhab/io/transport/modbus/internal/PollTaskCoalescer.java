@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.PollTask;
+
+/**
+ * Planner merging poll tasks into as few read requests as possible
+ *
+ * The planner expects that all the given poll tasks share the same endpoint, unit id and function code. Tasks are
+ * merged only if the resulting read is contiguous, i.e. the tasks overlap or are adjacent. This way no unrelated
+ * registers (which might not exist in the slave) are read.
+ *
+ * The merged reads never exceed the protocol limits: 125 registers with FC03 and FC04, and 2000 bits with FC01 and
+ * FC02.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PollTaskCoalescer {
+
+    /**
+     * Maximum number of registers in a single read request (FC03, FC04)
+     */
+    public static final int MAX_REGISTERS_PER_READ = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs in a single read request (FC01, FC02)
+     */
+    public static final int MAX_BITS_PER_READ = 2000;
+
+    private static final Comparator<PollTask> BY_START_AND_LENGTH = Comparator
+            .<PollTask> comparingInt(task -> task.getRequest().getReference())
+            .thenComparingInt(task -> task.getRequest().getDataLength());
+
+    /**
+     * Maximum length of a single read request with the given function code
+     *
+     * @param functionCode read function code
+     * @return maximum number of registers or bits that can be read with single request
+     */
+    public static int maxDataLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return MAX_BITS_PER_READ;
+            case READ_INPUT_REGISTERS:
+            case READ_MULTIPLE_REGISTERS:
+                return MAX_REGISTERS_PER_READ;
+            default:
+                throw new IllegalArgumentException(String.format("Unexpected function code %s", functionCode));
+        }
+    }
+
+    /**
+     * Plan the reads for the given poll tasks
+     *
+     * Blocks with single task are returned as-is. Blocks with many tasks are represented with
+     * {@link CoalescedPollTask}.
+     *
+     * @param tasks poll tasks sharing the same endpoint, unit id and function code
+     * @return poll tasks to execute, ordered by start address
+     * @throws IllegalArgumentException when the tasks do not share the endpoint, unit id or function code
+     */
+    public static List<PollTask> plan(Collection<PollTask> tasks) {
+        return plan(tasks, task -> true);
+    }
+
+    /**
+     * Plan the reads for the given poll tasks
+     *
+     * @param tasks poll tasks sharing the same endpoint, unit id and function code
+     * @param registered tells whether a task is still registered. Coalesced reads call back the registered tasks
+     *            only.
+     * @return poll tasks to execute, ordered by start address
+     * @throws IllegalArgumentException when the tasks do not share the endpoint, unit id or function code
+     * @see #plan(Collection)
+     */
+    public static List<PollTask> plan(Collection<PollTask> tasks, Predicate<PollTask> registered) {
+        List<PollTask> sorted = new ArrayList<>(tasks);
+        if (sorted.size() <= 1) {
+            return sorted;
+        }
+        sorted.sort(BY_START_AND_LENGTH);
+
+        PollTask first = sorted.get(0);
+        ModbusReadRequestBlueprint firstRequest = first.getRequest();
+        int maxLength = maxDataLength(firstRequest.getFunctionCode());
+
+        List<PollTask> plan = new ArrayList<>();
+        List<PollTask> block = new ArrayList<>();
+        int blockStart = 0;
+        int blockEnd = 0;
+        for (PollTask task : sorted) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            if (!task.getEndpoint().equals(first.getEndpoint()) || request.getUnitID() != firstRequest.getUnitID()
+                    || request.getFunctionCode() != firstRequest.getFunctionCode()) {
+                throw new IllegalArgumentException(
+                        String.format("Poll task %s cannot be coalesced with %s", task, first));
+            }
+            int start = request.getReference();
+            int end = start + request.getDataLength();
+            if (!block.isEmpty() && start <= blockEnd && Math.max(blockEnd, end) - blockStart <= maxLength) {
+                block.add(task);
+                blockEnd = Math.max(blockEnd, end);
+            } else {
+                addBlock(plan, block, blockStart, blockEnd, registered);
+                block = new ArrayList<>();
+                block.add(task);
+                blockStart = start;
+                blockEnd = end;
+            }
+        }
+        addBlock(plan, block, blockStart, blockEnd, registered);
+        return plan;
+    }
+
+    private static void addBlock(List<PollTask> plan, List<PollTask> block, int start, int end,
+            Predicate<PollTask> registered) {
+        if (block.isEmpty()) {
+            return;
+        } else if (block.size() == 1) {
+            plan.add(block.get(0));
+        } else {
+            plan.add(new CoalescedPollTask(block, start, end - start, registered));
+        }
+    }
+
+}
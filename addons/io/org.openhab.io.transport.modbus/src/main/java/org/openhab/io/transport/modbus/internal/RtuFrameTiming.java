@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
+import org.openhab.io.transport.modbus.endpoint.ModbusSerialSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+import net.wimpi.modbus.Modbus;
+import net.wimpi.modbus.util.SerialParameters;
+
+/**
+ * Timing of Modbus RTU frames on serial line
+ *
+ * Modbus RTU frames are separated by silent interval of at least 3.5 character times. With baud rates above
+ * {@value #MAX_BAUD_RATE_WITH_CHARACTER_TIMING}, fixed interval of {@value #FIXED_INTER_FRAME_DELAY_MICROS}
+ * microseconds is used, as recommended by the Modbus over serial line specification.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RtuFrameTiming {
+
+    static final int MAX_BAUD_RATE_WITH_CHARACTER_TIMING = 19200;
+    static final long FIXED_INTER_FRAME_DELAY_MICROS = 1750;
+
+    private static final int STOPBITS_1_5 = 3;
+    private static final int STOPBITS_2 = 2;
+
+    /**
+     * Get number of bits transmitted per character: start bit, data bits, parity bit (if any) and stop bits
+     *
+     * @param parameters serial parameters
+     * @return number of half bits, to accommodate 1.5 stop bits
+     */
+    private static int getCharacterHalfBits(SerialParameters parameters) {
+        int stopHalfBits = parameters.getStopbits() == STOPBITS_1_5 ? 3
+                : (parameters.getStopbits() == STOPBITS_2 ? 4 : 2);
+        int parityBits = parameters.getParity() == 0 ? 0 : 1;
+        return 2 * (1 + parameters.getDatabits() + parityBits) + stopHalfBits;
+    }
+
+    /**
+     * Get time to transmit single character
+     *
+     * @param parameters serial parameters
+     * @return character time in microseconds, rounded up
+     * @throws IllegalArgumentException when baud rate is not positive
+     */
+    public static long getCharacterTimeMicros(SerialParameters parameters) {
+        if (parameters.getBaudRate() <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid baud rate %d", parameters.getBaudRate()));
+        }
+        long halfBitMicros = getCharacterHalfBits(parameters) * 1_000_000L;
+        long divisor = 2L * parameters.getBaudRate();
+        return (halfBitMicros + divisor - 1) / divisor;
+    }
+
+    /**
+     * Get minimum silent interval between two RTU frames
+     *
+     * @param parameters serial parameters
+     * @return inter-frame delay in microseconds, rounded up
+     * @throws IllegalArgumentException when baud rate is not positive
+     */
+    public static long getInterFrameDelayMicros(SerialParameters parameters) {
+        if (parameters.getBaudRate() > MAX_BAUD_RATE_WITH_CHARACTER_TIMING) {
+            return FIXED_INTER_FRAME_DELAY_MICROS;
+        }
+        if (parameters.getBaudRate() <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid baud rate %d", parameters.getBaudRate()));
+        }
+        // 3.5 characters = 7 half characters
+        long micros = 7L * getCharacterHalfBits(parameters) * 1_000_000L;
+        long divisor = 4L * parameters.getBaudRate();
+        return (micros + divisor - 1) / divisor;
+    }
+
+    /**
+     * Get minimum silent interval between two RTU frames, in milliseconds
+     *
+     * @param endpoint endpoint of the transactions
+     * @param configuration configuration of the endpoint
+     * @return inter-frame delay in milliseconds (rounded up), or zero if the endpoint does not use RTU bus scheduling
+     *         (see {@link EndpointPoolConfiguration#isRtuBusScheduling()})
+     */
+    public static long getInterFrameDelayMillis(ModbusSlaveEndpoint endpoint,
+            @Nullable EndpointPoolConfiguration configuration) {
+        if (configuration == null || !configuration.isRtuBusScheduling()
+                || !(endpoint instanceof ModbusSerialSlaveEndpoint)) {
+            return 0;
+        }
+        SerialParameters parameters = ((ModbusSerialSlaveEndpoint) endpoint).getSerialParameters();
+        if (!Modbus.SERIAL_ENCODING_RTU.equals(parameters.getEncoding()) || parameters.getBaudRate() <= 0) {
+            return 0;
+        }
+        return (getInterFrameDelayMicros(parameters) + 999) / 1000;
+    }
+}
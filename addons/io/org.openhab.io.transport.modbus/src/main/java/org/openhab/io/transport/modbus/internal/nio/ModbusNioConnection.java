@@ -0,0 +1,466 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal.nio;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.ModbusIPSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusUDPSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.wimpi.modbus.ModbusException;
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.ModbusSlaveException;
+import net.wimpi.modbus.msg.ExceptionResponse;
+import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ModbusResponse;
+import net.wimpi.modbus.net.ModbusSlaveConnection;
+
+/**
+ * Non-blocking Modbus/TCP or Modbus/UDP connection
+ *
+ * The channel I/O is executed by the shared {@link ModbusNioReactor}, and requests are executed asynchronously with
+ * {@link #executeAsync(ModbusRequest)}. Responses are matched to the requests using the transaction id, and thus
+ * many requests can be outstanding at the same time.
+ *
+ * {@link #connect()} and {@link #execute(ModbusRequest)} are blocking variants, for compatibility with the modbus
+ * library connections.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusNioConnection implements ModbusSlaveConnection {
+
+    /**
+     * Length of the MBAP header, excluding the unit id
+     */
+    private static final int HEADER_LENGTH = 6;
+    /**
+     * Maximum value of the PDU length field, see Modbus Messaging on TCP/IP Implementation Guide V1.0b
+     */
+    private static final int MAX_LENGTH = 254;
+    private static final int MAX_FRAME_LENGTH = HEADER_LENGTH + MAX_LENGTH;
+
+    private static class Outstanding {
+        private final CompletableFuture<ModbusResponse> future;
+        private final long deadline;
+
+        private Outstanding(CompletableFuture<ModbusResponse> future, long deadline) {
+            this.future = future;
+            this.deadline = deadline;
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusNioConnection.class);
+
+    private final ModbusNioReactor reactor;
+    private final ModbusIPSlaveEndpoint endpoint;
+    private final boolean udp;
+    private final int connectTimeoutMillis;
+    private final int responseTimeoutMillis;
+
+    private volatile boolean connected;
+
+    // all below accessed only in the reactor thread
+    private @Nullable SelectableChannel channel;
+    private @Nullable SelectionKey key;
+    private @Nullable CompletableFuture<@Nullable Void> connectFuture;
+    private long connectDeadline;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(2 * MAX_FRAME_LENGTH);
+    private final Deque<ByteBuffer> writeQueue = new ArrayDeque<>();
+    private final Map<Integer, Outstanding> outstanding = new HashMap<>();
+    private int nextTransactionId = 1;
+
+    /**
+     * Construct connection. The connection is not connected yet.
+     *
+     * @param reactor reactor executing the I/O
+     * @param endpoint Modbus/TCP or Modbus/UDP endpoint
+     * @param connectTimeoutMillis timeout for establishing TCP connection. Zero means system default.
+     * @param responseTimeoutMillis how long to wait for the response of a single request
+     */
+    public ModbusNioConnection(ModbusNioReactor reactor, ModbusIPSlaveEndpoint endpoint, int connectTimeoutMillis,
+            int responseTimeoutMillis) {
+        this.reactor = reactor;
+        this.endpoint = endpoint;
+        this.udp = endpoint instanceof ModbusUDPSlaveEndpoint;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.responseTimeoutMillis = responseTimeoutMillis;
+    }
+
+    /**
+     * Connect asynchronously
+     *
+     * @return future completing when the connection has been established
+     */
+    public CompletableFuture<@Nullable Void> connectAsync() {
+        CompletableFuture<@Nullable Void> future = new CompletableFuture<>();
+        // resolve host name in the calling thread, not to block the reactor
+        InetSocketAddress address = new InetSocketAddress(endpoint.getAddress(), endpoint.getPort());
+        if (address.isUnresolved()) {
+            future.completeExceptionally(new IOException(String.format("Unknown host %s", endpoint.getAddress())));
+            return future;
+        }
+        submit(() -> startConnect(address, future), future);
+        return future;
+    }
+
+    @Override
+    public boolean connect() throws Exception {
+        try {
+            connectAsync().get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Close the channel, failing all outstanding requests
+     */
+    @Override
+    public void resetConnection() {
+        connected = false;
+        try {
+            reactor.execute(() -> close(new ModbusIOException("Connection was reset")));
+        } catch (RejectedExecutionException e) {
+            // reactor closed, and the channel with it
+        }
+    }
+
+    /**
+     * Execute request asynchronously
+     *
+     * The transaction id of the request is assigned by this method.
+     *
+     * @param request request to execute
+     * @return future completing with the response having transaction id matching the request. The future completes
+     *         exceptionally with {@link ModbusIOException} on I/O errors and timeouts, and with
+     *         {@link ModbusSlaveException} when the slave responds with exception response.
+     */
+    public CompletableFuture<ModbusResponse> executeAsync(ModbusRequest request) {
+        CompletableFuture<ModbusResponse> future = new CompletableFuture<>();
+        submit(() -> send(request, future), future);
+        return future;
+    }
+
+    /**
+     * Execute the request, and wait for the matching response
+     *
+     * @param request request to execute
+     * @return response with transaction id matching the request
+     * @throws ModbusIOException on I/O errors, and when no response is received in time
+     * @throws ModbusSlaveException when slave responds with exception response
+     */
+    public ModbusResponse execute(ModbusRequest request) throws ModbusIOException, ModbusSlaveException {
+        try {
+            return executeAsync(request).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModbusIOException("Interrupted while waiting for response");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ModbusSlaveException) {
+                throw (ModbusSlaveException) cause;
+            } else if (cause instanceof ModbusIOException) {
+                throw (ModbusIOException) cause;
+            }
+            throw new ModbusIOException(String.format("Request failed: %s", e.getMessage()));
+        }
+    }
+
+    private void submit(Runnable task, CompletableFuture<?> future) {
+        try {
+            reactor.execute(task);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new ModbusIOException("Reactor is closed"));
+        }
+    }
+
+    private void startConnect(InetSocketAddress address, CompletableFuture<@Nullable Void> future) {
+        if (channel != null) {
+            CompletableFuture<@Nullable Void> pendingConnect = connectFuture;
+            if (pendingConnect == null) {
+                future.complete(null);
+            } else {
+                pendingConnect.whenComplete((result, error) -> {
+                    if (error == null) {
+                        future.complete(null);
+                    } else {
+                        future.completeExceptionally(error);
+                    }
+                });
+            }
+            return;
+        }
+        try {
+            if (udp) {
+                DatagramChannel datagramChannel = DatagramChannel.open();
+                channel = datagramChannel;
+                datagramChannel.configureBlocking(false);
+                datagramChannel.connect(address);
+                key = reactor.register(datagramChannel, SelectionKey.OP_READ, this);
+                onConnected();
+                future.complete(null);
+            } else {
+                SocketChannel socketChannel = SocketChannel.open();
+                channel = socketChannel;
+                socketChannel.configureBlocking(false);
+                socketChannel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                if (socketChannel.connect(address)) {
+                    key = reactor.register(socketChannel, SelectionKey.OP_READ, this);
+                    onConnected();
+                    future.complete(null);
+                } else {
+                    connectFuture = future;
+                    connectDeadline = connectTimeoutMillis > 0 ? System.currentTimeMillis() + connectTimeoutMillis
+                            : Long.MAX_VALUE;
+                    key = reactor.register(socketChannel, SelectionKey.OP_CONNECT, this);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(new ModbusIOException(
+                    String.format("Connecting failed: %s %s", e.getClass().getSimpleName(), e.getMessage())));
+            close(new ModbusIOException("Connecting failed"));
+        }
+    }
+
+    private void onConnected() {
+        connected = true;
+        logger.debug("Connected non-blocking connection to endpoint {}", endpoint);
+    }
+
+    private void send(ModbusRequest request, CompletableFuture<ModbusResponse> future) {
+        SelectionKey key = this.key;
+        if (!connected || key == null) {
+            future.completeExceptionally(new ModbusIOException("Not connected"));
+            return;
+        }
+        // transaction id is 16 bits, skip ids still waiting for response
+        int transactionId;
+        do {
+            transactionId = nextTransactionId;
+            nextTransactionId = (nextTransactionId + 1) & 0xFFFF;
+        } while (outstanding.containsKey(transactionId));
+        request.setTransactionID(transactionId);
+
+        ByteArrayOutputStream frame = new ByteArrayOutputStream(MAX_FRAME_LENGTH);
+        try {
+            request.writeTo(new DataOutputStream(frame));
+        } catch (IOException e) {
+            future.completeExceptionally(new ModbusIOException(String.format("Encoding request failed: %s", e)));
+            return;
+        }
+        outstanding.put(transactionId,
+                new Outstanding(future, System.currentTimeMillis() + responseTimeoutMillis));
+        writeQueue.add(ByteBuffer.wrap(frame.toByteArray()));
+        flushWrites(key);
+    }
+
+    /**
+     * Handle readiness of the channel. Called in the reactor thread.
+     */
+    void onReady(SelectionKey key) {
+        try {
+            if (key.isConnectable()) {
+                finishConnect(key);
+            }
+            if (key.isValid() && key.isReadable()) {
+                read();
+            }
+            if (key.isValid() && key.isWritable()) {
+                flushWrites(key);
+            }
+        } catch (IOException e) {
+            close(new ModbusIOException(String.format("I/O error: %s %s", e.getClass().getSimpleName(),
+                    e.getMessage())));
+        }
+    }
+
+    private void finishConnect(SelectionKey key) throws IOException {
+        SocketChannel socketChannel = (SocketChannel) key.channel();
+        if (socketChannel.finishConnect()) {
+            key.interestOps(SelectionKey.OP_READ);
+            onConnected();
+            CompletableFuture<@Nullable Void> future = connectFuture;
+            connectFuture = null;
+            if (future != null) {
+                future.complete(null);
+            }
+        }
+    }
+
+    private void flushWrites(SelectionKey key) {
+        ByteChannel byteChannel = (ByteChannel) key.channel();
+        try {
+            while (!writeQueue.isEmpty()) {
+                ByteBuffer buffer = writeQueue.peek();
+                byteChannel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    break;
+                }
+                writeQueue.poll();
+            }
+        } catch (IOException e) {
+            close(new ModbusIOException(
+                    String.format("Writing request failed: %s %s", e.getClass().getSimpleName(), e.getMessage())));
+            return;
+        }
+        if (writeQueue.isEmpty()) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        } else {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void read() throws IOException {
+        ByteChannel byteChannel = (ByteChannel) channel;
+        if (byteChannel == null) {
+            return;
+        }
+        if (udp) {
+            // one datagram per read, discard any partial data of previous datagrams
+            readBuffer.clear();
+        }
+        int read = byteChannel.read(readBuffer);
+        if (read < 0) {
+            throw new IOException("Connection closed by the slave");
+        }
+        readBuffer.flip();
+        while (readBuffer.remaining() >= HEADER_LENGTH) {
+            int length = readBuffer.getShort(readBuffer.position() + 4) & 0xffff;
+            if (length < 2 || length > MAX_LENGTH) {
+                throw new IOException(String.format("Invalid length %d in MBAP header", length));
+            }
+            if (readBuffer.remaining() < HEADER_LENGTH + length) {
+                break;
+            }
+            byte[] frame = new byte[HEADER_LENGTH + length];
+            readBuffer.get(frame);
+            onFrame(frame);
+        }
+        readBuffer.compact();
+    }
+
+    private void onFrame(byte[] frame) throws IOException {
+        int transactionId = ((frame[0] & 0xff) << 8) | (frame[1] & 0xff);
+        Outstanding request = outstanding.remove(transactionId);
+        if (request == null) {
+            logger.debug("Discarding response with unexpected transaction id {} from endpoint {}", transactionId,
+                    endpoint);
+            return;
+        }
+        int functionCode = frame[HEADER_LENGTH + 1] & 0xff;
+        ModbusResponse response = ModbusResponse.createModbusResponse(functionCode);
+        response.readFrom(new DataInputStream(new ByteArrayInputStream(frame)));
+        if (response instanceof ExceptionResponse) {
+            request.future
+                    .completeExceptionally(new ModbusSlaveException(((ExceptionResponse) response).getExceptionCode()));
+        } else {
+            request.future.complete(response);
+        }
+    }
+
+    /**
+     * Time out the connection attempt and requests. Called in the reactor thread.
+     */
+    void checkTimeouts(long now) {
+        if (connectFuture != null && now >= connectDeadline) {
+            close(new ModbusIOException(String.format("Connecting timed out in %d ms", connectTimeoutMillis)));
+            return;
+        }
+        List<CompletableFuture<ModbusResponse>> timedOut = new ArrayList<>();
+        Iterator<Outstanding> iterator = outstanding.values().iterator();
+        while (iterator.hasNext()) {
+            Outstanding request = iterator.next();
+            if (now >= request.deadline) {
+                iterator.remove();
+                timedOut.add(request.future);
+            }
+        }
+        if (!timedOut.isEmpty()) {
+            logger.debug("{} requests to endpoint {} timed out", timedOut.size(), endpoint);
+            ModbusIOException error = new ModbusIOException(
+                    String.format("No response in %d ms", responseTimeoutMillis));
+            timedOut.forEach(future -> future.completeExceptionally(error));
+        }
+    }
+
+    /**
+     * Close the channel, failing all outstanding requests. Called in the reactor thread.
+     */
+    void close(ModbusException error) {
+        connected = false;
+        reactor.unregister(this);
+        SelectionKey key = this.key;
+        this.key = null;
+        if (key != null) {
+            key.cancel();
+        }
+        SelectableChannel channel = this.channel;
+        this.channel = null;
+        if (channel != null) {
+            logger.debug("Closing non-blocking connection to endpoint {}: {}", endpoint, error.getMessage());
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Error closing channel of endpoint {}: {}", endpoint, e.getMessage());
+            }
+        }
+        CompletableFuture<@Nullable Void> pendingConnect = connectFuture;
+        connectFuture = null;
+        if (pendingConnect != null) {
+            pendingConnect.completeExceptionally(error);
+        }
+        List<Outstanding> failed = new ArrayList<>(outstanding.values());
+        outstanding.clear();
+        writeQueue.clear();
+        readBuffer.clear();
+        failed.forEach(request -> request.future.completeExceptionally(error));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ModbusNioConnection[endpoint=%s, connected=%s]", endpoint, connected);
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal.nio;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.wimpi.modbus.ModbusIOException;
+
+/**
+ * Selector loop serving the I/O of all non-blocking Modbus connections
+ *
+ * Single thread connects, reads and writes the channels of any number of {@link ModbusNioConnection}s, and times out
+ * the requests and connection attempts. All channel operations are executed in the reactor thread: other threads
+ * submit tasks using {@link #execute(Runnable)}.
+ *
+ * Timeouts are checked every {@value #TIMEOUT_CHECK_INTERVAL_MILLIS} milliseconds.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusNioReactor implements AutoCloseable {
+
+    static final long TIMEOUT_CHECK_INTERVAL_MILLIS = 50;
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusNioReactor.class);
+
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    /**
+     * Connections with open channel, checked for timeouts
+     */
+    private final Set<ModbusNioConnection> connections = ConcurrentHashMap.newKeySet();
+    private volatile boolean running = true;
+
+    /**
+     * Open selector and start the reactor thread
+     *
+     * @param threadName name of the reactor thread
+     * @throws IOException when selector cannot be opened
+     */
+    public ModbusNioReactor(String threadName) throws IOException {
+        selector = Selector.open();
+        thread = new Thread(this::run, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Execute task in the reactor thread
+     *
+     * @param task task to execute
+     * @throws RejectedExecutionException when the reactor has been closed
+     */
+    public void execute(Runnable task) {
+        if (!running) {
+            throw new RejectedExecutionException("Reactor is closed");
+        }
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Get number of connections with open channel
+     *
+     * @return number of open connections
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Register channel with the selector. Must be called in the reactor thread.
+     */
+    SelectionKey register(SelectableChannel channel, int interestOps, ModbusNioConnection connection)
+            throws ClosedChannelException {
+        connections.add(connection);
+        return channel.register(selector, interestOps, connection);
+    }
+
+    /**
+     * Stop tracking the connection. Must be called in the reactor thread.
+     */
+    void unregister(ModbusNioConnection connection) {
+        connections.remove(connection);
+    }
+
+    private void run() {
+        logger.debug("Modbus NIO reactor started");
+        while (running) {
+            try {
+                selector.select(TIMEOUT_CHECK_INTERVAL_MILLIS);
+            } catch (IOException e) {
+                logger.error("Error selecting channels: {} {}", e.getClass().getName(), e.getMessage());
+                break;
+            }
+            runPendingTasks();
+            Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+            while (selected.hasNext()) {
+                SelectionKey key = selected.next();
+                selected.remove();
+                if (key.isValid()) {
+                    ModbusNioConnection connection = (ModbusNioConnection) key.attachment();
+                    runSafely(() -> connection.onReady(key));
+                }
+            }
+            long now = System.currentTimeMillis();
+            for (ModbusNioConnection connection : connections) {
+                runSafely(() -> connection.checkTimeouts(now));
+            }
+        }
+        // Tasks submitted before closing might open new channels, close the connections only after them
+        runPendingTasks();
+        ModbusIOException error = new ModbusIOException("Reactor is closed");
+        connections.forEach(connection -> runSafely(() -> connection.close(error)));
+        connections.clear();
+        try {
+            selector.close();
+        } catch (IOException e) {
+            logger.debug("Error closing selector: {}", e.getMessage());
+        }
+        // Tasks racing with close() fail since the selector is closed
+        runPendingTasks();
+        logger.debug("Modbus NIO reactor stopped");
+    }
+
+    private void runPendingTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            runSafely(task);
+        }
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            logger.error("Unexpected error in Modbus NIO reactor: {} {}", e.getClass().getName(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stop the reactor thread, closing all the connections
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        if (Thread.currentThread() != thread) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
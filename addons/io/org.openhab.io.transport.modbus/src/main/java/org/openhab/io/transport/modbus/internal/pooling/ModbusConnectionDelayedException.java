@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal.pooling;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Exception for connections which cannot be connected yet, since the previous connection attempt to the endpoint was
+ * too recent
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusConnectionDelayedException extends Exception {
+
+    private static final long serialVersionUID = 4392075612845305287L;
+
+    private final long delayMillis;
+
+    public ModbusConnectionDelayedException(ModbusSlaveEndpoint endpoint, long delayMillis) {
+        super(String.format("Connection to endpoint %s can be attempted in %d ms", endpoint, delayMillis));
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Get how long to wait before the connection can be attempted again
+     *
+     * @return delay in milliseconds
+     */
+    public long getDelayMillis() {
+        return delayMillis;
+    }
+}
@@ -8,6 +8,7 @@
  */
 package org.openhab.io.transport.modbus.internal.pooling;
 
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.Map;
@@ -26,9 +27,12 @@ import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpointVisitor;
 import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusUDPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.nio.ModbusNioConnection;
+import org.openhab.io.transport.modbus.internal.nio.ModbusNioReactor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.wimpi.modbus.Modbus;
 import net.wimpi.modbus.net.ModbusSlaveConnection;
 import net.wimpi.modbus.net.SerialConnection;
 import net.wimpi.modbus.net.TCPMasterConnection;
@@ -43,11 +47,17 @@ import net.wimpi.modbus.net.UDPMasterConnection;
  * - create: create connection object but do not connect it yet
  * - destroyObject: close connection and free all resources. Called by the pool when the pool is being closed or the
  * object is invalidated.
- * - activateObject: prepare connection to be used. In practice, connect if disconnected
+ * - activateObject: prepare connection to be used. In practice, connect if disconnected. In case the endpoint was
+ * connected too recently, {@link ModbusConnectionDelayedException} is thrown instead of waiting, so that the caller can
+ * try again later.
  * - passivateObject: passivate connection before returning it back to the pool. Currently, passivateObject closes all
  * IP-based connections every now and then (reconnectAfterMillis). Serial connections we keep open.
  * - wrap: wrap created connection to pooled object wrapper class. It tracks usage statistics and last connection time.
  *
+ * Endpoints configured to use non-blocking I/O (see {@link EndpointPoolConfiguration#isNonBlockingIO()}) are not
+ * pooled. Their {@link ModbusNioConnection}s are created with {@link #createNioConnection(ModbusIPSlaveEndpoint)}, and
+ * share single {@link ModbusNioReactor}, released with {@link #close()}.
+ *
  * Note that the implementation must be thread safe.
  *
  * @author Sami Salonen - Initial contribution
@@ -74,12 +84,15 @@ public class ModbusSlaveConnectionFactoryImpl
 
     }
 
+    private static final String NIO_REACTOR_THREAD_NAME = "modbusNioReactor";
+
     private final Logger logger = LoggerFactory.getLogger(ModbusSlaveConnectionFactoryImpl.class);
     private volatile Map<ModbusSlaveEndpoint, @Nullable EndpointPoolConfiguration> endpointPoolConfigs = new ConcurrentHashMap<>();
-    private volatile Map<ModbusSlaveEndpoint, Long> lastPassivateMillis = new ConcurrentHashMap<>();
     private volatile Map<ModbusSlaveEndpoint, Long> lastConnectMillis = new ConcurrentHashMap<>();
     private volatile Map<ModbusSlaveEndpoint, Long> disconnectIfConnectedBefore = new ConcurrentHashMap<>();
     private volatile Function<ModbusSlaveEndpoint, @Nullable EndpointPoolConfiguration> defaultPoolConfigurationFactory = endpoint -> null;
+    private @Nullable ModbusNioReactor nioReactor;
+    private boolean closed;
 
     private @Nullable InetAddress getInetAddress(ModbusIPSlaveEndpoint key) {
         try {
@@ -130,6 +143,60 @@ public class ModbusSlaveConnectionFactoryImpl
         });
     }
 
+    /**
+     * Create non-blocking connection for the endpoint. The connection is not connected yet.
+     *
+     * The timeouts are taken from the configuration of the endpoint.
+     *
+     * @param key Modbus/TCP or Modbus/UDP endpoint
+     * @return non-blocking connection, or null if the factory has been closed or the reactor could not be started
+     */
+    public @Nullable ModbusNioConnection createNioConnection(ModbusIPSlaveEndpoint key) {
+        ModbusNioReactor reactor;
+        synchronized (this) {
+            if (closed) {
+                logger.warn("Connection factory is closed, not creating connection for endpoint {}", key);
+                return null;
+            }
+            reactor = nioReactor;
+            if (reactor == null) {
+                try {
+                    nioReactor = reactor = new ModbusNioReactor(NIO_REACTOR_THREAD_NAME);
+                } catch (IOException e) {
+                    logger.error("Could not start non-blocking I/O for endpoint {}: {} {}", key,
+                            e.getClass().getName(), e.getMessage());
+                    return null;
+                }
+            }
+        }
+        EndpointPoolConfiguration config = getEndpointPoolConfiguration(key);
+        int connectTimeoutMillis = 0;
+        int responseTimeoutMillis = Modbus.DEFAULT_TIMEOUT;
+        if (config != null) {
+            connectTimeoutMillis = config.getConnectTimeoutMillis();
+            responseTimeoutMillis = config.getResponseTimeoutMillis();
+        }
+        ModbusNioConnection connection = new ModbusNioConnection(reactor, key, connectTimeoutMillis,
+                responseTimeoutMillis);
+        logger.trace("Created connection {} for endpoint {}", connection, key);
+        return connection;
+    }
+
+    /**
+     * Release the resources shared by the connections, closing all non-blocking connections
+     */
+    public void close() {
+        ModbusNioReactor reactor;
+        synchronized (this) {
+            closed = true;
+            reactor = nioReactor;
+            nioReactor = null;
+        }
+        if (reactor != null) {
+            reactor.close();
+        }
+    }
+
     @Override
     public PooledObject<ModbusSlaveConnection> wrap(ModbusSlaveConnection connection) {
         return new PooledConnection(connection);
@@ -161,16 +228,12 @@ public class ModbusSlaveConnectionFactoryImpl
         try {
             @Nullable
             EndpointPoolConfiguration config = getEndpointPoolConfiguration(endpoint);
+            // Delay between transactions is ensured by the dispatcher of the endpoint
             if (!connection.isConnected()) {
                 tryConnect(endpoint, obj, connection, config);
             }
-
-            if (config != null) {
-                long waited = waitAtleast(lastPassivateMillis.get(endpoint), config.getInterTransactionDelayMillis());
-                logger.trace(
-                        "Waited {}ms (interTransactionDelayMillis {}ms) before giving returning connection {} for endpoint {}, to ensure delay between transactions.",
-                        waited, config.getInterTransactionDelayMillis(), obj.getObject(), endpoint);
-            }
+        } catch (ModbusConnectionDelayedException e) {
+            throw e;
         } catch (InterruptedException e) {
             // Someone wants to cancel us, reset the connection and abort
             if (connection.isConnected()) {
@@ -192,7 +255,6 @@ public class ModbusSlaveConnectionFactoryImpl
             return;
         }
         logger.trace("Passivating connection {} for endpoint {}...", connection, endpoint);
-        lastPassivateMillis.put(endpoint, System.currentTimeMillis());
         @Nullable
         EndpointPoolConfiguration configuration = endpointPoolConfigs.get(endpoint);
         long connected = ((PooledConnection) obj).getLastConnected();
@@ -264,72 +326,49 @@ public class ModbusSlaveConnectionFactoryImpl
         this.defaultPoolConfigurationFactory = defaultPoolConfigurationFactory;
     }
 
+    /**
+     * Try to connect once. Tries are repeated by the caller, since this would need to wait for the delay between
+     * connection attempts.
+     *
+     * @throws ModbusConnectionDelayedException if the previous connection attempt was too recent
+     */
     private void tryConnect(ModbusSlaveEndpoint endpoint, PooledObject<ModbusSlaveConnection> obj,
             ModbusSlaveConnection connection, @Nullable EndpointPoolConfiguration config) throws Exception {
         if (connection.isConnected()) {
             return;
         }
-        int tryIndex = 0;
-        Long lastConnect = lastConnectMillis.get(endpoint);
-        int maxTries = config == null ? 1 : config.getConnectMaxTries();
-        do {
-            try {
-                if (config != null) {
-                    long waited = waitAtleast(lastConnect,
-                            Math.max(config.getInterConnectDelayMillis(), config.getInterTransactionDelayMillis()));
-                    if (waited > 0) {
-                        logger.trace(
-                                "Waited {}ms (interConnectDelayMillis {}ms, interTransactionDelayMillis {}ms) before "
-                                        + "connecting disconnected connection {} for endpoint {}, to allow delay "
-                                        + "between connections re-connects",
-                                waited, config.getInterConnectDelayMillis(), config.getInterTransactionDelayMillis(),
-                                obj.getObject(), endpoint);
-                    }
-                }
-                connection.connect();
-                long curTime = System.currentTimeMillis();
-                ((PooledConnection) obj).setLastConnected(curTime);
-                lastConnectMillis.put(endpoint, curTime);
-                break;
-            } catch (InterruptedException e) {
-                logger.error("connect try {}/{} error: {}. Aborting since interrupted. Connection {}. Endpoint {}.",
-                        tryIndex, maxTries, e.getMessage(), connection, endpoint);
-                throw e;
-            } catch (Exception e) {
-                tryIndex++;
-                logger.error("connect try {}/{} error: {}. Connection {}. Endpoint {}", tryIndex, maxTries,
-                        e.getMessage(), connection, endpoint);
-                if (tryIndex >= maxTries) {
-                    logger.error("re-connect reached max tries {}, throwing last error: {}. Connection {}. Endpoint {}",
-                            maxTries, e.getMessage(), connection, endpoint);
-                    throw e;
-                }
-                lastConnect = System.currentTimeMillis();
+        if (config != null) {
+            long delay = getRemainingDelayMillis(lastConnectMillis.get(endpoint),
+                    Math.max(config.getInterConnectDelayMillis(), config.getInterTransactionDelayMillis()));
+            if (delay > 0) {
+                logger.trace(
+                        "Connection {} for endpoint {} can be connected in {}ms (interConnectDelayMillis {}ms, "
+                                + "interTransactionDelayMillis {}ms), to allow delay between connections re-connects",
+                        obj.getObject(), endpoint, delay, config.getInterConnectDelayMillis(),
+                        config.getInterTransactionDelayMillis());
+                throw new ModbusConnectionDelayedException(endpoint, delay);
             }
-        } while (true);
+        }
+        long curTime = System.currentTimeMillis();
+        // failed attempts count as well, retries need to wait for the delay
+        lastConnectMillis.put(endpoint, curTime);
+        connection.connect();
+        ((PooledConnection) obj).setLastConnected(curTime);
     }
 
     /**
-     * Sleep until <code>waitMillis</code> has passed from <code>lastOperation</code>
+     * Get how long to wait still until <code>waitMillis</code> has passed from <code>lastOperation</code>
      *
      * @param lastOperation last time operation was executed, or null if it has not been executed
      * @param waitMillis
-     * @return milliseconds slept
-     * @throws InterruptedException
+     * @return milliseconds to wait still, zero if no wait is needed
      */
-    public static long waitAtleast(@Nullable Long lastOperation, long waitMillis) throws InterruptedException {
+    public static long getRemainingDelayMillis(@Nullable Long lastOperation, long waitMillis) {
         if (lastOperation == null) {
             return 0;
         }
         long millisSinceLast = System.currentTimeMillis() - lastOperation;
-        long millisToWaitStill = Math.min(waitMillis, Math.max(0, waitMillis - millisSinceLast));
-        try {
-            Thread.sleep(millisToWaitStill);
-        } catch (InterruptedException e) {
-            LoggerFactory.getLogger(ModbusSlaveConnectionFactoryImpl.class).debug("wait interrupted: {}", e);
-            throw e;
-        }
-        return millisToWaitStill;
+        return Math.min(waitMillis, Math.max(0, waitMillis - millisSinceLast));
     }
 
     /**
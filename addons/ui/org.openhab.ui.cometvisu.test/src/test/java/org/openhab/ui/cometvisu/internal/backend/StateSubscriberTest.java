@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.ui.cometvisu.internal.backend;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the coalescing queue of {@link StateSubscriber}
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class StateSubscriberTest {
+
+    /**
+     * Records the data of the written events
+     */
+    private static class RecordingEventOutput extends EventOutput {
+        private final List<Object> events = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public void write(OutboundEvent event) throws IOException {
+            events.add(event.getData());
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private RecordingEventOutput eventOutput;
+    private StateSubscriber subscriber;
+
+    @Before
+    public void setUp() {
+        eventOutput = new RecordingEventOutput();
+        subscriber = new StateSubscriber(eventOutput, Collections.emptyMap(), tasks::add);
+    }
+
+    private static String state(String item, String state) {
+        return "\"" + item + "\":\"" + state + "\"";
+    }
+
+    private void runTasks() {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    @Test
+    public void testOffer_latestStateWinsPerItem() {
+        assertTrue(subscriber.offer("a", state("a", "1")));
+        assertTrue(subscriber.offer("b", state("b", "1")));
+        assertTrue(subscriber.offer("a", state("a", "2")));
+
+        runTasks();
+
+        assertEquals(Arrays.asList("{\"d\":{\"a\":\"2\",\"b\":\"1\"}}"), eventOutput.events);
+    }
+
+    @Test
+    public void testOffer_singleWriteTaskWhilePending() {
+        subscriber.offer("a", state("a", "1"));
+        subscriber.offer("b", state("b", "1"));
+        subscriber.offer("a", state("a", "2"));
+
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    public void testOffer_afterWriteSentAsNewEvent() {
+        subscriber.offer("a", state("a", "1"));
+        runTasks();
+        subscriber.offer("a", state("a", "2"));
+        assertEquals(1, tasks.size());
+        runTasks();
+
+        assertEquals(Arrays.asList("{\"d\":{\"a\":\"1\"}}", "{\"d\":{\"a\":\"2\"}}"), eventOutput.events);
+    }
+
+    @Test
+    public void testOfferInitialStates_newerStateKept() {
+        subscriber.offer("a", state("a", "2"));
+        Map<String, String> initialStates = new LinkedHashMap<>();
+        initialStates.put("a", state("a", "1"));
+        initialStates.put("b", state("b", "1"));
+        subscriber.offerInitialStates(initialStates);
+
+        runTasks();
+
+        assertEquals(Arrays.asList("{\"d\":{\"a\":\"2\",\"b\":\"1\"}}"), eventOutput.events);
+    }
+
+    @Test
+    public void testOffer_closedClientRejected() {
+        eventOutput.close();
+
+        assertFalse(subscriber.offer("a", state("a", "1")));
+        assertTrue(subscriber.isClosed());
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testWrite_pendingStatesDroppedWhenClosed() {
+        subscriber.offer("a", state("a", "1"));
+        eventOutput.close();
+
+        runTasks();
+
+        assertTrue(eventOutput.events.isEmpty());
+    }
+}
@@ -14,6 +14,7 @@ import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import javax.ws.rs.Produces;
@@ -66,23 +67,38 @@ public class StateBeanMessageBodyWriter implements MessageBodyWriter<Object> {
      *         - CV-Protocol state update json format {d:{item:state,...}}
      */
     public String serialize(Object bean) {
-        String msg = "{\"d\":{";
+        List<String> states = new ArrayList<String>();
         if (bean instanceof StateBean) {
-            StateBean stateBean = (StateBean) bean;
-            msg += "\"" + stateBean.name + "\":\"" + stateBean.state + "\"";
+            states.add(serializeState((StateBean) bean));
         } else if (bean instanceof List<?>) {
-            List<String> states = new ArrayList<String>();
             for (Object bo : (List<?>) bean) {
                 if (bo instanceof StateBean) {
-                    StateBean stateBean = (StateBean) bo;
-                    states.add("\"" + stateBean.name + "\":\"" + stateBean.state + "\"");
+                    states.add(serializeState((StateBean) bo));
                 }
             }
-            if (states.size() > 0) {
-                msg += StringUtils.join(states, ",");
-            }
         }
-        msg += "}}";
-        return msg;
+        return serializeStates(states);
+    }
+
+    /**
+     *
+     * @param stateBean
+     *            - StateBean
+     * @return String
+     *         - single state in CV-Protocol format item:state, to be combined by {@link #serializeStates(Collection)}
+     */
+    public String serializeState(StateBean stateBean) {
+        return "\"" + stateBean.name + "\":\"" + stateBean.state + "\"";
+    }
+
+    /**
+     *
+     * @param serializedStates
+     *            - states serialized by {@link #serializeState(StateBean)}
+     * @return String
+     *         - CV-Protocol state update json format {d:{item:state,...}}
+     */
+    public String serializeStates(Collection<String> serializedStates) {
+        return "{\"d\":{" + StringUtils.join(serializedStates, ",") + "}}";
     }
 }
@@ -12,11 +12,11 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -27,6 +27,7 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.UriInfo;
 
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemFactory;
@@ -35,12 +36,11 @@ import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.io.rest.RESTResource;
 import org.glassfish.jersey.media.sse.EventOutput;
-import org.glassfish.jersey.media.sse.SseBroadcaster;
 import org.glassfish.jersey.media.sse.SseFeature;
 import org.openhab.ui.cometvisu.internal.Config;
+import org.openhab.ui.cometvisu.internal.StateBeanMessageBodyWriter;
 import org.openhab.ui.cometvisu.internal.backend.beans.StateBean;
 import org.openhab.ui.cometvisu.internal.listeners.StateEventListener;
-import org.openhab.ui.cometvisu.internal.util.SseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,13 +48,19 @@ import org.slf4j.LoggerFactory;
  * handles read request from the CometVisu client every request initializes a
  * SSE communication
  *
+ * State changes are only sent to the clients which requested the item. Each
+ * state change is serialized once and queued for each of these clients, see
+ * {@link StateSubscriber}.
+ *
  * @author Tobias Bräutigam
  */
 @Path(Config.COMETVISU_BACKEND_ALIAS + "/" + Config.COMETVISU_BACKEND_READ_ALIAS)
 public class ReadResource implements EventBroadcaster, RESTResource {
     private final Logger logger = LoggerFactory.getLogger(ReadResource.class);
 
-    private SseBroadcaster broadcaster = new SseBroadcaster();
+    private final StateBeanMessageBodyWriter writer = new StateBeanMessageBodyWriter();
+
+    private static final String THREADPOOL_NAME = "cometvisu";
 
     private final ExecutorService executorService;
 
@@ -62,8 +68,11 @@ public class ReadResource implements EventBroadcaster, RESTResource {
 
     private StateEventListener stateEventListener;
 
-    private List<String> itemNames = new ArrayList<String>();
-    private Map<Item, Map<String, Class<? extends State>>> items = new HashMap<Item, Map<String, Class<? extends State>>>();
+    // guarded by this
+    private final List<StateSubscriber> subscribers = new ArrayList<StateSubscriber>();
+
+    // replaced as a whole when subscribers are added or removed
+    private volatile SubscriberIndex index = new SubscriberIndex();
 
     @Context
     private UriInfo uriInfo;
@@ -76,8 +85,39 @@ public class ReadResource implements EventBroadcaster, RESTResource {
 
     private Collection<ItemFactory> itemFactories = new CopyOnWriteArrayList<ItemFactory>();
 
+    /**
+     * Index of the subscribers by the requested items
+     */
+    private static class SubscriberIndex {
+        // CometVisu item name -> subscribers
+        private final Map<String, List<StateSubscriber>> subscribers = new HashMap<String, List<StateSubscriber>>();
+
+        // openHAB item name -> CometVisu item names and their state class, of all subscribers
+        private final Map<String, Map<String, Class<? extends State>>> clientItems = new HashMap<String, Map<String, Class<? extends State>>>();
+
+        private SubscriberIndex() {
+        }
+
+        private SubscriberIndex(Collection<StateSubscriber> stateSubscribers) {
+            for (StateSubscriber subscriber : stateSubscribers) {
+                for (Map.Entry<String, Map<String, Class<? extends State>>> item : subscriber.getItems()
+                        .entrySet()) {
+                    Map<String, Class<? extends State>> cvItems = clientItems.computeIfAbsent(item.getKey(),
+                            k -> new HashMap<String, Class<? extends State>>());
+                    cvItems.putAll(item.getValue());
+                    for (String cvItemName : item.getValue().keySet()) {
+                        subscribers.computeIfAbsent(cvItemName, k -> new ArrayList<StateSubscriber>())
+                                .add(subscriber);
+                    }
+                }
+            }
+        }
+    }
+
     public ReadResource() {
-        this.executorService = Executors.newSingleThreadExecutor();
+        // one task per client with pending states, so a slow client does not delay the others. The shared pool is
+        // bounded and managed by the framework, so it is not shut down here.
+        this.executorService = ThreadPoolManager.getPool(THREADPOOL_NAME);
         this.stateEventListener = new StateEventListener();
         this.stateEventListener.setEventBroadcaster(this);
     }
@@ -114,55 +154,57 @@ public class ReadResource implements EventBroadcaster, RESTResource {
             @QueryParam("t") long time) throws IOException, InterruptedException {
         final EventOutput eventOutput = new EventOutput();
 
-        this.itemNames = itemNames;
+        // get all requested items
+        Map<String, Map<String, Class<? extends State>>> items = new HashMap<String, Map<String, Class<? extends State>>>();
+        for (String cvItemName : itemNames) {
+            String[] parts = cvItemName.split(":");
+            String ohItemName = cvItemName;
+            Class<? extends State> stateClass = null;
+            if (parts.length == 2) {
+                String classPrefix = parts[0].toLowerCase();
+                if (Config.itemTypeMapper.containsKey(classPrefix)) {
+                    stateClass = Config.itemTypeMapper.get(classPrefix);
+                } else {
+                    logger.debug("no type found for '{}'", classPrefix);
+                }
+                ohItemName = parts[1];
+            }
+            if (!items.containsKey(ohItemName)) {
+                items.put(ohItemName, new HashMap<String, Class<? extends State>>());
+            }
+            items.get(ohItemName).put(cvItemName, stateClass);
+        }
 
-        broadcaster.add(eventOutput);
+        // listen to state changes of the requested items, before reading the current states so that no change is
+        // missed
+        StateSubscriber subscriber = new StateSubscriber(eventOutput, items, executorService);
+        addSubscriber(subscriber);
 
-        // get all requested items and send their states to the client
-        items = new HashMap<Item, Map<String, Class<? extends State>>>();
         // send the current states of all items to the client
         if (this.itemRegistry != null) {
-            List<StateBean> states = new ArrayList<StateBean>();
-            for (String cvItemName : itemNames) {
+            Map<String, String> states = new LinkedHashMap<String, String>();
+            for (Map.Entry<String, Map<String, Class<? extends State>>> entry : items.entrySet()) {
                 try {
-                    String[] parts = cvItemName.split(":");
-                    String ohItemName = cvItemName;
-                    Class<? extends State> stateClass = null;
-                    if (parts.length == 2) {
-                        String classPrefix = parts[0].toLowerCase();
-                        if (Config.itemTypeMapper.containsKey(classPrefix)) {
-                            stateClass = Config.itemTypeMapper.get(classPrefix);
-                            classPrefix += ":";
+                    Item item = this.itemRegistry.getItem(entry.getKey());
+                    for (Map.Entry<String, Class<? extends State>> cvItem : entry.getValue().entrySet()) {
+                        StateBean itemState = new StateBean();
+                        itemState.name = cvItem.getKey();
+                        Class<? extends State> stateClass = cvItem.getValue();
+                        if (stateClass != null) {
+                            itemState.state = item.getStateAs(stateClass).toString();
+                            logger.trace("get state of '{}' as '{}' == '{}'", item, stateClass, itemState.state);
                         } else {
-                            logger.debug("no type found for '{}'", classPrefix);
-                            classPrefix = "";
+                            itemState.state = item.getState().toString();
                         }
-                        ohItemName = parts[1];
-                    }
-                    Item item = this.itemRegistry.getItem(ohItemName);
-                    if (!items.containsKey(item)) {
-                        items.put(item, new HashMap<String, Class<? extends State>>());
+                        states.put(itemState.name, writer.serializeState(itemState));
                     }
-                    items.get(item).put(cvItemName, stateClass);
-                    StateBean itemState = new StateBean();
-                    itemState.name = cvItemName;
-
-                    if (stateClass != null) {
-                        itemState.state = item.getStateAs(stateClass).toString();
-                        logger.trace("get state of '{}' as '{}' == '{}'", item, stateClass, itemState.state);
-                    } else {
-                        itemState.state = item.getState().toString();
-                    }
-                    states.add(itemState);
                 } catch (ItemNotFoundException e) {
                     logger.error("{}", e.getLocalizedMessage());
                 }
             }
-            logger.debug("initially broadcasting {}/{} item states", states.size(), itemNames.size());
-            broadcaster.broadcast(SseUtil.buildEvent(states));
+            logger.debug("initially sending {}/{} item states", states.size(), itemNames.size());
+            subscriber.offerInitialStates(states);
         }
-        // listen to state changes of the requested items
-        registerItems();
 
         return eventOutput;
     }
@@ -172,7 +214,11 @@ public class ReadResource implements EventBroadcaster, RESTResource {
      */
     @Override
     public void registerItems() {
-        for (Item item : items.keySet()) {
+        if (itemRegistry == null) {
+            return;
+        }
+        for (String itemName : index.clientItems.keySet()) {
+            Item item = itemRegistry.get(itemName);
             if (item instanceof GenericItem) {
                 ((GenericItem) item).addStateChangeListener(stateEventListener);
             }
@@ -188,7 +234,7 @@ public class ReadResource implements EventBroadcaster, RESTResource {
      */
     @Override
     public void registerItem(Item item) {
-        if (item == null || items.containsKey(item) || !itemNames.contains(item.getName())) {
+        if (item == null || !index.clientItems.containsKey(item.getName())) {
             return;
         }
         if (item instanceof GenericItem) {
@@ -197,41 +243,80 @@ public class ReadResource implements EventBroadcaster, RESTResource {
     }
 
     /**
-     * listens to state changes of the given item, if it is part of the
-     * requested items
+     * stops listening to state changes of the given item
      *
      * @param item
-     *            - the new item, that should be listened to
+     *            - the removed item, that should not be listened to anymore
      */
     @Override
     public void unregisterItem(Item item) {
-        if (item == null || items.containsKey(item) || !itemNames.contains(item.getName())) {
-            return;
-        }
         if (item instanceof GenericItem) {
             ((GenericItem) item).removeStateChangeListener(stateEventListener);
-            items.remove(item);
         }
     }
 
     /**
-     * Broadcasts an event described by the given parameters to all currently
-     * listening clients.
+     * Sends an event described by the given parameters to all currently
+     * listening clients, which requested the item.
      *
-     * @param item
-     *            - the item which has changed
      * @param eventObject
-     *            - bean that can be converted to a JSON object.
+     *            - StateBean or List<StateBean>
      */
     @Override
     public void broadcastEvent(final Object eventObject) {
-        executorService.execute(() -> {
-            broadcaster.broadcast(SseUtil.buildEvent(eventObject));
-        });
+        if (eventObject instanceof StateBean) {
+            broadcastState((StateBean) eventObject);
+        } else if (eventObject instanceof List<?>) {
+            for (Object bean : (List<?>) eventObject) {
+                if (bean instanceof StateBean) {
+                    broadcastState((StateBean) bean);
+                }
+            }
+        }
     }
 
     @Override
     public Map<String, Class<? extends State>> getClientItems(Item item) {
-        return items.get(item);
+        return index.clientItems.get(item.getName());
+    }
+
+    private void broadcastState(StateBean stateBean) {
+        List<StateSubscriber> stateSubscribers = index.subscribers.get(stateBean.name);
+        if (stateSubscribers == null) {
+            return;
+        }
+        String serializedState = writer.serializeState(stateBean);
+        for (StateSubscriber subscriber : stateSubscribers) {
+            if (!subscriber.offer(stateBean.name, serializedState)) {
+                removeSubscriber(subscriber);
+            }
+        }
+    }
+
+    private synchronized void addSubscriber(StateSubscriber subscriber) {
+        // drop clients which disconnected without an event being sent to them
+        subscribers.removeIf(StateSubscriber::isClosed);
+        subscribers.add(subscriber);
+        updateIndex();
+    }
+
+    private synchronized void removeSubscriber(StateSubscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            updateIndex();
+        }
+    }
+
+    private void updateIndex() {
+        SubscriberIndex oldIndex = index;
+        index = new SubscriberIndex(subscribers);
+        if (itemRegistry == null) {
+            return;
+        }
+        for (String itemName : oldIndex.clientItems.keySet()) {
+            if (!index.clientItems.containsKey(itemName)) {
+                unregisterItem(itemRegistry.get(itemName));
+            }
+        }
+        registerItems();
     }
 }
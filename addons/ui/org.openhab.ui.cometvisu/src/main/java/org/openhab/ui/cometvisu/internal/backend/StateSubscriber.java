@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.ui.cometvisu.internal.backend;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import org.eclipse.smarthome.core.types.State;
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.openhab.ui.cometvisu.internal.StateBeanMessageBodyWriter;
+import org.openhab.ui.cometvisu.internal.util.SseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A CometVisu client listening to state changes of the items it requested.
+ *
+ * States are queued per item and written to the client by a single task at a time, so a client which is slower than
+ * the state changes only receives the latest state of each item, combined into a single event. As there is at most
+ * one pending state per requested item, the queue is bounded by the number of items requested by the client.
+ *
+ * @author agent - Initial contribution
+ */
+public class StateSubscriber {
+    private final Logger logger = LoggerFactory.getLogger(StateSubscriber.class);
+
+    private final StateBeanMessageBodyWriter writer = new StateBeanMessageBodyWriter();
+
+    private final EventOutput eventOutput;
+
+    private final Map<String, Map<String, Class<? extends State>>> items;
+
+    private final Executor executor;
+
+    // all below guarded by this
+    private final Map<String, String> pendingStates = new LinkedHashMap<String, String>();
+    private boolean writing;
+    private boolean closed;
+
+    /**
+     * @param eventOutput
+     *            - the SSE connection of the client
+     * @param items
+     *            - the requested openHAB item names, with the requested
+     *            CometVisu item names and their state class (or null)
+     * @param executor
+     *            - executor writing the states to the client
+     */
+    public StateSubscriber(EventOutput eventOutput, Map<String, Map<String, Class<? extends State>>> items,
+            Executor executor) {
+        this.eventOutput = eventOutput;
+        this.items = items;
+        this.executor = executor;
+    }
+
+    public EventOutput getEventOutput() {
+        return eventOutput;
+    }
+
+    /**
+     * @return the requested openHAB item names, with the requested CometVisu
+     *         item names and their state class (or null)
+     */
+    public Map<String, Map<String, Class<? extends State>>> getItems() {
+        return items;
+    }
+
+    /**
+     * Queues a state change, replacing a pending state of the same item
+     *
+     * @param cvItemName
+     *            - the CometVisu item name
+     * @param serializedState
+     *            - the state, as serialized by
+     *            {@link StateBeanMessageBodyWriter#serializeState}
+     * @return false if the client is disconnected
+     */
+    public synchronized boolean offer(String cvItemName, String serializedState) {
+        if (isClosed()) {
+            return false;
+        }
+        pendingStates.put(cvItemName, serializedState);
+        scheduleWrite();
+        return true;
+    }
+
+    /**
+     * Queues the initial states of the requested items, which are sent as a
+     * single event. Items with a state change queued in the meantime keep
+     * the newer state.
+     *
+     * @param serializedStates
+     *            - the states by CometVisu item name, as serialized by
+     *            {@link StateBeanMessageBodyWriter#serializeState}
+     */
+    public synchronized void offerInitialStates(Map<String, String> serializedStates) {
+        serializedStates.forEach(pendingStates::putIfAbsent);
+        scheduleWrite();
+    }
+
+    public synchronized boolean isClosed() {
+        return closed || eventOutput.isClosed();
+    }
+
+    private void scheduleWrite() {
+        if (!writing && !pendingStates.isEmpty()) {
+            writing = true;
+            executor.execute(this::write);
+        }
+    }
+
+    private void write() {
+        while (true) {
+            List<String> states;
+            synchronized (this) {
+                if (pendingStates.isEmpty() || isClosed()) {
+                    writing = false;
+                    return;
+                }
+                states = new ArrayList<String>(pendingStates.values());
+                pendingStates.clear();
+            }
+            try {
+                eventOutput.write(SseUtil.buildSerializedEvent(writer.serializeStates(states)));
+            } catch (IOException | RuntimeException e) {
+                logger.debug("closing connection to client: {}", e.getMessage());
+                close();
+            }
+        }
+    }
+
+    private void close() {
+        synchronized (this) {
+            closed = true;
+            pendingStates.clear();
+        }
+        try {
+            eventOutput.close();
+        } catch (IOException e) {
+            logger.trace("error closing connection to client: {}", e.getMessage());
+        }
+    }
+}
@@ -37,12 +37,24 @@ public class SseUtil {
      */
     public static OutboundEvent buildEvent(Object eventObject) {
 
-        OutboundEvent.Builder eventBuilder = new OutboundEvent.Builder();
         StateBeanMessageBodyWriter writer = new StateBeanMessageBodyWriter();
         // OutboundEvent event = eventBuilder.mediaType(MediaType.APPLICATION_JSON_TYPE).data(eventObject).build();
+        return buildSerializedEvent(writer.serialize(eventObject));
+    }
+
+    /**
+     * Creates a new {@link OutboundEvent} object containing an already
+     * serialized state update message.
+     *
+     * @param data
+     *            - the message, as serialized by {@link StateBeanMessageBodyWriter}
+     * @return a new OutboundEvent.
+     */
+    public static OutboundEvent buildSerializedEvent(String data) {
+        OutboundEvent.Builder eventBuilder = new OutboundEvent.Builder();
         java.util.Date date = new java.util.Date();
-        OutboundEvent event = eventBuilder.mediaType(MediaType.APPLICATION_JSON_TYPE)
-                .data(writer.serialize(eventObject)).id(String.valueOf(date.getTime())).build();
+        OutboundEvent event = eventBuilder.mediaType(MediaType.APPLICATION_JSON_TYPE).data(data)
+                .id(String.valueOf(date.getTime())).build();
 
         return event;
     }